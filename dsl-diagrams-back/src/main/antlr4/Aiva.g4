@@ -3,7 +3,12 @@ grammar Aiva;
 // -------------------- Parser Rules --------------------
 
 script
-    : track+ EOF
+    : include_directive* track+ EOF
+    ;
+
+// module include (INCLUDE common/common.tpl), resolved by the module loader
+include_directive
+    : INCLUDE
     ;
 
 track
@@ -61,8 +66,14 @@ COLON: ':';
 ARROW: '->';
 DOT: '.';
 
+// INCLUDE directive with its module path as a single token, since paths contain '/' and '.'
+INCLUDE: 'INCLUDE' [ \t]+ ~[ \t\r\n]+ ;
+
 // IDENTIFIER: allow leading @ or $ (templates/vars) and hyphens inside names
 IDENTIFIER: [@\\$A-Za-z_][-@\\$A-Za-z0-9_]* ;
 
 // Whitespace
 WS: [ \t\r\n]+ -> skip ;
+
+// Line comments, which the shipped scripts use throughout
+LINE_COMMENT: '//' ~[\r\n]* -> skip ;
@@ -0,0 +1,61 @@
+package com.dsl.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * CBOR and Smile responses for clients that ask for them with {@code Accept}; JSON stays the default.
+ *
+ * Spring registers its own converters for both formats when the Jackson modules are on the classpath.
+ * They are replaced in place by {@link PrebuiltWriterConverter}s built from Boot's mapper settings,
+ * so dates and inclusion rules match the JSON output.
+ */
+@Configuration
+public class BinaryEncodingConfig implements WebMvcConfigurer {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    public BinaryEncodingConfig(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        this.builders = builders;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        PrebuiltWriterConverter cbor = new PrebuiltWriterConverter(
+                builder().factory(new CBORFactory()).build(), MediaType.APPLICATION_CBOR);
+        PrebuiltWriterConverter smile = new PrebuiltWriterConverter(
+                builder().factory(new SmileFactory()).build(), APPLICATION_SMILE);
+
+        boolean cborSeen = false, smileSeen = false;
+        for (int i = 0; i < converters.size(); i++) {
+            HttpMessageConverter<?> converter = converters.get(i);
+            if (converter instanceof MappingJackson2CborHttpMessageConverter) {
+                converters.set(i, cbor);
+                cborSeen = true;
+            } else if (converter instanceof MappingJackson2SmileHttpMessageConverter) {
+                converters.set(i, smile);
+                smileSeen = true;
+            }
+        }
+        if (!cborSeen) converters.add(cbor);
+        if (!smileSeen) converters.add(smile);
+    }
+
+    // Boot's builder is a prototype bean carrying spring.jackson.* settings and registered modules
+    private Jackson2ObjectMapperBuilder builder() {
+        return builders.getIfAvailable(Jackson2ObjectMapperBuilder::new);
+    }
+}
@@ -0,0 +1,71 @@
+package com.dsl.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Where and when the service department works: the time zone customers' time expressions are
+ * resolved in, and the hourly appointment slots it offers.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "dealership")
+public class DealershipConfiguration {
+
+    private ZoneId timeZone = ZoneId.systemDefault();
+    private int openingHour = 8; // first slot
+    private int closingHour = 17; // the last slot ends here
+    private List<DayOfWeek> closedDays = List.of(DayOfWeek.SUNDAY);
+    private int serviceBays = 2; // appointments taken per slot
+
+    /**
+     * The current time at the dealership.
+     */
+    public LocalDateTime now() {
+        return LocalDateTime.now(timeZone);
+    }
+
+    public ZoneId getTimeZone() {
+        return timeZone;
+    }
+
+    public void setTimeZone(ZoneId timeZone) {
+        this.timeZone = timeZone;
+    }
+
+    public int getOpeningHour() {
+        return openingHour;
+    }
+
+    public void setOpeningHour(int openingHour) {
+        this.openingHour = openingHour;
+    }
+
+    public int getClosingHour() {
+        return closingHour;
+    }
+
+    public void setClosingHour(int closingHour) {
+        this.closingHour = closingHour;
+    }
+
+    public List<DayOfWeek> getClosedDays() {
+        return closedDays;
+    }
+
+    public void setClosedDays(List<DayOfWeek> closedDays) {
+        this.closedDays = closedDays;
+    }
+
+    public int getServiceBays() {
+        return serviceBays;
+    }
+
+    public void setServiceBays(int serviceBays) {
+        this.serviceBays = serviceBays;
+    }
+}
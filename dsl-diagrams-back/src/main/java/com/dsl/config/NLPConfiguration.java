@@ -1,19 +1,42 @@
 package com.dsl.config;
 
+import com.dsl.nlp.ResultCache;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 @ConfigurationProperties(prefix = "nlp")
 public class NLPConfiguration {
     
+    /**
+     * How the hybrid service combines the rule-based and Stanford analyses.
+     */
+    public enum HybridMode {
+        SEQUENTIAL, // rules, then Stanford, for every message
+        CONCURRENT  // the same answers; Stanford is skipped where the rules decide them
+    }
+    
+    /**
+     * What overrides the rules' intent when they are not confident about an automotive one.
+     */
+    public enum IntentEngine {
+        STANFORD,  // Stanford's generic sentence types, mapped to ours
+        CLASSIFIER // the trained n-gram classifier (see IntentTrainingJob)
+    }
+    
     private boolean useStanford = false;
     private double confidenceThreshold = 0.6;
     private boolean cacheEnabled = true;
     private int cacheSize = 1000;
+    private Duration cacheTtl; // null: entries never expire
     private boolean asyncProcessing = false;
+    private HybridMode hybridMode = HybridMode.SEQUENTIAL;
+    private IntentEngine intentEngine = IntentEngine.STANFORD;
     
     private Stanford stanford = new Stanford();
+    private Classifier classifier = new Classifier();
     
     // Getters and setters
     public boolean isUseStanford() {
@@ -48,6 +71,21 @@ public class NLPConfiguration {
         this.cacheSize = cacheSize;
     }
     
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
+    
+    public void setCacheTtl(Duration cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+    
+    /**
+     * A result cache as configured by cache-enabled, cache-size and cache-ttl.
+     */
+    public <K, V> ResultCache<K, V> newResultCache() {
+        return new ResultCache<>(cacheEnabled ? cacheSize : 0, cacheTtl);
+    }
+    
     public boolean isAsyncProcessing() {
         return asyncProcessing;
     }
@@ -56,6 +94,22 @@ public class NLPConfiguration {
         this.asyncProcessing = asyncProcessing;
     }
     
+    public HybridMode getHybridMode() {
+        return hybridMode;
+    }
+    
+    public void setHybridMode(HybridMode hybridMode) {
+        this.hybridMode = hybridMode;
+    }
+    
+    public IntentEngine getIntentEngine() {
+        return intentEngine;
+    }
+    
+    public void setIntentEngine(IntentEngine intentEngine) {
+        this.intentEngine = intentEngine;
+    }
+    
     public Stanford getStanford() {
         return stanford;
     }
@@ -64,9 +118,21 @@ public class NLPConfiguration {
         this.stanford = stanford;
     }
     
+    public Classifier getClassifier() {
+        return classifier;
+    }
+    
+    public void setClassifier(Classifier classifier) {
+        this.classifier = classifier;
+    }
+    
     public static class Stanford {
         private String annotators = "tokenize,ssplit,pos,lemma,ner,parse,sentiment";
-        private int timeout = 30000;
+        private String fastAnnotators = "tokenize,ssplit,pos,lemma,ner"; // no parse or sentiment
+        private int timeout = 30000; // per analysis, queued and running, in milliseconds
+        private int threads = 0; // annotation workers; 0: one per available processor
+        private int queueCapacity = 32; // analyses waiting for a worker before new ones are rejected
+        private int warmUpRounds = 2; // passes over the warm-up messages before serving traffic
         private String memory = "2g";
         
         // Getters and setters
@@ -78,6 +144,14 @@ public class NLPConfiguration {
             this.annotators = annotators;
         }
         
+        public String getFastAnnotators() {
+            return fastAnnotators;
+        }
+        
+        public void setFastAnnotators(String fastAnnotators) {
+            this.fastAnnotators = fastAnnotators;
+        }
+        
         public int getTimeout() {
             return timeout;
         }
@@ -86,6 +160,30 @@ public class NLPConfiguration {
             this.timeout = timeout;
         }
         
+        public int getThreads() {
+            return threads;
+        }
+        
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+        
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+        
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+        
+        public int getWarmUpRounds() {
+            return warmUpRounds;
+        }
+        
+        public void setWarmUpRounds(int warmUpRounds) {
+            this.warmUpRounds = warmUpRounds;
+        }
+        
         public String getMemory() {
             return memory;
         }
@@ -94,4 +192,89 @@ public class NLPConfiguration {
             this.memory = memory;
         }
     }
+    
+    public static class Classifier {
+        private String model = "models/intent-classifier.bin.gz";
+        private double minConfidence = 0.5; // below this the rules' intent is kept
+        private int epochs = 20; // training passes over the labeled messages
+        private double holdout = 0.1; // share of the labeled messages kept for evaluation
+        private Duration learnInterval = Duration.ofMinutes(1); // between rounds of learning from feedback
+        private int learnBatchSize = 256; // corrections per round
+        private int learnEpochs = 3; // passes over a round's corrections
+        private double learnRate = 0.1;
+        private double maxAccuracyDrop = 0.02; // worse on the holdout set than this, an update is not published
+        
+        // Getters and setters
+        public String getModel() {
+            return model;
+        }
+        
+        public void setModel(String model) {
+            this.model = model;
+        }
+        
+        public double getMinConfidence() {
+            return minConfidence;
+        }
+        
+        public void setMinConfidence(double minConfidence) {
+            this.minConfidence = minConfidence;
+        }
+        
+        public int getEpochs() {
+            return epochs;
+        }
+        
+        public void setEpochs(int epochs) {
+            this.epochs = epochs;
+        }
+        
+        public double getHoldout() {
+            return holdout;
+        }
+        
+        public void setHoldout(double holdout) {
+            this.holdout = holdout;
+        }
+        
+        public Duration getLearnInterval() {
+            return learnInterval;
+        }
+        
+        public void setLearnInterval(Duration learnInterval) {
+            this.learnInterval = learnInterval;
+        }
+        
+        public int getLearnBatchSize() {
+            return learnBatchSize;
+        }
+        
+        public void setLearnBatchSize(int learnBatchSize) {
+            this.learnBatchSize = learnBatchSize;
+        }
+        
+        public int getLearnEpochs() {
+            return learnEpochs;
+        }
+        
+        public void setLearnEpochs(int learnEpochs) {
+            this.learnEpochs = learnEpochs;
+        }
+        
+        public double getLearnRate() {
+            return learnRate;
+        }
+        
+        public void setLearnRate(double learnRate) {
+            this.learnRate = learnRate;
+        }
+        
+        public double getMaxAccuracyDrop() {
+            return maxAccuracyDrop;
+        }
+        
+        public void setMaxAccuracyDrop(double maxAccuracyDrop) {
+            this.maxAccuracyDrop = maxAccuracyDrop;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.dsl.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Jackson converter for a binary format (CBOR, Smile) that resolves an {@link ObjectWriter} /
+ * {@link ObjectReader} once per declared type and reuses it, instead of deriving one from the mapper
+ * on every request like Spring's {@code MappingJackson2CborHttpMessageConverter} does.
+ *
+ * Generic declared types ({@code List<TrackNode>}) are kept so element serializers are resolved up front;
+ * for plain classes and wildcards ({@code ResponseEntity<?>}) the runtime class of the body is used.
+ */
+public class PrebuiltWriterConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final ObjectMapper mapper;
+    private final Map<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public PrebuiltWriterConverter(ObjectMapper mapper, MediaType mediaType) {
+        super(mediaType);
+        this.mapper = mapper;
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return mapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return true;
+    }
+
+    ObjectWriter writer(Type type) {
+        return writers.computeIfAbsent(type, t -> mapper.writerFor(javaType(t)));
+    }
+
+    ObjectReader reader(Type type) {
+        return readers.computeIfAbsent(type, t -> mapper.readerFor(javaType(t)));
+    }
+
+    private JavaType javaType(Type type) {
+        return mapper.getTypeFactory().constructType(type);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage output) throws IOException {
+        Type target = type instanceof ParameterizedType ? type : body.getClass();
+        // the servlet stream belongs to the container
+        writer(target).writeValue(StreamUtils.nonClosing(output.getBody()), body);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage input) throws IOException {
+        return reader(type).readValue(input.getBody());
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage input) throws IOException {
+        return reader(clazz).readValue(input.getBody());
+    }
+}
@@ -6,9 +6,8 @@ import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -21,7 +20,7 @@ public class AdvancedChatController {
     private final DatabaseChatService chatService;
 
     @PostMapping("/message")
-    public ResponseEntity<Map<String, Object>> processMessage(@RequestBody ChatRequest request) {
+    public ResponseEntity<?> processMessage(@RequestBody ChatRequest request) {
         try {
             // Add a 3-second delay to simulate human-like response time
             Thread.sleep(3000);
@@ -40,98 +39,91 @@ public class AdvancedChatController {
             // Get the NLP result for additional response data
             NLPResult nlpResult = enhancedNLPService.processMessage(request.getMessage(), context);
 
-            // Prepare enhanced response
-            Map<String, Object> responseMap = new HashMap<>();
-            responseMap.put("message", response.getMessage());
-            responseMap.put("sessionId", sessionId);
-            responseMap.put("intent", nlpResult.getIntent());
-            responseMap.put("confidence", nlpResult.getConfidence());
-            responseMap.put("sentiment", nlpResult.getSentiment());
-            responseMap.put("entities", nlpResult.getEntities());
-            responseMap.put("quickReplies", response.getQuickReplies());
-            responseMap.put("requiresHumanHandoff", nlpResult.isRequiresHumanHandoff());
-            responseMap.put("context", response.getContext());
-            responseMap.put("timestamp", LocalDateTime.now());
-
-            // Add debug information if requested
-            if (request.isDebugMode()) {
-                responseMap.put("debug", createDebugInfo(nlpResult, request.getMessage()));
-            }
-
-            return ResponseEntity.ok(responseMap);
+            // Debug information only if requested
+            ChatDebugInfo debug = request.isDebugMode() ? ChatDebugInfo.of(nlpResult, request.getMessage()) : null;
+
+            return ResponseEntity.ok(new ChatReply(
+                    response.getMessage(),
+                    sessionId,
+                    nlpResult.getIntent(),
+                    nlpResult.getConfidence(),
+                    nlpResult.getSentiment(),
+                    nlpResult.getEntities(),
+                    response.getQuickReplies(),
+                    nlpResult.isRequiresHumanHandoff(),
+                    response.getContext(),
+                    LocalDateTime.now(),
+                    debug));
 
         } catch (Exception e) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Failed to process message");
-            errorResponse.put("message", "I'm sorry, I encountered an error. Please try again or contact support.");
-            errorResponse.put("timestamp", LocalDateTime.now());
-            return ResponseEntity.status(500).body(errorResponse);
+            return ResponseEntity.status(500).body(new ChatError(
+                    "Failed to process message",
+                    "I'm sorry, I encountered an error. Please try again or contact support.",
+                    LocalDateTime.now()));
         }
     }
 
     @GetMapping("/history/{sessionId}")
-    public ResponseEntity<Map<String, Object>> getChatHistory(@PathVariable String sessionId) {
+    public ResponseEntity<?> getChatHistory(@PathVariable String sessionId) {
         try {
             var history = chatService.getChatHistory(sessionId);
-            Map<String, Object> response = new HashMap<>();
-            response.put("sessionId", sessionId);
-            response.put("messages", history);
-            response.put("messageCount", history.size());
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(new ChatHistoryResponse(sessionId, history, history.size()));
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of("error", "Failed to retrieve chat history"));
+            return ResponseEntity.status(500).body(ChatError.of("Failed to retrieve chat history"));
         }
     }
 
     @PostMapping("/analyze")
-    public ResponseEntity<Map<String, Object>> analyzeMessage(@RequestBody AnalyzeRequest request) {
+    public ResponseEntity<?> analyzeMessage(@RequestBody AnalyzeRequest request) {
         try {
             NLPResult result = enhancedNLPService.processMessage(request.getMessage(), request.getContext());
-
-            Map<String, Object> analysis = new HashMap<>();
-            analysis.put("intent", result.getIntent());
-            analysis.put("confidence", result.getConfidence());
-            analysis.put("sentiment", result.getSentiment());
-            analysis.put("entities", result.getEntities());
-            analysis.put("intentConfidences", result.getIntentConfidences());
-            analysis.put("requiresHumanHandoff", result.isRequiresHumanHandoff());
-            analysis.put("suggestedResponse", result.getSuggestedResponse());
-
-            return ResponseEntity.ok(analysis);
+            return ResponseEntity.ok(MessageAnalysis.of(result));
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of("error", "Failed to analyze message"));
+            return ResponseEntity.status(500).body(ChatError.of("Failed to analyze message"));
         }
     }
 
     @PostMapping("/feedback")
-    public ResponseEntity<Map<String, Object>> submitFeedback(@RequestBody FeedbackRequest request) {
-        // This would typically save feedback to improve the NLP model
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "received");
-        response.put("message", "Thank you for your feedback!");
-        return ResponseEntity.ok(response);
+    public ResponseEntity<FeedbackAck> submitFeedback(@RequestBody FeedbackRequest request) {
+        try {
+            // Corrected intents are learned by the intent classifier in the background
+            chatService.saveFeedback(request);
+            return ResponseEntity.ok(new FeedbackAck("received", "Thank you for your feedback!"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new FeedbackAck("rejected", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(new FeedbackAck("failed", "Failed to save feedback"));
+        }
+    }
+
+    /**
+     * Time per NLP stage (preprocessing, intent scoring, each Stanford annotator, merge, ...) by final
+     * intent and processing method, as Prometheus histograms to scrape.
+     */
+    @GetMapping(value = "/metrics", produces = "text/plain; version=0.0.4; charset=utf-8")
+    public ResponseEntity<String> getStageMetrics() throws IOException {
+        StringBuilder metrics = new StringBuilder();
+        enhancedNLPService.writeStageMetrics(metrics);
+        return ResponseEntity.ok(metrics.toString());
+    }
+
+    /**
+     * Readiness of the Stanford path: 200 once its models are loaded and warmed up, 503 before
+     * (the rules answer meanwhile), with the load progress either way.
+     */
+    @GetMapping("/status/stanford")
+    public ResponseEntity<StanfordNLPService.LoadStatus> getStanfordStatus() {
+        StanfordNLPService.LoadStatus status = enhancedNLPService.getStanfordLoadStatus();
+        return ResponseEntity.status(status.state() == StanfordNLPService.LoadState.READY ? 200 : 503).body(status);
     }
 
     @GetMapping("/status")
-    public ResponseEntity<Map<String, Object>> getSystemStatus() {
+    public ResponseEntity<?> getSystemStatus() {
         try {
-            Map<String, Object> status = enhancedNLPService.getSystemStatus();
-            status.put("timestamp", LocalDateTime.now());
-            status.put("version", "2.0");
-            return ResponseEntity.ok(status);
+            return ResponseEntity.ok(new ChatSystemStatus(
+                    enhancedNLPService.getSystemStatus(), LocalDateTime.now(), "2.0"));
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of("error", "Failed to get system status"));
+            return ResponseEntity.status(500).body(ChatError.of("Failed to get system status"));
         }
     }
-
-    private Map<String, Object> createDebugInfo(NLPResult nlpResult, String originalMessage) {
-        Map<String, Object> debug = new HashMap<>();
-        debug.put("originalMessage", originalMessage);
-        debug.put("intentConfidences", nlpResult.getIntentConfidences());
-        debug.put("extractedEntities", nlpResult.getEntities());
-        debug.put("sentiment", nlpResult.getSentiment());
-        debug.put("confidence", nlpResult.getConfidence());
-        debug.put("suggestedResponse", nlpResult.getSuggestedResponse());
-        return debug;
-    }
 }
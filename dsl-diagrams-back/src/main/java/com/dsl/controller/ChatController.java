@@ -1,13 +1,19 @@
 package com.dsl.controller;
 
 import com.dsl.service.EnhancedNLPService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/chat")
@@ -23,6 +29,9 @@ public class ChatController {
     @Autowired(required = false)
     private EnhancedNLPService enhancedNLPService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/send")
     public ResponseEntity<ChatMessageResponse> sendMessage(@RequestBody ChatMessageRequest request) {
         try {
@@ -90,6 +99,30 @@ public class ChatController {
         }
     }
     
+    /**
+     * Analyzes many messages for offline jobs, one JSON analysis per line in the order given.
+     */
+    @PostMapping(value = "/analyze/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> analyzeBatch(@RequestBody BatchAnalyzeRequest request) {
+        List<String> messages = request.getMessages() != null ? request.getMessages() : List.of();
+        StreamingResponseBody body = out -> {
+            Consumer<NLPResult> writer = result -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(MessageAnalysis.of(result)));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            if (enhancedNLPService != null) {
+                enhancedNLPService.processBatch(messages, writer);
+            } else {
+                for (String message : messages) writer.accept(nlpService.processMessage(message, new UserContext()));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
     @GetMapping("/nlp-status")
     public ResponseEntity<Map<String, Object>> getNLPStatus() {
         Map<String, Object> status = new HashMap<>();
@@ -168,6 +201,17 @@ class AnalyzeMessageRequest {
     public void setContext(UserContext context) { this.context = context; }
 }
 
+// DTO for batch analysis
+class BatchAnalyzeRequest {
+    private List<String> messages;
+    
+    public BatchAnalyzeRequest() {}
+    
+    // Getters and setters
+    public List<String> getMessages() { return messages; }
+    public void setMessages(List<String> messages) { this.messages = messages; }
+}
+
 // Chat message entity for history
 class ChatMessage {
     private Long id;
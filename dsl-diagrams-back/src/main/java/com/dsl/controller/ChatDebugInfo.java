@@ -0,0 +1,17 @@
+package com.dsl.controller;
+
+import java.util.Map;
+
+public record ChatDebugInfo(
+        String originalMessage,
+        Map<String, Double> intentConfidences,
+        Map<String, String> extractedEntities,
+        String sentiment,
+        double confidence,
+        String suggestedResponse
+) {
+    public static ChatDebugInfo of(NLPResult result, String originalMessage) {
+        return new ChatDebugInfo(originalMessage, result.getIntentConfidences(), result.getEntities(),
+                result.getSentiment(), result.getConfidence(), result.getSuggestedResponse());
+    }
+}
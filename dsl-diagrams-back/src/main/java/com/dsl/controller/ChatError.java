@@ -0,0 +1,16 @@
+package com.dsl.controller;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChatError(
+        String error,
+        String message,
+        LocalDateTime timestamp
+) {
+    public static ChatError of(String error) {
+        return new ChatError(error, null, null);
+    }
+}
@@ -0,0 +1,11 @@
+package com.dsl.controller;
+
+import com.dsl.entity.ChatMessage;
+
+import java.util.List;
+
+public record ChatHistoryResponse(
+        String sessionId,
+        List<ChatMessage> messages,
+        int messageCount
+) { }
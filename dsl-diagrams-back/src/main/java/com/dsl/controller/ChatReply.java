@@ -0,0 +1,21 @@
+package com.dsl.controller;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public record ChatReply(
+        String message,
+        String sessionId,
+        String intent,
+        double confidence,
+        String sentiment,
+        Map<String, String> entities,
+        List<QuickReply> quickReplies,
+        boolean requiresHumanHandoff,
+        UserContext context,
+        LocalDateTime timestamp,
+        @JsonInclude(JsonInclude.Include.NON_NULL) ChatDebugInfo debug
+) { }
@@ -0,0 +1,21 @@
+package com.dsl.controller;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * NLP status fields (see EnhancedNLPService#getSystemStatus) flattened next to timestamp and version.
+ */
+public record ChatSystemStatus(
+        @JsonIgnore Map<String, Object> nlp,
+        LocalDateTime timestamp,
+        String version
+) {
+    @JsonAnyGetter
+    public Map<String, Object> nlpStatus() {
+        return nlp;
+    }
+}
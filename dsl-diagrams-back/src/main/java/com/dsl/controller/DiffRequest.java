@@ -0,0 +1,6 @@
+package com.dsl.controller;
+
+public record DiffRequest(
+        String before,
+        String after
+) { }
@@ -0,0 +1,6 @@
+package com.dsl.controller;
+
+public record FeedbackAck(
+        String status,
+        String message
+) { }
@@ -10,6 +10,9 @@ import lombok.NoArgsConstructor;
 public class FeedbackRequest {
     private String sessionId;
     private String messageId;
+    private String message; // the message the feedback is about, when messageId is not known
+    private String intent; // the intent it was answered with
+    private String correctedIntent; // the intent it should have had, if the customer says so
     private String feedback; // "helpful", "not_helpful", "incorrect"
     private String comment;
     private int rating; // 1-5 scale
@@ -0,0 +1,31 @@
+package com.dsl.controller;
+
+import com.dsl.runtime.HeatMap;
+import com.dsl.runtime.TransitionCounters;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Windowed state entry and jump counts for rendering a heat map over the diagram.
+ */
+@RestController
+@RequestMapping("/api/heatmap")
+@CrossOrigin(origins = "http://localhost:5173")
+public class HeatMapController {
+
+    private final TransitionCounters counters;
+
+    public HeatMapController(TransitionCounters counters) {
+        this.counters = counters;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<HeatMap>> getHeatMap(@RequestParam(required = false) String module,
+                                                    @RequestParam(required = false) Integer windows) {
+        if (module != null && counters.module(module) == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(counters.heat(module, windows != null ? windows : counters.windows()));
+    }
+}
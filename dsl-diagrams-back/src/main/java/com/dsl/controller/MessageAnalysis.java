@@ -0,0 +1,19 @@
+package com.dsl.controller;
+
+import java.util.Map;
+
+public record MessageAnalysis(
+        String intent,
+        double confidence,
+        String sentiment,
+        Map<String, String> entities,
+        Map<String, Double> intentConfidences,
+        boolean requiresHumanHandoff,
+        String suggestedResponse
+) {
+    public static MessageAnalysis of(NLPResult result) {
+        return new MessageAnalysis(result.getIntent(), result.getConfidence(), result.getSentiment(),
+                result.getEntities(), result.getIntentConfidences(), result.isRequiresHumanHandoff(),
+                result.getSuggestedResponse());
+    }
+}
@@ -1,5 +1,7 @@
 package com.dsl.controller;
 
+import com.dsl.nlp.TimeExpressionParser;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,4 +21,6 @@ public class NLPResult {
     private String suggestedResponse;
     private String processingMethod; // "rule-based", "hybrid", "rule-based-fallback"
     private String customerName;
+    @JsonIgnore
+    private TimeExpressionParser.Expression timeExpression; // resolved against the dealership's clock when used
 }
\ No newline at end of file
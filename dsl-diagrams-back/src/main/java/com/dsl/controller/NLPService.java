@@ -1,9 +1,22 @@
 package com.dsl.controller;
 
+import com.dsl.config.NLPConfiguration;
+import com.dsl.nlp.EntityExtractor;
+import com.dsl.nlp.KeywordAutomaton;
+import com.dsl.nlp.ResultCache;
+import com.dsl.nlp.SpellingCorrector;
+import com.dsl.nlp.SpellingIndex;
+import com.dsl.nlp.StageMetrics;
+import com.dsl.nlp.TimeExpressionParser;
+import com.dsl.nlp.VehicleGazetteer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -11,10 +24,10 @@ import java.util.stream.Collectors;
 public class NLPService {
 
     // Intent patterns with weighted keywords
-    private final Map<String, Map<String, Double>> intentKeywords = new HashMap<>();
+    final Map<String, Map<String, Double>> intentKeywords = new HashMap<>();
 
-    // Entity extraction patterns
-    private final Map<String, Pattern> entityPatterns = new HashMap<>();
+    // Whole-word entity phrases by type, in match priority order
+    final Map<String, List<String>> entityGazetteers = new LinkedHashMap<>();
 
     // Sentiment analysis patterns
     private final Map<String, List<String>> sentimentPatterns = new HashMap<>();
@@ -26,15 +39,74 @@ public class NLPService {
     private final Map<String, List<String>> conversationFlows = new HashMap<>();
 
     // Spell correction dictionary
-    private final Map<String, String> commonMisspellings = new HashMap<>();
+    final Map<String, String> commonMisspellings = new HashMap<>();
+
+    // Service types recognized as entities
+    private static final List<String> SERVICE_TYPES = List.of(
+            "oil change", "tire rotation", "brake inspection", "brake check", "brake repair", "maintenance",
+            "tune up", "alignment", "transmission", "engine", "battery", "alternator", "starter", "radiator",
+            "coolant", "air filter", "cabin filter", "spark plugs", "timing belt", "serpentine belt", "exhaust",
+            "muffler", "catalytic converter", "suspension", "shocks", "struts", "cv joint", "differential",
+            "power steering", "air conditioning", "ac repair", "heating", "diagnostic", "inspection",
+            "smog check", "emissions test", "tire repair", "tire replacement", "oil service", "fluid check");
+
+    // The intent of a time expression, and what each of its terms scores for it: about the weight
+    // the time words had as keywords
+    private static final String TIME_EXPRESSION_INTENT = "time_expression";
+    private static final double TIME_TERM_WEIGHT = 1.7;
+
+    // A name in the awaiting_name state: after a cue, or as the whole message
+    private static final Pattern NAME_AFTER_CUE = Pattern.compile("(?:my name is|i'm|i am|call me)\\s+([A-Z][a-z]+)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern NAME_ONLY = Pattern.compile("^[A-Z][a-z]+(?:\\s+[A-Z][a-z]+)?$");
+
+    // Words that put a message in the awaiting_vehicle state about the vehicle, besides its year or make
+    private static final KeywordAutomaton VEHICLE_WORDS = new KeywordAutomaton(List.of("car", "vehicle", "drive", "have"));
+
+    // Vehicle makes and models, shared with StanfordNLPService
+    private final VehicleGazetteer vehicles = VehicleGazetteer.standard();
+
+    // Gazetteer, cue phrase and structured entity extraction in one scan, built once
+    private EntityExtractor entityExtractor;
+
+    // Spelling correction over the domain vocabulary plus everyday English, built once
+    private SpellingCorrector spellingCorrector;
+
+    // Keyword automata compiled from intentKeywords: keyword i scores weights[i][j] for intent intentIds[i][j]
+    private String[] intentNames;
+    private int timeIntent;
+    private KeywordAutomaton keywordAutomaton;
+    private int[][] keywordIntentIds;
+    private double[][] keywordWeights;
+    // keyword parts longer than 3 chars, each counted once per keyword it occurs in
+    private KeywordAutomaton partAutomaton;
+    private int[][] partIntentIds;
+    private int[][] partCounts;
+
+    // Message analysis by preprocessed message and the conversation state features it depends on
+    private record AnalysisKey(String message, String state) { }
+
+    private record Analysis(String intent, Map<String, Double> intentConfidences, Map<String, String> entities,
+                            String sentiment, double confidence, TimeExpressionParser.Expression time) { }
+
+    private final ResultCache<AnalysisKey, Analysis> analyses;
 
     public NLPService() {
+        this(new NLPConfiguration());
+    }
+
+    @Autowired
+    public NLPService(NLPConfiguration configuration) {
+        analyses = configuration.newResultCache();
         initializeIntentKeywords();
-        initializeEntityPatterns();
+        buildKeywordAutomata();
+        initializeEntityGazetteers();
         initializeSentimentPatterns();
         initializeResponseTemplates();
         initializeConversationFlows();
         initializeSpellCorrection();
+        buildSpellingCorrector();
+        entityExtractor = new EntityExtractor(entityGazetteers, vehicles);
     }
 
     private void initializeIntentKeywords() {
@@ -213,28 +285,7 @@ public class NLPService {
         oilChoiceWeights.put("emergency delivery", 1.8);
         intentKeywords.put("oil_service_choice", oilChoiceWeights);
         
-        // Time expressions for scheduling
-        Map<String, Double> timeWeights = new HashMap<>();
-        timeWeights.put("tomorrow morning", 2.0);
-        timeWeights.put("tomorrow afternoon", 2.0);
-        timeWeights.put("tomorrow evening", 2.0);
-        timeWeights.put("next week", 1.9);
-        timeWeights.put("monday", 1.8);
-        timeWeights.put("tuesday", 1.8);
-        timeWeights.put("wednesday", 1.8);
-        timeWeights.put("thursday", 1.8);
-        timeWeights.put("friday", 1.8);
-        timeWeights.put("saturday", 1.8);
-        timeWeights.put("sunday", 1.8);
-        timeWeights.put("morning", 1.6);
-        timeWeights.put("afternoon", 1.6);
-        timeWeights.put("evening", 1.6);
-        timeWeights.put("today", 1.7);
-        timeWeights.put("tomorrow", 1.8);
-        timeWeights.put("this week", 1.7);
-        timeWeights.put("am", 1.5);
-        timeWeights.put("pm", 1.5);
-        intentKeywords.put("time_expression", timeWeights);
+        // Time expressions for scheduling are scored from TimeExpressionParser, see classifyIntentWithConfidence
 
         // Complaint/Issue
         Map<String, Double> complaintWeights = new HashMap<>();
@@ -248,72 +299,73 @@ public class NLPService {
         intentKeywords.put("complaint", complaintWeights);
     }
 
-    private void initializeEntityPatterns() {
-        // Enhanced person names pattern
-        entityPatterns.put("person_name", Pattern.compile(
-                "(?:my name is|i'm|i am|call me|this is|name's)\\s+([A-Z][a-z]+(?:\\s+[A-Z][a-z]+)?)",
-                Pattern.CASE_INSENSITIVE));
+    private void buildKeywordAutomata() {
+        List<String> names = new ArrayList<>(intentKeywords.keySet());
+        timeIntent = names.size();
+        names.add(TIME_EXPRESSION_INTENT);
+        intentNames = names.toArray(new String[0]);
+        Map<String, Map<Integer, Double>> weightsByKeyword = new LinkedHashMap<>();
+        Map<String, Map<Integer, Integer>> countsByPart = new LinkedHashMap<>();
+        for (int intent = 0; intent < timeIntent; intent++) {
+            for (Map.Entry<String, Double> keyword : intentKeywords.get(intentNames[intent]).entrySet()) {
+                weightsByKeyword.computeIfAbsent(keyword.getKey(), k -> new LinkedHashMap<>())
+                        .put(intent, keyword.getValue());
+                for (String part : keyword.getKey().split("\\s+")) {
+                    if (part.length() > 3) {
+                        countsByPart.computeIfAbsent(part, k -> new LinkedHashMap<>()).merge(intent, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+
+        keywordAutomaton = new KeywordAutomaton(new ArrayList<>(weightsByKeyword.keySet()));
+        keywordIntentIds = new int[weightsByKeyword.size()][];
+        keywordWeights = new double[weightsByKeyword.size()][];
+        int k = 0;
+        for (Map<Integer, Double> weights : weightsByKeyword.values()) {
+            keywordIntentIds[k] = weights.keySet().stream().mapToInt(Integer::intValue).toArray();
+            keywordWeights[k++] = weights.values().stream().mapToDouble(Double::doubleValue).toArray();
+        }
 
-        // Vehicle year with broader range
-        entityPatterns.put("vehicle_year", Pattern.compile("\\b(19[5-9]\\d|20[0-4]\\d)\\b"));
+        partAutomaton = new KeywordAutomaton(new ArrayList<>(countsByPart.keySet()));
+        partIntentIds = new int[countsByPart.size()][];
+        partCounts = new int[countsByPart.size()][];
+        int p = 0;
+        for (Map<Integer, Integer> counts : countsByPart.values()) {
+            partIntentIds[p] = counts.keySet().stream().mapToInt(Integer::intValue).toArray();
+            partCounts[p++] = counts.values().stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
 
-        // Expanded car makes
-        entityPatterns.put("vehicle_make", Pattern.compile(
-                "(?:my car is|i drive a|i have a|my vehicle is|car is|drive a|own a|got a)\\s+([A-Z][a-zA-Z0-9- ]+)",
-                Pattern.CASE_INSENSITIVE));
+    private void initializeEntityGazetteers() {
+        // Person names, vehicle makes, locations, years, phone numbers, emails, mileage and prices
+        // are recognized by EntityExtractor itself
 
         // Enhanced service types
-        entityPatterns.put("service_type", Pattern.compile(
-                "\\b(oil change|tire rotation|brake inspection|brake check|brake repair|maintenance|tune up|alignment|transmission|engine|battery|alternator|starter|radiator|coolant|air filter|cabin filter|spark plugs|timing belt|serpentine belt|exhaust|muffler|catalytic converter|suspension|shocks|struts|cv joint|differential|power steering|air conditioning|ac repair|heating|diagnostic|inspection|smog check|emissions test|tire repair|tire replacement|oil service|fluid check)\\b",
-                Pattern.CASE_INSENSITIVE));
+        entityGazetteers.put("service_type", SERVICE_TYPES);
 
         // Tire-specific issues
-        entityPatterns.put("tire_issue", Pattern.compile(
-                "\\b(flat|puncture|punctured|nail|screw|debris|air leak|pressure|spare|replacement|repair|fix)\\b",
-                Pattern.CASE_INSENSITIVE));
+        entityGazetteers.put("tire_issue", List.of(
+                "flat", "puncture", "punctured", "nail", "screw", "debris", "air leak", "pressure", "spare",
+                "replacement", "repair", "fix"));
 
         // Oil-specific issues
-        entityPatterns.put("oil_issue", Pattern.compile(
-                "\\b(oil light|low oil|out of oil|empty|refill|top up|delivery|change|engine oil|motor oil|synthetic|conventional)\\b",
-                Pattern.CASE_INSENSITIVE));
+        entityGazetteers.put("oil_issue", List.of(
+                "oil light", "low oil", "out of oil", "empty", "refill", "top up", "delivery", "change",
+                "engine oil", "motor oil", "synthetic", "conventional"));
 
         // Automotive problems
-        entityPatterns.put("car_problem", Pattern.compile(
-                "\\b(won't start|can't move|stuck|broke down|overheating|smoking|leaking|grinding|squealing|rattling|knocking|stalling|dead battery|flat tire|oil light)\\b",
-                Pattern.CASE_INSENSITIVE));
+        entityGazetteers.put("car_problem", List.of(
+                "won't start", "can't move", "stuck", "broke down", "overheating", "smoking", "leaking",
+                "grinding", "squealing", "rattling", "knocking", "stalling", "dead battery", "flat tire",
+                "oil light"));
 
-        // Enhanced time expressions
-        entityPatterns.put("time_expression", Pattern.compile(
-                "\\b(tomorrow|today|yesterday|next week|this week|next month|morning|afternoon|evening|noon|midnight|\\d{1,2}:\\d{2}\\s*(?:am|pm)?|\\d{1,2}\\s*(?:am|pm)|monday|tuesday|wednesday|thursday|friday|saturday|sunday|weekday|weekend)\\b",
-                Pattern.CASE_INSENSITIVE));
-
-        // Phone numbers
-        entityPatterns.put("phone_number", Pattern.compile(
-                "\\b(?:\\+?1[-.]?)?\\(?([0-9]{3})\\)?[-.]?([0-9]{3})[-.]?([0-9]{4})\\b"));
-
-        // Location patterns
-        entityPatterns.put("location", Pattern.compile(
-                "(?:at|near|on|by)\\s+(?:the\\s+)?([A-Z][a-zA-Z\\s]+(?:Street|St|Avenue|Ave|Road|Rd|Boulevard|Blvd|Drive|Dr|Lane|Ln|Way|Plaza|Mall|Station|Center|Park))",
-                Pattern.CASE_INSENSITIVE));
+        // Time expressions come from TimeExpressionParser
 
         // Emergency symptoms
-        entityPatterns.put("car_symptom", Pattern.compile(
-                "\\b(clicking?|cranking?|grinding|squealing|smoking|overheating|leaking|rattling|knocking|stalling)\\b",
-                Pattern.CASE_INSENSITIVE));
-
-        // Email addresses
-        entityPatterns.put("email", Pattern.compile(
-                "\\b[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Z|a-z]{2,}\\b"));
-
-        // Mileage
-        entityPatterns.put("mileage", Pattern.compile(
-                "\\b(\\d{1,3}(?:,\\d{3})*|\\d+)\\s*(?:miles?|mi|k|km)\\b",
-                Pattern.CASE_INSENSITIVE));
-
-        // Price/Cost
-        entityPatterns.put("price", Pattern.compile(
-                "\\$\\s*(\\d+(?:\\.\\d{2})?)|\\b(\\d+)\\s*(?:dollars?|bucks?)\\b",
-                Pattern.CASE_INSENSITIVE));
+        entityGazetteers.put("car_symptom", List.of(
+                "clicking", "clickin", "cranking", "crankin", "grinding", "squealing", "smoking",
+                "overheating", "leaking", "rattling", "knocking", "stalling"));
     }
 
     private void initializeSentimentPatterns() {
@@ -383,67 +435,146 @@ public class NLPService {
         commonMisspellings.put("tomorow", "tomorrow");
     }
 
-    public NLPResult processMessage(String message, UserContext context) {
-        // Preprocess message
-        String preprocessedMessage = preprocessMessage(message);
-        String cleanMessage = preprocessedMessage.toLowerCase().trim();
+    private void buildSpellingCorrector() {
+        // domain terms win ties against everyday words
+        Map<String, Integer> vocabulary = new HashMap<>();
+        for (String word : readWords("/nlp/common-words.txt")) vocabulary.put(word, 1);
+        List<String> domain = new ArrayList<>(SERVICE_TYPES);
+        intentKeywords.values().forEach(keywords -> domain.addAll(keywords.keySet()));
+        sentimentPatterns.values().forEach(domain::addAll);
+        domain.addAll(TimeExpressionParser.words());
+        domain.addAll(commonMisspellings.values());
+        domain.addAll(vehicles.words());
+        for (String term : domain) {
+            for (String word : term.toLowerCase().split("[^a-z0-9]+")) {
+                if (!word.isEmpty()) vocabulary.put(word, 10);
+            }
+        }
 
-        // Determine intent with confidence scores
-        Map<String, Double> intentConfidences = classifyIntentWithConfidence(cleanMessage, context);
-        String primaryIntent = getBestIntent(intentConfidences);
+        Map<String, String> replacements = new HashMap<>(commonMisspellings);
+        // Handle common abbreviations
+        replacements.put("u", "you");
+        replacements.put("ur", "your");
+        replacements.put("r", "are");
+        replacements.put("tmrw", "tomorrow");
+        spellingCorrector = new SpellingCorrector(new SpellingIndex(vocabulary, 2, 7), replacements);
+    }
 
-        // Extract entities
-        Map<String, String> entities = extractEntities(preprocessedMessage);
+    private static List<String> readWords(String resource) {
+        try (InputStream in = NLPService.class.getResourceAsStream(resource)) {
+            if (in == null) throw new IllegalStateException("Missing " + resource);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()
+                    .filter(line -> !line.startsWith("#"))
+                    .flatMap(line -> Arrays.stream(line.trim().split("\\s+")))
+                    .filter(word -> !word.isEmpty())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        // Analyze sentiment
-        String sentiment = analyzeSentiment(cleanMessage);
+    public NLPResult processMessage(String message, UserContext context) {
+        return processMessage(message, context, StageMetrics.Timings.NONE);
+    }
 
-        // Calculate overall confidence
-        double confidence = calculateAdvancedConfidence(primaryIntent, entities, cleanMessage, intentConfidences);
+    /**
+     * Analyzes {@code message}, adding the time of each stage to {@code timings}; the analysis stages
+     * only when the analysis was not cached.
+     */
+    public NLPResult processMessage(String message, UserContext context, StageMetrics.Timings timings) {
+        // Preprocess message
+        long start = System.nanoTime();
+        String preprocessedMessage = preprocessMessage(message);
+        timings.since(StageMetrics.PREPROCESSING, start);
+
+        // Intent, entities, sentiment and confidence; quick replies repeat, so these are cached
+        Analysis analysis = analyses.get(new AnalysisKey(preprocessedMessage, classificationState(context)),
+                key -> analyze(preprocessedMessage, context, timings));
 
         // Determine if human handoff is needed
-        boolean requiresHumanHandoff = shouldHandoffToHuman(primaryIntent, sentiment, confidence, context);
+        start = System.nanoTime();
+        boolean requiresHumanHandoff = shouldHandoffToHuman(analysis.intent(), analysis.sentiment(),
+                analysis.confidence(), context);
 
         // Generate suggested response
-        String suggestedResponse = generateSuggestedResponse(primaryIntent, entities, context, sentiment);
+        Map<String, String> entities = new HashMap<>(analysis.entities());
+        String suggestedResponse = generateSuggestedResponse(analysis.intent(), entities, context, analysis.sentiment());
+        timings.since(StageMetrics.RESPONSE_GENERATION, start);
 
         NLPResult result = new NLPResult();
-        result.setIntent(primaryIntent);
+        result.setIntent(analysis.intent());
         result.setEntities(entities);
-        result.setConfidence(confidence);
-        result.setSentiment(sentiment);
-        result.setIntentConfidences(intentConfidences);
+        result.setConfidence(analysis.confidence());
+        result.setSentiment(analysis.sentiment());
+        result.setIntentConfidences(new HashMap<>(analysis.intentConfidences()));
         result.setRequiresHumanHandoff(requiresHumanHandoff);
         result.setSuggestedResponse(suggestedResponse);
+        result.setTimeExpression(analysis.time());
 
         return result;
     }
 
-    private String preprocessMessage(String message) {
-        if (message == null || message.trim().isEmpty()) {
-            return "";
-        }
+    private Analysis analyze(String preprocessedMessage, UserContext context, StageMetrics.Timings timings) {
+        long start = System.nanoTime();
+        String cleanMessage = preprocessedMessage.toLowerCase().trim();
+
+        // Extract entities first, the vehicle_info context boost reads them; the time expression is
+        // parsed once, for both
+        TimeExpressionParser.Expression time = TimeExpressionParser.parse(preprocessedMessage);
+        Map<String, String> entities = extractEntities(preprocessedMessage);
+        start = timings.since(StageMetrics.ENTITY_EXTRACTION, start);
+
+        // Determine intent with confidence scores
+        Map<String, Double> intentConfidences = classifyIntentWithConfidence(cleanMessage, context, time, entities);
+        String primaryIntent = getBestIntent(intentConfidences);
+        start = timings.since(StageMetrics.INTENT_SCORING, start);
+
+        if (time != null) entities.put(EntityExtractor.TIME_EXPRESSION, time.text());
+        else entities.remove(EntityExtractor.TIME_EXPRESSION);
+
+        // Analyze sentiment
+        String sentiment = analyzeSentiment(cleanMessage);
 
-        String processed = message.trim();
+        // Calculate overall confidence (timed with the sentiment)
+        double confidence = calculateAdvancedConfidence(primaryIntent, entities, cleanMessage, intentConfidences);
+        timings.since(StageMetrics.SENTIMENT, start);
+
+        return new Analysis(primaryIntent, intentConfidences, entities, sentiment, confidence, time);
+    }
 
-        // Apply spell correction
-        for (Map.Entry<String, String> correction : commonMisspellings.entrySet()) {
-            processed = processed.replaceAll("\\b" + correction.getKey() + "\\b", correction.getValue());
+    // the only distinction classifyIntentWithConfidence makes between conversation states
+    private static String classificationState(UserContext context) {
+        String conversationState = context != null ? String.valueOf(context.getConversationState()) : null;
+        if ("awaiting_name".equals(conversationState)) return conversationState;
+        if ("name_provided".equals(conversationState) || "awaiting_vehicle".equals(conversationState)) {
+            return "awaiting_vehicle";
         }
+        return "";
+    }
 
-        // Normalize whitespace
-        processed = processed.replaceAll("\\s+", " ");
+    public ResultCache.Stats cacheStats() {
+        return analyses.stats();
+    }
 
-        // Handle common abbreviations
-        processed = processed.replaceAll("\\bu\\b", "you");
-        processed = processed.replaceAll("\\bur\\b", "your");
-        processed = processed.replaceAll("\\br\\b", "are");
-        processed = processed.replaceAll("\\btmrw\\b", "tomorrow");
+    String preprocessMessage(String message) {
+        if (message == null || message.trim().isEmpty()) {
+            return "";
+        }
 
-        return processed;
+        // Spell correction, whitespace normalization and abbreviations in one pass
+        return spellingCorrector.correct(message);
     }
 
-    private Map<String, Double> classifyIntentWithConfidence(String message, UserContext context) {
+    Map<String, Double> classifyIntentWithConfidence(String message, UserContext context) {
+        // only the awaiting_vehicle boost needs the entities
+        Map<String, String> entities = "awaiting_vehicle".equals(classificationState(context))
+                ? extractEntities(message) : Map.of();
+        return classifyIntentWithConfidence(message, context, TimeExpressionParser.parse(message), entities);
+    }
+
+    private Map<String, Double> classifyIntentWithConfidence(String message, UserContext context,
+                                                             TimeExpressionParser.Expression time,
+                                                             Map<String, String> entities) {
         Map<String, Double> intentScores = new HashMap<>();
 
         // Context-aware intent classification
@@ -455,33 +586,35 @@ public class NLPService {
         }
 
         if (("name_provided".equals(conversationState) || "awaiting_vehicle".equals(conversationState))
-                && containsVehicleInfo(message)) {
+                && containsVehicleInfo(message, entities)) {
             intentScores.put("vehicle_info", 0.9);
         }
 
-        // Enhanced intent classification with weighted keywords
-        for (Map.Entry<String, Map<String, Double>> entry : intentKeywords.entrySet()) {
-            String intent = entry.getKey();
-            Map<String, Double> keywords = entry.getValue();
-
-            double score = 0.0;
-            int matchCount = 0;
-
-            for (Map.Entry<String, Double> keywordEntry : keywords.entrySet()) {
-                String keyword = keywordEntry.getKey();
-                Double weight = keywordEntry.getValue();
-
-                if (Pattern.compile("\\b" + Pattern.quote(keyword) + "\\b").matcher(message).find()) {
-                    score += weight;
-                    matchCount++;
-                }
+        // Enhanced intent classification with weighted keywords, all intents in one pass
+        double[] scores = new double[intentNames.length];
+        int[] matchCounts = new int[intentNames.length];
+        boolean[] matched = new boolean[keywordIntentIds.length];
+        keywordAutomaton.scan(message, (keyword, start, end) -> {
+            if (matched[keyword]) return;
+            matched[keyword] = true;
+            for (int j = 0; j < keywordIntentIds[keyword].length; j++) {
+                scores[keywordIntentIds[keyword][j]] += keywordWeights[keyword][j];
+                matchCounts[keywordIntentIds[keyword][j]]++;
             }
+        });
+        if (time != null) {
+            scores[timeIntent] += TIME_TERM_WEIGHT * time.terms();
+            matchCounts[timeIntent] += time.terms();
+        }
 
+        int words = wordCount(message);
+        for (int intent = 0; intent < intentNames.length; intent++) {
+            double score = scores[intent];
             // Normalize score based on message length and match density
             if (score > 0) {
-                double normalizedScore = score / Math.max(1, message.split("\\s+").length / 5.0);
-                normalizedScore *= Math.min(1.0, matchCount / 3.0 + 0.5); // Boost for multiple matches
-                intentScores.put(intent, Math.min(1.0, normalizedScore));
+                double normalizedScore = score / Math.max(1, words / 5.0);
+                normalizedScore *= Math.min(1.0, matchCounts[intent] / 3.0 + 0.5); // Boost for multiple matches
+                intentScores.put(intentNames[intent], Math.min(1.0, normalizedScore));
             }
         }
 
@@ -505,89 +638,59 @@ public class NLPService {
         Map<String, Double> partialMatches = new HashMap<>();
 
         // Look for partial keyword matches
-        for (Map.Entry<String, Map<String, Double>> entry : intentKeywords.entrySet()) {
-            String intent = entry.getKey();
-            Map<String, Double> keywords = entry.getValue();
-
-            double partialScore = 0.0;
-            for (String keyword : keywords.keySet()) {
-                String[] keywordParts = keyword.split("\\s+");
-                for (String part : keywordParts) {
-                    if (part.length() > 3 && Pattern.compile("\\b" + Pattern.quote(part) + "\\b").matcher(message).find()) {
-                        partialScore += 0.3; // Lower score for partial matches
-                    }
+        double[] partialScores = new double[intentNames.length];
+        boolean[] matched = new boolean[partIntentIds.length];
+        partAutomaton.scan(message, (part, start, end) -> {
+            if (matched[part]) return;
+            matched[part] = true;
+            for (int j = 0; j < partIntentIds[part].length; j++) {
+                for (int n = 0; n < partCounts[part][j]; n++) {
+                    partialScores[partIntentIds[part][j]] += 0.3; // Lower score for partial matches
                 }
             }
+        });
 
-            if (partialScore > 0) {
-                partialMatches.put(intent, Math.min(0.6, partialScore)); // Cap partial matches
+        for (int intent = 0; intent < intentNames.length; intent++) {
+            if (partialScores[intent] > 0) {
+                partialMatches.put(intentNames[intent], Math.min(0.6, partialScores[intent])); // Cap partial matches
             }
         }
 
         return partialMatches;
     }
 
-    private Map<String, String> extractEntities(String message) {
-        Map<String, String> entities = new HashMap<>();
-
-        for (Map.Entry<String, Pattern> entry : entityPatterns.entrySet()) {
-            String entityType = entry.getKey();
-            Pattern pattern = entry.getValue();
-
-            Matcher matcher = pattern.matcher(message);
-            if (matcher.find()) {
-                String value = matcher.group(1);
-                if (value != null) {
-                    entities.put(entityType, value.trim());
-                } else {
-                    entities.put(entityType, matcher.group().trim());
-                }
-            }
+    // same count as message.split("\\s+").length wherever it matters (5 words and up)
+    private static int wordCount(String message) {
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            boolean space = c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+            // split keeps the empty string before leading whitespace
+            if (space ? i == 0 : !inWord) words++;
+            inWord = !space;
         }
+        return words;
+    }
 
-        // Special handling for vehicle model (more complex extraction)
-        extractVehicleModel(message, entities);
-
-        return entities;
-    }
-
-    private void extractVehicleModel(String message, Map<String, String> entities) {
-        // Common vehicle models by make
-        Map<String, List<String>> modelsByMake = new HashMap<>();
-        modelsByMake.put("honda", Arrays.asList("civic", "accord", "crv", "pilot", "fit"));
-        modelsByMake.put("toyota", Arrays.asList("camry", "corolla", "prius", "rav4", "highlander"));
-        modelsByMake.put("ford", Arrays.asList("f150", "f-150", "mustang", "focus", "escape", "explorer"));
-        modelsByMake.put("chevrolet", Arrays.asList("silverado", "malibu", "equinox", "tahoe"));
-        modelsByMake.put("chevy", Arrays.asList("silverado", "malibu", "equinox", "tahoe"));
-
-        String make = entities.get("vehicle_make");
-        if (make != null) {
-            List<String> models = modelsByMake.get(make.toLowerCase());
-            if (models != null) {
-                for (String model : models) {
-                    if (message.toLowerCase().contains(model)) {
-                        entities.put("vehicle_model", model);
-                        break;
-                    }
-                }
-            }
-        }
+    Map<String, String> extractEntities(String message) {
+        return entityExtractor.extract(message);
     }
 
-    private boolean containsPersonName(String message) {
+    private static boolean containsPersonName(String message) {
         // Simple heuristic: check for "my name is" patterns or standalone capitalized
         // words
-        Pattern namePattern = Pattern.compile("(?:my name is|i'm|i am|call me)\\s+([A-Z][a-z]+)",
-                Pattern.CASE_INSENSITIVE);
-        return namePattern.matcher(message).find() ||
-                Pattern.compile("^[A-Z][a-z]+(?:\\s+[A-Z][a-z]+)?$").matcher(message.trim()).find();
+        return NAME_AFTER_CUE.matcher(message).find() || NAME_ONLY.matcher(message.trim()).find();
     }
 
-    private boolean containsVehicleInfo(String message) {
-        // Check if message contains year + make or make + model patterns
-        return entityPatterns.get("vehicle_year").matcher(message).find() ||
-                entityPatterns.get("vehicle_make").matcher(message).find() ||
-                message.toLowerCase().matches(".*\\b(car|vehicle|drive|have)\\b.*");
+    // a year or make among the message's entities, or one of the vehicle words (message lower-cased)
+    static boolean containsVehicleInfo(String message, Map<String, String> entities) {
+        if (entities.containsKey(EntityExtractor.VEHICLE_YEAR) || entities.containsKey(EntityExtractor.VEHICLE_MAKE)) {
+            return true;
+        }
+        boolean[] found = new boolean[1];
+        VEHICLE_WORDS.scan(message, (keyword, start, end) -> found[0] = true);
+        return found[0];
     }
 
     private String analyzeSentiment(String message) {
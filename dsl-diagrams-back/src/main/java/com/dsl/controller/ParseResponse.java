@@ -0,0 +1,12 @@
+package com.dsl.controller;
+
+import com.dsl.layout.GraphLayout;
+import com.dsl.models.TrackNode;
+
+import java.util.List;
+
+public record ParseResponse(
+        String scriptHash,
+        List<TrackNode> tracks,
+        GraphLayout layout
+) { }
@@ -0,0 +1,48 @@
+package com.dsl.controller;
+
+import com.dsl.parser.AivaScriptParser;
+import com.dsl.parser.AivaWorkspace;
+import com.dsl.parser.MerkleScript;
+import com.dsl.parser.ScriptDiff;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+/**
+ * Semantic diffs of brand scripts: which tracks, states, actions and jumps an edit adds, removes or
+ * changes. Only the scripts' own tracks are compared; INCLUDEd modules are diffed on their own.
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ScriptDiffController {
+
+    private final AivaScriptParser parser;
+    private final AivaWorkspace workspace;
+
+    public ScriptDiffController(AivaScriptParser parser, AivaWorkspace workspace) {
+        this.parser = parser;
+        this.workspace = workspace;
+    }
+
+    @PostMapping("/diff")
+    public ResponseEntity<ScriptDiff> diff(@RequestBody DiffRequest request) {
+        if (request.before() == null || request.after() == null) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(ScriptDiff.between(merkle(request.before()), merkle(request.after())));
+    }
+
+    // preview of a save: the edited source against the module's compiled version, nothing is stored;
+    // the module name is the rest of the URL, since names are paths (AutoNation/Autonation_Ford.aiva)
+    @PostMapping("/diff/modules/{*name}")
+    public ResponseEntity<ScriptDiff> diffModule(@PathVariable String name, @RequestBody String script) {
+        Optional<MerkleScript> current = workspace.merkle(ParsingController.moduleName(name));
+        if (current.isEmpty()) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(ScriptDiff.between(current.get(), merkle(script)));
+    }
+
+    private MerkleScript merkle(String source) {
+        return MerkleScript.of(parser.parseScript(source).tracks());
+    }
+}
@@ -0,0 +1,45 @@
+package com.dsl.controller;
+
+import com.dsl.parser.AivaScriptIndex;
+import com.dsl.parser.AivaScriptIndex.Field;
+import com.dsl.parser.AivaScriptIndex.StateRef;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+@RestController
+@RequestMapping("/api/scripts")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ScriptQueryController {
+
+    private final AivaScriptIndex scriptIndex;
+
+    public ScriptQueryController(AivaScriptIndex scriptIndex) {
+        this.scriptIndex = scriptIndex;
+    }
+
+    /**
+     * e.g. /api/scripts/query?template=$GENERIC_AN_NEXTSERVICE_NRTA_1ST_TEMP or ?action=UNSCHEDULE&amp;unschedule=CUST;
+     * all given criteria must match.
+     */
+    @GetMapping("/query")
+    public ResponseEntity<List<StateRef>> query(@RequestParam(required = false) String action,
+                                                @RequestParam(required = false) String template,
+                                                @RequestParam(required = false) String target,
+                                                @RequestParam(required = false) String mark,
+                                                @RequestParam(required = false) String unschedule) {
+        Map<Field, String> criteria = new EnumMap<>(Field.class);
+        if (action != null) criteria.put(Field.ACTION, action.toUpperCase());
+        if (template != null) criteria.put(Field.TEMPLATE, template);
+        if (target != null) criteria.put(Field.TARGET, target);
+        if (mark != null) criteria.put(Field.MARK, mark);
+        if (unschedule != null) criteria.put(Field.UNSCHEDULE, unschedule);
+
+        if (criteria.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(scriptIndex.query(criteria));
+    }
+}
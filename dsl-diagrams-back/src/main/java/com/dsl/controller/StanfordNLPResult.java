@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Data
@@ -22,4 +23,11 @@ public class StanfordNLPResult {
     private String processingTime;
     private String customerName;
     private String suggestedResponse;
+
+    public StanfordNLPResult copy() {
+        return new StanfordNLPResult(
+                entities != null ? new HashMap<>(entities) : null, sentiment, sentimentScore, intent, intentConfidence,
+                intentConfidences != null ? new HashMap<>(intentConfidences) : null, complexityScore,
+                overallConfidence, processingTime, customerName, suggestedResponse);
+    }
 }
\ No newline at end of file
@@ -1,54 +1,209 @@
 package com.dsl.controller;
 
+import com.dsl.config.NLPConfiguration;
+import com.dsl.nlp.AnnotationPool;
+import com.dsl.nlp.LatencyRecorder;
+import com.dsl.nlp.ResultCache;
+import com.dsl.nlp.StageMetrics;
+import com.dsl.nlp.VehicleGazetteer;
 import edu.stanford.nlp.ling.CoreAnnotations;
 import edu.stanford.nlp.ling.CoreLabel;
 import edu.stanford.nlp.neural.rnn.RNNCoreAnnotations;
 import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.Annotator;
 import edu.stanford.nlp.pipeline.StanfordCoreNLP;
 import edu.stanford.nlp.sentiment.SentimentCoreAnnotations;
 import edu.stanford.nlp.trees.Tree;
 import edu.stanford.nlp.util.CoreMap;
-import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 @Service
 public class StanfordNLPService {
     
-    private StanfordCoreNLP pipeline;
-    private boolean initialized = false;
+    /**
+     * Annotator sets an analysis can run with. The constituency parse and sentiment models dominate
+     * latency but only feed the sentiment fields; intent, entities and complexity need tokens, parts
+     * of speech and named entities only.
+     */
+    public enum Profile {
+        FAST,   // nlp.stanford.fast-annotators; sentiment and sentimentScore stay null
+        FULL    // nlp.stanford.annotators
+    }
+    
+    public enum LoadState { PENDING, LOADING, WARMING_UP, READY, FAILED }
+    
+    /**
+     * Model loading progress from 0 to 1; {@code step} is what is running, {@code error} why it failed.
+     */
+    public record LoadStatus(LoadState state, double progress, String step, long elapsedMillis, String error) { }
+    
+    private static final int LATENCY_SAMPLES = 1024;
+    
+    // Typical turns, long enough to exercise every annotator
+    private static final List<String> WARM_UP_MESSAGES = List.of(
+            "Hi, my name is John Smith and I drive a 2019 Honda Civic.",
+            "I need an oil change and a tire rotation next Tuesday at 10am.",
+            "My brakes are squeaking and the check engine light came on yesterday.",
+            "Can you tell me how much a new battery costs?",
+            "This is the third time the car has been in the shop and I am really unhappy with the service.",
+            "Yes, that works for me, thank you!");
+    
+    private final NLPConfiguration.Stanford stanford;
+    // Built on first use per profile; CoreNLP pools annotators with equal settings across pipelines,
+    // so the fast pipeline reuses the full one's tagger and NER models
+    private final Map<Profile, Pipeline> pipelines = new ConcurrentHashMap<>();
+    private final Map<Profile, LatencyRecorder> latencies = new EnumMap<>(Profile.class);
+    // Annotation runs here rather than on request threads, bounded in time and queue length
+    private final AnnotationPool pool;
+    private final Duration timeout;
+    // Vehicle makes and models, shared with NLPService
+    private final VehicleGazetteer vehicles = VehicleGazetteer.standard();
+    private volatile boolean initialized = false;
+    private volatile LoadState state = LoadState.PENDING;
+    private volatile String step;
+    private volatile int stepsDone;
+    private volatile String error;
+    private volatile long loadStarted, loadFinished;
+    
+    private record Key(Profile profile, String text) { }
     
-    @PostConstruct
+    // A pipeline and its annotators in order, run one by one to time each; annotators is null if
+    // CoreNLP did not list them, and the pipeline is timed as a whole
+    private record Pipeline(StanfordCoreNLP coreNLP, List<String> names, List<Annotator> annotators) { }
+    
+    // Analyses by profile and trimmed text; the pipeline is deterministic and by far the slowest NLP stage
+    private final ResultCache<Key, StanfordNLPResult> results;
+    
+    public StanfordNLPService(NLPConfiguration configuration) {
+        this.stanford = configuration.getStanford();
+        this.results = configuration.newResultCache();
+        this.pool = new AnnotationPool("stanford-nlp", stanford.getThreads(), stanford.getQueueCapacity());
+        this.timeout = Duration.ofMillis(stanford.getTimeout());
+        for (Profile profile : Profile.values()) latencies.put(profile, new LatencyRecorder(LATENCY_SAMPLES));
+    }
+    
+    /**
+     * Loads the models on a background thread once the application is up; until they are loaded and
+     * warmed up {@link #isInitialized} is false and the hybrid service answers from the rules.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread loader = new Thread(this::initialize, "stanford-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+    
+    /**
+     * Loads both profiles' models and runs the warm-up messages through them, on the calling thread.
+     */
     public void initialize() {
+        loadStarted = System.nanoTime();
         try {
             System.out.println("Initializing Stanford CoreNLP pipeline...");
-            initializeStanfordPipeline();
+            state = LoadState.LOADING;
             initializeResponseTemplates();
+            for (Profile profile : Profile.values()) {
+                step = "loading " + annotators(profile);
+                pipeline(profile);
+                stepsDone++;
+            }
+            
+            // the first analyses pay for JIT compilation and lazily built model state
+            state = LoadState.WARMING_UP;
+            step = "warming up";
+            for (int round = 0; round < stanford.getWarmUpRounds(); round++) {
+                for (String message : WARM_UP_MESSAGES) {
+                    for (Profile profile : Profile.values()) {
+                        performAnalysis(message, profile, StageMetrics.Timings.NONE);
+                        stepsDone++;
+                    }
+                }
+            }
+            
+            step = null;
+            state = LoadState.READY;
             initialized = true;
             System.out.println("Stanford CoreNLP pipeline initialized successfully!");
         } catch (Exception e) {
             System.err.println("Failed to initialize Stanford CoreNLP: " + e.getMessage());
             e.printStackTrace();
+            error = e.toString();
+            state = LoadState.FAILED;
             initialized = false;
+        } finally {
+            loadFinished = System.nanoTime();
         }
     }
     
-    private void initializeStanfordPipeline() {
+    /**
+     * Where loading is: steps are the profiles' pipelines, then each warm-up analysis.
+     */
+    public LoadStatus loadStatus() {
+        int steps = Profile.values().length * (1 + stanford.getWarmUpRounds() * WARM_UP_MESSAGES.size());
+        long started = loadStarted;
+        long elapsed = started == 0 ? 0 : (loadFinished != 0 ? loadFinished : System.nanoTime()) - started;
+        return new LoadStatus(state, state == LoadState.READY ? 1.0 : Math.min(1.0, (double) stepsDone / steps),
+                step, TimeUnit.NANOSECONDS.toMillis(elapsed), error);
+    }
+    
+    private Pipeline pipeline(Profile profile) {
+        Pipeline pipeline = pipelines.get(profile);
+        return pipeline != null ? pipeline : pipelines.computeIfAbsent(profile, this::createPipeline);
+    }
+    
+    private Pipeline createPipeline(Profile profile) {
         // Set up pipeline properties
         Properties props = new Properties();
-        props.setProperty("annotators", "tokenize,ssplit,pos,lemma,ner,parse,sentiment");
+        props.setProperty("annotators", annotators(profile));
         props.setProperty("outputFormat", "json");
         props.setProperty("ner.useSUTime", "false"); // Disable SUTime for faster processing
         props.setProperty("ner.applyNumericClassifiers", "false"); // Faster processing
         props.setProperty("ner.applyFineGrained", "false"); // Faster processing
         
-        // Create the pipeline
-        pipeline = new StanfordCoreNLP(props);
+        // Create the pipeline; it rewrites the annotators property to those it runs, prerequisites
+        // added and ssplit folded into tokenize
+        StanfordCoreNLP coreNLP = new StanfordCoreNLP(props);
+        List<String> names = Arrays.asList(props.getProperty("annotators").split("\\s*,\\s*"));
+        List<Annotator> annotators = new ArrayList<>();
+        for (String name : names) annotators.add(coreNLP.pool.get(name));
+        return new Pipeline(coreNLP, names, annotators.contains(null) ? null : annotators);
+    }
+    
+    public String annotators(Profile profile) {
+        return profile == Profile.FAST ? stanford.getFastAnnotators() : stanford.getAnnotators();
+    }
+    
+    private boolean providesSentiment(Profile profile) {
+        return Arrays.asList(annotators(profile).split("\\s*,\\s*")).contains("sentiment");
     }
     
     public StanfordNLPResult analyze(String text) {
-        if (!initialized || pipeline == null) {
+        return analyze(text, Profile.FULL);
+    }
+    
+    public StanfordNLPResult analyze(String text, Profile profile) {
+        return analyze(text, profile, StageMetrics.Timings.NONE);
+    }
+    
+    /**
+     * Analyzes {@code text}, adding the time of each annotator and of reading the results to
+     * {@code timings} unless the analysis was cached.
+     */
+    public StanfordNLPResult analyze(String text, Profile profile, StageMetrics.Timings timings) {
+        if (!initialized) {
             throw new RuntimeException("Stanford CoreNLP not initialized");
         }
         
@@ -57,25 +212,152 @@ public class StanfordNLPService {
         }
         
         try {
-            long startTime = System.currentTimeMillis();
-            StanfordNLPResult result = performAnalysis(text.trim());
-            long endTime = System.currentTimeMillis();
-            result.setProcessingTime((endTime - startTime) + "ms");
-            return result;
+            // callers get their own copy of the cached result
+            return results.get(new Key(profile, text.trim()), key -> pooledAnalysis(key, timings)).copy();
+        } catch (RejectedExecutionException e) {
+            System.err.println("Stanford CoreNLP queue is full, analysis rejected");
+            throw e;
         } catch (Exception e) {
             System.err.println("Stanford CoreNLP analysis failed for text: " + text);
-            e.printStackTrace();
+            if (!(e.getCause() instanceof TimeoutException)) e.printStackTrace();
             throw new RuntimeException("Stanford CoreNLP analysis failed: " + e.getMessage(), e);
         }
     }
     
-    private StanfordNLPResult performAnalysis(String text) {
+    /**
+     * Starts an analysis on the annotation pool, or returns the cached one; collect it with
+     * {@link #await}, or {@link #cancel} it if it is no longer needed.
+     *
+     * @throws RejectedExecutionException if the annotation queue is full
+     */
+    public Future<StanfordNLPResult> analyzeAsync(String text, Profile profile) {
+        return analyzeAsync(text, profile, StageMetrics.Timings.NONE);
+    }
+    
+    public Future<StanfordNLPResult> analyzeAsync(String text, Profile profile, StageMetrics.Timings timings) {
+        if (!initialized) {
+            throw new RuntimeException("Stanford CoreNLP not initialized");
+        }
+        
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("Text cannot be null or empty");
+        }
+        
+        Key key = new Key(profile, text.trim());
+        StanfordNLPResult cached = results.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.copy());
+        }
+        return pool.submit(() -> {
+            StanfordNLPResult result = timedAnalysis(key, timings);
+            results.put(key, result);
+            return result.copy();
+        });
+    }
+    
+    /**
+     * The result of {@link #analyzeAsync}, waiting at most the configured timeout.
+     */
+    public StanfordNLPResult await(Future<StanfordNLPResult> analysis) {
+        try {
+            return pool.await(analysis, timeout);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Stanford CoreNLP analysis timed out after " + timeout.toMillis() + "ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Stanford CoreNLP analysis interrupted", e);
+        }
+    }
+    
+    public void cancel(Future<StanfordNLPResult> analysis) {
+        pool.cancel(analysis);
+    }
+    
+    private StanfordNLPResult pooledAnalysis(Key key, StageMetrics.Timings timings) {
+        try {
+            return pool.call(() -> timedAnalysis(key, timings), timeout);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("timed out after " + timeout.toMillis() + "ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted", e);
+        }
+    }
+    
+    // cache hits are not recorded: the latencies are those of the pipelines
+    private StanfordNLPResult timedAnalysis(Key key, StageMetrics.Timings timings) {
+        long startTime = System.nanoTime();
+        StanfordNLPResult result = performAnalysis(key.text(), key.profile(), timings);
+        long elapsed = System.nanoTime() - startTime;
+        latencies.get(key.profile()).record(elapsed);
+        result.setProcessingTime(TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms");
+        return result;
+    }
+    
+    /**
+     * Analyzes many texts with CoreNLP's multi-threaded annotate, on nlp.stanford.threads threads of
+     * the calling job rather than the interactive pool, and without the result cache. Results are in
+     * the order of {@code texts}; an entry is null if its text was blank or failed to annotate.
+     */
+    public List<StanfordNLPResult> analyzeAll(List<String> texts, Profile profile) {
+        if (!initialized) {
+            throw new RuntimeException("Stanford CoreNLP not initialized");
+        }
+        
+        StanfordNLPResult[] results = new StanfordNLPResult[texts.size()];
+        List<Annotation> annotations = new ArrayList<>();
+        Map<Annotation, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            if (text == null || text.trim().isEmpty()) continue;
+            Annotation annotation = new Annotation(text.trim());
+            annotations.add(annotation);
+            positions.put(annotation, i);
+        }
+        int threads = stanford.getThreads() > 0 ? stanford.getThreads() : Runtime.getRuntime().availableProcessors();
+        StanfordCoreNLP pipeline = pipeline(profile).coreNLP();
+        Consumer<Annotation> collect = annotation -> {
+            try {
+                results[positions.get(annotation)] = toResult(annotation, profile);
+            } catch (Exception e) {
+                System.err.println("Stanford CoreNLP batch analysis failed for text: " + annotation);
+            }
+        };
+        if (threads == 1) {
+            // CoreNLP 4.5.1's annotate(annotations, 1, callback) runs every annotation twice
+            for (Annotation annotation : annotations) {
+                pipeline.annotate(annotation);
+                collect.accept(annotation);
+            }
+        } else {
+            // returns once every annotation is done; the callback runs on the annotating thread
+            pipeline.annotate(annotations, threads, collect);
+        }
+        return Arrays.asList(results);
+    }
+    
+    private StanfordNLPResult performAnalysis(String text, Profile profile, StageMetrics.Timings timings) {
         // Create annotation
         Annotation annotation = new Annotation(text);
         
-        // Process the annotation
-        pipeline.annotate(annotation);
-        
+        // Process the annotation, timing each annotator
+        Pipeline pipeline = pipeline(profile);
+        long start = System.nanoTime();
+        if (pipeline.annotators() == null) {
+            pipeline.coreNLP().annotate(annotation);
+            start = timings.since(StageMetrics.STANFORD_ANNOTATOR + "pipeline", start);
+        } else {
+            for (int i = 0; i < pipeline.annotators().size(); i++) {
+                pipeline.annotators().get(i).annotate(annotation);
+                start = timings.since(StageMetrics.STANFORD_ANNOTATOR + pipeline.names().get(i), start);
+            }
+        }
+        StanfordNLPResult result = toResult(annotation, profile);
+        timings.since(StageMetrics.STANFORD_EXTRACTION, start);
+        return result;
+    }
+    
+    private StanfordNLPResult toResult(Annotation annotation, Profile profile) {
         // Extract results
         StanfordNLPResult result = new StanfordNLPResult();
         
@@ -92,11 +374,13 @@ public class StanfordNLPService {
             entities.put("person_name", customerName);
         }
         
-        // Extract sentiment
-        String sentiment = extractSentiment(annotation);
-        Double sentimentScore = extractSentimentScore(annotation);
-        result.setSentiment(sentiment != null ? sentiment : "neutral");
-        result.setSentimentScore(sentimentScore != null ? sentimentScore : 0.0);
+        // Extract sentiment; without the sentiment annotator callers keep their own
+        if (providesSentiment(profile)) {
+            String sentiment = extractSentiment(annotation);
+            Double sentimentScore = extractSentimentScore(annotation);
+            result.setSentiment(sentiment != null ? sentiment : "neutral");
+            result.setSentimentScore(sentimentScore != null ? sentimentScore : 0.0);
+        }
         
         // Extract intent (basic classification based on sentence structure)
         String intent = classifyIntent(annotation);
@@ -280,65 +564,10 @@ public class StanfordNLPService {
         return entities;
     }
     
+    // the same year/make/model recognition as the rule-based NLPService
     private void extractVehicleEntities(Annotation annotation, Map<String, String> entities) {
-        List<CoreMap> sentences = annotation.get(CoreAnnotations.SentencesAnnotation.class);
-        if (sentences == null || sentences.isEmpty()) {
-            return;
-        }
-
-        for (CoreMap sentence : sentences) {
-            List<CoreLabel> tokens = sentence.get(CoreAnnotations.TokensAnnotation.class);
-            if (tokens == null || tokens.isEmpty()) {
-                continue;
-            }
-
-            // Look for patterns like "YEAR MAKE MODEL" or "MAKE MODEL"
-            for (int i = 0; i < tokens.size(); i++) {
-                CoreLabel token = tokens.get(i);
-                String word = token.get(CoreAnnotations.TextAnnotation.class);
-                String pos = token.get(CoreAnnotations.PartOfSpeechAnnotation.class);
-
-                // Try to extract year (NNP or CD and looks like a year)
-                if (pos != null && (pos.equals("CD") || pos.equals("NNP")) && word.matches("^(19|20)\\d{2}$")) {
-                    entities.putIfAbsent("vehicle_year", word);
-                    // Look for make and model after the year
-                    if (i + 1 < tokens.size()) {
-                        CoreLabel nextToken = tokens.get(i + 1);
-                        String nextWord = nextToken.get(CoreAnnotations.TextAnnotation.class);
-                        String nextPos = nextToken.get(CoreAnnotations.PartOfSpeechAnnotation.class);
-
-                        // Simple check for capitalized words as potential make/model
-                        if (nextPos != null && nextPos.equals("NNP") && Character.isUpperCase(nextWord.charAt(0))) {
-                            entities.putIfAbsent("vehicle_make", nextWord);
-                            if (i + 2 < tokens.size()) {
-                                CoreLabel thirdToken = tokens.get(i + 2);
-                                String thirdWord = thirdToken.get(CoreAnnotations.TextAnnotation.class);
-                                String thirdPos = thirdToken.get(CoreAnnotations.PartOfSpeechAnnotation.class);
-                                if (thirdPos != null && thirdPos.equals("NNP") && Character.isUpperCase(thirdWord.charAt(0))) {
-                                    entities.putIfAbsent("vehicle_model", thirdWord);
-                                }
-                            }
-                        }
-                    }
-                }
-                // Try to extract make and model without year (e.g., "Honda Civic")
-                else if (pos != null && pos.equals("NNP") && Character.isUpperCase(word.charAt(0))) {
-                    // Check if it's a common car make (simple heuristic)
-                    List<String> commonMakes = Arrays.asList("Honda", "Toyota", "Ford", "Chevrolet", "Nissan", "BMW", "Mercedes", "Audi", "Volkswagen", "Hyundai", "Kia", "Subaru", "Mazda", "Jeep", "Tesla");
-                    if (commonMakes.contains(word)) {
-                        entities.putIfAbsent("vehicle_make", word);
-                        if (i + 1 < tokens.size()) {
-                            CoreLabel nextToken = tokens.get(i + 1);
-                            String nextWord = nextToken.get(CoreAnnotations.TextAnnotation.class);
-                            String nextPos = nextToken.get(CoreAnnotations.PartOfSpeechAnnotation.class);
-                            if (nextPos != null && nextPos.equals("NNP") && Character.isUpperCase(nextWord.charAt(0))) {
-                                entities.putIfAbsent("vehicle_model", nextWord);
-                            }
-                        }
-                    }
-                }
-            }
-        }
+        String text = annotation.get(CoreAnnotations.TextAnnotation.class);
+        if (text != null) vehicles.find(text).addTo(entities);
     }
     
     private String extractSentiment(Annotation annotation) {
@@ -587,15 +816,42 @@ public class StanfordNLPService {
         return "I'm here to help you.";
     }
 
+    public ResultCache.Stats cacheStats() {
+        return results.stats();
+    }
+
+    public AnnotationPool.Stats poolStats() {
+        return pool.stats();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Pipeline latency per profile over its most recent analyses.
+     */
+    public Map<Profile, LatencyRecorder.Percentiles> latencies() {
+        Map<Profile, LatencyRecorder.Percentiles> percentiles = new EnumMap<>(Profile.class);
+        latencies.forEach((profile, recorder) -> percentiles.put(profile, recorder.percentiles()));
+        return percentiles;
+    }
+
     public boolean isInitialized() {
         return initialized;
     }
 
     public String getStatus() {
         if (!initialized) {
-            return "Not initialized";
+            LoadStatus status = loadStatus();
+            return switch (status.state()) {
+                case PENDING -> "Not initialized";
+                case FAILED -> "Failed: " + status.error();
+                default -> String.format("Loading (%.0f%%)", status.progress() * 100);
+            };
         }
-        if (pipeline == null) {
+        if (!pipelines.containsKey(Profile.FULL)) {
             return "Pipeline is null";
         }
         return "Ready";
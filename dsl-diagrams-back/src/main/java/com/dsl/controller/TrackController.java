@@ -0,0 +1,70 @@
+package com.dsl.controller;
+
+import com.dsl.models.StateNode;
+import com.dsl.models.TrackNode;
+import com.dsl.parser.AivaWorkspace;
+import com.dsl.parser.AivaWorkspace.TrackEntry;
+import com.dsl.parser.AivaWorkspace.TrackSummary;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * On-demand access to the compiled workspace: a light summary first, then single tracks and states as
+ * the diagram expands them. Responses carry an ETag derived from the module's content hash, so
+ * unchanged data is revalidated with a 304 instead of being sent again.
+ */
+@RestController
+@RequestMapping("/api/tracks")
+@CrossOrigin(origins = "http://localhost:5173", exposedHeaders = "ETag")
+public class TrackController {
+
+    private final AivaWorkspace workspace;
+
+    public TrackController(AivaWorkspace workspace) {
+        this.workspace = workspace;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<TrackSummary>> getSummary(@RequestParam(required = false) String module,
+                                                         WebRequest request) {
+        String etag = etag(workspace.version(module));
+        if (request.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(workspace.summary(module));
+    }
+
+    @GetMapping("/{name}")
+    public ResponseEntity<TrackNode> getTrack(@PathVariable String name,
+                                              @RequestParam(required = false) String module,
+                                              WebRequest request) {
+        Optional<TrackEntry> entry = workspace.track(name, module);
+        if (entry.isEmpty()) return ResponseEntity.notFound().build();
+
+        String etag = etag(entry.get().version() + "/" + name);
+        if (request.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(entry.get().track());
+    }
+
+    @GetMapping("/{name}/states/{id}")
+    public ResponseEntity<StateNode> getState(@PathVariable String name,
+                                              @PathVariable String id,
+                                              @RequestParam(required = false) String module,
+                                              WebRequest request) {
+        Optional<TrackEntry> entry = workspace.track(name, module);
+        Optional<StateNode> state = entry.flatMap(e -> AivaWorkspace.state(e, id));
+        if (state.isEmpty()) return ResponseEntity.notFound().build();
+
+        String etag = etag(entry.get().version() + "/" + name + "/" + id);
+        if (request.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(state.get());
+    }
+
+    private static String etag(String version) {
+        return "\"" + version + "\"";
+    }
+}
@@ -0,0 +1,164 @@
+package com.dsl.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A customer's feedback on an answer, with the intent the message should have had when they
+ * corrected it. Corrected messages are learned by the intent classifier (IntentModelLearner), which
+ * records when and into which model version.
+ */
+@Entity
+@Table(name = "message_feedback", indexes = @Index(name = "idx_message_feedback_unlearned", columnList = "learned_at, id"))
+public class MessageFeedback {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "session_id", length = 100)
+    private String sessionId;
+    
+    @Column(name = "message_id")
+    private Long messageId;
+    
+    @Column(name = "message", columnDefinition = "TEXT")
+    private String message;
+    
+    @Column(name = "predicted_intent", length = 50)
+    private String predictedIntent;
+    
+    @Column(name = "corrected_intent", length = 50)
+    private String correctedIntent;
+    
+    @Column(name = "feedback", length = 20)
+    private String feedback;
+    
+    @Column(name = "comment", columnDefinition = "TEXT")
+    private String comment;
+    
+    @Column(name = "rating")
+    private Integer rating;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "learned_at")
+    private LocalDateTime learnedAt;
+    
+    @Column(name = "model_version")
+    private Integer modelVersion;
+    
+    // Constructors
+    public MessageFeedback() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getSessionId() {
+        return sessionId;
+    }
+    
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+    
+    public Long getMessageId() {
+        return messageId;
+    }
+    
+    public void setMessageId(Long messageId) {
+        this.messageId = messageId;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public String getPredictedIntent() {
+        return predictedIntent;
+    }
+    
+    public void setPredictedIntent(String predictedIntent) {
+        this.predictedIntent = predictedIntent;
+    }
+    
+    public String getCorrectedIntent() {
+        return correctedIntent;
+    }
+    
+    public void setCorrectedIntent(String correctedIntent) {
+        this.correctedIntent = correctedIntent;
+    }
+    
+    public String getFeedback() {
+        return feedback;
+    }
+    
+    public void setFeedback(String feedback) {
+        this.feedback = feedback;
+    }
+    
+    public String getComment() {
+        return comment;
+    }
+    
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+    
+    public Integer getRating() {
+        return rating;
+    }
+    
+    public void setRating(Integer rating) {
+        this.rating = rating;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getLearnedAt() {
+        return learnedAt;
+    }
+    
+    public void setLearnedAt(LocalDateTime learnedAt) {
+        this.learnedAt = learnedAt;
+    }
+    
+    public Integer getModelVersion() {
+        return modelVersion;
+    }
+    
+    public void setModelVersion(Integer modelVersion) {
+        this.modelVersion = modelVersion;
+    }
+    
+    @Override
+    public String toString() {
+        return "MessageFeedback{" +
+                "id=" + id +
+                ", feedback='" + feedback + '\'' +
+                ", correctedIntent='" + correctedIntent + '\'' +
+                ", modelVersion=" + modelVersion +
+                '}';
+    }
+}
@@ -23,6 +23,18 @@ public class AivaBaseListener implements AivaListener {
 	 * <p>The default implementation does nothing.</p>
 	 */
 	@Override public void exitScript(AivaParser.ScriptContext ctx) { }
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>The default implementation does nothing.</p>
+	 */
+	@Override public void enterInclude_directive(AivaParser.Include_directiveContext ctx) { }
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>The default implementation does nothing.</p>
+	 */
+	@Override public void exitInclude_directive(AivaParser.Include_directiveContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
@@ -16,6 +16,16 @@ public interface AivaListener extends ParseTreeListener {
 	 * @param ctx the parse tree
 	 */
 	void exitScript(AivaParser.ScriptContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link AivaParser#include_directive}.
+	 * @param ctx the parse tree
+	 */
+	void enterInclude_directive(AivaParser.Include_directiveContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link AivaParser#include_directive}.
+	 * @param ctx the parse tree
+	 */
+	void exitInclude_directive(AivaParser.Include_directiveContext ctx);
 	/**
 	 * Enter a parse tree produced by {@link AivaParser#track}.
 	 * @param ctx the parse tree
@@ -21,14 +21,15 @@ public class AivaParser extends Parser {
 	public static final int
 		GOTO=1, CALL_FUNCTION_SWITCH=2, SENDMESSAGE=3, MARK_LEAD_PHASE=4, UNSCHEDULE=5, 
 		SWITCH_DIRECTION=6, SEND_TEMPLATE=7, START_TRACK=8, END_TRACK=9, END=10, 
-		GT=11, COLON=12, ARROW=13, DOT=14, IDENTIFIER=15, WS=16;
+		GT=11, COLON=12, ARROW=13, DOT=14, INCLUDE=15, IDENTIFIER=16, WS=17, LINE_COMMENT=18;
 	public static final int
-		RULE_script = 0, RULE_track = 1, RULE_state = 2, RULE_action_block_state = 3, 
-		RULE_reactive_goto_state = 4, RULE_action = 5, RULE_branch = 6;
+		RULE_script = 0, RULE_include_directive = 1, RULE_track = 2, RULE_state = 3, 
+		RULE_action_block_state = 4, RULE_reactive_goto_state = 5, RULE_action = 6, 
+		RULE_branch = 7;
 	private static String[] makeRuleNames() {
 		return new String[] {
-			"script", "track", "state", "action_block_state", "reactive_goto_state", 
-			"action", "branch"
+			"script", "include_directive", "track", "state", "action_block_state", 
+			"reactive_goto_state", "action", "branch"
 		};
 	}
 	public static final String[] ruleNames = makeRuleNames();
@@ -45,7 +46,8 @@ public class AivaParser extends Parser {
 		return new String[] {
 			null, "GOTO", "CALL_FUNCTION_SWITCH", "SENDMESSAGE", "MARK_LEAD_PHASE", 
 			"UNSCHEDULE", "SWITCH_DIRECTION", "SEND_TEMPLATE", "START_TRACK", "END_TRACK", 
-			"END", "GT", "COLON", "ARROW", "DOT", "IDENTIFIER", "WS"
+			"END", "GT", "COLON", "ARROW", "DOT", "INCLUDE", "IDENTIFIER", "WS", 
+			"LINE_COMMENT"
 		};
 	}
 	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
@@ -102,6 +104,12 @@ public class AivaParser extends Parser {
 	@SuppressWarnings("CheckReturnValue")
 	public static class ScriptContext extends ParserRuleContext {
 		public TerminalNode EOF() { return getToken(AivaParser.EOF, 0); }
+		public List<Include_directiveContext> include_directive() {
+			return getRuleContexts(Include_directiveContext.class);
+		}
+		public Include_directiveContext include_directive(int i) {
+			return getRuleContext(Include_directiveContext.class,i);
+		}
 		public List<TrackContext> track() {
 			return getRuleContexts(TrackContext.class);
 		}
@@ -114,11 +122,11 @@ public class AivaParser extends Parser {
 		@Override public int getRuleIndex() { return RULE_script; }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof AivaListener) ((AivaListener)listener).enterScript(this);
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).enterScript(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof AivaListener) ((AivaListener)listener).exitScript(this);
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).exitScript(this);
 		}
 	}
 
@@ -129,21 +137,35 @@ public class AivaParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(15); 
+			setState(19);
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			while (_la==INCLUDE) {
+				{
+				{
+				setState(16);
+				include_directive();
+				}
+				}
+				setState(21);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			}
+			setState(23); 
 			_errHandler.sync(this);
 			_la = _input.LA(1);
 			do {
 				{
 				{
-				setState(14);
+				setState(22);
 				track();
 				}
 				}
-				setState(17); 
+				setState(25); 
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 			} while ( _la==START_TRACK );
-			setState(19);
+			setState(27);
 			match(EOF);
 			}
 		}
@@ -158,6 +180,44 @@ public class AivaParser extends Parser {
 		return _localctx;
 	}
 
+	@SuppressWarnings("CheckReturnValue")
+	public static class Include_directiveContext extends ParserRuleContext {
+		public TerminalNode INCLUDE() { return getToken(AivaParser.INCLUDE, 0); }
+		public Include_directiveContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_include_directive; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).enterInclude_directive(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).exitInclude_directive(this);
+		}
+	}
+
+	public final Include_directiveContext include_directive() throws RecognitionException {
+		Include_directiveContext _localctx = new Include_directiveContext(_ctx, getState());
+		enterRule(_localctx, 2, RULE_include_directive);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(29);
+			match(INCLUDE);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
 	@SuppressWarnings("CheckReturnValue")
 	public static class TrackContext extends ParserRuleContext {
 		public TerminalNode START_TRACK() { return getToken(AivaParser.START_TRACK, 0); }
@@ -175,40 +235,40 @@ public class AivaParser extends Parser {
 		@Override public int getRuleIndex() { return RULE_track; }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof AivaListener) ((AivaListener)listener).enterTrack(this);
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).enterTrack(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof AivaListener) ((AivaListener)listener).exitTrack(this);
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).exitTrack(this);
 		}
 	}
 
 	public final TrackContext track() throws RecognitionException {
 		TrackContext _localctx = new TrackContext(_ctx, getState());
-		enterRule(_localctx, 2, RULE_track);
+		enterRule(_localctx, 4, RULE_track);
 		int _la;
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(21);
+			setState(31);
 			match(START_TRACK);
-			setState(22);
+			setState(32);
 			match(IDENTIFIER);
-			setState(24); 
+			setState(34); 
 			_errHandler.sync(this);
 			_la = _input.LA(1);
 			do {
 				{
 				{
-				setState(23);
+				setState(33);
 				state();
 				}
 				}
-				setState(26); 
+				setState(36); 
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 			} while ( _la==IDENTIFIER );
-			setState(28);
+			setState(38);
 			match(END_TRACK);
 			}
 		}
@@ -237,32 +297,32 @@ public class AivaParser extends Parser {
 		@Override public int getRuleIndex() { return RULE_state; }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof AivaListener) ((AivaListener)listener).enterState(this);
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).enterState(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof AivaListener) ((AivaListener)listener).exitState(this);
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).exitState(this);
 		}
 	}
 
 	public final StateContext state() throws RecognitionException {
 		StateContext _localctx = new StateContext(_ctx, getState());
-		enterRule(_localctx, 4, RULE_state);
+		enterRule(_localctx, 6, RULE_state);
 		try {
-			setState(32);
+			setState(42);
 			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,2,_ctx) ) {
+			switch ( getInterpreter().adaptivePredict(_input,3,_ctx) ) {
 			case 1:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(30);
+				setState(40);
 				action_block_state();
 				}
 				break;
 			case 2:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(31);
+				setState(41);
 				reactive_goto_state();
 				}
 				break;
@@ -299,42 +359,42 @@ public class AivaParser extends Parser {
 		@Override public int getRuleIndex() { return RULE_action_block_state; }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof AivaListener) ((AivaListener)listener).enterAction_block_state(this);
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).enterAction_block_state(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof AivaListener) ((AivaListener)listener).exitAction_block_state(this);
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).exitAction_block_state(this);
 		}
 	}
 
 	public final Action_block_stateContext action_block_state() throws RecognitionException {
 		Action_block_stateContext _localctx = new Action_block_stateContext(_ctx, getState());
-		enterRule(_localctx, 6, RULE_action_block_state);
+		enterRule(_localctx, 8, RULE_action_block_state);
 		int _la;
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(34);
+			setState(44);
 			match(IDENTIFIER);
-			setState(35);
+			setState(45);
 			match(DOT);
-			setState(36);
+			setState(46);
 			match(IDENTIFIER);
-			setState(38); 
+			setState(48); 
 			_errHandler.sync(this);
 			_la = _input.LA(1);
 			do {
 				{
 				{
-				setState(37);
+				setState(47);
 				action();
 				}
 				}
-				setState(40); 
+				setState(50); 
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 			} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & 254L) != 0) );
-			setState(42);
+			setState(52);
 			match(END);
 			}
 		}
@@ -365,35 +425,35 @@ public class AivaParser extends Parser {
 		@Override public int getRuleIndex() { return RULE_reactive_goto_state; }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof AivaListener) ((AivaListener)listener).enterReactive_goto_state(this);
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).enterReactive_goto_state(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof AivaListener) ((AivaListener)listener).exitReactive_goto_state(this);
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).exitReactive_goto_state(this);
 		}
 	}
 
 	public final Reactive_goto_stateContext reactive_goto_state() throws RecognitionException {
 		Reactive_goto_stateContext _localctx = new Reactive_goto_stateContext(_ctx, getState());
-		enterRule(_localctx, 8, RULE_reactive_goto_state);
+		enterRule(_localctx, 10, RULE_reactive_goto_state);
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(44);
+			setState(54);
 			match(IDENTIFIER);
-			setState(45);
+			setState(55);
 			match(DOT);
-			setState(46);
+			setState(56);
 			match(IDENTIFIER);
-			setState(47);
+			setState(57);
 			match(GT);
-			setState(48);
+			setState(58);
 			match(GOTO);
-			setState(49);
+			setState(59);
 			match(IDENTIFIER);
-			setState(50);
+			setState(60);
 			match(COLON);
-			setState(51);
+			setState(61);
 			match(IDENTIFIER);
 			}
 		}
@@ -435,46 +495,46 @@ public class AivaParser extends Parser {
 		@Override public int getRuleIndex() { return RULE_action; }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof AivaListener) ((AivaListener)listener).enterAction(this);
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).enterAction(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof AivaListener) ((AivaListener)listener).exitAction(this);
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).exitAction(this);
 		}
 	}
 
 	public final ActionContext action() throws RecognitionException {
 		ActionContext _localctx = new ActionContext(_ctx, getState());
-		enterRule(_localctx, 10, RULE_action);
+		enterRule(_localctx, 12, RULE_action);
 		int _la;
 		try {
-			setState(81);
+			setState(91);
 			_errHandler.sync(this);
 			switch (_input.LA(1)) {
 			case CALL_FUNCTION_SWITCH:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(53);
+				setState(63);
 				match(CALL_FUNCTION_SWITCH);
-				setState(54);
+				setState(64);
 				match(IDENTIFIER);
-				setState(55);
+				setState(65);
 				match(IDENTIFIER);
-				setState(56);
+				setState(66);
 				match(ARROW);
-				setState(57);
+				setState(67);
 				match(IDENTIFIER);
-				setState(61);
+				setState(71);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 				while (_la==IDENTIFIER) {
 					{
 					{
-					setState(58);
+					setState(68);
 					branch();
 					}
 					}
-					setState(63);
+					setState(73);
 					_errHandler.sync(this);
 					_la = _input.LA(1);
 				}
@@ -483,64 +543,64 @@ public class AivaParser extends Parser {
 			case SENDMESSAGE:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(64);
+				setState(74);
 				match(SENDMESSAGE);
-				setState(65);
+				setState(75);
 				match(IDENTIFIER);
-				setState(66);
+				setState(76);
 				match(IDENTIFIER);
-				setState(67);
+				setState(77);
 				match(IDENTIFIER);
-				setState(68);
+				setState(78);
 				match(IDENTIFIER);
 				}
 				break;
 			case MARK_LEAD_PHASE:
 				enterOuterAlt(_localctx, 3);
 				{
-				setState(69);
+				setState(79);
 				match(MARK_LEAD_PHASE);
-				setState(70);
+				setState(80);
 				match(IDENTIFIER);
 				}
 				break;
 			case UNSCHEDULE:
 				enterOuterAlt(_localctx, 4);
 				{
-				setState(71);
+				setState(81);
 				match(UNSCHEDULE);
-				setState(72);
+				setState(82);
 				match(IDENTIFIER);
 				}
 				break;
 			case SWITCH_DIRECTION:
 				enterOuterAlt(_localctx, 5);
 				{
-				setState(73);
+				setState(83);
 				match(SWITCH_DIRECTION);
-				setState(74);
+				setState(84);
 				match(IDENTIFIER);
 				}
 				break;
 			case GOTO:
 				enterOuterAlt(_localctx, 6);
 				{
-				setState(75);
+				setState(85);
 				match(GOTO);
-				setState(76);
+				setState(86);
 				match(IDENTIFIER);
-				setState(77);
+				setState(87);
 				match(COLON);
-				setState(78);
+				setState(88);
 				match(IDENTIFIER);
 				}
 				break;
 			case SEND_TEMPLATE:
 				enterOuterAlt(_localctx, 7);
 				{
-				setState(79);
+				setState(89);
 				match(SEND_TEMPLATE);
-				setState(80);
+				setState(90);
 				match(IDENTIFIER);
 				}
 				break;
@@ -572,25 +632,25 @@ public class AivaParser extends Parser {
 		@Override public int getRuleIndex() { return RULE_branch; }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof AivaListener) ((AivaListener)listener).enterBranch(this);
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).enterBranch(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof AivaListener) ((AivaListener)listener).exitBranch(this);
+			if ( listener instanceof AivaListener ) ((AivaListener)listener).exitBranch(this);
 		}
 	}
 
 	public final BranchContext branch() throws RecognitionException {
 		BranchContext _localctx = new BranchContext(_ctx, getState());
-		enterRule(_localctx, 12, RULE_branch);
+		enterRule(_localctx, 14, RULE_branch);
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(83);
+			setState(93);
 			match(IDENTIFIER);
-			setState(84);
+			setState(94);
 			match(COLON);
-			setState(85);
+			setState(95);
 			match(IDENTIFIER);
 			}
 		}
@@ -606,59 +666,63 @@ public class AivaParser extends Parser {
 	}
 
 	public static final String _serializedATN =
-		"\u0004\u0001\u0010X\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0002"+
+		"\u0004\u0001\u0012b\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0002"+
 		"\u0002\u0007\u0002\u0002\u0003\u0007\u0003\u0002\u0004\u0007\u0004\u0002"+
-		"\u0005\u0007\u0005\u0002\u0006\u0007\u0006\u0001\u0000\u0004\u0000\u0010"+
-		"\b\u0000\u000b\u0000\f\u0000\u0011\u0001\u0000\u0001\u0000\u0001\u0001"+
-		"\u0001\u0001\u0001\u0001\u0004\u0001\u0019\b\u0001\u000b\u0001\f\u0001"+
-		"\u001a\u0001\u0001\u0001\u0001\u0001\u0002\u0001\u0002\u0003\u0002!\b"+
-		"\u0002\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0003\u0004\u0003\'\b"+
-		"\u0003\u000b\u0003\f\u0003(\u0001\u0003\u0001\u0003\u0001\u0004\u0001"+
-		"\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001"+
-		"\u0004\u0001\u0004\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001"+
-		"\u0005\u0001\u0005\u0005\u0005<\b\u0005\n\u0005\f\u0005?\t\u0005\u0001"+
-		"\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001"+
-		"\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001"+
-		"\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0003\u0005R\b"+
-		"\u0005\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0000"+
-		"\u0000\u0007\u0000\u0002\u0004\u0006\b\n\f\u0000\u0000[\u0000\u000f\u0001"+
-		"\u0000\u0000\u0000\u0002\u0015\u0001\u0000\u0000\u0000\u0004 \u0001\u0000"+
-		"\u0000\u0000\u0006\"\u0001\u0000\u0000\u0000\b,\u0001\u0000\u0000\u0000"+
-		"\nQ\u0001\u0000\u0000\u0000\fS\u0001\u0000\u0000\u0000\u000e\u0010\u0003"+
-		"\u0002\u0001\u0000\u000f\u000e\u0001\u0000\u0000\u0000\u0010\u0011\u0001"+
-		"\u0000\u0000\u0000\u0011\u000f\u0001\u0000\u0000\u0000\u0011\u0012\u0001"+
-		"\u0000\u0000\u0000\u0012\u0013\u0001\u0000\u0000\u0000\u0013\u0014\u0005"+
-		"\u0000\u0000\u0001\u0014\u0001\u0001\u0000\u0000\u0000\u0015\u0016\u0005"+
-		"\b\u0000\u0000\u0016\u0018\u0005\u000f\u0000\u0000\u0017\u0019\u0003\u0004"+
-		"\u0002\u0000\u0018\u0017\u0001\u0000\u0000\u0000\u0019\u001a\u0001\u0000"+
-		"\u0000\u0000\u001a\u0018\u0001\u0000\u0000\u0000\u001a\u001b\u0001\u0000"+
-		"\u0000\u0000\u001b\u001c\u0001\u0000\u0000\u0000\u001c\u001d\u0005\t\u0000"+
-		"\u0000\u001d\u0003\u0001\u0000\u0000\u0000\u001e!\u0003\u0006\u0003\u0000"+
-		"\u001f!\u0003\b\u0004\u0000 \u001e\u0001\u0000\u0000\u0000 \u001f\u0001"+
-		"\u0000\u0000\u0000!\u0005\u0001\u0000\u0000\u0000\"#\u0005\u000f\u0000"+
-		"\u0000#$\u0005\u000e\u0000\u0000$&\u0005\u000f\u0000\u0000%\'\u0003\n"+
-		"\u0005\u0000&%\u0001\u0000\u0000\u0000\'(\u0001\u0000\u0000\u0000(&\u0001"+
-		"\u0000\u0000\u0000()\u0001\u0000\u0000\u0000)*\u0001\u0000\u0000\u0000"+
-		"*+\u0005\n\u0000\u0000+\u0007\u0001\u0000\u0000\u0000,-\u0005\u000f\u0000"+
-		"\u0000-.\u0005\u000e\u0000\u0000./\u0005\u000f\u0000\u0000/0\u0005\u000b"+
-		"\u0000\u000001\u0005\u0001\u0000\u000012\u0005\u000f\u0000\u000023\u0005"+
-		"\f\u0000\u000034\u0005\u000f\u0000\u00004\t\u0001\u0000\u0000\u000056"+
-		"\u0005\u0002\u0000\u000067\u0005\u000f\u0000\u000078\u0005\u000f\u0000"+
-		"\u000089\u0005\r\u0000\u00009=\u0005\u000f\u0000\u0000:<\u0003\f\u0006"+
-		"\u0000;:\u0001\u0000\u0000\u0000<?\u0001\u0000\u0000\u0000=;\u0001\u0000"+
-		"\u0000\u0000=>\u0001\u0000\u0000\u0000>R\u0001\u0000\u0000\u0000?=\u0001"+
-		"\u0000\u0000\u0000@A\u0005\u0003\u0000\u0000AB\u0005\u000f\u0000\u0000"+
-		"BC\u0005\u000f\u0000\u0000CD\u0005\u000f\u0000\u0000DR\u0005\u000f\u0000"+
-		"\u0000EF\u0005\u0004\u0000\u0000FR\u0005\u000f\u0000\u0000GH\u0005\u0005"+
-		"\u0000\u0000HR\u0005\u000f\u0000\u0000IJ\u0005\u0006\u0000\u0000JR\u0005"+
-		"\u000f\u0000\u0000KL\u0005\u0001\u0000\u0000LM\u0005\u000f\u0000\u0000"+
-		"MN\u0005\f\u0000\u0000NR\u0005\u000f\u0000\u0000OP\u0005\u0007\u0000\u0000"+
-		"PR\u0005\u000f\u0000\u0000Q5\u0001\u0000\u0000\u0000Q@\u0001\u0000\u0000"+
-		"\u0000QE\u0001\u0000\u0000\u0000QG\u0001\u0000\u0000\u0000QI\u0001\u0000"+
-		"\u0000\u0000QK\u0001\u0000\u0000\u0000QO\u0001\u0000\u0000\u0000R\u000b"+
-		"\u0001\u0000\u0000\u0000ST\u0005\u000f\u0000\u0000TU\u0005\f\u0000\u0000"+
-		"UV\u0005\u000f\u0000\u0000V\r\u0001\u0000\u0000\u0000\u0006\u0011\u001a"+
-		" (=Q";
+		"\u0005\u0007\u0005\u0002\u0006\u0007\u0006\u0002\u0007\u0007\u0007\u0001"+
+		"\u0000\u0005\u0000\u0012\b\u0000\n\u0000\f\u0000\u0015\t\u0000\u0001\u0000"+
+		"\u0004\u0000\u0018\b\u0000\u000b\u0000\f\u0000\u0019\u0001\u0000\u0001"+
+		"\u0000\u0001\u0001\u0001\u0001\u0001\u0002\u0001\u0002\u0001\u0002\u0004"+
+		"\u0002#\b\u0002\u000b\u0002\f\u0002$\u0001\u0002\u0001\u0002\u0001\u0003"+
+		"\u0001\u0003\u0003\u0003+\b\u0003\u0001\u0004\u0001\u0004\u0001\u0004"+
+		"\u0001\u0004\u0004\u00041\b\u0004\u000b\u0004\f\u00042\u0001\u0004\u0001"+
+		"\u0004\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001"+
+		"\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0006\u0001\u0006\u0001"+
+		"\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0005\u0006F\b\u0006\n\u0006"+
+		"\f\u0006I\t\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0001"+
+		"\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0001"+
+		"\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0001"+
+		"\u0006\u0003\u0006\\\b\u0006\u0001\u0007\u0001\u0007\u0001\u0007\u0001"+
+		"\u0007\u0001\u0007\u0000\u0000\b\u0000\u0002\u0004\u0006\b\n\f\u000e\u0000"+
+		"\u0000e\u0000\u0013\u0001\u0000\u0000\u0000\u0002\u001d\u0001\u0000\u0000"+
+		"\u0000\u0004\u001f\u0001\u0000\u0000\u0000\u0006*\u0001\u0000\u0000\u0000"+
+		"\b,\u0001\u0000\u0000\u0000\n6\u0001\u0000\u0000\u0000\f[\u0001\u0000"+
+		"\u0000\u0000\u000e]\u0001\u0000\u0000\u0000\u0010\u0012\u0003\u0002\u0001"+
+		"\u0000\u0011\u0010\u0001\u0000\u0000\u0000\u0012\u0015\u0001\u0000\u0000"+
+		"\u0000\u0013\u0011\u0001\u0000\u0000\u0000\u0013\u0014\u0001\u0000\u0000"+
+		"\u0000\u0014\u0017\u0001\u0000\u0000\u0000\u0015\u0013\u0001\u0000\u0000"+
+		"\u0000\u0016\u0018\u0003\u0004\u0002\u0000\u0017\u0016\u0001\u0000\u0000"+
+		"\u0000\u0018\u0019\u0001\u0000\u0000\u0000\u0019\u0017\u0001\u0000\u0000"+
+		"\u0000\u0019\u001a\u0001\u0000\u0000\u0000\u001a\u001b\u0001\u0000\u0000"+
+		"\u0000\u001b\u001c\u0005\u0000\u0000\u0001\u001c\u0001\u0001\u0000\u0000"+
+		"\u0000\u001d\u001e\u0005\u000f\u0000\u0000\u001e\u0003\u0001\u0000\u0000"+
+		"\u0000\u001f \u0005\b\u0000\u0000 \"\u0005\u0010\u0000\u0000!#\u0003\u0006"+
+		"\u0003\u0000\"!\u0001\u0000\u0000\u0000#$\u0001\u0000\u0000\u0000$\"\u0001"+
+		"\u0000\u0000\u0000$%\u0001\u0000\u0000\u0000%&\u0001\u0000\u0000\u0000"+
+		"&\'\u0005\t\u0000\u0000\'\u0005\u0001\u0000\u0000\u0000(+\u0003\b\u0004"+
+		"\u0000)+\u0003\n\u0005\u0000*(\u0001\u0000\u0000\u0000*)\u0001\u0000\u0000"+
+		"\u0000+\u0007\u0001\u0000\u0000\u0000,-\u0005\u0010\u0000\u0000-.\u0005"+
+		"\u000e\u0000\u0000.0\u0005\u0010\u0000\u0000/1\u0003\f\u0006\u00000/\u0001"+
+		"\u0000\u0000\u000012\u0001\u0000\u0000\u000020\u0001\u0000\u0000\u0000"+
+		"23\u0001\u0000\u0000\u000034\u0001\u0000\u0000\u000045\u0005\n\u0000\u0000"+
+		"5\t\u0001\u0000\u0000\u000067\u0005\u0010\u0000\u000078\u0005\u000e\u0000"+
+		"\u000089\u0005\u0010\u0000\u00009:\u0005\u000b\u0000\u0000:;\u0005\u0001"+
+		"\u0000\u0000;<\u0005\u0010\u0000\u0000<=\u0005\f\u0000\u0000=>\u0005\u0010"+
+		"\u0000\u0000>\u000b\u0001\u0000\u0000\u0000?@\u0005\u0002\u0000\u0000"+
+		"@A\u0005\u0010\u0000\u0000AB\u0005\u0010\u0000\u0000BC\u0005\r\u0000\u0000"+
+		"CG\u0005\u0010\u0000\u0000DF\u0003\u000e\u0007\u0000ED\u0001\u0000\u0000"+
+		"\u0000FI\u0001\u0000\u0000\u0000GE\u0001\u0000\u0000\u0000GH\u0001\u0000"+
+		"\u0000\u0000H\\\u0001\u0000\u0000\u0000IG\u0001\u0000\u0000\u0000JK\u0005"+
+		"\u0003\u0000\u0000KL\u0005\u0010\u0000\u0000LM\u0005\u0010\u0000\u0000"+
+		"MN\u0005\u0010\u0000\u0000N\\\u0005\u0010\u0000\u0000OP\u0005\u0004\u0000"+
+		"\u0000P\\\u0005\u0010\u0000\u0000QR\u0005\u0005\u0000\u0000R\\\u0005\u0010"+
+		"\u0000\u0000ST\u0005\u0006\u0000\u0000T\\\u0005\u0010\u0000\u0000UV\u0005"+
+		"\u0001\u0000\u0000VW\u0005\u0010\u0000\u0000WX\u0005\f\u0000\u0000X\\"+
+		"\u0005\u0010\u0000\u0000YZ\u0005\u0007\u0000\u0000Z\\\u0005\u0010\u0000"+
+		"\u0000[?\u0001\u0000\u0000\u0000[J\u0001\u0000\u0000\u0000[O\u0001\u0000"+
+		"\u0000\u0000[Q\u0001\u0000\u0000\u0000[S\u0001\u0000\u0000\u0000[U\u0001"+
+		"\u0000\u0000\u0000[Y\u0001\u0000\u0000\u0000\\\r\u0001\u0000\u0000\u0000"+
+		"]^\u0005\u0010\u0000\u0000^_\u0005\f\u0000\u0000_`\u0005\u0010\u0000\u0000"+
+		"`\u000f\u0001\u0000\u0000\u0000\u0007\u0013\u0019$*2G[";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
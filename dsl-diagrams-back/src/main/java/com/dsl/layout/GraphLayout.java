@@ -0,0 +1,12 @@
+package com.dsl.layout;
+
+import java.util.Map;
+
+/**
+ * Node positions for the diagram view: one position per track in the track graph, and per track
+ * one position per state, relative to the track's own origin.
+ */
+public record GraphLayout(
+        Map<String, Point> tracks,
+        Map<String, Map<String, Point>> states
+) { }
@@ -0,0 +1,119 @@
+package com.dsl.layout;
+
+import com.dsl.models.Action;
+import com.dsl.models.StateNode;
+import com.dsl.models.TrackNode;
+import com.dsl.parser.ActionTargets;
+import com.dsl.parser.ContentHash;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Lays out the compiled track graph for the diagram view so the client only has to render.
+ *
+ * The track graph (one node per track, an edge per track referenced by a GOTO or branch) and each
+ * track's state graph are laid out separately with {@link LayeredLayout}. Both are cached by content:
+ * the track graph by a hash of its nodes and edges, each state graph by its {@link TrackNode}. Editing
+ * one track therefore only lays out that track again, plus the track graph if its edges changed.
+ */
+@Service
+public class GraphLayoutService {
+
+    private final LayeredLayout trackLayout = new LayeredLayout(300, 250);
+    private final LayeredLayout stateLayout = new LayeredLayout(160, 120);
+
+    private final Map<String, Map<String, Point>> trackGraphs;
+    private final Map<TrackNode, Map<String, Point>> stateGraphs;
+
+    public GraphLayoutService(@Value("${aiva.layout.cache-size:256}") int cacheSize) {
+        this.trackGraphs = lruCache(cacheSize);
+        // tracks are far more numerous than scripts
+        this.stateGraphs = lruCache(cacheSize * 64);
+    }
+
+    public GraphLayout layout(List<TrackNode> tracks) {
+        Map<String, Map<String, Point>> states = new LinkedHashMap<>();
+        for (TrackNode track : tracks) {
+            Map<String, Point> positions = stateGraphs.get(track);
+            if (positions == null) {
+                positions = layoutStates(track);
+                stateGraphs.put(track, positions);
+            }
+            states.put(track.name(), positions);
+        }
+        return new GraphLayout(layoutTracks(tracks), states);
+    }
+
+    private Map<String, Point> layoutTracks(List<TrackNode> tracks) {
+        Map<String, Integer> index = new LinkedHashMap<>();
+        for (TrackNode track : tracks) index.putIfAbsent(track.name(), index.size());
+
+        List<int[]> edges = new ArrayList<>();
+        StringBuilder key = new StringBuilder();
+        for (TrackNode track : tracks) {
+            int from = index.get(track.name());
+            key.append(track.name()).append('>');
+            for (StateNode state : track.states()) {
+                for (Action action : state.actions()) {
+                    for (String target : ActionTargets.of(action)) {
+                        Integer to = index.get(ActionTargets.track(target));
+                        if (to == null) continue;
+                        edges.add(new int[]{from, to});
+                        key.append(to).append(',');
+                    }
+                }
+            }
+            key.append('\n');
+        }
+
+        String hash = ContentHash.of(key.toString());
+        Map<String, Point> positions = trackGraphs.get(hash);
+        if (positions == null) {
+            positions = positions(index.keySet(), trackLayout.layout(index.size(), edges));
+            trackGraphs.put(hash, positions);
+        }
+        return positions;
+    }
+
+    // states keyed by id (StateNode.trackName); edges are jumps within the track and S1 -> S1-R responses
+    private Map<String, Point> layoutStates(TrackNode track) {
+        Map<String, Integer> index = new LinkedHashMap<>();
+        for (StateNode state : track.states()) index.putIfAbsent(state.trackName(), index.size());
+
+        List<int[]> edges = new ArrayList<>();
+        for (StateNode state : track.states()) {
+            int from = index.get(state.trackName());
+            if (state.trackName().endsWith("-R")) {
+                Integer request = index.get(state.trackName().substring(0, state.trackName().length() - 2));
+                if (request != null) edges.add(new int[]{request, from});
+            }
+            for (Action action : state.actions()) {
+                for (String target : ActionTargets.of(action)) {
+                    if (!ActionTargets.track(target).equals(track.name())) continue;
+                    Integer to = index.get(ActionTargets.state(target));
+                    if (to != null) edges.add(new int[]{from, to});
+                }
+            }
+        }
+        return positions(index.keySet(), stateLayout.layout(index.size(), edges));
+    }
+
+    private static Map<String, Point> positions(Collection<String> ids, Point[] points) {
+        Map<String, Point> positions = new LinkedHashMap<>();
+        int i = 0;
+        for (String id : ids) positions.put(id, points[i++]);
+        return Collections.unmodifiableMap(positions);
+    }
+
+    private static <K, V> Map<K, V> lruCache(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+}
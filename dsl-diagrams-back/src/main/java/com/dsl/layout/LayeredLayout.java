@@ -0,0 +1,285 @@
+package com.dsl.layout;
+
+import java.util.*;
+
+/**
+ * Sugiyama-style layered layout of a directed graph given as node count plus edge list.
+ *
+ * 1. cycles are broken by reversing the back edges of a depth-first search,
+ * 2. nodes are layered by longest path from the sources,
+ * 3. edges spanning several layers are split by dummy nodes,
+ * 4. crossings are reduced by alternating barycenter sweeps, keeping the best ordering seen,
+ * 5. x coordinates are pulled towards the neighbours' mean while keeping the layer order and spacing.
+ *
+ * Only the coordinates of real nodes are returned; dummies just shape the ordering.
+ */
+public final class LayeredLayout {
+
+    private static final int MAX_SWEEPS = 24;
+    private static final int MAX_STALE_SWEEPS = 4;
+    private static final int POSITION_PASSES = 4;
+
+    private final int nodeSpacing;
+    private final int layerSpacing;
+
+    public LayeredLayout(int nodeSpacing, int layerSpacing) {
+        this.nodeSpacing = nodeSpacing;
+        this.layerSpacing = layerSpacing;
+    }
+
+    /**
+     * @param n     number of nodes, identified by 0..n-1
+     * @param edges pairs {from, to}; self loops and duplicates are ignored
+     */
+    public Point[] layout(int n, List<int[]> edges) {
+        if (n == 0) return new Point[0];
+
+        List<int[]> dag = acyclic(n, edges);
+        int[] layer = longestPathLayers(n, dag);
+
+        // proper layered graph: real nodes 0..n-1, dummies after them
+        List<Integer> layers = new ArrayList<>();
+        for (int v = 0; v < n; v++) layers.add(layer[v]);
+        List<List<Integer>> down = new ArrayList<>();
+        List<List<Integer>> up = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            down.add(new ArrayList<>());
+            up.add(new ArrayList<>());
+        }
+        for (int[] e : dag) {
+            int prev = e[0];
+            for (int l = layer[e[0]] + 1; l < layer[e[1]]; l++) {
+                int dummy = layers.size();
+                layers.add(l);
+                down.add(new ArrayList<>());
+                up.add(new ArrayList<>());
+                link(down, up, prev, dummy);
+                prev = dummy;
+            }
+            link(down, up, prev, e[1]);
+        }
+
+        int layerCount = 0;
+        for (int l : layers) layerCount = Math.max(layerCount, l + 1);
+        int[][] order = new int[layerCount][];
+        int[] fill = new int[layerCount];
+        for (int l : layers) fill[l]++;
+        for (int l = 0; l < layerCount; l++) order[l] = new int[fill[l]];
+        Arrays.fill(fill, 0);
+        for (int v = 0; v < layers.size(); v++) order[layers.get(v)][fill[layers.get(v)]++] = v;
+
+        int[][] adjDown = toArrays(down);
+        int[][] adjUp = toArrays(up);
+        int[] pos = new int[layers.size()];
+        updatePositions(order, pos);
+
+        reduceCrossings(order, pos, adjDown, adjUp);
+        double[] x = assignX(order, adjDown, adjUp, layers.size());
+
+        double minX = Double.MAX_VALUE;
+        for (int v = 0; v < n; v++) minX = Math.min(minX, x[v]);
+        Point[] points = new Point[n];
+        for (int v = 0; v < n; v++) {
+            points[v] = new Point((int) Math.round(x[v] - minX), layer[v] * layerSpacing);
+        }
+        return points;
+    }
+
+    private static void link(List<List<Integer>> down, List<List<Integer>> up, int from, int to) {
+        down.get(from).add(to);
+        up.get(to).add(from);
+    }
+
+    // drops self loops and duplicates, reverses DFS back edges
+    private static List<int[]> acyclic(int n, List<int[]> edges) {
+        List<List<Integer>> out = new ArrayList<>();
+        for (int v = 0; v < n; v++) out.add(new ArrayList<>());
+        Set<Long> seen = new HashSet<>();
+        for (int[] e : edges) {
+            if (e[0] == e[1] || !seen.add(((long) e[0] << 32) | e[1])) continue;
+            out.get(e[0]).add(e[1]);
+        }
+
+        int[] state = new int[n]; // 0 new, 1 on stack, 2 done
+        int[] next = new int[n];
+        Set<Long> dagSeen = new HashSet<>();
+        List<int[]> dag = new ArrayList<>();
+        Deque<Integer> stack = new ArrayDeque<>();
+        for (int root = 0; root < n; root++) {
+            if (state[root] != 0) continue;
+            stack.push(root);
+            state[root] = 1;
+            while (!stack.isEmpty()) {
+                int v = stack.peek();
+                if (next[v] < out.get(v).size()) {
+                    int w = out.get(v).get(next[v]++);
+                    int from = v, to = w;
+                    if (state[w] == 1) {
+                        from = w;
+                        to = v;
+                    } else if (state[w] == 0) {
+                        state[w] = 1;
+                        stack.push(w);
+                    }
+                    if (dagSeen.add(((long) from << 32) | to)) dag.add(new int[]{from, to});
+                } else {
+                    state[v] = 2;
+                    stack.pop();
+                }
+            }
+        }
+        return dag;
+    }
+
+    private static int[] longestPathLayers(int n, List<int[]> dag) {
+        int[] indegree = new int[n];
+        List<List<Integer>> out = new ArrayList<>();
+        for (int v = 0; v < n; v++) out.add(new ArrayList<>());
+        for (int[] e : dag) {
+            out.get(e[0]).add(e[1]);
+            indegree[e[1]]++;
+        }
+        int[] layer = new int[n];
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int v = 0; v < n; v++) if (indegree[v] == 0) ready.add(v);
+        while (!ready.isEmpty()) {
+            int v = ready.poll();
+            for (int w : out.get(v)) {
+                layer[w] = Math.max(layer[w], layer[v] + 1);
+                if (--indegree[w] == 0) ready.add(w);
+            }
+        }
+        return layer;
+    }
+
+    private static void reduceCrossings(int[][] order, int[] pos, int[][] adjDown, int[][] adjUp) {
+        int[][] best = copy(order);
+        long bestCrossings = crossings(order, pos, adjDown);
+        int stale = 0;
+        for (int sweep = 0; sweep < MAX_SWEEPS && bestCrossings > 0 && stale < MAX_STALE_SWEEPS; sweep++) {
+            if (sweep % 2 == 0) {
+                for (int l = 1; l < order.length; l++) sortByBarycenter(order[l], pos, adjUp);
+            } else {
+                for (int l = order.length - 2; l >= 0; l--) sortByBarycenter(order[l], pos, adjDown);
+            }
+            long c = crossings(order, pos, adjDown);
+            if (c < bestCrossings) {
+                bestCrossings = c;
+                best = copy(order);
+                stale = 0;
+            } else {
+                stale++;
+            }
+        }
+        for (int l = 0; l < order.length; l++) order[l] = best[l];
+        updatePositions(order, pos);
+    }
+
+    // stable sort of one layer by the mean position of its neighbours in the fixed layer
+    private static void sortByBarycenter(int[] layer, int[] pos, int[][] fixedNeighbours) {
+        double[] key = new double[layer.length];
+        Integer[] idx = new Integer[layer.length];
+        for (int i = 0; i < layer.length; i++) {
+            int[] nb = fixedNeighbours[layer[i]];
+            if (nb.length == 0) {
+                key[i] = pos[layer[i]];
+            } else {
+                double sum = 0;
+                for (int w : nb) sum += pos[w];
+                key[i] = sum / nb.length;
+            }
+            idx[i] = i;
+        }
+        Arrays.sort(idx, Comparator.comparingDouble(i -> key[i]));
+        int[] sorted = new int[layer.length];
+        for (int i = 0; i < layer.length; i++) sorted[i] = layer[idx[i]];
+        System.arraycopy(sorted, 0, layer, 0, layer.length);
+        for (int i = 0; i < layer.length; i++) pos[layer[i]] = i;
+    }
+
+    // crossings between consecutive layers: inversions of the lower endpoints, counted with a Fenwick tree
+    static long crossings(int[][] order, int[] pos, int[][] adjDown) {
+        long total = 0;
+        for (int l = 0; l + 1 < order.length; l++) {
+            int lowerSize = order[l + 1].length;
+            long[] tree = new long[lowerSize + 1];
+            long inserted = 0;
+            for (int v : order[l]) {
+                int[] targets = adjDown[v].clone();
+                for (int i = 0; i < targets.length; i++) targets[i] = pos[targets[i]];
+                Arrays.sort(targets);
+                for (int p : targets) {
+                    // edges already inserted that end strictly right of p cross this one
+                    long notGreater = 0;
+                    for (int i = p + 1; i > 0; i -= i & -i) notGreater += tree[i];
+                    total += inserted - notGreater;
+                }
+                for (int p : targets) {
+                    for (int i = p + 1; i <= lowerSize; i += i & -i) tree[i]++;
+                    inserted++;
+                }
+            }
+        }
+        return total;
+    }
+
+    private double[] assignX(int[][] order, int[][] adjDown, int[][] adjUp, int size) {
+        double[] x = new double[size];
+        for (int[] layer : order) {
+            for (int i = 0; i < layer.length; i++) x[layer[i]] = (i - (layer.length - 1) / 2.0) * nodeSpacing;
+        }
+        for (int pass = 0; pass < POSITION_PASSES; pass++) {
+            if (pass % 2 == 0) {
+                for (int l = 1; l < order.length; l++) align(order[l], x, adjUp);
+            } else {
+                for (int l = order.length - 2; l >= 0; l--) align(order[l], x, adjDown);
+            }
+        }
+        return x;
+    }
+
+    // moves each node towards its neighbours' mean x, then restores the spacing around the layer's mean shift
+    private void align(int[] layer, double[] x, int[][] neighbours) {
+        if (layer.length == 0) return;
+        double[] desired = new double[layer.length];
+        for (int i = 0; i < layer.length; i++) {
+            int[] nb = neighbours[layer[i]];
+            if (nb.length == 0) {
+                desired[i] = x[layer[i]];
+            } else {
+                double sum = 0;
+                for (int w : nb) sum += x[w];
+                desired[i] = sum / nb.length;
+            }
+        }
+        double[] placed = new double[layer.length];
+        for (int i = 0; i < layer.length; i++) {
+            placed[i] = i == 0 ? desired[i] : Math.max(desired[i], placed[i - 1] + nodeSpacing);
+        }
+        // the left-to-right pass only pushes right; centre the overflow
+        double shift = 0;
+        for (int i = 0; i < layer.length; i++) shift += placed[i] - desired[i];
+        shift /= layer.length;
+        for (int i = 0; i < layer.length; i++) x[layer[i]] = placed[i] - shift;
+    }
+
+    private static void updatePositions(int[][] order, int[] pos) {
+        for (int[] layer : order) {
+            for (int i = 0; i < layer.length; i++) pos[layer[i]] = i;
+        }
+    }
+
+    private static int[][] toArrays(List<List<Integer>> lists) {
+        int[][] arrays = new int[lists.size()][];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = lists.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return arrays;
+    }
+
+    private static int[][] copy(int[][] order) {
+        int[][] copy = new int[order.length][];
+        for (int l = 0; l < order.length; l++) copy[l] = order[l].clone();
+        return copy;
+    }
+}
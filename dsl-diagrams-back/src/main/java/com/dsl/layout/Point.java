@@ -0,0 +1,3 @@
+package com.dsl.layout;
+
+public record Point(int x, int y) { }
@@ -0,0 +1,112 @@
+package com.dsl.nlp;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed pool of worker threads with a bounded queue for slow NLP calls, so request threads wait at
+ * most a deadline for a result instead of running the work themselves.
+ *
+ * A call is rejected at once when the queue is full, and cancelled when its deadline (covering the
+ * time queued and the time running) passes: it is removed from the queue if it has not started,
+ * otherwise its worker is interrupted. Either way the caller gets an exception to fall back on.
+ */
+public final class AnnotationPool {
+
+    /**
+     * Counters since the pool was created; {@code queueWait} is the time calls spent queued.
+     */
+    public record Stats(int threads, int queueCapacity, int queueDepth, int active, long completed,
+                        long rejected, long timedOut, LatencyRecorder.Percentiles queueWait) { }
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final LatencyRecorder wait = new LatencyRecorder(1024);
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    /**
+     * @param threads number of workers, or 0 or less for one per available processor
+     */
+    public AnnotationPool(String name, int threads, int queueCapacity) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = Math.max(1, queueCapacity);
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.queueCapacity), r -> {
+                    Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Runs {@code task} on the pool and waits for its result.
+     *
+     * @throws RejectedExecutionException if the queue is full or the pool shut down
+     * @throws TimeoutException           if the result is not there within {@code timeout}
+     */
+    public <T> T call(Callable<T> task, Duration timeout) throws TimeoutException, InterruptedException {
+        return await(submit(task), timeout);
+    }
+
+    /**
+     * Queues {@code task} without waiting for it; see {@link #await} and {@link #cancel}.
+     *
+     * @throws RejectedExecutionException if the queue is full or the pool shut down
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        long submitted = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                wait.record(System.nanoTime() - submitted);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * The result of a submitted task, cancelling it if it is not there within {@code timeout}.
+     */
+    public <T> T await(Future<T> future, Duration timeout) throws TimeoutException, InterruptedException {
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            cancel(future);
+            throw e;
+        } catch (InterruptedException e) {
+            cancel(future);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw new CompletionException(cause);
+        }
+    }
+
+    /**
+     * Drops a submitted task whose result is no longer needed.
+     */
+    public void cancel(Future<?> future) {
+        future.cancel(true);
+        // frees its queue slot now rather than when a worker gets to it
+        if (future instanceof Runnable task) executor.remove(task);
+    }
+
+    public Stats stats() {
+        return new Stats(executor.getMaximumPoolSize(), queueCapacity, executor.getQueue().size(),
+                executor.getActiveCount(), executor.getCompletedTaskCount(), rejected.sum(), timedOut.sum(),
+                wait.percentiles());
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,397 @@
+package com.dsl.nlp;
+
+import java.util.*;
+
+import static com.dsl.nlp.KeywordAutomaton.isBoundary;
+import static com.dsl.nlp.KeywordAutomaton.isSpace;
+
+/**
+ * Extracts chat entities from a message without regular expressions, in one automaton pass, one
+ * character pass and one {@link VehicleGazetteer} pass.
+ *
+ * Gazetteer entities (service types, issues, time words...) and the cue phrases of the anchored ones
+ * ("my name is", "near") are keywords of a single {@link KeywordAutomaton}; phone numbers, emails,
+ * mileage, prices and clock times come from a hand-written scanner, and vehicle years, makes and
+ * models from the vehicle gazetteer, with its canonical names. Every other entity is the first match
+ * the former {@code \b(...)\b}-style pattern would have found: leftmost, then earliest alternative,
+ * with the same greedy choices. Matching folds ASCII case only, like {@code Pattern.CASE_INSENSITIVE},
+ * and values are cut from the original message and trimmed.
+ */
+public final class EntityExtractor {
+
+    public static final String PERSON_NAME = "person_name";
+    public static final String VEHICLE_YEAR = "vehicle_year";
+    public static final String VEHICLE_MAKE = "vehicle_make";
+    public static final String VEHICLE_MODEL = "vehicle_model";
+    public static final String TIME_EXPRESSION = "time_expression";
+    public static final String PHONE_NUMBER = "phone_number";
+    public static final String LOCATION = "location";
+    public static final String EMAIL = "email";
+    public static final String MILEAGE = "mileage";
+    public static final String PRICE = "price";
+
+    private static final List<String> NAME_CUES = List.of("my name is", "i'm", "i am", "call me", "this is", "name's");
+    private static final List<String> LOCATION_CUES = List.of("at", "near", "on", "by");
+    private static final List<String> PLACE_SUFFIXES = List.of("street", "st", "avenue", "ave", "road", "rd",
+            "boulevard", "blvd", "drive", "dr", "lane", "ln", "way", "plaza", "mall", "station", "center", "park");
+    private static final List<String> MILEAGE_UNITS = List.of("miles", "mile", "mi", "k", "km");
+    private static final List<String> PRICE_UNITS = List.of("dollars", "dollar", "bucks", "buck");
+
+    private static final int GAZETTEER = 0, NAME_CUE = 1, LOCATION_CUE = 2;
+
+    /**
+     * What keyword occurrences mean: entry {@code alternative} of gazetteer {@code type}, or a cue
+     * phrase.
+     */
+    private record Role(int kind, int type, int alternative) { }
+
+    // result slots: the gazetteer types, then these
+    private final int name, location, phone, email, mileage, price, time;
+    private final String[] slotNames;
+    private final VehicleGazetteer vehicles;
+    private final KeywordAutomaton automaton;
+    private final Role[][] roles;
+
+    /**
+     * @param gazetteers entity type to its phrases, matched as whole words in list order at equal start
+     * @param vehicles   where vehicle years, makes and models come from
+     */
+    public EntityExtractor(Map<String, List<String>> gazetteers, VehicleGazetteer vehicles) {
+        this.vehicles = vehicles;
+        for (String vehicle : List.of(VEHICLE_YEAR, VEHICLE_MAKE, VEHICLE_MODEL)) {
+            if (gazetteers.containsKey(vehicle)) throw new IllegalArgumentException(vehicle + " is not a gazetteer entity");
+        }
+        List<String> slots = new ArrayList<>(gazetteers.keySet());
+        if (!slots.contains(TIME_EXPRESSION)) slots.add(TIME_EXPRESSION);
+        time = slots.indexOf(TIME_EXPRESSION);
+        name = slot(slots, PERSON_NAME);
+        location = slot(slots, LOCATION);
+        phone = slot(slots, PHONE_NUMBER);
+        email = slot(slots, EMAIL);
+        mileage = slot(slots, MILEAGE);
+        price = slot(slots, PRICE);
+        slotNames = slots.toArray(String[]::new);
+
+        Map<String, List<Role>> byKeyword = new LinkedHashMap<>();
+        int type = 0;
+        for (List<String> phrases : gazetteers.values()) {
+            for (int a = 0; a < phrases.size(); a++) add(byKeyword, phrases.get(a), new Role(GAZETTEER, type, a));
+            type++;
+        }
+        for (String cue : NAME_CUES) add(byKeyword, cue, new Role(NAME_CUE, 0, 0));
+        for (String cue : LOCATION_CUES) add(byKeyword, cue, new Role(LOCATION_CUE, 0, 0));
+        automaton = new KeywordAutomaton(new ArrayList<>(byKeyword.keySet()));
+        roles = byKeyword.values().stream().map(r -> r.toArray(Role[]::new)).toArray(Role[][]::new);
+    }
+
+    private static int slot(List<String> slots, String name) {
+        if (slots.contains(name)) throw new IllegalArgumentException(name + " is not a gazetteer entity");
+        slots.add(name);
+        return slots.size() - 1;
+    }
+
+    private static void add(Map<String, List<Role>> byKeyword, String keyword, Role role) {
+        byKeyword.computeIfAbsent(keyword.toLowerCase(Locale.ROOT), k -> new ArrayList<>(1)).add(role);
+    }
+
+    /**
+     * Entity type to value for every type found in {@code message}.
+     */
+    public Map<String, String> extract(String message) {
+        Scan scan = new Scan(lowerAscii(message));
+        automaton.scanAll(scan.text, scan);
+        scan.structured();
+
+        Map<String, String> entities = new HashMap<>();
+        for (int s = 0; s < slotNames.length; s++) {
+            if (scan.from[s] >= 0) entities.put(slotNames[s], message.substring(scan.from[s], scan.to[s]).trim());
+        }
+        vehicles.find(message).addTo(entities);
+        return entities;
+    }
+
+    private static String lowerAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                char[] chars = s.toCharArray();
+                for (int j = i; j < chars.length; j++) {
+                    if (chars[j] >= 'A' && chars[j] <= 'Z') chars[j] += 'a' - 'A';
+                }
+                return new String(chars);
+            }
+        }
+        return s;
+    }
+
+    /**
+     * State of one extraction. Each slot keeps the match that would win first: {@code key} is where
+     * the whole pattern match starts, [from, to) the part that becomes the value.
+     */
+    private final class Scan implements KeywordAutomaton.Matches {
+        final String text;
+        final int n;
+        final int[] key, alternative, from, to;
+
+        Scan(String text) {
+            this.text = text;
+            this.n = text.length();
+            int slots = slotNames.length;
+            key = new int[slots];
+            alternative = new int[slots];
+            from = new int[slots];
+            to = new int[slots];
+            Arrays.fill(from, -1);
+        }
+
+        void offer(int slot, int start, int alt, int valueFrom, int valueTo) {
+            if (from[slot] >= 0 && (key[slot] < start || (key[slot] == start && alternative[slot] <= alt))) return;
+            key[slot] = start;
+            alternative[slot] = alt;
+            from[slot] = valueFrom;
+            to[slot] = valueTo;
+        }
+
+        private boolean beats(int slot, int start) {
+            return from[slot] < 0 || start < key[slot];
+        }
+
+        @Override
+        public void match(int keyword, int start, int end) {
+            for (Role role : roles[keyword]) {
+                switch (role.kind) {
+                    case GAZETTEER -> {
+                        if (isBoundary(text, start) && isBoundary(text, end)) {
+                            offer(role.type, start, role.alternative, start, end);
+                        }
+                    }
+                    case NAME_CUE -> {
+                        if (beats(name, start)) name(start, end);
+                    }
+                    default -> {
+                        if (beats(location, start)) location(start, end);
+                    }
+                }
+            }
+        }
+
+        // \s+([A-Z][a-z]+(?:\s+[A-Z][a-z]+)?), case-insensitively
+        private void name(int start, int p) {
+            int g = spaces(p);
+            if (g == p) return;
+            int end = letters(g);
+            if (end - g < 2) return;
+            int w = spaces(end);
+            if (w > end && letters(w) - w >= 2) end = letters(w);
+            offer(name, start, 0, g, end);
+        }
+
+        // \s+(?:the\s+)?([A-Z][a-zA-Z\s]+(?:Street|St|...|Park)), case-insensitively
+        private void location(int start, int p) {
+            int w = spaces(p);
+            if (w == p) return;
+            if (text.startsWith("the", w)) {
+                int g = spaces(w + 3);
+                if (g > w + 3 && place(start, g)) return;
+            }
+            place(start, w);
+        }
+
+        private boolean place(int start, int g) {
+            if (!isLetter(g)) return false;
+            int end = g + 1;
+            while (end < n && (isLetter(end) || isSpace(text.charAt(end)))) end++;
+            // greedy: the last suffix in the run, first listed suffix at that position
+            for (int q = end - 1; q >= g + 2; q--) {
+                for (String suffix : PLACE_SUFFIXES) {
+                    if (text.startsWith(suffix, q)) {
+                        offer(location, start, 0, g, q + suffix.length());
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        void structured() {
+            boolean clock = false;
+            for (int i = 0; i < n; i++) {
+                char c = text.charAt(i);
+                if (c == '@') {
+                    if (from[email] < 0) email(i);
+                    continue;
+                }
+                if (c == '$') {
+                    if (from[price] < 0) dollars(i);
+                    continue;
+                }
+                boolean digit = c >= '0' && c <= '9';
+                if (!(digit || c == '+' || c == '(') || !isBoundary(text, i)) continue;
+                if (from[phone] < 0) phone(i);
+                if (!digit) continue;
+                if (from[mileage] < 0) mileage(i);
+                if (from[price] < 0) priceWithUnit(i);
+                if (!clock) {
+                    int end = clock(i);
+                    if (end >= 0) {
+                        // after the time words in the alternation
+                        offer(time, i, Integer.MAX_VALUE, i, end);
+                        clock = true;
+                    }
+                }
+            }
+        }
+
+        // \b(\d{1,3}(?:,\d{3})*|\d+)\s*(?:miles?|mi|k|km)\b; backtracking never helps either branch
+        private void mileage(int s) {
+            int digits = digitsEnd(s);
+            if (digits - s <= 3) {
+                int p = digits;
+                while (text.startsWith(",", p) && isDigits(p + 1, 3)) p += 4;
+                if (unit(p, MILEAGE_UNITS) >= 0) {
+                    offer(mileage, s, 0, s, p);
+                    return;
+                }
+            }
+            if (unit(digits, MILEAGE_UNITS) >= 0) offer(mileage, s, 0, s, digits);
+        }
+
+        // \$\s*(\d+(?:\.\d{2})?)
+        private void dollars(int s) {
+            int g = spaces(s + 1);
+            int end = digitsEnd(g);
+            if (end == g) return;
+            if (text.startsWith(".", end) && isDigits(end + 1, 2)) end += 3;
+            offer(price, s, 0, g, end);
+        }
+
+        // \b(\d+)\s*(?:dollars?|bucks?)\b, whose value is the whole match
+        private void priceWithUnit(int s) {
+            int end = unit(digitsEnd(s), PRICE_UNITS);
+            if (end >= 0) offer(price, s, 0, s, end);
+        }
+
+        // \d{1,2}:\d{2}\s*(?:am|pm)?\b or \d{1,2}\s*(?:am|pm)\b; the end of the match or -1
+        private int clock(int s) {
+            for (int digits = 2; digits >= 1; digits--) {
+                int p = s + digits;
+                if (!isDigits(s, digits) || !text.startsWith(":", p) || !isDigits(p + 1, 2)) continue;
+                for (int w = spaces(p + 3); w >= p + 3; w--) {
+                    if (isMeridiem(w) && isBoundary(text, w + 2)) return w + 2;
+                    if (isBoundary(text, w)) return w;
+                }
+            }
+            for (int digits = 2; digits >= 1; digits--) {
+                if (!isDigits(s, digits)) continue;
+                int w = spaces(s + digits);
+                if (isMeridiem(w) && isBoundary(text, w + 2)) return w + 2;
+            }
+            return -1;
+        }
+
+        // \b(?:\+?1[-.]?)?\(?([0-9]{3})\)?[-.]?([0-9]{3})[-.]?([0-9]{4})\b, whose value is the area code.
+        // Optional parts are tried present first, left to right, as the regex backtracks.
+        private void phone(int s) {
+            for (int prefix = 0; prefix < 5; prefix++) {   // +1-, +1, 1-, 1, none
+                int p = s;
+                if (prefix < 4) {
+                    if (prefix < 2 && !text.startsWith("+", p++)) continue;
+                    if (!text.startsWith("1", p++)) continue;
+                    if (prefix % 2 == 0 && !isSeparator(p++)) continue;
+                }
+                for (int optional = 0; optional < 16; optional++) {   // bits: ( ) - -, 0 = present
+                    int q = p;
+                    if ((optional & 8) == 0 && !text.startsWith("(", q++)) continue;
+                    int area = q;
+                    if (!isDigits(q, 3)) continue;
+                    q += 3;
+                    if ((optional & 4) == 0 && !text.startsWith(")", q++)) continue;
+                    if ((optional & 2) == 0 && !isSeparator(q++)) continue;
+                    if (!isDigits(q, 3)) continue;
+                    q += 3;
+                    if ((optional & 1) == 0 && !isSeparator(q++)) continue;
+                    if (!isDigits(q, 4) || !isBoundary(text, q + 4)) continue;
+                    offer(phone, s, 0, area, area + 3);
+                    return;
+                }
+            }
+        }
+
+        // \b[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\.[A-Z|a-z]{2,}\b around the '@' at a
+        private void email(int a) {
+            int local = a;
+            while (local > 0 && isLocal(text.charAt(local - 1))) local--;
+            while (local < a && !isBoundary(text, local)) local++;
+            if (local == a) return;
+            int domain = a + 1;
+            while (domain < n && isDomain(text.charAt(domain))) domain++;
+            for (int dot = domain - 1; dot >= a + 2; dot--) {
+                if (text.charAt(dot) != '.') continue;
+                int tld = dot + 1;
+                while (tld < n && ((text.charAt(tld) >= 'a' && text.charAt(tld) <= 'z') || text.charAt(tld) == '|')) tld++;
+                for (int end = tld; end >= dot + 3; end--) {
+                    if (isBoundary(text, end)) {
+                        offer(email, local, 0, local, end);
+                        return;
+                    }
+                }
+            }
+        }
+
+        // \s*(?:unit|...)\b; the end of the unit or -1
+        private int unit(int p, List<String> units) {
+            int w = spaces(p);
+            for (String unit : units) {
+                if (text.startsWith(unit, w) && isBoundary(text, w + unit.length())) return w + unit.length();
+            }
+            return -1;
+        }
+
+        private boolean isMeridiem(int p) {
+            return text.startsWith("am", p) || text.startsWith("pm", p);
+        }
+
+        private int spaces(int p) {
+            while (p < n && isSpace(text.charAt(p))) p++;
+            return p;
+        }
+
+        private int letters(int p) {
+            while (isLetter(p)) p++;
+            return p;
+        }
+
+        private int digitsEnd(int p) {
+            while (isDigit(p)) p++;
+            return p;
+        }
+
+        private boolean isDigits(int p, int count) {
+            if (p + count > n) return false;
+            for (int i = p; i < p + count; i++) {
+                if (!isDigit(i)) return false;
+            }
+            return true;
+        }
+
+        private boolean isDigit(int p) {
+            return p < n && text.charAt(p) >= '0' && text.charAt(p) <= '9';
+        }
+
+        private boolean isLetter(int p) {
+            return p < n && text.charAt(p) >= 'a' && text.charAt(p) <= 'z';
+        }
+
+        private boolean isSeparator(int p) {
+            return p < n && (text.charAt(p) == '-' || text.charAt(p) == '.');
+        }
+
+        private static boolean isLocal(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+        }
+
+        private static boolean isDomain(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '.' || c == '-';
+        }
+    }
+}
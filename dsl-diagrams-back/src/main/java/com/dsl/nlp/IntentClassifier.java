@@ -0,0 +1,282 @@
+package com.dsl.nlp;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Linear intent classifier over hashed n-gram features: multinomial logistic regression trained by
+ * stochastic gradient descent, in the style of fastText/Vowpal Wabbit.
+ *
+ * A message is split into words of letters, digits and apostrophes, lower-cased, and its features
+ * are the words, the pairs of neighbouring words and the character 3- and 4-grams of each word
+ * marked with its boundaries ("&lt;oil&gt;" gives "&lt;oi", "oil", "il&gt;", "&lt;oil", "oil&gt;"),
+ * each hashed into one of a fixed number of buckets with a weight per intent. Character n-grams make
+ * misspellings and inflections ("tyre", "scheduling") share most features with the known forms.
+ * Prediction sums the weights of the message's buckets, so it costs a few hundred multiply-adds and
+ * allocates only the feature buffer. Models are immutable once trained or loaded; {@link #update}
+ * returns a new one, so a model can be replaced while other threads predict with it.
+ */
+public final class IntentClassifier {
+
+    /**
+     * The most likely intent and its softmax probability, from 0 to 1.
+     */
+    public record Prediction(String intent, double confidence) { }
+
+    /**
+     * How a model does on labeled messages: the share predicted right, and per intent the share of
+     * its messages predicted right.
+     */
+    public record Evaluation(int messages, double accuracy, Map<String, Double> recallByIntent) { }
+
+    public static final int DEFAULT_BUCKET_BITS = 16;
+
+    private static final int MAGIC = 0x494e5443; // "INTC"
+    private static final int VERSION = 1;
+
+    // seeds keeping the hashes of the feature kinds apart
+    private static final int WORD = 0x9e3779b9, BIGRAM = 0x85ebca6b, CHARS = 0xc2b2ae35;
+
+    private final String[] intents;
+    private final int mask;
+    private final float[] bias;
+    private final float[] weights; // bucket * intents.length + intent
+
+    private IntentClassifier(String[] intents, int bucketBits, float[] bias, float[] weights) {
+        this.intents = intents;
+        this.mask = (1 << bucketBits) - 1;
+        this.bias = bias;
+        this.weights = weights;
+    }
+
+    public List<String> intents() {
+        return List.of(intents);
+    }
+
+    public Prediction predict(String message) {
+        int[] features = new int[capacity(message)];
+        int n = features(message, features, mask);
+        double scale = n == 0 ? 0 : 1 / Math.sqrt(n);
+        // softmax without keeping the scores: the running sum is rescaled whenever the best changes
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY, sum = 0;
+        for (int c = 0; c < intents.length; c++) {
+            double score = score(features, n, scale, c);
+            if (score > bestScore) {
+                sum = sum * Math.exp(bestScore - score) + 1;
+                bestScore = score;
+                best = c;
+            } else {
+                sum += Math.exp(score - bestScore);
+            }
+        }
+        return new Prediction(intents[best], 1 / sum);
+    }
+
+    private double score(int[] features, int n, double scale, int intent) {
+        double sum = 0;
+        for (int f = 0; f < n; f++) sum += weights[features[f] * intents.length + intent];
+        return bias[intent] + sum * scale;
+    }
+
+    public Evaluation evaluate(List<String> messages, List<String> labels) {
+        Map<String, int[]> byIntent = new TreeMap<>(); // right, total
+        int right = 0;
+        for (int i = 0; i < messages.size(); i++) {
+            int[] counts = byIntent.computeIfAbsent(labels.get(i), l -> new int[2]);
+            counts[1]++;
+            if (predict(messages.get(i)).intent().equals(labels.get(i))) {
+                counts[0]++;
+                right++;
+            }
+        }
+        Map<String, Double> recall = new LinkedHashMap<>();
+        byIntent.forEach((intent, counts) -> recall.put(intent, (double) counts[0] / counts[1]));
+        return new Evaluation(messages.size(), messages.isEmpty() ? 0 : (double) right / messages.size(), recall);
+    }
+
+    /**
+     * Trains a model with {@link #DEFAULT_BUCKET_BITS} buckets on messages and their intents, taking
+     * them in a shuffled order, reproducible from {@code seed}, for each of {@code epochs} passes.
+     */
+    public static IntentClassifier train(List<String> messages, List<String> labels, int epochs, long seed) {
+        return train(messages, labels, DEFAULT_BUCKET_BITS, epochs, seed);
+    }
+
+    public static IntentClassifier train(List<String> messages, List<String> labels, int bucketBits,
+                                         int epochs, long seed) {
+        if (messages.size() != labels.size()) {
+            throw new IllegalArgumentException(messages.size() + " messages but " + labels.size() + " labels");
+        }
+        if (bucketBits < 1 || bucketBits > 24) throw new IllegalArgumentException("bucketBits: " + bucketBits);
+        String[] intents = new TreeSet<>(labels).toArray(String[]::new);
+        if (intents.length == 0) throw new IllegalArgumentException("no labeled messages");
+        IntentClassifier model = new IntentClassifier(intents, bucketBits, new float[intents.length],
+                new float[(1 << bucketBits) * intents.length]);
+        model.descend(messages, labels, epochs, 0.5, seed);
+        return model;
+    }
+
+    /**
+     * A copy of this model trained further on messages and their intents, at a learning rate decaying
+     * from {@code rate}; intents it does not know yet are added. This model is left as it is.
+     */
+    public IntentClassifier update(List<String> messages, List<String> labels, int epochs, double rate, long seed) {
+        if (messages.size() != labels.size()) {
+            throw new IllegalArgumentException(messages.size() + " messages but " + labels.size() + " labels");
+        }
+        TreeSet<String> all = new TreeSet<>(labels);
+        all.addAll(List.of(intents));
+        String[] updatedIntents = all.toArray(String[]::new);
+        int[] position = new int[intents.length];
+        for (int c = 0; c < intents.length; c++) position[c] = Arrays.binarySearch(updatedIntents, intents[c]);
+        int classes = updatedIntents.length;
+        float[] updatedBias = new float[classes];
+        float[] updatedWeights = new float[(mask + 1) * classes];
+        for (int c = 0; c < intents.length; c++) updatedBias[position[c]] = bias[c];
+        for (int bucket = 0; bucket <= mask; bucket++) {
+            for (int c = 0; c < intents.length; c++) {
+                updatedWeights[bucket * classes + position[c]] = weights[bucket * intents.length + c];
+            }
+        }
+        IntentClassifier model = new IntentClassifier(updatedIntents, Integer.bitCount(mask), updatedBias, updatedWeights);
+        model.descend(messages, labels, epochs, rate, seed);
+        return model;
+    }
+
+    // stochastic gradient descent on the log loss, in place; only while the model is not shared yet
+    private void descend(List<String> messages, List<String> labels, int epochs, double initialRate, long seed) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int c = 0; c < intents.length; c++) index.put(intents[c], c);
+        int classes = intents.length;
+        int[][] features = new int[messages.size()][];
+        for (int i = 0; i < features.length; i++) {
+            int[] buffer = new int[capacity(messages.get(i))];
+            features[i] = Arrays.copyOf(buffer, features(messages.get(i), buffer, mask));
+        }
+
+        int[] order = new int[messages.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Random random = new Random(seed);
+        double[] scores = new double[classes];
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1), swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            double rate = initialRate * (1 - (double) epoch / epochs); // decays linearly, as in fastText
+            for (int i : order) {
+                int[] x = features[i];
+                double scale = x.length == 0 ? 0 : 1 / Math.sqrt(x.length);
+                double max = Double.NEGATIVE_INFINITY, sum = 0;
+                for (int c = 0; c < classes; c++) {
+                    double s = bias[c];
+                    for (int f : x) s += weights[f * classes + c] * scale;
+                    scores[c] = s;
+                    max = Math.max(max, s);
+                }
+                for (int c = 0; c < classes; c++) sum += scores[c] = Math.exp(scores[c] - max);
+                int label = index.get(labels.get(i));
+                // gradient of the log loss: predicted probability minus 1 for the label, 0 otherwise
+                for (int c = 0; c < classes; c++) {
+                    double step = rate * (scores[c] / sum - (c == label ? 1 : 0));
+                    bias[c] -= (float) step;
+                    float featureStep = (float) (step * scale);
+                    for (int f : x) weights[f * classes + c] -= featureStep;
+                }
+            }
+        }
+    }
+
+    public void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(Integer.bitCount(mask));
+            out.writeInt(intents.length);
+            for (String intent : intents) out.writeUTF(intent);
+            for (float b : bias) out.writeFloat(b);
+            for (float w : weights) out.writeFloat(w);
+        }
+    }
+
+    public static IntentClassifier load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC) throw new IOException(file + " is not an intent model");
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException(file + ": unsupported model version " + version);
+            int bucketBits = in.readInt();
+            String[] intents = new String[in.readInt()];
+            for (int c = 0; c < intents.length; c++) intents[c] = in.readUTF();
+            float[] bias = new float[intents.length];
+            for (int c = 0; c < bias.length; c++) bias[c] = in.readFloat();
+            float[] weights = new float[(1 << bucketBits) * intents.length];
+            for (int w = 0; w < weights.length; w++) weights[w] = in.readFloat();
+            return new IntentClassifier(intents, bucketBits, bias, weights);
+        }
+    }
+
+    // upper bound on the features of a text: per word of n chars, the word, the pair with the word
+    // before, n 3-grams and n - 1 4-grams
+    static int capacity(String text) {
+        return text == null ? 0 : 3 * text.length() + 1;
+    }
+
+    /**
+     * Writes the buckets of the text's features into {@code buffer} and returns how many there are.
+     */
+    static int features(String text, int[] buffer, int mask) {
+        if (text == null) return 0;
+        int count = 0, previous = 0, n = text.length(), i = 0;
+        boolean first = true;
+        while (i < n) {
+            if (!isWordChar(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < n && isWordChar(text.charAt(i))) i++;
+            int word = WORD;
+            for (int k = start; k < i; k++) word = (word ^ Character.toLowerCase(text.charAt(k))) * 0x01000193;
+            buffer[count++] = fmix(word) & mask;
+            if (!first) buffer[count++] = fmix(previous * 31 + word ^ BIGRAM) & mask;
+            previous = word;
+            first = false;
+            // n-grams of "<word>", position 0 being the '<'
+            int padded = i - start + 2;
+            for (int size = 3; size <= 4; size++) {
+                for (int from = 0; from + size <= padded; from++) {
+                    int h = CHARS + size;
+                    for (int k = from; k < from + size; k++) {
+                        char c = k == 0 ? '<' : k == padded - 1 ? '>' : Character.toLowerCase(text.charAt(start + k - 1));
+                        h = (h ^ c) * 0x01000193;
+                    }
+                    buffer[count++] = fmix(h) & mask;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '\'';
+    }
+
+    // MurmurHash3's finalizer, so the low bits used as buckets depend on all of the FNV hash
+    private static int fmix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ h >>> 16;
+    }
+}
@@ -0,0 +1,168 @@
+package com.dsl.nlp;
+
+import java.util.*;
+
+/**
+ * Aho–Corasick automaton over a fixed keyword list, reporting whole-word occurrences only: a match
+ * counts when it is delimited like {@code \bkeyword\b} would delimit it (word characters being
+ * letters, digits and '_').
+ *
+ * The automaton is compiled to a dense transition table over the keywords' alphabet, so scanning
+ * is one table lookup per character and does not allocate. Characters outside the alphabet reset
+ * to the root. Matching is case-sensitive; callers lower-case both sides as needed. {@link #scanAll}
+ * reports occurrences inside words too, for patterns that were written without {@code \b}.
+ */
+public final class KeywordAutomaton {
+
+    @FunctionalInterface
+    public interface Matches {
+        /**
+         * Keyword {@code keyword} (its index in the constructor's list) occurs at [start, end).
+         */
+        void match(int keyword, int start, int end);
+    }
+
+    private final int[] keywordLengths;
+    private final char[] alphabet;       // sorted
+    private final int[] asciiSymbols = new int[128];
+    private final int[] delta;           // [state * alphabet.length + symbol] -> state
+    private final int[][] outputs;       // keywords ending in each state, incl. via suffix links
+
+    public KeywordAutomaton(List<String> keywords) {
+        keywordLengths = new int[keywords.size()];
+        SortedSet<Character> chars = new TreeSet<>();
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) chars.add(keyword.charAt(i));
+        }
+        alphabet = new char[chars.size()];
+        int a = 0;
+        for (char c : chars) alphabet[a++] = c;
+        Arrays.fill(asciiSymbols, -1);
+        for (int i = 0; i < alphabet.length && alphabet[i] < 128; i++) asciiSymbols[alphabet[i]] = i;
+
+        // trie
+        List<int[]> children = new ArrayList<>();
+        List<List<Integer>> own = new ArrayList<>();
+        children.add(newRow());
+        own.add(new ArrayList<>());
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            keywordLengths[k] = keyword.length();
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int symbol = symbol(keyword.charAt(i));
+                if (children.get(state)[symbol] < 0) {
+                    children.get(state)[symbol] = children.size();
+                    children.add(newRow());
+                    own.add(new ArrayList<>());
+                }
+                state = children.get(state)[symbol];
+            }
+            if (!keyword.isEmpty()) own.get(state).add(k);
+        }
+
+        // failure links breadth-first, folded into a complete transition table
+        int states = children.size();
+        int width = alphabet.length;
+        delta = new int[states * width];
+        outputs = new int[states][];
+        int[] fail = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+        outputs[0] = toArray(own.get(0));
+        for (int s = 0; s < width; s++) {
+            int child = children.get(0)[s];
+            if (child < 0) {
+                delta[s] = 0;
+            } else {
+                delta[s] = child;
+                fail[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            List<Integer> out = new ArrayList<>(own.get(state));
+            for (int k : outputs[fail[state]]) out.add(k);
+            outputs[state] = toArray(out);
+            for (int s = 0; s < width; s++) {
+                int child = children.get(state)[s];
+                if (child < 0) {
+                    delta[state * width + s] = delta[fail[state] * width + s];
+                } else {
+                    delta[state * width + s] = child;
+                    fail[child] = delta[fail[state] * width + s];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabet.length];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) array[i] = list.get(i);
+        return array;
+    }
+
+    private int symbol(char c) {
+        if (c < 128) return asciiSymbols[c];
+        int i = Arrays.binarySearch(alphabet, c);
+        return i < 0 ? -1 : i;
+    }
+
+    /**
+     * Reports every whole-word occurrence of every keyword in {@code text}, ordered by end position.
+     */
+    public void scan(CharSequence text, Matches matches) {
+        scan(text, matches, true);
+    }
+
+    /**
+     * Reports every occurrence of every keyword in {@code text}, whole word or not, ordered by end
+     * position.
+     */
+    public void scanAll(CharSequence text, Matches matches) {
+        scan(text, matches, false);
+    }
+
+    private void scan(CharSequence text, Matches matches, boolean wholeWords) {
+        int width = alphabet.length;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int symbol = symbol(text.charAt(i));
+            if (symbol < 0) {
+                state = 0;
+                continue;
+            }
+            state = delta[state * width + symbol];
+            int[] out = outputs[state];
+            if (out.length == 0) continue;
+            int end = i + 1;
+            for (int k : out) {
+                int start = end - keywordLengths[k];
+                if (!wholeWords || (isBoundary(text, start) && isBoundary(text, end))) matches.match(k, start, end);
+            }
+        }
+    }
+
+    // same rule as java.util.regex's \b
+    static boolean isBoundary(CharSequence text, int index) {
+        boolean before = index > 0 && isWord(text.charAt(index - 1));
+        boolean after = index < text.length() && isWord(text.charAt(index));
+        return before != after;
+    }
+
+    static boolean isWord(char c) {
+        return c == '_' || Character.isLetterOrDigit(c);
+    }
+
+    // the characters \s matches
+    static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,51 @@
+package com.dsl.nlp;
+
+import java.util.Arrays;
+
+/**
+ * Latency percentiles over the most recent samples. Samples go into a fixed ring buffer, so memory
+ * stays constant and old traffic ages out; percentiles are computed on demand by sorting a copy,
+ * which is cheap at status-page rates.
+ */
+public final class LatencyRecorder {
+
+    /**
+     * Percentiles in milliseconds over the {@code window} most recent of {@code count} samples.
+     */
+    public record Percentiles(long count, int window, double p50Millis, double p99Millis, double maxMillis) { }
+
+    private final long[] samples;
+    private long count;
+
+    public LatencyRecorder(int capacity) {
+        samples = new long[Math.max(1, capacity)];
+    }
+
+    public synchronized void record(long nanos) {
+        samples[(int) (count % samples.length)] = nanos;
+        count++;
+    }
+
+    public Percentiles percentiles() {
+        long[] window;
+        long total;
+        synchronized (this) {
+            total = count;
+            window = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+        }
+        if (window.length == 0) return new Percentiles(0, 0, 0.0, 0.0, 0.0);
+        Arrays.sort(window);
+        return new Percentiles(total, window.length, millis(percentile(window, 0.50)),
+                millis(percentile(window, 0.99)), millis(window[window.length - 1]));
+    }
+
+    // nearest rank
+    private static long percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
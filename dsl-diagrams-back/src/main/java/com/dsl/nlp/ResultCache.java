@@ -0,0 +1,273 @@
+package com.dsl.nlp;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache for NLP results with W-TinyLFU eviction, the policy Caffeine uses.
+ *
+ * New entries enter a small LRU window (1% of the capacity). An entry leaving the window only
+ * replaces the main space's eviction victim if it has been asked for more often, by a count-min
+ * sketch of recent lookups. The main space is a segmented LRU: a hit in probation promotes to the
+ * protected segment (80%), whose overflow is demoted back. One-off messages therefore cannot flush the
+ * quick replies every conversation repeats. Entries older than the optional time to live are misses.
+ *
+ * All operations take one lock; values are computed outside it, so concurrent misses on the same key
+ * may compute it twice. A cache of size 0 stores nothing and only counts misses.
+ */
+public final class ResultCache<K, V> {
+
+    /**
+     * Counters since the cache was created.
+     */
+    public record Stats(long hits, long misses, long evictions, int size, int maximumSize) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    private static final int WINDOW = 0, PROBATION = 1, PROTECTED = 2;
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        long written;
+        int queue;
+        Node<K, V> prev, next;
+
+        Node(K key) {
+            this.key = key;
+        }
+    }
+
+    // doubly linked list, least recently used first
+    private static final class Queue<K, V> {
+        final Node<K, V> head = new Node<>(null);
+        int size;
+
+        Queue() {
+            head.prev = head.next = head;
+        }
+
+        Node<K, V> first() {
+            return head.next == head ? null : head.next;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+            size++;
+        }
+
+        void remove(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = node.next = null;
+            size--;
+        }
+    }
+
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int mainMaximum;
+    private final int protectedMaximum;
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+
+    private final Map<K, Node<K, V>> data = new HashMap<>();
+    private final Queue<K, V> window = new Queue<>();
+    private final Queue<K, V> probation = new Queue<>();
+    private final Queue<K, V> protectedQueue = new Queue<>();
+    private final FrequencySketch sketch;
+    private long hits, misses, evictions;
+
+    /**
+     * @param ttl how long an entry stays valid after it was computed, or null for no limit
+     */
+    public ResultCache(int maximumSize, Duration ttl) {
+        this(maximumSize, ttl, System::nanoTime);
+    }
+
+    ResultCache(int maximumSize, Duration ttl, LongSupplier nanoTime) {
+        this.maximumSize = Math.max(0, maximumSize);
+        this.windowMaximum = Math.max(1, this.maximumSize / 100);
+        this.mainMaximum = Math.max(0, this.maximumSize - windowMaximum);
+        this.protectedMaximum = mainMaximum * 8 / 10;
+        this.ttlNanos = ttl == null || ttl.isZero() || ttl.isNegative() ? 0 : ttl.toNanos();
+        this.nanoTime = nanoTime;
+        this.sketch = new FrequencySketch(this.maximumSize);
+    }
+
+    /**
+     * The cached value for {@code key}, or the one {@code loader} computes and the cache then keeps.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) return value;
+        value = loader.apply(key);
+        if (value != null) put(key, value);
+        return value;
+    }
+
+    public synchronized V getIfPresent(K key) {
+        if (maximumSize == 0) {
+            misses++;
+            return null;
+        }
+        sketch.increment(key);
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        if (ttlNanos > 0 && nanoTime.getAsLong() - node.written >= ttlNanos) {
+            queue(node.queue).remove(node);
+            data.remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        onHit(node);
+        return node.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        if (maximumSize == 0) return;
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            node = new Node<>(key);
+            data.put(key, node);
+            node.queue = WINDOW;
+            window.addLast(node);
+        }
+        node.value = value;
+        node.written = nanoTime.getAsLong();
+        if (window.size > windowMaximum) admit(window.first());
+    }
+
+    public synchronized void invalidateAll() {
+        data.clear();
+        for (Queue<K, V> queue : List.of(window, probation, protectedQueue)) {
+            queue.head.prev = queue.head.next = queue.head;
+            queue.size = 0;
+        }
+    }
+
+    public synchronized int size() {
+        return data.size();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, data.size(), maximumSize);
+    }
+
+    private Queue<K, V> queue(int queue) {
+        return queue == WINDOW ? window : queue == PROBATION ? probation : protectedQueue;
+    }
+
+    private void onHit(Node<K, V> node) {
+        Queue<K, V> queue = queue(node.queue);
+        queue.remove(node);
+        if (node.queue == PROBATION) {
+            node.queue = PROTECTED;
+            protectedQueue.addLast(node);
+            if (protectedQueue.size > protectedMaximum) {
+                Node<K, V> demoted = protectedQueue.first();
+                protectedQueue.remove(demoted);
+                demoted.queue = PROBATION;
+                probation.addLast(demoted);
+            }
+        } else {
+            queue.addLast(node);
+        }
+    }
+
+    // moves the window's eldest entry to probation if there is room or it is used more than the victim
+    private void admit(Node<K, V> candidate) {
+        window.remove(candidate);
+        if (probation.size + protectedQueue.size < mainMaximum) {
+            candidate.queue = PROBATION;
+            probation.addLast(candidate);
+            return;
+        }
+        Node<K, V> victim = probation.first() != null ? probation.first() : protectedQueue.first();
+        if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+            queue(victim.queue).remove(victim);
+            data.remove(victim.key);
+            candidate.queue = PROBATION;
+            probation.addLast(candidate);
+        } else {
+            data.remove(candidate.key);
+        }
+        evictions++;
+    }
+
+    /**
+     * Count-min sketch over four rows of counters that saturate at 15, halved after every
+     * 10 × capacity increments so old popularity fades.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+        private final byte[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int width = Integer.highestOneBit(Math.max(16, maximumSize * 2) - 1) << 1;
+            counters = new byte[SEEDS.length][width];
+            mask = width - 1;
+            sampleSize = Math.max(10, 10 * maximumSize);
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int row = 0; row < SEEDS.length; row++) {
+                int index = index(hash, row);
+                if (counters[row][index] < 15) {
+                    counters[row][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) reset();
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = Integer.MAX_VALUE;
+            for (int row = 0; row < SEEDS.length; row++) {
+                frequency = Math.min(frequency, counters[row][index(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private void reset() {
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) row[i] >>>= 1;
+            }
+            additions /= 2;
+        }
+
+        private int index(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return (int) h & mask;
+        }
+
+        private static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+}
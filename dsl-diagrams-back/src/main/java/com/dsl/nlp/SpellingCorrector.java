@@ -0,0 +1,117 @@
+package com.dsl.nlp;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normalizes a message in one left-to-right pass: trims it, collapses whitespace runs to a single
+ * space, rewrites known shorthands and misspellings exactly as written ("tmrw", "oilchange"), and
+ * corrects other unknown words against a {@link SpellingIndex}.
+ *
+ * Fuzzy correction is deliberately conservative: only all-letter words of at least 5 characters
+ * are touched (distance 1, or 2 from 7 characters on), regular inflections of vocabulary words
+ * ("brakes", "booking") count as known, and capitalized words are left alone unless they start the
+ * message, since those are mostly names. Corrected words come out lower case.
+ */
+public final class SpellingCorrector {
+
+    static final int MIN_LENGTH = 5;
+    static final int MIN_LENGTH_DISTANCE_2 = 7;
+    private static final List<String> SUFFIXES = List.of("ing", "ed", "es", "s", "er", "est", "ly");
+
+    private final SpellingIndex index;
+    private final Map<String, String> replacements;
+
+    public SpellingCorrector(SpellingIndex index, Map<String, String> replacements) {
+        this.index = index;
+        this.replacements = Map.copyOf(replacements);
+    }
+
+    public String correct(String message) {
+        if (message == null) return "";
+        StringBuilder out = new StringBuilder(message.length() + 16);
+        int n = message.length();
+        int i = 0;
+        while (i < n && KeywordAutomaton.isSpace(message.charAt(i))) i++;
+        while (i < n) {
+            char c = message.charAt(i);
+            if (KeywordAutomaton.isSpace(c)) {
+                int j = i;
+                while (j < n && KeywordAutomaton.isSpace(message.charAt(j))) j++;
+                if (j < n) out.append(' ');
+                i = j;
+            } else if (KeywordAutomaton.isWord(c)) {
+                int j = i;
+                while (j < n && KeywordAutomaton.isWord(message.charAt(j))) j++;
+                appendWord(message, i, j, out);
+                i = j;
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    private void appendWord(String message, int start, int end, StringBuilder out) {
+        String word = message.substring(start, end);
+        String replacement = replacements.get(word);
+        if (replacement != null) {
+            out.append(replacement);
+            return;
+        }
+        if (end - start >= MIN_LENGTH && isCorrectable(word, out.length() == 0)) {
+            String lower = word.toLowerCase();
+            if (!isKnown(lower)) {
+                String corrected = correctWord(lower);
+                if (corrected == null) corrected = correctStem(lower);
+                if (corrected != null) {
+                    out.append(corrected);
+                    return;
+                }
+            }
+        }
+        out.append(word);
+    }
+
+    private String correctWord(String word) {
+        return index.correct(word, word.length() >= MIN_LENGTH_DISTANCE_2 ? 2 : 1);
+    }
+
+    // "squeeking" -> "squeak" + "ing"
+    private String correctStem(String word) {
+        for (String suffix : SUFFIXES) {
+            int stem = word.length() - suffix.length();
+            if (stem < MIN_LENGTH || !word.endsWith(suffix)) continue;
+            String corrected = correctWord(word.substring(0, stem));
+            if (corrected != null) return corrected + suffix;
+        }
+        return null;
+    }
+
+    // the word or, for regular inflections, its stem is in the vocabulary
+    private boolean isKnown(String word) {
+        if (index.contains(word)) return true;
+        for (String suffix : SUFFIXES) {
+            if (!word.endsWith(suffix) || word.length() - suffix.length() < 3) continue;
+            String stem = word.substring(0, word.length() - suffix.length());
+            if (index.contains(stem) || index.contains(stem + "e")) return true;
+            int n = stem.length();
+            // "stopped", "getting"
+            if (stem.charAt(n - 1) == stem.charAt(n - 2) && index.contains(stem.substring(0, n - 1))) return true;
+            // "tried", "batteries"
+            if (stem.charAt(n - 1) == 'i' && index.contains(stem.substring(0, n - 1) + "y")) return true;
+        }
+        return false;
+    }
+
+    private static boolean isCorrectable(String word, boolean first) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c >= 'a' && c <= 'z') continue;
+            if (c >= 'A' && c <= 'Z' && (i > 0 || first)) continue;
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,129 @@
+package com.dsl.nlp;
+
+import java.util.*;
+
+/**
+ * Symmetric-delete spelling index (the SymSpell scheme): every vocabulary word is stored under all
+ * strings obtained by deleting up to {@code maxDistance} characters from its prefix, and a lookup
+ * generates the same deletes of the input. Two words within edit distance d share a delete, so
+ * candidates come from a handful of hash lookups instead of a scan of the vocabulary; they are then
+ * verified with the optimal string alignment distance (Levenshtein plus adjacent transpositions).
+ */
+public final class SpellingIndex {
+
+    private final int maxDistance;
+    private final int prefixLength;
+    private final Map<String, Integer> frequencies;
+    private final Map<String, String[]> deletes;
+
+    /**
+     * @param frequencies  vocabulary with a frequency each, used to break ties between candidates
+     * @param maxDistance  largest edit distance {@link #correct} can be asked for
+     * @param prefixLength deletes are only generated over this many leading characters
+     */
+    public SpellingIndex(Map<String, Integer> frequencies, int maxDistance, int prefixLength) {
+        this.maxDistance = maxDistance;
+        this.prefixLength = prefixLength;
+        this.frequencies = Map.copyOf(frequencies);
+
+        Map<String, List<String>> index = new HashMap<>();
+        for (String word : frequencies.keySet()) {
+            for (String delete : deletes(prefix(word), maxDistance)) {
+                index.computeIfAbsent(delete, k -> new ArrayList<>(2)).add(word);
+            }
+        }
+        Map<String, String[]> compact = new HashMap<>(index.size() * 2);
+        index.forEach((delete, words) -> compact.put(delete, words.toArray(String[]::new)));
+        this.deletes = compact;
+    }
+
+    public boolean contains(String word) {
+        return frequencies.containsKey(word);
+    }
+
+    public int size() {
+        return frequencies.size();
+    }
+
+    /**
+     * The vocabulary word closest to {@code word} within {@code distance} edits (more frequent first
+     * on equal distance), {@code word} itself if it is in the vocabulary, or null if nothing is close.
+     */
+    public String correct(String word, int distance) {
+        if (frequencies.containsKey(word)) return word;
+        distance = Math.min(distance, maxDistance);
+
+        String best = null;
+        int bestDistance = distance + 1;
+        int bestFrequency = 0;
+        Set<String> checked = new HashSet<>();
+        for (String delete : deletes(prefix(word), distance)) {
+            String[] candidates = deletes.get(delete);
+            if (candidates == null) continue;
+            for (String candidate : candidates) {
+                if (Math.abs(candidate.length() - word.length()) > distance || !checked.add(candidate)) continue;
+                // a result equal to the limit only means "at least that far"
+                int d = distance(word, candidate, distance + 1);
+                if (d > distance) continue;
+                int frequency = frequencies.get(candidate);
+                if (d < bestDistance || (d == bestDistance && frequency > bestFrequency)) {
+                    best = candidate;
+                    bestDistance = d;
+                    bestFrequency = frequency;
+                }
+            }
+        }
+        return best;
+    }
+
+    private String prefix(String word) {
+        return word.length() <= prefixLength ? word : word.substring(0, prefixLength);
+    }
+
+    // the string itself and all strings with up to n characters deleted
+    private static Set<String> deletes(String s, int n) {
+        Set<String> result = new HashSet<>();
+        result.add(s);
+        List<String> frontier = List.of(s);
+        for (int round = 0; round < n; round++) {
+            List<String> next = new ArrayList<>();
+            for (String t : frontier) {
+                for (int i = 0; i < t.length(); i++) {
+                    String d = t.substring(0, i) + t.substring(i + 1);
+                    if (result.add(d)) next.add(d);
+                }
+            }
+            frontier = next;
+        }
+        return result;
+    }
+
+    /**
+     * Optimal string alignment distance of a and b, or {@code limit} if it is at least that.
+     */
+    static int distance(String a, String b, int limit) {
+        int n = a.length(), m = b.length();
+        if (Math.abs(n - m) >= limit) return limit;
+        int[] prev2 = new int[m + 1], prev = new int[m + 1], cur = new int[m + 1];
+        for (int j = 0; j <= m; j++) prev[j] = j;
+        for (int i = 1; i <= n; i++) {
+            cur[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, prev2[j - 2] + 1);
+                }
+                cur[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin >= limit) return limit;
+            int[] t = prev2;
+            prev2 = prev;
+            prev = cur;
+            cur = t;
+        }
+        return Math.min(prev[m], limit);
+    }
+}
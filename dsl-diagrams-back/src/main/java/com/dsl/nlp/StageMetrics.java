@@ -0,0 +1,177 @@
+package com.dsl.nlp;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms of the stages of analyzing a message, per stage, final intent and processing
+ * method, written in the Prometheus text format as the histogram {@code nlp_stage_seconds}.
+ *
+ * A turn collects its stage times in a {@link Timings} as it runs, possibly on several threads, and
+ * records them once its intent and method are known. Recording adds to fixed buckets with
+ * {@link LongAdder}s, so it does not lock; the buckets are cumulated when written.
+ */
+public final class StageMetrics {
+
+    // the stages; Stanford annotators are STANFORD_ANNOTATOR + their name
+    public static final String PREPROCESSING = "preprocessing";
+    public static final String INTENT_SCORING = "intent_scoring";
+    public static final String ENTITY_EXTRACTION = "entity_extraction";
+    public static final String SENTIMENT = "sentiment";
+    public static final String RESPONSE_GENERATION = "response_generation";
+    public static final String STANFORD_ANNOTATOR = "stanford_";
+    public static final String STANFORD_EXTRACTION = "stanford_extraction";
+    public static final String MERGE = "merge";
+    public static final String TURN = "turn";
+
+    private static final String NAME = "nlp_stage_seconds";
+
+    // upper bounds of the buckets: 10us to 10s, 1-2.5-5 per decade
+    private static final long[] BOUNDS;
+
+    static {
+        List<Long> bounds = new ArrayList<>();
+        for (long decade = 10_000; decade <= 1_000_000_000L; decade *= 10) {
+            bounds.add(decade);
+            bounds.add(decade * 5 / 2);
+            bounds.add(decade * 5);
+        }
+        bounds.add(10_000_000_000L);
+        BOUNDS = bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private record Series(String stage, String intent, String method) { }
+
+    private static final class Histogram {
+        final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+        final LongAdder sumNanos = new LongAdder();
+
+        Histogram() {
+            for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+        }
+
+        void record(long nanos) {
+            int bucket = Arrays.binarySearch(BOUNDS, nanos);
+            buckets[bucket >= 0 ? bucket : -bucket - 1].increment();
+            sumNanos.add(nanos);
+        }
+    }
+
+    private final Map<Series, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Records the stage times of a turn under its final intent and processing method.
+     */
+    public void record(Timings timings, String intent, String method) {
+        String intentTag = intent == null || intent.isBlank() ? "unknown" : intent;
+        String methodTag = method == null || method.isBlank() ? "none" : method;
+        timings.forEach((stage, nanos) -> {
+            Series series = new Series(stage, intentTag, methodTag);
+            Histogram histogram = histograms.get(series);
+            if (histogram == null) histogram = histograms.computeIfAbsent(series, s -> new Histogram());
+            histogram.record(nanos);
+        });
+    }
+
+    /**
+     * Writes the histograms in the Prometheus text exposition format (version 0.0.4).
+     */
+    public void writePrometheus(Appendable out) throws IOException {
+        out.append("# HELP ").append(NAME).append(" Time spent in each stage of analyzing a customer message\n");
+        out.append("# TYPE ").append(NAME).append(" histogram\n");
+        List<Map.Entry<Series, Histogram>> entries = new ArrayList<>(histograms.entrySet());
+        entries.sort(Comparator.comparing((Map.Entry<Series, Histogram> e) -> e.getKey().stage())
+                .thenComparing(e -> e.getKey().intent()).thenComparing(e -> e.getKey().method()));
+        for (Map.Entry<Series, Histogram> entry : entries) {
+            Series series = entry.getKey();
+            String labels = "stage=\"" + escape(series.stage()) + "\",intent=\"" + escape(series.intent())
+                    + "\",method=\"" + escape(series.method()) + "\"";
+            LongAdder[] buckets = entry.getValue().buckets;
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                cumulative += buckets[i].sum();
+                String bound = i < BOUNDS.length ? seconds(BOUNDS[i]) : "+Inf";
+                out.append(NAME).append("_bucket{").append(labels).append(",le=\"").append(bound).append("\"} ")
+                        .append(Long.toString(cumulative)).append('\n');
+            }
+            out.append(NAME).append("_sum{").append(labels).append("} ")
+                    .append(seconds(entry.getValue().sumNanos.sum())).append('\n');
+            out.append(NAME).append("_count{").append(labels).append("} ").append(Long.toString(cumulative)).append('\n');
+        }
+    }
+
+    private static String seconds(long nanos) {
+        return BigDecimal.valueOf(nanos, 9).stripTrailingZeros().toPlainString();
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Stage times of one turn. Stages may be added from several threads, such as a Stanford
+     * analysis running on the annotation pool; the times of a stage added twice are summed, so every
+     * stage is one observation per turn.
+     */
+    public static final class Timings {
+
+        /**
+         * Timings nothing reads, for callers that do not record stages.
+         */
+        public static final Timings NONE = new Timings(false);
+
+        private final boolean kept;
+        private String[] stages = new String[16];
+        private long[] nanos = new long[16];
+        private int count;
+
+        public Timings() {
+            this(true);
+        }
+
+        private Timings(boolean kept) {
+            this.kept = kept;
+        }
+
+        public synchronized void add(String stage, long nanos) {
+            if (!kept) return;
+            for (int i = 0; i < count; i++) {
+                if (stages[i].equals(stage)) {
+                    this.nanos[i] += nanos;
+                    return;
+                }
+            }
+            if (count == stages.length) {
+                stages = Arrays.copyOf(stages, count * 2);
+                this.nanos = Arrays.copyOf(this.nanos, count * 2);
+            }
+            stages[count] = stage;
+            this.nanos[count++] = nanos;
+        }
+
+        /**
+         * Adds the time since {@code startNanos} (a {@link System#nanoTime()}) and returns the current
+         * time, to start the next stage from.
+         */
+        public long since(String stage, long startNanos) {
+            long now = System.nanoTime();
+            add(stage, now - startNanos);
+            return now;
+        }
+
+        synchronized void forEach(StageConsumer consumer) {
+            for (int i = 0; i < count; i++) consumer.accept(stages[i], nanos[i]);
+        }
+    }
+
+    interface StageConsumer {
+        void accept(String stage, long nanos);
+    }
+}
@@ -0,0 +1,457 @@
+package com.dsl.nlp;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+/**
+ * Finds the time expression in a customer message ("tomorrow morning", "next Tuesday at 2",
+ * "10:30 AM", "after lunch on thursday", "this week") and resolves it to the window of time it
+ * means.
+ *
+ * Parsing is one pass of a small finite-state machine over the message's words and numbers: a
+ * modifier ("next", "this", "at", "after", "before") puts the machine in a state that the next token
+ * either completes ("next" + "week") or drops, and a number is an hour only after "at"/"around"/
+ * "after"/"before", before "am"/"pm"/"o'clock", or written as a clock (10:30); "15th" is a day of the
+ * month. The first date and the first time of day found win. Words are looked up in a hash table
+ * over the message's own characters, so parsing allocates only its state and the result.
+ *
+ * An {@link Expression} does not depend on the current time, so it can be cached with the rest of a
+ * message's analysis; {@link Expression#resolve} turns it into concrete date-times relative to a
+ * "now" read in the dealership's time zone. An hour without am/pm is read as business hours: 1 to 6
+ * (or any hour said with "afternoon"/"evening") is in the afternoon.
+ */
+public final class TimeExpressionParser {
+
+    /**
+     * Which days an expression names; {@code day} of the expression qualifies it.
+     */
+    public enum Dates {
+        NONE,         // only a time of day: today, or tomorrow once it has passed
+        DAY,          // today + day days
+        WEEKDAY,      // the first day-of-week day after today ("friday", "next friday")
+        THIS_WEEKDAY, // the same, today included ("this friday")
+        DAY_OF_MONTH, // the next day-th of a month, today included ("the 15th")
+        THIS_WEEK,    // today to Sunday
+        NEXT_WEEK,    // Monday to Sunday of next week
+        WEEKEND,      // the coming Saturday and Sunday, or the rest of this weekend
+        THIS_MONTH,   // today to the end of the month
+        NEXT_MONTH
+    }
+
+    /**
+     * A time expression as written: its text, how many time words it is made of, the days it names
+     * and the time of day, [fromMinute, toMinute) counted from midnight; {@code exact} when it names a
+     * clock time, such as 2pm, rather than a part of the day.
+     */
+    public record Expression(String text, int terms, Dates dates, int day, int fromMinute, int toMinute,
+                             boolean exact) {
+
+        /**
+         * The window this expression means when said at {@code now}. A window that has started
+         * begins at {@code now} instead.
+         */
+        public Window resolve(LocalDateTime now) {
+            LocalDate today = now.toLocalDate();
+            LocalDate first, last; // days, inclusive
+            switch (dates) {
+                case DAY -> first = last = today.plusDays(day);
+                case WEEKDAY -> first = last = today.with(TemporalAdjusters.next(DayOfWeek.of(day)));
+                case THIS_WEEKDAY -> first = last = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.of(day)));
+                case DAY_OF_MONTH -> first = last = nextDayOfMonth(today, day);
+                case THIS_WEEK -> {
+                    first = today;
+                    last = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+                }
+                case NEXT_WEEK -> {
+                    first = today.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+                    last = first.plusDays(6);
+                }
+                case WEEKEND -> {
+                    first = today.getDayOfWeek().getValue() >= 6 ? today : today.with(TemporalAdjusters.next(DayOfWeek.SATURDAY));
+                    last = first.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+                }
+                case THIS_MONTH -> {
+                    first = today;
+                    last = today.with(TemporalAdjusters.lastDayOfMonth());
+                }
+                case NEXT_MONTH -> {
+                    first = today.plusMonths(1).withDayOfMonth(1);
+                    last = first.with(TemporalAdjusters.lastDayOfMonth());
+                }
+                default -> {
+                    boolean passed = toMinute <= now.getHour() * 60 + now.getMinute();
+                    first = last = passed ? today.plusDays(1) : today;
+                }
+            }
+            LocalDateTime start = first.atStartOfDay().plusMinutes(fromMinute);
+            LocalDateTime end = last.atStartOfDay().plusMinutes(toMinute);
+            if (start.isBefore(now) && end.isAfter(now)) start = now;
+            return new Window(start, end, fromMinute, toMinute, exact);
+        }
+
+        private static LocalDate nextDayOfMonth(LocalDate today, int day) {
+            YearMonth month = YearMonth.from(today);
+            if (day < today.getDayOfMonth()) month = month.plusMonths(1);
+            while (!month.isValidDay(day)) month = month.plusMonths(1);
+            return month.atDay(day);
+        }
+    }
+
+    /**
+     * Concrete date-times: from {@code start} to {@code end}, on each day only between fromMinute and
+     * toMinute after midnight. An {@code exact} window starts at the time the customer asked for.
+     */
+    public record Window(LocalDateTime start, LocalDateTime end, int fromMinute, int toMinute, boolean exact) {
+
+        public boolean contains(LocalDateTime time) {
+            int minute = time.getHour() * 60 + time.getMinute();
+            return !time.isBefore(start) && time.isBefore(end) && minute >= fromMinute && minute < toMinute;
+        }
+
+        /**
+         * "Tuesday, October 20 at 2:00 PM", "Tuesday, October 20, 8:00 AM to 12:00 PM" or
+         * "Monday, October 19 to Sunday, October 25".
+         */
+        public String describe() {
+            if (exact) return DAY_FORMAT.format(start) + " at " + TIME_FORMAT.format(start);
+            LocalDate lastDay = end.minusNanos(1).toLocalDate();
+            if (!lastDay.equals(start.toLocalDate())) {
+                return DAY_FORMAT.format(start) + " to " + DAY_FORMAT.format(lastDay);
+            }
+            if (fromMinute == 0 && toMinute == DAY) return DAY_FORMAT.format(start);
+            return DAY_FORMAT.format(start) + ", " + TIME_FORMAT.format(start) + " to " + TIME_FORMAT.format(end);
+        }
+    }
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("EEEE, MMMM d", Locale.US);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("h:mm a", Locale.US);
+
+    private static final int DAY = 24 * 60, HOUR = 60;
+
+    // word kinds
+    private static final int RELATIVE_DAY = 1, TONIGHT = 2, WEEKDAY = 3, NEXT = 4, THIS = 5, COMING = 6,
+            WEEK = 7, WEEKEND = 8, MONTH = 9, PART = 10, AT = 11, AFTER = 12, BEFORE = 13, AM = 14, PM = 15,
+            OCLOCK = 16, ORDINAL = 17, GOOD = 18;
+
+    // parts of the day, [from, to) in minutes
+    private static final int MORNING = 0, NOON = 1, AFTERNOON = 2, EVENING = 3, NIGHT = 4;
+    private static final int[][] PARTS = {{8 * HOUR, 12 * HOUR}, {12 * HOUR, 13 * HOUR}, {12 * HOUR, 17 * HOUR},
+            {17 * HOUR, 20 * HOUR}, {18 * HOUR, 22 * HOUR}};
+
+    private static final Vocabulary WORDS = new Vocabulary();
+
+    static {
+        WORDS.add(RELATIVE_DAY, 0, "today");
+        WORDS.add(RELATIVE_DAY, 1, "tomorrow", "tomorow", "tmrw", "tmr");
+        WORDS.add(TONIGHT, 0, "tonight");
+        String[] weekdays = {"monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday"};
+        for (int d = 0; d < weekdays.length; d++) WORDS.add(WEEKDAY, d + 1, weekdays[d], weekdays[d] + "s");
+        WORDS.add(WEEKDAY, 2, "tues");
+        WORDS.add(WEEKDAY, 3, "weds");
+        WORDS.add(WEEKDAY, 4, "thurs");
+        WORDS.add(NEXT, 0, "next");
+        WORDS.add(THIS, 0, "this");
+        WORDS.add(COMING, 0, "coming");
+        WORDS.add(WEEK, 0, "week");
+        WORDS.add(WEEKEND, 0, "weekend");
+        WORDS.add(MONTH, 0, "month");
+        WORDS.add(PART, MORNING, "morning");
+        WORDS.add(PART, NOON, "noon", "midday", "lunch", "lunchtime");
+        WORDS.add(PART, AFTERNOON, "afternoon");
+        WORDS.add(PART, EVENING, "evening");
+        WORDS.add(PART, NIGHT, "night");
+        WORDS.add(AT, 0, "at", "around");
+        WORDS.add(AFTER, 0, "after");
+        WORDS.add(BEFORE, 0, "before", "by");
+        WORDS.add(AM, 0, "am");
+        WORDS.add(PM, 0, "pm");
+        WORDS.add(OCLOCK, 0, "o'clock", "oclock");
+        WORDS.add(ORDINAL, 0, "st", "nd", "rd", "th");
+        WORDS.add(GOOD, 0, "good");
+    }
+
+    private TimeExpressionParser() {
+    }
+
+    /**
+     * The words time expressions are made of, for spelling correction; abbreviations are left out.
+     */
+    public static List<String> words() {
+        return List.of("today", "tomorrow", "tonight", "monday", "tuesday", "wednesday", "thursday", "friday",
+                "saturday", "sunday", "next", "this", "coming", "week", "weekend", "month", "morning", "noon",
+                "midday", "lunch", "afternoon", "evening", "night", "around", "after", "before", "am", "pm");
+    }
+
+    /**
+     * The time expression of {@code message}, or null if it has none.
+     */
+    public static Expression parse(String message) {
+        return message == null ? null : new Machine(message).run();
+    }
+
+    /**
+     * One parse: the state, and what has been found so far.
+     */
+    private static final class Machine {
+        final String text;
+        final int n;
+        int pos;
+        // the token just read: [start, end), a number's value or a word's kind and value
+        int start, end, number, minutes, kind, value;
+        boolean isNumber, isClock;
+
+        // state: the modifier waiting for its word, and whether the previous word was "good"
+        int pending, pendingStart;
+        boolean afterGood;
+
+        int terms, first = -1, last;
+        Dates dates = Dates.NONE;
+        int day;
+        int part = -1, partRelation;
+        int clock = -1, clockRelation;
+        boolean meridiem;
+
+        Machine(String text) {
+            this.text = text;
+            this.n = text.length();
+        }
+
+        Expression run() {
+            while (next()) {
+                int modifier = pending, modifierStart = pendingStart;
+                pending = 0;
+                boolean good = afterGood;
+                afterGood = false;
+                if (isNumber) {
+                    number(modifier, modifierStart);
+                    continue;
+                }
+                switch (kind) {
+                    case RELATIVE_DAY -> date(Dates.DAY, value, start);
+                    case TONIGHT -> {
+                        date(Dates.DAY, 0, start);
+                        part(EVENING, 0, start);
+                    }
+                    case WEEKDAY -> date(modifier == THIS ? Dates.THIS_WEEKDAY : Dates.WEEKDAY, value,
+                            modifier == NEXT || modifier == THIS ? modifierStart : start);
+                    case WEEK -> {
+                        if (modifier == NEXT || modifier == THIS) {
+                            date(modifier == NEXT ? Dates.NEXT_WEEK : Dates.THIS_WEEK, 0, modifierStart);
+                        }
+                    }
+                    case MONTH -> {
+                        if (modifier == NEXT || modifier == THIS) {
+                            date(modifier == NEXT ? Dates.NEXT_MONTH : Dates.THIS_MONTH, 0, modifierStart);
+                        }
+                    }
+                    case WEEKEND -> date(Dates.WEEKEND, 0, modifier == NEXT || modifier == THIS ? modifierStart : start);
+                    // "good morning" is a greeting
+                    case PART -> {
+                        if (!good) part(value, modifier == AFTER || modifier == BEFORE ? modifier : 0,
+                                modifier != 0 ? modifierStart : start);
+                    }
+                    // "this coming friday": coming keeps the modifier, or is one
+                    case COMING -> wait(modifier != 0 ? modifier : NEXT, modifier != 0 ? modifierStart : start);
+                    case NEXT, THIS, AT, AFTER, BEFORE -> wait(kind, start);
+                    case GOOD -> afterGood = true;
+                    default -> { }
+                }
+            }
+            if (terms == 0) return null;
+            return expression();
+        }
+
+        private void wait(int modifier, int from) {
+            pending = modifier;
+            pendingStart = from;
+        }
+
+        private void number(int modifier, int modifierStart) {
+            int numberStart = start, numberEnd = end, hour = number, minute = minutes;
+            boolean clockForm = isClock;
+            // a suffix or am/pm right after: look ahead one token, and take it back if it is not one
+            int resume = pos;
+            boolean hasNext = next();
+            if (!clockForm && hasNext && !isNumber && kind == ORDINAL && start == numberEnd) {
+                if (hour >= 1 && hour <= 31) date(Dates.DAY_OF_MONTH, hour, numberStart);
+                return;
+            }
+            boolean am = hasNext && !isNumber && kind == AM, pm = hasNext && !isNumber && kind == PM;
+            boolean oclock = hasNext && !isNumber && kind == OCLOCK;
+            int relation = modifier == AT ? 0 : modifier;
+            boolean cued = modifier == AT || modifier == AFTER || modifier == BEFORE;
+            boolean money = numberStart > 0 && text.charAt(numberStart - 1) == '$';
+            if (!(clockForm || am || pm || oclock || cued) || money || hour > 23 || (am || pm) && (hour == 0 || hour > 12)) {
+                pos = resume;
+                return;
+            }
+            if (!(am || pm || oclock)) pos = resume;
+            if (clock >= 0) return;
+            if (am || pm || oclock) {
+                numberEnd = end;
+                terms++;
+            }
+            if (am) hour %= 12;
+            if (pm) hour = hour % 12 + 12;
+            clock = hour * HOUR + minute;
+            clockRelation = relation;
+            meridiem = am || pm || hour == 0 || hour > 12;
+            found(cued ? modifierStart : numberStart, numberEnd);
+        }
+
+        private void date(Dates kind, int value, int from) {
+            if (dates != Dates.NONE) return;
+            dates = kind;
+            day = value;
+            found(from, end);
+        }
+
+        private void part(int which, int relation, int from) {
+            if (part >= 0) return;
+            part = which;
+            partRelation = relation;
+            found(from, end);
+        }
+
+        private void found(int from, int to) {
+            terms++;
+            if (first < 0) first = from;
+            last = Math.max(last, to);
+        }
+
+        private Expression expression() {
+            int fromMinute = 0, toMinute = DAY;
+            int partFrom = part >= 0 ? PARTS[part][0] : 0, partTo = part >= 0 ? PARTS[part][1] : DAY;
+            boolean exact = false;
+            if (clock >= 0) {
+                int minute = clock;
+                // business hours: 1 to 6 is afternoon, and so is any hour said with afternoon or evening
+                if (!meridiem && minute < 12 * HOUR && minute >= HOUR && (minute < 7 * HOUR || partFrom >= 12 * HOUR)) {
+                    minute += 12 * HOUR;
+                }
+                switch (clockRelation) {
+                    case AFTER -> {
+                        fromMinute = minute;
+                        toMinute = Math.max(partTo, minute + 1);
+                    }
+                    case BEFORE -> {
+                        fromMinute = Math.min(partFrom, minute);
+                        toMinute = minute;
+                    }
+                    default -> {
+                        fromMinute = minute;
+                        toMinute = Math.min(minute + HOUR, DAY);
+                        exact = true;
+                    }
+                }
+            } else if (part >= 0) {
+                switch (partRelation) {
+                    case AFTER -> fromMinute = partTo;
+                    case BEFORE -> toMinute = partFrom;
+                    default -> {
+                        fromMinute = partFrom;
+                        toMinute = partTo;
+                    }
+                }
+            }
+            return new Expression(text.substring(first, last), terms, dates, day, fromMinute, toMinute, exact);
+        }
+
+        /**
+         * Reads the next word or number; false at the end of the message.
+         */
+        private boolean next() {
+            while (pos < n && !isTokenChar(text.charAt(pos))) pos++;
+            if (pos >= n) return false;
+            start = pos;
+            char c = text.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                isNumber = true;
+                isClock = false;
+                number = 0;
+                minutes = 0;
+                while (pos < n && isDigit(pos)) number = Math.min(number * 10 + text.charAt(pos++) - '0', 10_000);
+                if (pos - start <= 2 && pos + 2 < n && text.charAt(pos) == ':' && isDigit(pos + 1) && isDigit(pos + 2)
+                        && (pos + 3 == n || !isDigit(pos + 3))) {
+                    minutes = (text.charAt(pos + 1) - '0') * 10 + text.charAt(pos + 2) - '0';
+                    isClock = minutes < 60;
+                    pos += 3;
+                }
+                if (pos - start > 2 && !isClock) number = 10_000;
+                end = pos;
+                return true;
+            }
+            isNumber = false;
+            // "a.m." and "p.m."
+            if ((c == 'a' || c == 'A' || c == 'p' || c == 'P') && pos + 2 < n && text.charAt(pos + 1) == '.'
+                    && (text.charAt(pos + 2) == 'm' || text.charAt(pos + 2) == 'M')) {
+                kind = c == 'a' || c == 'A' ? AM : PM;
+                pos += text.startsWith(".", pos + 3) ? 4 : 3;
+                end = pos;
+                return true;
+            }
+            while (pos < n && isLetter(text.charAt(pos)) || pos < n && text.charAt(pos) == '\'' && pos + 1 < n
+                    && isLetter(text.charAt(pos + 1))) {
+                pos++;
+            }
+            end = pos;
+            int word = WORDS.find(text, start, end);
+            kind = word < 0 ? 0 : WORDS.kinds[word];
+            value = word < 0 ? 0 : WORDS.values[word];
+            return true;
+        }
+
+        private boolean isDigit(int i) {
+            char c = text.charAt(i);
+            return c >= '0' && c <= '9';
+        }
+    }
+
+    private static boolean isTokenChar(char c) {
+        return c >= '0' && c <= '9' || isLetter(c);
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    /**
+     * Open-addressing table of lower-case ASCII words, looked up by a region of a message.
+     */
+    private static final class Vocabulary {
+        final String[] words = new String[128];
+        final int[] kinds = new int[128], values = new int[128];
+
+        void add(int kind, int value, String... spellings) {
+            for (String word : spellings) {
+                int slot = hash(word, 0, word.length()) & words.length - 1;
+                while (words[slot] != null) slot = slot + 1 & words.length - 1;
+                words[slot] = word;
+                kinds[slot] = kind;
+                values[slot] = value;
+            }
+        }
+
+        int find(String text, int from, int to) {
+            int slot = hash(text, from, to) & words.length - 1;
+            for (String word; (word = words[slot]) != null; slot = slot + 1 & words.length - 1) {
+                if (word.length() == to - from && text.regionMatches(true, from, word, 0, word.length())) return slot;
+            }
+            return -1;
+        }
+
+        private static int hash(String s, int from, int to) {
+            int h = 0;
+            for (int i = from; i < to; i++) {
+                char c = s.charAt(i);
+                h = 31 * h + (c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c);
+            }
+            return h ^ h >>> 7;
+        }
+    }
+}
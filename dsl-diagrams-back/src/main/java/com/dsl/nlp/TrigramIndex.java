@@ -0,0 +1,169 @@
+package com.dsl.nlp;
+
+import java.util.*;
+
+/**
+ * Immutable inverted index from character trigrams to documents, for typo-tolerant lookup of short
+ * texts such as customer names, ranked the way Postgres {@code pg_trgm}'s {@code similarity()} ranks.
+ *
+ * Texts are split into words of letters and digits, lower-cased, and each word padded with two
+ * spaces in front and one behind ("  jon "), so "Jon Smith" has the trigrams "  j", " jo", "jon",
+ * "on ", "  s", " sm", ... . The similarity of a query and a document is the number of trigrams they
+ * share over the number in either. A search counts the shared trigrams of every document in the
+ * posting lists of the query's trigrams, so its cost grows with how common those trigrams are rather
+ * than with the size of the collection (apart from clearing one counter per document).
+ */
+public final class TrigramIndex {
+
+    /**
+     * A document and its similarity to the query, from 0 to 1.
+     */
+    public record Match(long id, double similarity) { }
+
+    private static final Comparator<Match> BEST_FIRST =
+            Comparator.comparingDouble(Match::similarity).reversed().thenComparingLong(Match::id);
+
+    private final long[] ids;
+    private final short[] sizes;
+    private final Map<Long, int[]> postings;
+
+    private TrigramIndex(long[] ids, short[] sizes, Map<Long, int[]> postings) {
+        this.ids = ids;
+        this.sizes = sizes;
+        this.postings = postings;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Up to {@code limit} documents at least {@code threshold} similar to {@code query}, best first,
+     * then by id.
+     */
+    public List<Match> search(String query, int limit, double threshold) {
+        long[] trigrams = trigrams(query);
+        if (trigrams.length == 0 || limit <= 0) return List.of();
+        int q = trigrams.length;
+        int[][] lists = new int[q][];
+        int open = 0;
+        for (long trigram : trigrams) {
+            int[] list = postings.get(trigram);
+            if (list != null) lists[open++] = list;
+        }
+        // c / (q + d - c) >= t needs c >= t * q, since d >= c
+        int minShared = Math.max(1, (int) Math.ceil(threshold * q - 1e-9));
+        if (open < minShared) return List.of();
+        Arrays.sort(lists, 0, open, Comparator.comparingInt(list -> list.length));
+        // a document sharing minShared trigrams is in one of any open - minShared + 1 lists, so only the
+        // shortest ones add candidates; the long, common ones just add to their counts
+        int candidateLists = open - minShared + 1;
+        short[] shared = new short[ids.length];
+        int[] candidates = new int[64];
+        int count = 0;
+        for (int l = 0; l < open; l++) {
+            for (int doc : lists[l]) {
+                if (shared[doc]++ == 0 && l < candidateLists) {
+                    if (count == candidates.length) candidates = Arrays.copyOf(candidates, count * 2);
+                    candidates[count++] = doc;
+                }
+            }
+        }
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        for (int c = 0; c < count; c++) {
+            int doc = candidates[c];
+            if (shared[doc] < minShared) continue;
+            double similarity = (double) shared[doc] / (q + sizes[doc] - shared[doc]);
+            if (similarity < threshold) continue;
+            best.add(new Match(ids[doc], similarity));
+            if (best.size() > limit) best.poll();
+        }
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(BEST_FIRST);
+        return matches;
+    }
+
+    // distinct trigrams of the text, sorted; three 16-bit chars per long
+    static long[] trigrams(String text) {
+        if (text == null) return new long[0];
+        long[] trigrams = new long[text.length() * 2 + 4];
+        int count = 0;
+        int i = 0, n = text.length();
+        while (i < n) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            char a = ' ', b = ' ';
+            for (; i < n && Character.isLetterOrDigit(text.charAt(i)); i++) {
+                char c = Character.toLowerCase(text.charAt(i));
+                if (count == trigrams.length) trigrams = Arrays.copyOf(trigrams, count * 2);
+                trigrams[count++] = pack(a, b, c);
+                a = b;
+                b = c;
+            }
+            if (count == trigrams.length) trigrams = Arrays.copyOf(trigrams, count * 2);
+            trigrams[count++] = pack(a, b, ' ');
+        }
+        Arrays.sort(trigrams, 0, count);
+        int distinct = 0;
+        for (int t = 0; t < count; t++) {
+            if (t == 0 || trigrams[t] != trigrams[t - 1]) trigrams[distinct++] = trigrams[t];
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    private static long pack(char a, char b, char c) {
+        return (long) a << 32 | (long) b << 16 | c;
+    }
+
+    /**
+     * Collects documents for an index; not thread-safe.
+     */
+    public static final class Builder {
+        private long[] ids = new long[1024];
+        private short[] sizes = new short[1024];
+        private int count;
+        private final Map<Long, Postings> postings = new HashMap<>();
+
+        private static final class Postings {
+            int[] docs = new int[4];
+            int size;
+
+            void add(int doc) {
+                if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+                docs[size++] = doc;
+            }
+        }
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a document; texts without letters or digits are skipped.
+         */
+        public Builder add(long id, String text) {
+            long[] trigrams = trigrams(text);
+            if (trigrams.length == 0) return this;
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                sizes = Arrays.copyOf(sizes, count * 2);
+            }
+            ids[count] = id;
+            sizes[count] = (short) Math.min(trigrams.length, Short.MAX_VALUE);
+            for (long trigram : trigrams) postings.computeIfAbsent(trigram, t -> new Postings()).add(count);
+            count++;
+            return this;
+        }
+
+        public TrigramIndex build() {
+            Map<Long, int[]> frozen = new HashMap<>(postings.size() * 4 / 3 + 1);
+            postings.forEach((trigram, list) -> frozen.put(trigram, Arrays.copyOf(list.docs, list.size)));
+            return new TrigramIndex(Arrays.copyOf(ids, count), Arrays.copyOf(sizes, count), frozen);
+        }
+    }
+}
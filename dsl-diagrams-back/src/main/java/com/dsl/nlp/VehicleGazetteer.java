@@ -0,0 +1,290 @@
+package com.dsl.nlp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static com.dsl.nlp.KeywordAutomaton.isBoundary;
+import static com.dsl.nlp.KeywordAutomaton.isSpace;
+import static com.dsl.nlp.KeywordAutomaton.isWord;
+
+/**
+ * Vehicle makes, models and their aliases from {@code /nlp/vehicles.txt}, compiled into a trie over
+ * name tokens, and the year/make/model recognizer both NLP layers share.
+ *
+ * Names are split into tokens at spaces, hyphens and changes between letters and digits, so "F-150",
+ * "f 150" and "F150" walk the same path, and "Grand Cherokee" is one name rather than two words.
+ * {@link #find} reads a message once, left to right: at each word it takes the longest name ending on
+ * a word boundary, and the first year from 1950 to 2049. The make is the first one mentioned. A model
+ * only counts when written capitalized or with a digit, or right after its make, so "my honda needs a
+ * fit" does not report a Fit; with no make mentioned, such a model also gives the make.
+ *
+ * Instances are immutable and lookups allocate nothing but the result.
+ */
+public final class VehicleGazetteer {
+
+    /**
+     * A recognized vehicle, with canonical names; parts not mentioned are null.
+     */
+    public record Vehicle(String year, String make, String model) {
+
+        public static final Vehicle NONE = new Vehicle(null, null, null);
+
+        public boolean isEmpty() {
+            return year == null && make == null && model == null;
+        }
+
+        /**
+         * Adds the parts found as {@link EntityExtractor} entities, keeping values already there.
+         */
+        public void addTo(Map<String, String> entities) {
+            if (year != null) entities.putIfAbsent(EntityExtractor.VEHICLE_YEAR, year);
+            if (make != null) entities.putIfAbsent(EntityExtractor.VEHICLE_MAKE, make);
+            if (model != null) entities.putIfAbsent(EntityExtractor.VEHICLE_MODEL, model);
+        }
+    }
+
+    private static final int FIRST_YEAR = 1950, LAST_YEAR = 2049;
+    private static final String[] YEARS = new String[LAST_YEAR - FIRST_YEAR + 1];
+
+    static {
+        for (int y = FIRST_YEAR; y <= LAST_YEAR; y++) YEARS[y - FIRST_YEAR] = Integer.toString(y);
+    }
+
+    private static final class StandardHolder {
+        static final VehicleGazetteer INSTANCE = load("/nlp/vehicles.txt");
+    }
+
+    // a make, or a model of make
+    private record Entry(String make, String model) { }
+
+    // children are few, so a linear search over parallel arrays beats a map
+    private static final class Node {
+        char[] labels = new char[0];
+        Node[] children = new Node[0];
+        int entry = -1;
+
+        Node child(char c) {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == c) return children[i];
+            }
+            return null;
+        }
+
+        Node addChild(char c) {
+            Node child = child(c);
+            if (child != null) return child;
+            child = new Node();
+            labels = Arrays.copyOf(labels, labels.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            labels[labels.length - 1] = c;
+            children[children.length - 1] = child;
+            return child;
+        }
+    }
+
+    // the token separator inside trie paths
+    private static final char SEPARATOR = ' ';
+
+    private final Node root = new Node();
+    private final Entry[] entries;
+    private final Set<String> words;
+
+    private VehicleGazetteer(List<Entry> entries, Map<String, Integer> names) {
+        this.entries = entries.toArray(Entry[]::new);
+        Set<String> words = new TreeSet<>();
+        names.forEach((key, entry) -> {
+            Node node = root;
+            for (int i = 0; i < key.length(); i++) node = node.addChild(key.charAt(i));
+            node.entry = entry;
+            words.addAll(Arrays.asList(key.split(" ")));
+        });
+        this.words = Collections.unmodifiableSet(words);
+    }
+
+    /**
+     * The gazetteer on the classpath, loaded once.
+     */
+    public static VehicleGazetteer standard() {
+        return StandardHolder.INSTANCE;
+    }
+
+    static VehicleGazetteer load(String resource) {
+        try (InputStream in = VehicleGazetteer.class.getResourceAsStream(resource)) {
+            if (in == null) throw new IllegalStateException("Missing " + resource);
+            return parse(new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds a gazetteer from lines of the form {@code Make[=Alias...]: Model[=Alias...], ...};
+     * blank lines and lines starting with '#' are skipped.
+     *
+     * @throws IllegalArgumentException if a line has no make or a name has no letters or digits
+     */
+    public static VehicleGazetteer parse(List<String> lines) {
+        List<Entry> entries = new ArrayList<>();
+        // normalized name to entry; the first entry to claim a name keeps it
+        Map<String, Integer> names = new LinkedHashMap<>();
+        for (String line : lines) {
+            if (line.isBlank() || line.startsWith("#")) continue;
+            int colon = line.indexOf(':');
+            String[] makeNames = (colon < 0 ? line : line.substring(0, colon)).split("=");
+            String make = makeNames[0].trim();
+            if (make.isEmpty()) throw new IllegalArgumentException("No make in: " + line);
+            add(entries, names, new Entry(make, null), makeNames);
+            if (colon < 0) continue;
+            for (String model : line.substring(colon + 1).split(",")) {
+                if (model.isBlank()) continue;
+                String[] modelNames = model.split("=");
+                add(entries, names, new Entry(make, modelNames[0].trim()), modelNames);
+            }
+        }
+        return new VehicleGazetteer(entries, names);
+    }
+
+    private static void add(List<Entry> entries, Map<String, Integer> names, Entry entry, String[] spellings) {
+        entries.add(entry);
+        for (String spelling : spellings) {
+            String key = normalize(spelling);
+            if (key.isEmpty()) throw new IllegalArgumentException("Not a vehicle name: '" + spelling + "'");
+            names.putIfAbsent(key, entries.size() - 1);
+        }
+    }
+
+    // "F-150" -> "f 150": lower-case tokens of letters or digits, joined by single separators
+    static String normalize(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        char previous = SEPARATOR;
+        for (int i = 0; i < name.length(); i++) {
+            char c = lower(name.charAt(i));
+            if (!isAlphanumeric(c)) {
+                previous = SEPARATOR;
+                continue;
+            }
+            if (key.length() > 0 && (previous == SEPARATOR || isDigit(previous) != isDigit(c))) key.append(SEPARATOR);
+            key.append(c);
+            previous = c;
+        }
+        return key.toString();
+    }
+
+    /**
+     * Every lower-case token of the names, for spelling vocabularies.
+     */
+    public Set<String> words() {
+        return words;
+    }
+
+    /**
+     * The year, make and model mentioned in {@code text}, or {@link Vehicle#NONE}.
+     */
+    public Vehicle find(CharSequence text) {
+        int n = text.length();
+        String year = null;
+        Entry make = null, model = null, firstModel = null, lastMake = null;
+        int lastMakeEnd = -1;
+        int i = 0;
+        while (i < n) {
+            if (!isWord(text.charAt(i)) || (i > 0 && isWord(text.charAt(i - 1)))) {
+                i++;
+                continue;
+            }
+            if (year == null) year = year(text, i);
+            long match = longestMatch(text, i);
+            if (match < 0) {
+                i++;
+                continue;
+            }
+            int end = (int) (match >>> 32);
+            Entry entry = entries[(int) match];
+            if (entry.model == null) {
+                if (make == null) make = entry;
+                lastMake = entry;
+                lastMakeEnd = end;
+            } else if (isDistinctive(text, i, end)
+                    || (lastMake != null && lastMake.make.equals(entry.make) && isSpaces(text, lastMakeEnd, i))) {
+                if (firstModel == null) firstModel = entry;
+                if (model == null && make != null && make.make.equals(entry.make)) model = entry;
+            }
+            i = end;
+        }
+        if (model == null && firstModel != null && (make == null || make.make.equals(firstModel.make))) {
+            model = firstModel;
+        }
+        if (year == null && make == null && model == null) return Vehicle.NONE;
+        if (model == null) return new Vehicle(year, make != null ? make.make : null, null);
+        return new Vehicle(year, model.make, model.model);
+    }
+
+    // \b(19[5-9]\d|20[0-4]\d)\b at a word start
+    private static String year(CharSequence text, int s) {
+        if (s + 4 > text.length() || !isBoundary(text, s + 4)) return null;
+        int value = 0;
+        for (int i = s; i < s + 4; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) return null;
+            value = value * 10 + (c - '0');
+        }
+        return value >= FIRST_YEAR && value <= LAST_YEAR ? YEARS[value - FIRST_YEAR] : null;
+    }
+
+    // the longest name starting at s and ending on a word boundary, as end << 32 | entry, or -1
+    private long longestMatch(CharSequence text, int s) {
+        int n = text.length();
+        Node node = root;
+        long best = -1;
+        int p = s;
+        while (node != null) {
+            if (node.entry >= 0 && isBoundary(text, p)) best = (long) p << 32 | node.entry;
+            if (p == n) break;
+            char c = lower(text.charAt(p));
+            if (isAlphanumeric(c)) {
+                // "f150" reads as "f 150"
+                if (p > s && isAlphanumeric(lower(text.charAt(p - 1))) && isDigit(text.charAt(p - 1)) != isDigit(c)) {
+                    node = node.child(SEPARATOR);
+                    if (node == null) break;
+                }
+                node = node.child(c);
+                p++;
+            } else if (c == ' ' || c == '-') {
+                while (p < n && (text.charAt(p) == ' ' || text.charAt(p) == '-')) p++;
+                node = node.child(SEPARATOR);
+            } else {
+                break;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isDistinctive(CharSequence text, int start, int end) {
+        if (Character.isUpperCase(text.charAt(start))) return true;
+        for (int i = start; i < end; i++) {
+            if (isDigit(text.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    private static boolean isSpaces(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isSpace(text.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static char lower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || isDigit(c);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
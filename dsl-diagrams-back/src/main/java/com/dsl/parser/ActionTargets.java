@@ -0,0 +1,32 @@
+package com.dsl.parser;
+
+import com.dsl.models.*;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Jump targets (TRACK:STATE, or a bare TRACK) of an action: GOTOs, branch lines and switch branches.
+ */
+public final class ActionTargets {
+
+    private ActionTargets() {
+    }
+
+    public static Collection<String> of(Action action) {
+        if (action instanceof GotoAction a) return List.of(a.target());
+        if (action instanceof BranchAction a) return List.of(a.target());
+        if (action instanceof SwitchAction a) return a.branches().values();
+        return List.of();
+    }
+
+    public static String track(String target) {
+        int colon = target.indexOf(':');
+        return colon < 0 ? target : target.substring(0, colon);
+    }
+
+    public static String state(String target) {
+        int colon = target.indexOf(':');
+        return colon < 0 ? "" : target.substring(colon + 1);
+    }
+}
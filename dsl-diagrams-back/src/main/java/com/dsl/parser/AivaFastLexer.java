@@ -0,0 +1,256 @@
+package com.dsl.parser;
+
+import com.dsl.grammar.AivaLexer;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written {@link TokenSource} for the Aiva format, a drop-in for {@link AivaLexer}.
+ *
+ * It scans a code point array directly instead of running the lexer ATN, and resolves keywords
+ * with a perfect hash over (length, third char). Token types, offsets, line/column, text, and the
+ * "token recognition error" reports are the same as those of the generated lexer, including its
+ * recovery quirks (a '-' that does not start '->', or a '/' that does not start a comment, is reported
+ * and skipped together with the next char).
+ */
+public class AivaFastLexer implements TokenSource {
+
+    private static final String[] KEYWORDS = new String[16];
+    private static final int[] KEYWORD_TYPES = new int[16];
+
+    static {
+        addKeyword("GOTO", AivaLexer.GOTO);
+        addKeyword("CALL_FUNCTION_SWITCH", AivaLexer.CALL_FUNCTION_SWITCH);
+        addKeyword("SENDMESSAGE", AivaLexer.SENDMESSAGE);
+        addKeyword("MARK_LEAD_PHASE", AivaLexer.MARK_LEAD_PHASE);
+        addKeyword("UNSCHEDULE", AivaLexer.UNSCHEDULE);
+        addKeyword("SWITCH_DIRECTION", AivaLexer.SWITCH_DIRECTION);
+        addKeyword("SEND_TEMPLATE", AivaLexer.SEND_TEMPLATE);
+        addKeyword("START_TRACK", AivaLexer.START_TRACK);
+        addKeyword("END_TRACK", AivaLexer.END_TRACK);
+        addKeyword("END", AivaLexer.END);
+        addKeyword("INCLUDE", AivaLexer.INCLUDE);
+    }
+
+    private static void addKeyword(String keyword, int type) {
+        int h = keywordHash(keyword.length(), keyword.charAt(2));
+        if (KEYWORDS[h] != null) {
+            throw new IllegalStateException("keyword hash collision: " + keyword + " / " + KEYWORDS[h]);
+        }
+        KEYWORDS[h] = keyword;
+        KEYWORD_TYPES[h] = type;
+    }
+
+    private static int keywordHash(int length, int thirdChar) {
+        return ((length << 2) + thirdChar) & 15;
+    }
+
+    private final int[] data;
+    private final int end;
+    private final String sourceName;
+    private final Pair<TokenSource, CharStream> source;
+    private final List<ANTLRErrorListener> listeners = new ArrayList<>(List.of(ConsoleErrorListener.INSTANCE));
+    private TokenFactory<?> factory = CommonTokenFactory.DEFAULT;
+
+    private int index;
+    private int line = 1;
+    private int column;
+
+    public AivaFastLexer(String text) {
+        this(AivaScriptParser.codePoints(text), 0, -1, IntStream.UNKNOWN_SOURCE_NAME);
+    }
+
+    /**
+     * Lexes {@code data[start, end)}; {@code end < 0} means the whole array.
+     */
+    public AivaFastLexer(int[] data, int start, int end, String sourceName) {
+        this.data = data;
+        this.index = start;
+        this.end = end < 0 ? data.length : end;
+        this.sourceName = sourceName;
+        this.source = new Pair<>(this, new CharStreamWindow(data, start, this.end, sourceName));
+    }
+
+    @Override
+    public Token nextToken() {
+        while (true) {
+            // WS: [ \t\r\n]+ -> skip
+            while (index < end && isWhitespace(data[index])) advance();
+            if (index >= end) {
+                return factory.create(source, Token.EOF, "<EOF>", Token.DEFAULT_CHANNEL, index, index - 1, line, column);
+            }
+
+            int startIndex = index, startLine = line, startColumn = column;
+            int c = data[index];
+
+            // LINE_COMMENT: '//' ~[\r\n]* -> skip
+            if (c == '/' && index + 1 < end && data[index + 1] == '/') {
+                while (index < end && data[index] != '\r' && data[index] != '\n') advance();
+                continue;
+            }
+
+            if (isIdentifierStart(c)) {
+                do advance(); while (index < end && isIdentifierPart(data[index]));
+                return identifierOrKeyword(startIndex, startLine, startColumn);
+            }
+
+            int type = switch (c) {
+                case '>' -> AivaLexer.GT;
+                case ':' -> AivaLexer.COLON;
+                case '.' -> AivaLexer.DOT;
+                case '-' -> index + 1 < end && data[index + 1] == '>' ? AivaLexer.ARROW : Token.INVALID_TYPE;
+                default -> Token.INVALID_TYPE;
+            };
+
+            if (type == AivaLexer.ARROW) {
+                advance();
+                advance();
+                return token(AivaLexer.ARROW, "->", startIndex, startLine, startColumn);
+            }
+            if (type != Token.INVALID_TYPE) {
+                advance();
+                return token(type, Character.toString(c), startIndex, startLine, startColumn);
+            }
+
+            // No viable token. Like the ATN simulator, a lone '-' or '/' has already been consumed
+            // when the error is detected; the reported text runs up to and including the lookahead
+            // char, which recovery then skips as well.
+            if (c == '-' || c == '/') advance();
+            int stop = Math.min(index, end - 1);
+            reportError(startLine, startColumn, new String(data, startIndex, stop - startIndex + 1));
+            if (index < end) advance();
+        }
+    }
+
+    private Token identifierOrKeyword(int startIndex, int startLine, int startColumn) {
+        int length = index - startIndex;
+        if (length >= 3 && length <= 20) {
+            int h = keywordHash(length, data[startIndex + 2]);
+            String keyword = KEYWORDS[h];
+            if (keyword != null && keyword.length() == length && matches(keyword, startIndex)) {
+                if (KEYWORD_TYPES[h] == AivaLexer.INCLUDE) return includeOrIdentifier(startIndex, startLine, startColumn);
+                return token(KEYWORD_TYPES[h], keyword, startIndex, startLine, startColumn);
+            }
+        }
+        return token(AivaLexer.IDENTIFIER, new String(data, startIndex, length), startIndex, startLine, startColumn);
+    }
+
+    // INCLUDE: 'INCLUDE' [ \t]+ ~[ \t\r\n]+ ; without a path the longest match is the bare identifier
+    private Token includeOrIdentifier(int startIndex, int startLine, int startColumn) {
+        int i = index;
+        while (i < end && (data[i] == ' ' || data[i] == '\t')) i++;
+        if (i == index || i >= end || isWhitespace(data[i])) {
+            return token(AivaLexer.IDENTIFIER, "INCLUDE", startIndex, startLine, startColumn);
+        }
+        while (index < i) advance();
+        while (index < end && !isWhitespace(data[index])) advance();
+        return token(AivaLexer.INCLUDE, new String(data, startIndex, index - startIndex), startIndex, startLine, startColumn);
+    }
+
+    private boolean matches(String keyword, int from) {
+        for (int i = 0; i < keyword.length(); i++) {
+            if (data[from + i] != keyword.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private Token token(int type, String text, int startIndex, int startLine, int startColumn) {
+        return factory.create(source, type, text, Token.DEFAULT_CHANNEL, startIndex, index - 1, startLine, startColumn);
+    }
+
+    private void advance() {
+        if (data[index] == '\n') {
+            line++;
+            column = 0;
+        } else {
+            column++;
+        }
+        index++;
+    }
+
+    private void reportError(int errorLine, int errorColumn, String text) {
+        String msg = "token recognition error at: '" + errorDisplay(text) + "'";
+        for (ANTLRErrorListener listener : listeners) {
+            listener.syntaxError(null, null, errorLine, errorColumn, msg, null);
+        }
+    }
+
+    // same escaping as Lexer.getErrorDisplay
+    private static String errorDisplay(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            switch (ch) {
+                case '\n' -> sb.append("\\n");
+                case '\t' -> sb.append("\\t");
+                case '\r' -> sb.append("\\r");
+                default -> sb.append(ch);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    // [@\\$A-Za-z_]
+    private static boolean isIdentifierStart(int c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == '_' || c == '@' || c == '$' || c == '\\';
+    }
+
+    // [-@\\$A-Za-z0-9_]
+    static boolean isIdentifierPart(int c) {
+        return isIdentifierStart(c) || (c >= '0' && c <= '9') || c == '-';
+    }
+
+    public void addErrorListener(ANTLRErrorListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeErrorListeners() {
+        listeners.clear();
+    }
+
+    public void setLine(int line) {
+        this.line = line;
+    }
+
+    public void setCharPositionInLine(int column) {
+        this.column = column;
+    }
+
+    @Override
+    public int getLine() {
+        return line;
+    }
+
+    @Override
+    public int getCharPositionInLine() {
+        return column;
+    }
+
+    @Override
+    public CharStream getInputStream() {
+        return source.b;
+    }
+
+    @Override
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    @Override
+    public void setTokenFactory(TokenFactory<?> factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public TokenFactory<?> getTokenFactory() {
+        return factory;
+    }
+}
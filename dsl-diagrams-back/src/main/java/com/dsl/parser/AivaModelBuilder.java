@@ -0,0 +1,278 @@
+package com.dsl.parser;
+
+import com.dsl.grammar.AivaBaseListener;
+import com.dsl.grammar.AivaParser;
+import com.dsl.models.*;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the {@link TrackNode} model in a single walk over an Aiva parse tree.
+ *
+ * Actions are dispatched on the type of their leading token, reactive branches (R1, R2, ...)
+ * are attached to the pending switch of the track as they arrive, and every state/track list
+ * is copied into its immutable form exactly once when the rule exits.
+ */
+public class AivaModelBuilder extends AivaBaseListener {
+
+    // Legacy branch-line syntaxes that can only show up inside an action block after error recovery:
+    // "R1. LABEL > GOTO TRACK:STATE" and "R_default. GOTO TRACK:STATE"
+    private static final Pattern BRANCH_WITH_ARROW = Pattern.compile(
+            "^\\s*[^\\.]+\\.\\s*([^>]+?)\\s*>\\s*GOTO\\s*([^:]+):([^\\s;]+)\\s*$",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern BRANCH_GOTO_ONLY = Pattern.compile(
+            "^\\s*([^\\.]+?)\\.\\s*GOTO\\s*([^:]+):([^\\s;]+)\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
+    private final List<String> includes = new ArrayList<>();
+    private final List<TrackNode> tracks = new ArrayList<>();
+
+    // current track: mapped states and the reactive branches keyed by state id (R1, R2, ...)
+    private final List<StateNode> trackStates = new ArrayList<>();
+    private Map<String, String> trackBranches;
+    private Map<String, String> trackBranchesView;
+
+    // current action block: reused buffers, cleared on every state
+    private final List<Action> actions = new ArrayList<>();
+    private final List<BranchAction> branchLines = new ArrayList<>();
+    private final List<String> ids = new ArrayList<>();
+    private int pendingSwitch = -1;
+
+    /**
+     * Walks {@code tree} (a script or a single track) and returns the mapped tracks in source order.
+     */
+    public static List<TrackNode> build(ParseTree tree) {
+        AivaModelBuilder builder = new AivaModelBuilder();
+        ParseTreeWalker.DEFAULT.walk(builder, tree);
+        return builder.getTracks();
+    }
+
+    public List<TrackNode> getTracks() {
+        return List.copyOf(tracks);
+    }
+
+    /**
+     * Module paths of the INCLUDE directives, in source order.
+     */
+    public List<String> getIncludes() {
+        return List.copyOf(includes);
+    }
+
+    @Override
+    public void exitInclude_directive(AivaParser.Include_directiveContext ctx) {
+        // the token is the whole directive: INCLUDE common/common.tpl
+        includes.add(ctx.INCLUDE().getText().substring("INCLUDE".length()).strip());
+    }
+
+    @Override
+    public void enterTrack(AivaParser.TrackContext ctx) {
+        trackStates.clear();
+        // switches with no inline branches share this map, so branches declared after them still show up
+        trackBranches = new LinkedHashMap<>();
+        trackBranchesView = Collections.unmodifiableMap(trackBranches);
+    }
+
+    @Override
+    public void exitTrack(AivaParser.TrackContext ctx) {
+        tracks.add(new TrackNode(textOf(ctx.IDENTIFIER()), List.copyOf(trackStates)));
+    }
+
+    @Override
+    public void exitState(AivaParser.StateContext ctx) {
+        // error recovery can leave a state with neither alternative
+        if (ctx.action_block_state() == null && ctx.reactive_goto_state() == null) {
+            trackStates.add(new StateNode("UNKNOWN", "UNKNOWN", List.of()));
+        }
+    }
+
+    @Override
+    public void enterAction_block_state(AivaParser.Action_block_stateContext ctx) {
+        actions.clear();
+        branchLines.clear();
+        pendingSwitch = -1;
+    }
+
+    @Override
+    public void exitAction_block_state(AivaParser.Action_block_stateContext ctx) {
+        String id = textOf(ctx.IDENTIFIER(0));      // S1
+        String type = textOf(ctx.IDENTIFIER(1));    // START
+        boolean reactive = isReactiveId(id);
+
+        if (reactive) {
+            for (BranchAction ba : branchLines) trackBranches.put(id, ba.target());
+        }
+
+        if (pendingSwitch >= 0) {
+            SwitchAction sw = (SwitchAction) actions.get(pendingSwitch);
+            if (!branchLines.isEmpty()) {
+                // branch lines inside the state win over the track-level ones and are resolved right away
+                Map<String, String> gathered = new LinkedHashMap<>();
+                for (BranchAction ba : branchLines) gathered.put(ba.label(), ba.target());
+                gathered.putAll(trackBranches);
+                actions.set(pendingSwitch, new SwitchAction(sw.function(), Collections.unmodifiableMap(gathered)));
+                int next = nextEmptySwitch(pendingSwitch + 1);
+                if (next >= 0) {
+                    SwitchAction nextSw = (SwitchAction) actions.get(next);
+                    actions.set(next, new SwitchAction(nextSw.function(), trackBranchesView));
+                }
+            } else {
+                actions.set(pendingSwitch, new SwitchAction(sw.function(), trackBranchesView));
+            }
+        }
+
+        if (!reactive) {
+            trackStates.add(new StateNode(id, type, List.copyOf(actions)));
+        }
+    }
+
+    @Override
+    public void exitReactive_goto_state(AivaParser.Reactive_goto_stateContext ctx) {
+        // R1. FORD_0K_NEW_A_NRTA > GOTO FORD_0K_NRTA_1ST_TRACK:S1
+        String id = textOf(ctx.IDENTIFIER(0));
+        if (isReactiveId(id)) {
+            trackBranches.put(id, textOf(ctx.IDENTIFIER(2)) + ":" + textOf(ctx.IDENTIFIER(3)));
+        } else {
+            // the branch itself is only meaningful to a switch, the state is kept as a marker
+            trackStates.add(new StateNode(id, "REACTIVE", List.of()));
+        }
+    }
+
+    @Override
+    public void exitAction(AivaParser.ActionContext ctx) {
+        if (ctx.getChildCount() == 0) return;
+
+        Action action = mapAction(ctx);
+        if (action instanceof BranchAction ba) {
+            branchLines.add(ba);
+            return;
+        }
+        if (pendingSwitch < 0 && action instanceof SwitchAction sw && sw.branches().isEmpty()) {
+            pendingSwitch = actions.size();
+        }
+        actions.add(action);
+    }
+
+    private Action mapAction(AivaParser.ActionContext ctx) {
+        collectIdentifiers(ctx);
+
+        switch (ctx.getStart().getType()) {
+            case AivaParser.CALL_FUNCTION_SWITCH -> {
+                // CALL_FUNCTION_SWITCH <util> <fn> '->' <resultVar> branch*
+                String function = (id(0) + " " + id(1)).trim();
+                Map<String, String> inline = Map.of();
+                for (int i = 0; i < ctx.getChildCount(); i++) {
+                    if (ctx.getChild(i) instanceof AivaParser.BranchContext b) {
+                        String k = textOf(b.IDENTIFIER(0));
+                        String v = textOf(b.IDENTIFIER(1));
+                        if (k.isEmpty() || v.isEmpty()) continue;
+                        if (inline.isEmpty()) inline = new LinkedHashMap<>();
+                        inline.put(k, v);
+                    }
+                }
+                return new SwitchAction(function + " -> " + id(2),
+                        inline.isEmpty() ? inline : Collections.unmodifiableMap(inline));
+            }
+            case AivaParser.SENDMESSAGE -> {
+                // SENDMESSAGE SMS AGENT CUST $TEMPLATE
+                return new SendMessageAction(id(0), id(1), id(2), id(3));
+            }
+            case AivaParser.MARK_LEAD_PHASE -> {
+                return new MarkLeadPhaseAction(id(0));
+            }
+            case AivaParser.UNSCHEDULE -> {
+                return new UnscheduleAction(id(0));
+            }
+            case AivaParser.SWITCH_DIRECTION -> {
+                return new SwitchDirectionAction(id(0));
+            }
+            case AivaParser.GOTO -> {
+                if (ids.size() >= 2) return new GotoAction(id(0) + ":" + id(1));
+                if (ids.size() == 1) return new GotoAction(id(0));
+                return mapUnstructured(ctx);
+            }
+            case AivaParser.SEND_TEMPLATE -> {
+                return new SendTemplateAction(id(0));
+            }
+            default -> {
+                return mapLegacyKeyword(ctx);
+            }
+        }
+    }
+
+    // Keywords the lexer does not know yet arrive as IDENTIFIER tokens; only reachable through error recovery.
+    private Action mapLegacyKeyword(AivaParser.ActionContext ctx) {
+        if (ctx.getStart().getType() != AivaParser.IDENTIFIER) return mapUnstructured(ctx);
+        ids.remove(0); // the keyword itself, so id(0) is its first operand as with the lexer's keywords
+
+        switch (ctx.getStart().getText()) {
+            case "SENDMESSAGE_INTERNAL" -> {
+                return new SendMessageAction(id(0), id(1) + "_INTERNAL", id(2), id(3));
+            }
+            case "SCHEDULE_FOLLOWUP" -> {
+                return new ScheduleFollowupAction(ctx.getText());
+            }
+            case "IS_SUNDAY" -> {
+                return new IsSundayAction(ctx.getText());
+            }
+            case "SETMARK" -> {
+                return new SetMarkAction(id(0), id(1));
+            }
+            case "DELETE_INSIGHT" -> {
+                return new DeleteInsightAction(id(0));
+            }
+            default -> {
+                return mapUnstructured(ctx);
+            }
+        }
+    }
+
+    private Action mapUnstructured(AivaParser.ActionContext ctx) {
+        String raw = ctx.getText().trim();
+        Matcher m1 = BRANCH_WITH_ARROW.matcher(raw);
+        if (m1.find()) {
+            return new BranchAction(m1.group(1).trim(), m1.group(2).trim() + ":" + m1.group(3).trim());
+        }
+        Matcher m2 = BRANCH_GOTO_ONLY.matcher(raw);
+        if (m2.find()) {
+            return new BranchAction(m2.group(1).trim(), m2.group(2).trim() + ":" + m2.group(3).trim());
+        }
+        return new UnknownAction(raw);
+    }
+
+    // Collects the IDENTIFIER children of an action (not those nested in branches) into the reused buffer.
+    private void collectIdentifiers(ParserRuleContext ctx) {
+        ids.clear();
+        for (int i = 0; i < ctx.getChildCount(); i++) {
+            if (ctx.getChild(i) instanceof TerminalNode t && t.getSymbol().getType() == AivaParser.IDENTIFIER) {
+                ids.add(t.getText());
+            }
+        }
+    }
+
+    private int nextEmptySwitch(int from) {
+        for (int i = from; i < actions.size(); i++) {
+            if (actions.get(i) instanceof SwitchAction sw && sw.branches().isEmpty()) return i;
+        }
+        return -1;
+    }
+
+    private String id(int idx) {
+        return idx < ids.size() ? ids.get(idx) : "";
+    }
+
+    // R1, R2, R_default... but not the S1-R response states
+    private static boolean isReactiveId(String id) {
+        return id.startsWith("R") && !id.contains("-R");
+    }
+
+    private static String textOf(TerminalNode node) {
+        return node == null ? "" : node.getText();
+    }
+}
@@ -0,0 +1,251 @@
+package com.dsl.parser;
+
+import com.dsl.models.TrackNode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Resolves INCLUDE directives.
+ *
+ * A module is a script addressed by its include path ({@code INCLUDE common/common.tpl} reads
+ * {@code <aiva.modules.location>common/common.tpl} unless it was registered with {@link #update}).
+ * Modules are compiled once per distinct content, keyed by SHA-256, so every brand that includes the
+ * common file shares one parsed copy. Linking concatenates the tracks of a module's transitive includes
+ * (each module once, includes first) with its own; linked results are cached per module and only the
+ * modules that (transitively) include a changed one are re-linked. An include that names no known
+ * module and no resource is skipped with a warning, at any depth, so the rest still links; it is
+ * picked up once the module is registered.
+ *
+ * The modules listed in {@code aiva.modules.preload} are compiled at startup and form the workspace
+ * that derived views (such as {@link AivaScriptIndex}) follow through {@link #addListener}.
+ */
+@Component
+public class AivaModuleLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(AivaModuleLoader.class);
+
+    private final AivaScriptParser parser;
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final List<String> preload;
+
+    // compiled scripts by content hash, shared by all modules with the same source
+    private final Map<String, AivaScript> compiled = new ConcurrentHashMap<>();
+    private final Map<String, Module> modules = new ConcurrentHashMap<>();
+    // module name -> names of the modules that include it directly
+    private final Map<String, Set<String>> dependents = new HashMap<>();
+    private final Map<String, List<TrackNode>> linked = new ConcurrentHashMap<>();
+    private final List<BiConsumer<String, AivaScript>> listeners = new CopyOnWriteArrayList<>();
+
+    public AivaModuleLoader(AivaScriptParser parser, ResourceLoader resourceLoader,
+                            @Value("${aiva.modules.location:classpath:}") String location,
+                            @Value("${aiva.modules.preload:}") List<String> preload) {
+        this.parser = parser;
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+        this.preload = preload;
+    }
+
+    public AivaModuleLoader(AivaScriptParser parser, ResourceLoader resourceLoader, String location) {
+        this(parser, resourceLoader, location, List.of());
+    }
+
+    // after all beans are up, so listeners registered by other components see the preloaded modules
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        for (String name : preload) {
+            if (name.isBlank()) continue;
+            try {
+                compile(name.strip());
+            } catch (RuntimeException e) {
+                logger.warn("Cannot preload module {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Called with the module name and its compiled script whenever a module is compiled or replaced.
+     */
+    public void addListener(BiConsumer<String, AivaScript> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Compiles module {@code name} if it is not known yet, without resolving its includes.
+     */
+    public synchronized AivaScript compile(String name) {
+        Module module = modules.get(name);
+        return (module != null ? module : load(name)).script();
+    }
+
+    /**
+     * SHA-256 of the source of module {@code name}, or null if it has not been compiled.
+     */
+    public String contentHash(String name) {
+        Module module = modules.get(name);
+        return module == null ? null : module.hash();
+    }
+
+    /**
+     * Names of the modules compiled so far.
+     */
+    public Set<String> moduleNames() {
+        return Collections.unmodifiableSet(modules.keySet());
+    }
+
+    /**
+     * Tracks of module {@code name} with all of its includes resolved.
+     *
+     * @throws IllegalArgumentException if there is no module {@code name}
+     */
+    public List<TrackNode> link(String name) {
+        List<TrackNode> tracks = linked.get(name);
+        if (tracks != null) return tracks;
+        synchronized (this) {
+            return linked.computeIfAbsent(name, n -> concat(resolve(List.of(n), false), List.of()));
+        }
+    }
+
+    /**
+     * Links an unnamed script, e.g. one posted by the editor, against the known modules. The script
+     * itself is not cached.
+     */
+    public List<TrackNode> linkScript(String source) {
+        AivaScript script = parser.parseScript(source);
+        if (script.includes().isEmpty()) return script.tracks();
+        synchronized (this) {
+            return concat(resolve(script.includes(), true), script.tracks());
+        }
+    }
+
+    /**
+     * Registers or replaces module {@code name}. Returns false if the content is unchanged, in which
+     * case nothing is recompiled or re-linked.
+     */
+    public synchronized boolean update(String name, String source) {
+        Module previous = modules.get(name);
+        String hash = ContentHash.of(source);
+        if (previous != null && previous.hash().equals(hash)) return false;
+
+        if (previous != null) {
+            for (String include : previous.script().includes()) {
+                Set<String> users = dependents.get(include);
+                if (users != null) users.remove(name);
+            }
+        }
+        register(name, source, hash);
+        if (previous != null) releaseIfUnused(previous.hash());
+        invalidate(name);
+        return true;
+    }
+
+    public int compiledCount() {
+        return compiled.size();
+    }
+
+    private Module register(String name, String source, String hash) {
+        AivaScript script = compiled.computeIfAbsent(hash, h -> parser.parseScript(source));
+        Module module = new Module(name, hash, script);
+        modules.put(name, module);
+        for (String include : script.includes()) {
+            dependents.computeIfAbsent(include, k -> new HashSet<>()).add(name);
+        }
+        for (BiConsumer<String, AivaScript> listener : listeners) {
+            listener.accept(name, script);
+        }
+        return module;
+    }
+
+    private void releaseIfUnused(String hash) {
+        for (Module module : modules.values()) {
+            if (module.hash().equals(hash)) return;
+        }
+        compiled.remove(hash);
+    }
+
+    // drops the linked result of the module and of everything that includes it, directly or not
+    private void invalidate(String name) {
+        Deque<String> pending = new ArrayDeque<>(List.of(name));
+        Set<String> seen = new HashSet<>();
+        while (!pending.isEmpty()) {
+            String current = pending.pop();
+            if (!seen.add(current)) continue;
+            linked.remove(current);
+            pending.addAll(dependents.getOrDefault(current, Set.of()));
+        }
+    }
+
+    // modules reachable from roots, each once, every module after the modules it includes
+    private List<Module> resolve(List<String> roots, boolean skipMissing) {
+        List<Module> order = new ArrayList<>();
+        Set<String> done = new HashSet<>();
+        LinkedHashSet<String> path = new LinkedHashSet<>();
+        for (String root : roots) {
+            if (skipMissing && isMissing(root, null)) continue;
+            visit(root, order, done, path);
+        }
+        return order;
+    }
+
+    private void visit(String name, List<Module> order, Set<String> done, LinkedHashSet<String> path) {
+        if (done.contains(name)) return;
+        if (!path.add(name)) {
+            throw new IllegalStateException("Include cycle: " + String.join(" -> ", path) + " -> " + name);
+        }
+        Module module = modules.containsKey(name) ? modules.get(name) : load(name);
+        for (String include : module.script().includes()) {
+            if (!isMissing(include, name)) visit(include, order, done, path);
+        }
+        path.remove(name);
+        done.add(name);
+        order.add(module);
+    }
+
+    private boolean isMissing(String name, String includedBy) {
+        if (modules.containsKey(name) || resourceLoader.getResource(location + name).exists()) return false;
+        if (includedBy == null) {
+            logger.warn("Skipping unknown module {}", name);
+        } else {
+            logger.warn("Skipping unknown module {} included by {}", name, includedBy);
+        }
+        return true;
+    }
+
+    private Module load(String name) {
+        Resource resource = resourceLoader.getResource(location + name);
+        if (!resource.exists()) {
+            throw new IllegalArgumentException("Unknown module: " + name);
+        }
+        try (InputStream in = resource.getInputStream()) {
+            String source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return register(name, source, ContentHash.of(source));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read module " + name, e);
+        }
+    }
+
+    private static List<TrackNode> concat(List<Module> modules, List<TrackNode> own) {
+        List<TrackNode> tracks = new ArrayList<>();
+        for (Module module : modules) tracks.addAll(module.script().tracks());
+        tracks.addAll(own);
+        return List.copyOf(tracks);
+    }
+
+    private record Module(String name, String hash, AivaScript script) { }
+}
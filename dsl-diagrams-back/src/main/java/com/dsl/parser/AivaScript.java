@@ -0,0 +1,23 @@
+package com.dsl.parser;
+
+import com.dsl.models.TrackNode;
+
+import java.util.List;
+
+/**
+ * A parsed script before linking: the modules it includes, its own tracks and the syntax errors
+ * recovered from, in source order.
+ */
+public record AivaScript(List<String> includes, List<TrackNode> tracks, List<SyntaxError> errors) {
+
+    public static final AivaScript EMPTY = new AivaScript(List.of(), List.of(), List.of());
+
+    public AivaScript(List<String> includes, List<TrackNode> tracks) {
+        this(includes, tracks, List.of());
+    }
+
+    /**
+     * A lexer or parser error at a line (from 1) and column (from 0) of the original script.
+     */
+    public record SyntaxError(int line, int column, String message) { }
+}
@@ -0,0 +1,150 @@
+package com.dsl.parser;
+
+import com.dsl.models.*;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Inverted index over the compiled workspace: which states run a given action type, send a given
+ * template, jump to a given track/state, set a given mark, or unschedule a given target.
+ *
+ * Every module has its own immutable segment, rebuilt from scratch whenever the loader compiles or
+ * replaces that module; other modules' segments are untouched. A query is one hash lookup per segment
+ * and criterion, so it never blocks on a recompile.
+ */
+@Component
+public class AivaScriptIndex {
+
+    public enum Field {
+        ACTION,      // action type: SENDMESSAGE, GOTO, CALL_FUNCTION_SWITCH, ...
+        TEMPLATE,    // SENDMESSAGE / SEND_TEMPLATE template
+        TARGET,      // GOTO and switch branch targets, as TRACK:STATE and as TRACK
+        MARK,        // MARK_LEAD_PHASE phase and SETMARK key
+        UNSCHEDULE   // UNSCHEDULE target
+    }
+
+    public record StateRef(String module, String track, String state) { }
+
+    // ordered by module name, so query results keep their module order as modules come and go
+    private final Map<String, Segment> segments = new ConcurrentSkipListMap<>();
+
+    public AivaScriptIndex(AivaModuleLoader loader) {
+        loader.addListener(this::index);
+        for (String module : loader.moduleNames()) {
+            index(module, loader.compile(module));
+        }
+    }
+
+    public void index(String module, AivaScript script) {
+        segments.put(module, Segment.build(module, script.tracks()));
+    }
+
+    public void remove(String module) {
+        segments.remove(module);
+    }
+
+    /**
+     * States matching all {@code criteria}, grouped by module in module name order and in source order
+     * within a module.
+     */
+    public List<StateRef> query(Map<Field, String> criteria) {
+        if (criteria.isEmpty()) return List.of();
+        List<StateRef> result = new ArrayList<>();
+        for (Segment segment : segments.values()) {
+            segment.query(criteria, result);
+        }
+        return result;
+    }
+
+    // postings keep source order and are only read once the segment is published
+    private record Segment(EnumMap<Field, Map<String, Set<StateRef>>> postings) {
+
+        void query(Map<Field, String> criteria, List<StateRef> out) {
+            Set<StateRef> smallest = null;
+            for (Map.Entry<Field, String> criterion : criteria.entrySet()) {
+                Set<StateRef> refs = postings(criterion);
+                if (smallest == null || refs.size() < smallest.size()) smallest = refs;
+            }
+            for (StateRef ref : smallest) {
+                if (matchesAll(ref, criteria)) out.add(ref);
+            }
+        }
+
+        private boolean matchesAll(StateRef ref, Map<Field, String> criteria) {
+            for (Map.Entry<Field, String> criterion : criteria.entrySet()) {
+                if (!postings(criterion).contains(ref)) return false;
+            }
+            return true;
+        }
+
+        private Set<StateRef> postings(Map.Entry<Field, String> criterion) {
+            return postings.get(criterion.getKey()).getOrDefault(criterion.getValue(), Set.of());
+        }
+
+        static Segment build(String module, List<TrackNode> tracks) {
+            EnumMap<Field, Map<String, Set<StateRef>>> building = new EnumMap<>(Field.class);
+            for (Field field : Field.values()) building.put(field, new HashMap<>());
+
+            for (TrackNode track : tracks) {
+                for (StateNode state : track.states()) {
+                    // StateNode.trackName holds the state id (S1, S2-R, ...)
+                    StateRef ref = new StateRef(module, track.name(), state.trackName());
+                    for (Action action : state.actions()) {
+                        add(building, Field.ACTION, actionType(action), ref);
+                        addKeys(building, action, ref);
+                        for (String target : ActionTargets.of(action)) addTarget(building, target, ref);
+                    }
+                }
+            }
+
+            return new Segment(building);
+        }
+
+        private static void addKeys(EnumMap<Field, Map<String, Set<StateRef>>> building, Action action, StateRef ref) {
+            if (action instanceof SendMessageAction a) {
+                add(building, Field.TEMPLATE, a.template(), ref);
+            } else if (action instanceof SendTemplateAction a) {
+                add(building, Field.TEMPLATE, a.templateName(), ref);
+            } else if (action instanceof MarkLeadPhaseAction a) {
+                add(building, Field.MARK, a.phase(), ref);
+            } else if (action instanceof MarkPhaseAction a) {
+                add(building, Field.MARK, a.phase(), ref);
+            } else if (action instanceof SetMarkAction a) {
+                add(building, Field.MARK, a.key(), ref);
+            } else if (action instanceof UnscheduleAction a) {
+                add(building, Field.UNSCHEDULE, a.target(), ref);
+            }
+        }
+
+        private static void addTarget(EnumMap<Field, Map<String, Set<StateRef>>> building, String target, StateRef ref) {
+            add(building, Field.TARGET, target, ref);
+            if (target.indexOf(':') > 0) add(building, Field.TARGET, ActionTargets.track(target), ref);
+        }
+
+        private static void add(EnumMap<Field, Map<String, Set<StateRef>>> building, Field field, String key, StateRef ref) {
+            if (key == null || key.isEmpty()) return;
+            building.get(field).computeIfAbsent(key, k -> new LinkedHashSet<>()).add(ref);
+        }
+    }
+
+    static String actionType(Action action) {
+        if (action instanceof SwitchAction) return "CALL_FUNCTION_SWITCH";
+        if (action instanceof SendMessageAction) return "SENDMESSAGE";
+        if (action instanceof MarkLeadPhaseAction) return "MARK_LEAD_PHASE";
+        if (action instanceof UnscheduleAction) return "UNSCHEDULE";
+        if (action instanceof SwitchDirectionAction) return "SWITCH_DIRECTION";
+        if (action instanceof GotoAction) return "GOTO";
+        if (action instanceof SendTemplateAction) return "SEND_TEMPLATE";
+        if (action instanceof SetMarkAction) return "SETMARK";
+        if (action instanceof DeleteInsightAction) return "DELETE_INSIGHT";
+        if (action instanceof ScheduleFollowupAction) return "SCHEDULE_FOLLOWUP";
+        if (action instanceof IsSundayAction) return "IS_SUNDAY";
+        if (action instanceof MarkPhaseAction) return "MARK_PHASE";
+        if (action instanceof BranchAction) return "BRANCH";
+        if (action instanceof EndAction) return "END";
+        return "UNKNOWN";
+    }
+}
@@ -0,0 +1,249 @@
+package com.dsl.parser;
+
+import com.dsl.grammar.AivaLexer;
+import com.dsl.grammar.AivaParser;
+import com.dsl.models.TrackNode;
+
+import jakarta.annotation.PreDestroy;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parses Aiva scripts into {@link TrackNode}s.
+ *
+ * A script is cut at its START_TRACK keywords and every track is parsed by its own lexer/parser
+ * pair, so a syntax error only affects recovery within its track. Inputs of at least
+ * {@code aiva.parse.parallel-threshold} chars have their tracks parsed concurrently, a run of
+ * neighbouring tracks per task on a fork-join pool; smaller ones on the calling thread. Both give
+ * the same tracks and errors. Every track is lexed straight from the shared code point array,
+ * starting at its real line and column, so token offsets and syntax error positions still refer
+ * to the original file.
+ *
+ * With {@code aiva.parse.fast-lexer} the tokens come from {@link AivaFastLexer} instead of the
+ * generated {@link AivaLexer}; both produce the same token stream.
+ */
+@Component
+public class AivaScriptParser {
+
+    private static final int[] START_TRACK = "START_TRACK".codePoints().toArray();
+
+    // several tasks per worker so that one long track does not leave the others idle
+    private static final int PIECES_PER_WORKER = 4;
+
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+    private final boolean fastLexer;
+
+    @Autowired
+    public AivaScriptParser(@Value("${aiva.parse.parallel-threshold:32768}") int parallelThreshold,
+                            @Value("${aiva.parse.parallelism:0}") int parallelism,
+                            @Value("${aiva.parse.fast-lexer:false}") boolean fastLexer) {
+        this(parallelThreshold, new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors()), fastLexer);
+    }
+
+    public AivaScriptParser(int parallelThreshold, ForkJoinPool pool) {
+        this(parallelThreshold, pool, false);
+    }
+
+    public AivaScriptParser(int parallelThreshold, ForkJoinPool pool, boolean fastLexer) {
+        this.parallelThreshold = parallelThreshold;
+        this.pool = pool;
+        this.fastLexer = fastLexer;
+    }
+
+    public List<TrackNode> parse(String script) {
+        return parseScript(script).tracks();
+    }
+
+    /**
+     * Parses {@code script} without resolving its INCLUDE directives; see {@link AivaModuleLoader} for linking.
+     */
+    public AivaScript parseScript(String script) {
+        String source = script == null ? "" : script;
+        return source.length() >= parallelThreshold ? parseParallelScript(source) : parseSequentialScript(source);
+    }
+
+    public List<TrackNode> parseSequential(String source) {
+        return parseSequentialScript(source).tracks();
+    }
+
+    public List<TrackNode> parseParallel(String source) {
+        return parseParallelScript(source).tracks();
+    }
+
+    AivaScript parseSequentialScript(String source) {
+        int[] data = codePoints(source);
+        List<AivaScript> tracks = new ArrayList<>();
+        for (Piece piece : split(data, 0)) {
+            tracks.add(parsePiece(data, piece));
+        }
+        return join(tracks);
+    }
+
+    AivaScript parseParallelScript(String source) {
+        int[] data = codePoints(source);
+        List<List<Piece>> runs = group(split(data, 0), data.length / (pool.getParallelism() * PIECES_PER_WORKER));
+        if (runs.size() < 2) return parseSequentialScript(source);
+
+        List<ForkJoinTask<List<AivaScript>>> tasks = new ArrayList<>(runs.size());
+        for (List<Piece> run : runs) {
+            tasks.add(pool.submit(() -> run.stream().map(piece -> parsePiece(data, piece)).toList()));
+        }
+
+        // joined in submission order, which is source order
+        List<AivaScript> tracks = new ArrayList<>();
+        for (ForkJoinTask<List<AivaScript>> task : tasks) {
+            tracks.addAll(task.join());
+        }
+        return join(tracks);
+    }
+
+    // includes can only precede the first track
+    private static AivaScript join(List<AivaScript> pieces) {
+        if (pieces.isEmpty()) return AivaScript.EMPTY;
+        List<TrackNode> tracks = new ArrayList<>();
+        List<AivaScript.SyntaxError> errors = new ArrayList<>();
+        for (AivaScript piece : pieces) {
+            tracks.addAll(piece.tracks());
+            errors.addAll(piece.errors());
+        }
+        return new AivaScript(pieces.get(0).includes(), List.copyOf(tracks), List.copyOf(errors));
+    }
+
+    private AivaScript parsePiece(int[] data, Piece piece) {
+        List<AivaScript.SyntaxError> errors = new ArrayList<>();
+        ANTLRErrorListener collector = new BaseErrorListener() {
+            @Override
+            public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+                                    int charPositionInLine, String msg, RecognitionException e) {
+                errors.add(new AivaScript.SyntaxError(line, charPositionInLine, msg));
+            }
+        };
+        TokenSource tokens = lexer(data, piece, collector);
+        AivaParser parser = new AivaParser(new CommonTokenStream(tokens));
+        parser.addErrorListener(collector);
+        AivaScript script = build(parser);
+        return new AivaScript(script.includes(), script.tracks(), errors);
+    }
+
+    /**
+     * The lexer for {@code piece}, positioned at its line and column in the original file.
+     */
+    TokenSource lexer(int[] data, Piece piece, ANTLRErrorListener listener) {
+        if (fastLexer) {
+            AivaFastLexer lexer = new AivaFastLexer(data, piece.start(), piece.end(), IntStream.UNKNOWN_SOURCE_NAME);
+            lexer.setLine(piece.line());
+            lexer.setCharPositionInLine(piece.column());
+            lexer.addErrorListener(listener);
+            return lexer;
+        }
+        AivaLexer lexer = new AivaLexer(new CharStreamWindow(data, piece.start(), piece.end(), IntStream.UNKNOWN_SOURCE_NAME));
+        lexer.setLine(piece.line());
+        lexer.setCharPositionInLine(piece.column());
+        lexer.addErrorListener(listener);
+        return lexer;
+    }
+
+    private static AivaScript build(AivaParser parser) {
+        AivaParser.ScriptContext scriptCtx = parser.script();
+        if (scriptCtx == null) return AivaScript.EMPTY;
+        AivaModelBuilder builder = new AivaModelBuilder();
+        ParseTreeWalker.DEFAULT.walk(builder, scriptCtx);
+        return new AivaScript(builder.getIncludes(), builder.getTracks());
+    }
+
+    /**
+     * Code points of {@code source}; skips the stream machinery of {@link String#codePoints()} for the
+     * usual all-BMP script.
+     */
+    static int[] codePoints(String source) {
+        int length = source.length();
+        int[] data = new int[length];
+        for (int i = 0; i < length; i++) {
+            char c = source.charAt(i);
+            if (Character.isSurrogate(c)) return source.codePoints().toArray();
+            data[i] = c;
+        }
+        return data;
+    }
+
+    /**
+     * Boundary scan: cuts {@code data} in front of every START_TRACK keyword outside a comment and
+     * merges neighbouring tracks until each piece holds at least {@code minSize} code points. Text
+     * before the first track stays with the first piece.
+     */
+    static List<Piece> split(int[] data, int minSize) {
+        List<Piece> pieces = new ArrayList<>();
+        int pieceStart = 0, pieceLine = 1, pieceColumn = 0;
+        int line = 1, column = 0;
+        boolean seenTrack = false, comment = false;
+
+        for (int i = 0; i < data.length; i++) {
+            if (comment) {
+                comment = data[i] != '\n' && data[i] != '\r';
+            } else if (data[i] == '/' && i + 1 < data.length && data[i + 1] == '/') {
+                comment = true;
+            } else if (data[i] == 'S' && isTrackKeyword(data, i)) {
+                if (seenTrack && i - pieceStart >= minSize) {
+                    pieces.add(new Piece(pieceStart, i, pieceLine, pieceColumn));
+                    pieceStart = i;
+                    pieceLine = line;
+                    pieceColumn = column;
+                }
+                seenTrack = true;
+            }
+            // same bookkeeping as the ANTLR lexer
+            if (data[i] == '\n') {
+                line++;
+                column = 0;
+            } else {
+                column++;
+            }
+        }
+        pieces.add(new Piece(pieceStart, data.length, pieceLine, pieceColumn));
+        return pieces;
+    }
+
+    /**
+     * Runs of neighbouring {@code pieces} holding at least {@code minSize} code points each, the last
+     * one excepted.
+     */
+    static List<List<Piece>> group(List<Piece> pieces, int minSize) {
+        List<List<Piece>> runs = new ArrayList<>();
+        List<Piece> run = new ArrayList<>();
+        for (Piece piece : pieces) {
+            run.add(piece);
+            if (piece.end() - run.get(0).start() >= minSize) {
+                runs.add(run);
+                run = new ArrayList<>();
+            }
+        }
+        if (!run.isEmpty()) runs.add(run);
+        return runs;
+    }
+
+    private static boolean isTrackKeyword(int[] data, int i) {
+        if (i > 0 && AivaFastLexer.isIdentifierPart(data[i - 1])) return false;
+        int end = i + START_TRACK.length;
+        if (end > data.length || (end < data.length && AivaFastLexer.isIdentifierPart(data[end]))) return false;
+        for (int k = 1; k < START_TRACK.length; k++) {
+            if (data[i + k] != START_TRACK[k]) return false;
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    record Piece(int start, int end, int line, int column) { }
+}
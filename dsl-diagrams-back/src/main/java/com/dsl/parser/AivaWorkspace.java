@@ -0,0 +1,119 @@
+package com.dsl.parser;
+
+import com.dsl.models.Action;
+import com.dsl.models.StateNode;
+import com.dsl.models.TrackNode;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Track-level view of the compiled workspace for clients that load detail on demand: a summary of
+ * every track (name, state count, outgoing track edges) and lookups of single tracks and states.
+ *
+ * Like {@link AivaScriptIndex} it keeps one immutable view per module, replaced whenever the loader
+ * compiles that module. Each view carries the module's content hash, which callers use as a version,
+ * and its {@link MerkleScript} for diffing against an edited version.
+ */
+@Component
+public class AivaWorkspace {
+
+    public record TrackSummary(String module, String name, int states, List<String> edges) { }
+
+    public record TrackEntry(String module, String version, TrackNode track) { }
+
+    private record ModuleView(String hash, Map<String, TrackNode> tracks, List<TrackSummary> summary,
+                              MerkleScript merkle) { }
+
+    // ordered by module name, so the summary is stable across recompiles
+    private final Map<String, ModuleView> modules = new ConcurrentSkipListMap<>();
+    private final AivaModuleLoader loader;
+
+    public AivaWorkspace(AivaModuleLoader loader) {
+        this.loader = loader;
+        loader.addListener(this::index);
+        for (String module : loader.moduleNames()) {
+            index(module, loader.compile(module));
+        }
+    }
+
+    private void index(String module, AivaScript script) {
+        Map<String, TrackNode> tracks = new LinkedHashMap<>();
+        List<TrackSummary> summary = new ArrayList<>();
+        for (TrackNode track : script.tracks()) {
+            if (tracks.putIfAbsent(track.name(), track) != null) continue;
+            summary.add(new TrackSummary(module, track.name(), track.states().size(), edges(track)));
+        }
+        modules.put(module, new ModuleView(loader.contentHash(module),
+                Collections.unmodifiableMap(tracks), List.copyOf(summary), MerkleScript.of(script.tracks())));
+    }
+
+    private static List<String> edges(TrackNode track) {
+        Set<String> targets = new LinkedHashSet<>();
+        for (StateNode state : track.states()) {
+            for (Action action : state.actions()) {
+                for (String target : ActionTargets.of(action)) targets.add(ActionTargets.track(target));
+            }
+        }
+        targets.remove(track.name());
+        targets.remove("");
+        return List.copyOf(targets);
+    }
+
+    /**
+     * Summary of all tracks, or of the tracks of {@code module} when it is not null.
+     */
+    public List<TrackSummary> summary(String module) {
+        if (module != null) {
+            ModuleView view = modules.get(module);
+            return view == null ? List.of() : view.summary();
+        }
+        List<TrackSummary> all = new ArrayList<>();
+        for (ModuleView view : modules.values()) all.addAll(view.summary());
+        return all;
+    }
+
+    /**
+     * Version of the summary: changes whenever any module (or the given one) is recompiled.
+     */
+    public String version(String module) {
+        StringBuilder sb = new StringBuilder();
+        modules.forEach((name, view) -> {
+            if (module == null || module.equals(name)) sb.append(name).append('=').append(view.hash()).append('\n');
+        });
+        return ContentHash.of(sb.toString());
+    }
+
+    /**
+     * Track {@code name}, from {@code module} if given, otherwise from the first module that defines it.
+     */
+    public Optional<TrackEntry> track(String name, String module) {
+        for (Map.Entry<String, ModuleView> e : modules.entrySet()) {
+            if (module != null && !module.equals(e.getKey())) continue;
+            TrackNode track = e.getValue().tracks().get(name);
+            if (track != null) return Optional.of(new TrackEntry(e.getKey(), e.getValue().hash(), track));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Merkle hashes of the module's own tracks (includes not resolved), for {@link ScriptDiff}.
+     */
+    public Optional<MerkleScript> merkle(String module) {
+        ModuleView view = modules.get(module);
+        return view == null ? Optional.empty() : Optional.of(view.merkle());
+    }
+
+    /**
+     * State {@code id} (S1, S2-R, ...) of a track entry.
+     */
+    public static Optional<StateNode> state(TrackEntry entry, String id) {
+        for (StateNode state : entry.track().states()) {
+            // StateNode.trackName holds the state id
+            if (state.trackName().equals(id)) return Optional.of(state);
+        }
+        return Optional.empty();
+    }
+}
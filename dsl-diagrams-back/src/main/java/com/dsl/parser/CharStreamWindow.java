@@ -0,0 +1,79 @@
+package com.dsl.parser;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * A char stream over {@code [start, end)} of a shared code point array. Indexes are those of the whole
+ * array, so tokens lexed from a window keep their offsets into the original file.
+ */
+class CharStreamWindow implements CharStream {
+
+    private final int[] data;
+    private final int start;
+    private final int end;
+    private final String sourceName;
+    private int index;
+
+    CharStreamWindow(int[] data, int start, int end, String sourceName) {
+        this.data = data;
+        this.start = start;
+        this.end = end;
+        this.sourceName = sourceName;
+        this.index = start;
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        int a = Math.max(interval.a, start);
+        int b = Math.min(interval.b, end - 1);
+        if (b < a) return "";
+        return new String(data, a, b - a + 1);
+    }
+
+    @Override
+    public void consume() {
+        if (index >= end) {
+            throw new IllegalStateException("cannot consume EOF");
+        }
+        index++;
+    }
+
+    @Override
+    public int LA(int i) {
+        if (i == 0) return 0;
+        int pos = i > 0 ? index + i - 1 : index + i;
+        if (pos < start || pos >= end) return IntStream.EOF;
+        return data[pos];
+    }
+
+    @Override
+    public int mark() {
+        return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+    }
+
+    @Override
+    public int index() {
+        return index;
+    }
+
+    @Override
+    public void seek(int index) {
+        this.index = Math.max(start, Math.min(index, end));
+    }
+
+    @Override
+    public int size() {
+        return end;
+    }
+
+    @Override
+    public String getSourceName() {
+        return sourceName;
+    }
+}
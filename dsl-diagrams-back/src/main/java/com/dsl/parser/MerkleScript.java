@@ -0,0 +1,103 @@
+package com.dsl.parser;
+
+import com.dsl.models.Action;
+import com.dsl.models.StateNode;
+import com.dsl.models.TrackNode;
+
+import java.util.*;
+
+/**
+ * Merkle hashes over a compiled script: one per action, one per state covering its id, type and
+ * ordered actions, one per track covering its name and states, and one for the whole script.
+ *
+ * States within a track and tracks within a script are combined order-independently (a sum of mixed
+ * hashes), so moving a track or state block around the file does not count as a change; the actions
+ * of a state stay order-sensitive since they run in sequence. Two equal hashes mean equal subtrees,
+ * which lets {@link ScriptDiff} skip them without looking inside.
+ *
+ * Hashes are 64 bit (FNV-1a over the canonical text, finished with the MurmurHash3 mixer);
+ * collisions are irrelevant at script sizes.
+ */
+public final class MerkleScript {
+
+    public record HashedState(StateNode state, long hash, long[] actions) { }
+
+    public record HashedTrack(TrackNode track, long hash, Map<String, HashedState> states) { }
+
+    public static final MerkleScript EMPTY = of(List.of());
+
+    private final long hash;
+    private final Map<String, HashedTrack> tracks;
+
+    private MerkleScript(long hash, Map<String, HashedTrack> tracks) {
+        this.hash = hash;
+        this.tracks = tracks;
+    }
+
+    public static MerkleScript of(List<TrackNode> tracks) {
+        Map<String, HashedTrack> hashed = new LinkedHashMap<>();
+        long sum = 0;
+        for (TrackNode track : tracks) {
+            // first definition wins, as in AivaWorkspace
+            if (hashed.containsKey(track.name())) continue;
+            HashedTrack h = hash(track);
+            hashed.put(track.name(), h);
+            sum += mix(h.hash());
+        }
+        return new MerkleScript(sum, Collections.unmodifiableMap(hashed));
+    }
+
+    public long hash() {
+        return hash;
+    }
+
+    public Map<String, HashedTrack> tracks() {
+        return tracks;
+    }
+
+    static HashedTrack hash(TrackNode track) {
+        Map<String, HashedState> states = new LinkedHashMap<>();
+        long sum = text(track.name());
+        for (StateNode state : track.states()) {
+            // StateNode.trackName holds the state id
+            if (states.containsKey(state.trackName())) continue;
+            HashedState h = hash(state);
+            states.put(state.trackName(), h);
+            sum += mix(h.hash());
+        }
+        return new HashedTrack(track, mix(sum), Collections.unmodifiableMap(states));
+    }
+
+    static HashedState hash(StateNode state) {
+        long[] actions = new long[state.actions().size()];
+        long h = mix(text(state.trackName()) * 31 + text(state.id()));
+        for (int i = 0; i < actions.length; i++) {
+            actions[i] = hash(state.actions().get(i));
+            h = mix(h * 31 + actions[i]);
+        }
+        return new HashedState(state, h, actions);
+    }
+
+    static long hash(Action action) {
+        // records print their type and components, which is all an action is
+        return text(action.toString());
+    }
+
+    private static long text(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
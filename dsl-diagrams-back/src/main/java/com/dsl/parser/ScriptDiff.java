@@ -0,0 +1,147 @@
+package com.dsl.parser;
+
+import com.dsl.models.Action;
+import com.dsl.models.StateNode;
+import com.dsl.parser.MerkleScript.HashedState;
+import com.dsl.parser.MerkleScript.HashedTrack;
+
+import java.util.*;
+
+/**
+ * Semantic difference between two versions of a script: tracks, states, actions and jump edges that
+ * were added, removed or changed.
+ *
+ * Built by walking both {@link MerkleScript}s top-down and descending only where hashes differ, so
+ * the cost is one hash comparison per track plus the size of the changed states, independent of how
+ * much of the script stayed the same.
+ */
+public record ScriptDiff(
+        List<String> addedTracks,
+        List<String> removedTracks,
+        List<TrackDiff> changedTracks,
+        List<Edge> addedEdges,
+        List<Edge> removedEdges
+) {
+
+    public record TrackDiff(String name, List<String> addedStates, List<String> removedStates,
+                            List<StateDiff> changedStates) { }
+
+    /**
+     * Actions are matched by position after trimming the common head and tail; {@code index} refers
+     * to the new version, except for removed actions.
+     */
+    public record StateDiff(String id, List<ActionChange> addedActions, List<ActionChange> removedActions,
+                            List<ActionChange> changedActions) { }
+
+    public record ActionChange(int index, Action before, Action after) { }
+
+    /**
+     * Jump from state {@code from} (TRACK:STATE) to {@code to} (TRACK:STATE or TRACK).
+     */
+    public record Edge(String from, String to) { }
+
+    public boolean isEmpty() {
+        return addedTracks.isEmpty() && removedTracks.isEmpty() && changedTracks.isEmpty();
+    }
+
+    public static ScriptDiff between(MerkleScript before, MerkleScript after) {
+        Builder diff = new Builder();
+        if (before.hash() == after.hash()) return diff.build();
+
+        for (Map.Entry<String, HashedTrack> e : after.tracks().entrySet()) {
+            HashedTrack old = before.tracks().get(e.getKey());
+            if (old == null) {
+                diff.addedTracks.add(e.getKey());
+                for (HashedState state : e.getValue().states().values()) diff.edges(e.getKey(), state, diff.addedEdges);
+            } else if (old.hash() != e.getValue().hash()) {
+                diff.changedTracks.add(diff.track(e.getKey(), old, e.getValue()));
+            }
+        }
+        for (Map.Entry<String, HashedTrack> e : before.tracks().entrySet()) {
+            if (after.tracks().containsKey(e.getKey())) continue;
+            diff.removedTracks.add(e.getKey());
+            for (HashedState state : e.getValue().states().values()) diff.edges(e.getKey(), state, diff.removedEdges);
+        }
+        return diff.build();
+    }
+
+    private static final class Builder {
+        final List<String> addedTracks = new ArrayList<>();
+        final List<String> removedTracks = new ArrayList<>();
+        final List<TrackDiff> changedTracks = new ArrayList<>();
+        final Set<Edge> addedEdges = new LinkedHashSet<>();
+        final Set<Edge> removedEdges = new LinkedHashSet<>();
+
+        TrackDiff track(String name, HashedTrack before, HashedTrack after) {
+            List<String> added = new ArrayList<>();
+            List<String> removed = new ArrayList<>();
+            List<StateDiff> changed = new ArrayList<>();
+            for (Map.Entry<String, HashedState> e : after.states().entrySet()) {
+                HashedState old = before.states().get(e.getKey());
+                if (old == null) {
+                    added.add(e.getKey());
+                    edges(name, e.getValue(), addedEdges);
+                } else if (old.hash() != e.getValue().hash()) {
+                    changed.add(state(name, e.getKey(), old, e.getValue()));
+                }
+            }
+            for (Map.Entry<String, HashedState> e : before.states().entrySet()) {
+                if (after.states().containsKey(e.getKey())) continue;
+                removed.add(e.getKey());
+                edges(name, e.getValue(), removedEdges);
+            }
+            return new TrackDiff(name, added, removed, changed);
+        }
+
+        StateDiff state(String track, String id, HashedState before, HashedState after) {
+            long[] a = before.actions(), b = after.actions();
+            int head = 0;
+            while (head < a.length && head < b.length && a[head] == b[head]) head++;
+            int tail = 0;
+            while (tail < a.length - head && tail < b.length - head
+                    && a[a.length - 1 - tail] == b[b.length - 1 - tail]) tail++;
+
+            List<Action> oldActions = before.state().actions(), newActions = after.state().actions();
+            List<ActionChange> added = new ArrayList<>();
+            List<ActionChange> removed = new ArrayList<>();
+            List<ActionChange> changed = new ArrayList<>();
+            int oldEnd = a.length - tail, newEnd = b.length - tail;
+            int i = head, j = head;
+            for (; i < oldEnd && j < newEnd; i++, j++) {
+                changed.add(new ActionChange(j, oldActions.get(i), newActions.get(j)));
+            }
+            for (; j < newEnd; j++) added.add(new ActionChange(j, null, newActions.get(j)));
+            for (; i < oldEnd; i++) removed.add(new ActionChange(i, oldActions.get(i), null));
+
+            // only the differing middle can change the state's edges
+            Set<Edge> oldEdges = new LinkedHashSet<>(), newEdges = new LinkedHashSet<>();
+            String from = track + ":" + id;
+            for (int k = head; k < oldEnd; k++) edges(from, oldActions.get(k), oldEdges);
+            for (int k = head; k < newEnd; k++) edges(from, newActions.get(k), newEdges);
+            if (!oldEdges.equals(newEdges)) {
+                // a target may also be reached from the unchanged head or tail
+                Set<Edge> kept = new HashSet<>();
+                for (int k = 0; k < head; k++) edges(from, newActions.get(k), kept);
+                for (int k = newEnd; k < b.length; k++) edges(from, newActions.get(k), kept);
+                for (Edge edge : newEdges) if (!oldEdges.contains(edge) && !kept.contains(edge)) addedEdges.add(edge);
+                for (Edge edge : oldEdges) if (!newEdges.contains(edge) && !kept.contains(edge)) removedEdges.add(edge);
+            }
+            return new StateDiff(id, added, removed, changed);
+        }
+
+        void edges(String track, HashedState state, Set<Edge> into) {
+            StateNode node = state.state();
+            String from = track + ":" + node.trackName();
+            for (Action action : node.actions()) edges(from, action, into);
+        }
+
+        static void edges(String from, Action action, Set<Edge> into) {
+            for (String target : ActionTargets.of(action)) into.add(new Edge(from, target));
+        }
+
+        ScriptDiff build() {
+            return new ScriptDiff(addedTracks, removedTracks, changedTracks,
+                    List.copyOf(addedEdges), List.copyOf(removedEdges));
+        }
+    }
+}
@@ -37,6 +37,11 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
     @Query("SELECT cm.intent, COUNT(cm) FROM ChatMessage cm WHERE cm.sender = 'USER' GROUP BY cm.intent ORDER BY COUNT(cm) DESC")
     List<Object[]> getIntentStatistics();
     
+    // Customer messages with a known intent, to train the intent classifier on (IntentTrainingJob)
+    @Query("SELECT new com.dsl.repository.LabeledMessage(cm.intent, cm.message) FROM ChatMessage cm " +
+           "WHERE cm.sender = 'USER' AND cm.intent IS NOT NULL AND cm.intent <> 'unknown' ORDER BY cm.id")
+    List<LabeledMessage> findLabeledUserMessages();
+    
     // Find messages with low confidence
     @Query("SELECT cm FROM ChatMessage cm WHERE cm.confidence < :threshold AND cm.sender = 'USER' ORDER BY cm.timestamp DESC")
     List<ChatMessage> findLowConfidenceMessages(@Param("threshold") Double threshold);
@@ -0,0 +1,11 @@
+package com.dsl.repository;
+
+/**
+ * A customer's id and name, without the rest of the entity.
+ */
+public record CustomerName(Long id, String firstName, String lastName) {
+
+    public String fullName() {
+        return lastName == null ? firstName : firstName + " " + lastName;
+    }
+}
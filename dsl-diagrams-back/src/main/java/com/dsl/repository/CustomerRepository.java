@@ -2,6 +2,7 @@ package com.dsl.repository;
 
 
 import com.dsl.entity.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -32,6 +33,11 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
            "LOWER(CONCAT(c.firstName, ' ', c.lastName)) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Customer> searchByName(@Param("name") String name);
     
+    // Names of the customers after an id, in id order, a page at a time (for CustomerNameIndex)
+    @Query("SELECT new com.dsl.repository.CustomerName(c.id, c.firstName, c.lastName) FROM Customer c " +
+           "WHERE c.id > :afterId ORDER BY c.id")
+    List<CustomerName> findNamesAfter(@Param("afterId") Long afterId, Pageable page);
+    
     // Find customers with vehicles
     @Query("SELECT DISTINCT c FROM Customer c JOIN FETCH c.vehicles")
     List<Customer> findAllWithVehicles();
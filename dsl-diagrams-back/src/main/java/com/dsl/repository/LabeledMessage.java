@@ -0,0 +1,7 @@
+package com.dsl.repository;
+
+/**
+ * A customer message and the intent it was labeled with, without the rest of the entity.
+ */
+public record LabeledMessage(String intent, String message) {
+}
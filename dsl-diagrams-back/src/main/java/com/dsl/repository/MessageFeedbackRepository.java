@@ -0,0 +1,39 @@
+package com.dsl.repository;
+
+import com.dsl.entity.MessageFeedback;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MessageFeedbackRepository extends JpaRepository<MessageFeedback, Long> {
+    
+    // Corrections the intent classifier has not learned yet, oldest first, a batch at a time; only those of
+    // messages from the chat history, feedback on a message typed into the request is for review only
+    @Query("SELECT f FROM MessageFeedback f WHERE f.learnedAt IS NULL AND f.correctedIntent IS NOT NULL " +
+           "AND f.messageId IS NOT NULL AND f.message IS NOT NULL ORDER BY f.id")
+    List<MessageFeedback> findUnlearnedCorrections(Pageable page);
+    
+    // All corrections of messages from the chat history, to train the intent classifier on (IntentTrainingJob)
+    @Query("SELECT new com.dsl.repository.LabeledMessage(f.correctedIntent, f.message) FROM MessageFeedback f " +
+           "WHERE f.correctedIntent IS NOT NULL AND f.messageId IS NOT NULL AND f.message IS NOT NULL ORDER BY f.id")
+    List<LabeledMessage> findCorrections();
+    
+    // Version of the latest published model, as recorded with the corrections it learned
+    @Query("SELECT MAX(f.modelVersion) FROM MessageFeedback f")
+    Integer findLatestModelVersion();
+    
+    // Mark corrections learned; modelVersion is null when the model they trained was not published
+    @Transactional
+    @Modifying
+    @Query("UPDATE MessageFeedback f SET f.learnedAt = :now, f.modelVersion = :modelVersion WHERE f.id IN :ids")
+    int markLearned(@Param("ids") List<Long> ids, @Param("modelVersion") Integer modelVersion,
+                    @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,23 @@
+package com.dsl.runtime;
+
+import java.util.List;
+
+/**
+ * Entry and transition counts of one module over the last {@code windows} windows of
+ * {@code windowSeconds} each (the newest one still filling up).
+ */
+public record HeatMap(
+        String module,
+        long windowSeconds,
+        int windows,
+        List<StateHeat> states,
+        List<EdgeHeat> edges
+) {
+
+    public record StateHeat(String track, String state, long entries) { }
+
+    /**
+     * {@code label} is the branch line's or switch branch's label, or GOTO.
+     */
+    public record EdgeHeat(String from, String to, String label, long count) { }
+}
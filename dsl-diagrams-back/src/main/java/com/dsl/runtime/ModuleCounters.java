@@ -0,0 +1,193 @@
+package com.dsl.runtime;
+
+import com.dsl.models.Action;
+import com.dsl.models.BranchAction;
+import com.dsl.models.StateNode;
+import com.dsl.models.SwitchAction;
+import com.dsl.models.TrackNode;
+import com.dsl.parser.ActionTargets;
+import com.dsl.runtime.HeatMap.EdgeHeat;
+import com.dsl.runtime.HeatMap.StateHeat;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Entry and transition counters of one compiled module.
+ *
+ * States get dense ids in source order and each state's outgoing jumps (GOTOs, branch lines, switch
+ * branches) get dense edge ids, stored CSR-style so an edge is found by scanning its source's range.
+ * Counts live in one {@link LongAdder} per id and time window; the executor resolves ids once and the
+ * recording calls only read the current window index and increment an adder, so they neither lock nor
+ * allocate.
+ */
+public final class ModuleCounters {
+
+    private final String module;
+    private final Map<String, Map<String, Integer>> stateIds = new HashMap<>();
+    private final String[] stateTracks;
+    private final String[] stateNames;
+    private final int[] edgeStart;   // edges of state s are edgeStart[s] until edgeStart[s + 1]
+    private final String[] edgeTargets;
+    private final String[] edgeLabels;
+    private final int[] edgeTargetStates; // -1 for targets outside the module
+
+    private final LongAdder[][] stateCounts;  // [window][state]
+    private final LongAdder[][] edgeCounts;   // [window][edge]
+    private volatile int current;
+
+    ModuleCounters(String module, List<TrackNode> tracks, int windows) {
+        this.module = module;
+        List<StateNode> states = new ArrayList<>();
+        List<String> tracksOf = new ArrayList<>();
+        for (TrackNode track : tracks) {
+            Map<String, Integer> ids = stateIds.computeIfAbsent(track.name(), k -> new HashMap<>());
+            for (StateNode state : track.states()) {
+                // StateNode.trackName holds the state id
+                if (ids.putIfAbsent(state.trackName(), states.size()) != null) continue;
+                states.add(state);
+                tracksOf.add(track.name());
+            }
+        }
+        stateTracks = tracksOf.toArray(String[]::new);
+        stateNames = states.stream().map(StateNode::trackName).toArray(String[]::new);
+
+        edgeStart = new int[states.size() + 1];
+        List<String> targets = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        for (int s = 0; s < states.size(); s++) {
+            edgeStart[s] = targets.size();
+            for (Action action : states.get(s).actions()) {
+                if (action instanceof SwitchAction a) {
+                    a.branches().forEach((label, target) -> {
+                        targets.add(target);
+                        labels.add(label);
+                    });
+                } else {
+                    for (String target : ActionTargets.of(action)) {
+                        targets.add(target);
+                        labels.add(action instanceof BranchAction a ? a.label() : "GOTO");
+                    }
+                }
+            }
+        }
+        edgeStart[states.size()] = targets.size();
+        edgeTargets = targets.toArray(String[]::new);
+        edgeLabels = labels.toArray(String[]::new);
+        edgeTargetStates = new int[edgeTargets.length];
+        for (int e = 0; e < edgeTargets.length; e++) {
+            String target = edgeTargets[e];
+            String stateName = ActionTargets.state(target);
+            edgeTargetStates[e] = state(ActionTargets.track(target), stateName.isEmpty() ? "S1" : stateName);
+        }
+
+        stateCounts = adders(windows, stateNames.length);
+        edgeCounts = adders(windows, edgeTargets.length);
+    }
+
+    private static LongAdder[][] adders(int windows, int size) {
+        LongAdder[][] adders = new LongAdder[windows][size];
+        for (LongAdder[] window : adders) {
+            for (int i = 0; i < size; i++) window[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    public String module() {
+        return module;
+    }
+
+    /**
+     * Id of state {@code state} of {@code track}, or -1 if the module has no such state.
+     */
+    public int state(String track, String state) {
+        Map<String, Integer> ids = stateIds.get(track);
+        Integer id = ids == null ? null : ids.get(state);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Id of the jump from state {@code from} to {@code target} (TRACK:STATE as written in the script),
+     * or -1 if that state has no such jump.
+     */
+    public int edge(int from, String target) {
+        if (from < 0) return -1;
+        for (int e = edgeStart[from]; e < edgeStart[from + 1]; e++) {
+            if (edgeTargets[e].equals(target)) return e;
+        }
+        return -1;
+    }
+
+    /**
+     * A lead entered {@code state}.
+     */
+    public void enter(int state) {
+        if (state >= 0) stateCounts[current][state].increment();
+    }
+
+    /**
+     * A lead took jump {@code edge}; also counts the entry into its target if that is in this module.
+     */
+    public void transition(int edge) {
+        if (edge < 0) return;
+        int window = current;
+        edgeCounts[window][edge].increment();
+        int to = edgeTargetStates[edge];
+        if (to >= 0) stateCounts[window][to].increment();
+    }
+
+    // clears the oldest window and makes it current; writers that read the old index finish there
+    void rotate() {
+        int next = (current + 1) % stateCounts.length;
+        for (LongAdder adder : stateCounts[next]) adder.reset();
+        for (LongAdder adder : edgeCounts[next]) adder.reset();
+        current = next;
+    }
+
+    /**
+     * Carries the counts of states and edges that still exist over from the previous compilation.
+     */
+    void copyFrom(ModuleCounters previous) {
+        int windows = Math.min(stateCounts.length, previous.stateCounts.length);
+        for (int age = 0; age < windows; age++) {
+            int from = Math.floorMod(previous.current - age, previous.stateCounts.length);
+            int to = Math.floorMod(current - age, stateCounts.length);
+            for (int s = 0; s < previous.stateNames.length; s++) {
+                int id = state(previous.stateTracks[s], previous.stateNames[s]);
+                if (id < 0) continue;
+                stateCounts[to][id].add(previous.stateCounts[from][s].sum());
+                for (int e = previous.edgeStart[s]; e < previous.edgeStart[s + 1]; e++) {
+                    int edge = edge(id, previous.edgeTargets[e]);
+                    if (edge >= 0) edgeCounts[to][edge].add(previous.edgeCounts[from][e].sum());
+                }
+            }
+        }
+    }
+
+    /**
+     * Non-zero counts over the current window and the {@code windows - 1} before it.
+     */
+    HeatMap heat(int windows, long windowSeconds) {
+        int total = stateCounts.length;
+        windows = Math.max(1, Math.min(windows, total));
+        int now = current;
+        long[] states = new long[stateNames.length];
+        long[] edges = new long[edgeTargets.length];
+        for (int age = 0; age < windows; age++) {
+            int w = Math.floorMod(now - age, total);
+            for (int s = 0; s < states.length; s++) states[s] += stateCounts[w][s].sum();
+            for (int e = 0; e < edges.length; e++) edges[e] += edgeCounts[w][e].sum();
+        }
+
+        List<StateHeat> stateHeat = new ArrayList<>();
+        List<EdgeHeat> edgeHeat = new ArrayList<>();
+        for (int s = 0; s < states.length; s++) {
+            if (states[s] > 0) stateHeat.add(new StateHeat(stateTracks[s], stateNames[s], states[s]));
+            for (int e = edgeStart[s]; e < edgeStart[s + 1]; e++) {
+                if (edges[e] == 0) continue;
+                edgeHeat.add(new EdgeHeat(stateTracks[s] + ":" + stateNames[s], edgeTargets[e], edgeLabels[e], edges[e]));
+            }
+        }
+        return new HeatMap(module, windowSeconds, windows, stateHeat, edgeHeat);
+    }
+}
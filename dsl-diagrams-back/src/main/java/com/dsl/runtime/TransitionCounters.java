@@ -0,0 +1,93 @@
+package com.dsl.runtime;
+
+import com.dsl.parser.AivaModuleLoader;
+import com.dsl.parser.AivaScript;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runtime counters for the compiled workspace: how often each state is entered and each jump taken,
+ * kept in a ring of time windows for heat maps.
+ *
+ * Executors look up a module's {@link ModuleCounters} and its state and edge ids once, then record
+ * through them. When a module is recompiled its counters are rebuilt for the new ids, keeping the
+ * counts of states and jumps that still exist; a handle obtained before that stops being exported,
+ * so executors should fetch it again per lead step or after a reload.
+ */
+@Component
+public class TransitionCounters {
+
+    private final Map<String, ModuleCounters> modules = new ConcurrentSkipListMap<>();
+    private final int windows;
+    private final Duration window;
+    private final ScheduledExecutorService rotation;
+
+    public TransitionCounters(AivaModuleLoader loader,
+                              @Value("${aiva.counters.window:5m}") Duration window,
+                              @Value("${aiva.counters.windows:12}") int windows) {
+        this.window = window;
+        this.windows = windows;
+        this.rotation = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "transition-counters");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rotation.scheduleAtFixedRate(this::rotate, window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+
+        loader.addListener(this::compile);
+        for (String module : loader.moduleNames()) {
+            compile(module, loader.compile(module));
+        }
+    }
+
+    private void compile(String module, AivaScript script) {
+        ModuleCounters counters = new ModuleCounters(module, script.tracks(), windows);
+        synchronized (this) {
+            ModuleCounters previous = modules.get(module);
+            if (previous != null) counters.copyFrom(previous);
+            modules.put(module, counters);
+        }
+    }
+
+    synchronized void rotate() {
+        for (ModuleCounters counters : modules.values()) counters.rotate();
+    }
+
+    /**
+     * Counters of {@code module}, or null if it has not been compiled.
+     */
+    public ModuleCounters module(String module) {
+        return modules.get(module);
+    }
+
+    /**
+     * Heat maps over the last {@code windows} windows, of {@code module} or of all modules if null.
+     */
+    public List<HeatMap> heat(String module, int windows) {
+        List<HeatMap> heat = new ArrayList<>();
+        modules.forEach((name, counters) -> {
+            if (module == null || module.equals(name)) heat.add(counters.heat(windows, window.toSeconds()));
+        });
+        return heat;
+    }
+
+    public int windows() {
+        return windows;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rotation.shutdownNow();
+    }
+}
@@ -0,0 +1,116 @@
+package com.dsl.service;
+
+import com.dsl.nlp.TrigramIndex;
+import com.dsl.repository.CustomerName;
+import com.dsl.repository.CustomerRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customer names in an in-memory {@link TrigramIndex}, so the greeting and name turns find customers
+ * ranked by similarity and despite typos, without the full table scan of
+ * {@link CustomerRepository#searchByName}'s LIKE predicates. A match only {@link #identifies} the
+ * customer when the names are all but the same; the others are candidates to ask the customer about,
+ * since a similar name ("Mark Smith", "Mary Smith") is as likely to be someone else as a typo.
+ *
+ * The index is built in the background once the application is up and rebuilt from the table every
+ * refresh interval, reading it in id order a page at a time; searches use the previous index until
+ * the new one is complete. Customers added since the last rebuild are not found until the next.
+ */
+@Component
+public class CustomerNameIndex {
+
+    private static final int PAGE_SIZE = 10_000;
+
+    private final CustomerRepository customers;
+    private final Duration refreshInterval;
+    private final double minSimilarity;
+    private final int maxCandidates;
+    private final double bindSimilarity;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "customer-name-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile TrigramIndex index;
+
+    public CustomerNameIndex(CustomerRepository customers,
+                             @Value("${customers.name-index.refresh-interval:10m}") Duration refreshInterval,
+                             @Value("${customers.name-index.min-similarity:0.3}") double minSimilarity,
+                             @Value("${customers.name-index.max-candidates:10}") int maxCandidates,
+                             @Value("${customers.name-index.bind-similarity:0.95}") double bindSimilarity) {
+        this.customers = customers;
+        this.refreshInterval = refreshInterval;
+        this.minSimilarity = minSimilarity;
+        this.maxCandidates = maxCandidates;
+        this.bindSimilarity = bindSimilarity;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Rebuilds the index from the customers table on the calling thread.
+     */
+    public void refresh() {
+        long started = System.nanoTime();
+        TrigramIndex.Builder builder = TrigramIndex.builder();
+        long afterId = 0;
+        List<CustomerName> page;
+        do {
+            page = customers.findNamesAfter(afterId, PageRequest.of(0, PAGE_SIZE));
+            for (CustomerName name : page) builder.add(name.id(), name.fullName());
+            if (!page.isEmpty()) afterId = page.get(page.size() - 1).id();
+        } while (page.size() == PAGE_SIZE);
+        index = builder.build();
+        System.out.println("Customer name index built: " + index.size() + " customers in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms");
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // keep the previous index and try again at the next interval
+            System.err.println("Failed to build the customer name index: " + e.getMessage());
+        }
+    }
+
+    public boolean isLoaded() {
+        return index != null;
+    }
+
+    /**
+     * The customers whose names are most like {@code name}, best first, or null while the index has not
+     * been built yet.
+     */
+    public List<TrigramIndex.Match> search(String name) {
+        TrigramIndex current = index;
+        if (current == null) return null;
+        return current.search(name, maxCandidates, minSimilarity);
+    }
+
+    /**
+     * Whether a match is close enough to the name searched for to take it as the same customer.
+     */
+    public boolean identifies(TrigramIndex.Match match) {
+        return match.similarity() >= bindSimilarity;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
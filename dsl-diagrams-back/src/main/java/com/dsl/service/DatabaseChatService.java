@@ -1,7 +1,10 @@
 package com.dsl.service;
 
+import com.dsl.config.DealershipConfiguration;
 import com.dsl.controller.*;
 import com.dsl.entity.*;
+import com.dsl.nlp.TimeExpressionParser;
+import com.dsl.nlp.TrigramIndex;
 import com.dsl.repository.*;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,7 +12,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 @Service
@@ -37,6 +42,35 @@ public class DatabaseChatService {
     @Autowired
     private EnhancedNLPService enhancedNLPService;
 
+    @Autowired
+    private CustomerNameIndex customerNameIndex;
+
+    @Autowired
+    private MessageFeedbackRepository messageFeedbackRepository;
+
+    @Autowired
+    private DealershipConfiguration dealership;
+
+    /**
+     * The intents {@link #generateResponse} answers; a time expression is answered as a time preference
+     * or a scheduling request. Feedback can only correct a message to one of these.
+     */
+    public static final Set<String> INTENTS = Set.of("greeting", "provide_name", "vehicle_info",
+            "service_inquiry", "booking_request", "confirmation", "negation", "emergency", "complaint",
+            "tire_assistance", "tire_service_choice", "location_provided", "oil_assistance", "oil_service_choice",
+            "service_selection", "time_preference", "scheduling_request", "time_expression");
+
+    // session data key of the slot chosen for the appointment being booked
+    private static final String APPOINTMENT_TIME = "appointment_time";
+    // session data key of the customer a name may be, while the customer is asked whether it is them
+    private static final String CUSTOMER_CANDIDATE = "customer_candidate";
+    private static final Set<AppointmentStatus> TAKING_A_BAY = EnumSet.of(
+            AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED, AppointmentStatus.IN_PROGRESS);
+    private static final DateTimeFormatter SLOT_TIME = DateTimeFormatter.ofPattern("h:mm a", Locale.US);
+    private static final DateTimeFormatter SLOT_DAY = DateTimeFormatter.ofPattern("EEEE", Locale.US);
+    private static final DateTimeFormatter SLOT_DATE = DateTimeFormatter.ofPattern("EEE, MMM d", Locale.US);
+    private static final DateTimeFormatter APPOINTMENT = DateTimeFormatter.ofPattern("EEEE, MMMM d 'at' h:mm a", Locale.US);
+
     public DatabaseChatService() {
     }
 
@@ -117,7 +151,7 @@ public class DatabaseChatService {
                 break;
 
             case "booking_request":
-                responseMessage = handleBookingRequest(updatedContext, entities, session);
+                responseMessage = handleBookingRequest(updatedContext, entities, session, nlpResult.getTimeExpression());
                 quickReplies = getTimeSlotQuickReplies();
                 break;
 
@@ -176,12 +210,12 @@ public class DatabaseChatService {
                 break;
                 
             case "time_preference":
-                responseMessage = handleTimePreference(updatedContext, userMessage, session);
+                responseMessage = handleTimePreference(updatedContext, userMessage, session, nlpResult.getTimeExpression());
                 quickReplies = getTimeConfirmationQuickReplies();
                 break;
                 
             case "scheduling_request":
-                responseMessage = handleSchedulingRequest(updatedContext, userMessage, session);
+                responseMessage = handleSchedulingRequest(updatedContext, userMessage, session, nlpResult.getTimeExpression());
                 quickReplies = getSchedulingQuickReplies();
                 break;
 
@@ -263,14 +297,14 @@ public class DatabaseChatService {
         if (detectedName != null && !detectedName.isEmpty()) {
             context.setCustomerName(detectedName);
             // Try to find existing customer by detected name
-            List<Customer> customers = customerRepository.searchByName(detectedName);
-            if (!customers.isEmpty()) {
-                Customer customer = customers.get(0);
-                session.setCustomer(customer);
-                context.setCustomerId(customer.getId());
-                context.setCustomerName(customer.getFullName());
+            CustomerLookup lookup = findCustomersByName(detectedName);
+            if (lookup.customer() != null) {
+                Customer customer = lookup.customer();
+                bindCustomer(context, session, customer);
                 return String.format("Welcome back, %s! I see you have a %s. How can I help you today?",
                         customer.getFirstName(), getCustomerVehicleInfo(customer));
+            } else if (!lookup.candidates().isEmpty()) {
+                return askIfCandidate(context, detectedName, lookup.candidates().get(0));
             } else {
                 // New customer with detected name
                 context.setConversationState("new_customer");
@@ -362,12 +396,10 @@ public class DatabaseChatService {
             context.setCustomerName(name);
 
             // Try to find existing customer
-            List<Customer> customers = customerRepository.searchByName(name);
-            if (!customers.isEmpty()) {
-                Customer customer = customers.get(0);
-                session.setCustomer(customer);
-                context.setCustomerId(customer.getId());
-                context.setCustomerName(customer.getFullName());
+            CustomerLookup lookup = findCustomersByName(name);
+            Customer customer = lookup.customer();
+            if (customer != null) {
+                bindCustomer(context, session, customer);
             }
 
             // Check if this is part of tire assistance flow
@@ -377,8 +409,7 @@ public class DatabaseChatService {
             }
 
             // Regular name provision flow
-            if (!customers.isEmpty()) {
-                Customer customer = customers.get(0);
+            if (customer != null) {
                 List<Vehicle> vehicles = vehicleRepository.findByCustomerId(customer.getId());
                 if (!vehicles.isEmpty()) {
                     Vehicle primaryVehicle = vehicles.get(0);
@@ -389,6 +420,8 @@ public class DatabaseChatService {
                 }
                 return String.format("Welcome back, %s! What vehicle do you need service for?",
                         customer.getFirstName());
+            } else if (!lookup.candidates().isEmpty()) {
+                return askIfCandidate(context, name, lookup.candidates().get(0));
             } else {
                 context.setConversationState("new_customer");
                 return String.format(
@@ -471,13 +504,14 @@ public class DatabaseChatService {
         return "What type of service do you need? We offer oil changes, tire rotations, brake inspections, and more.";
     }
 
-    private String handleBookingRequest(UserContext context, Map<String, String> entities, ChatSession session) {
+    private String handleBookingRequest(UserContext context, Map<String, String> entities, ChatSession session,
+                                        TimeExpressionParser.Expression requested) {
         if (context.getVehicle() == null || context.getCurrentService() == null) {
             return "I'll need your vehicle information and the service you want before we can book an appointment. What car do you drive and what service do you need?";
         }
 
         // Check availability and suggest times
-        List<String> availableSlots = getAvailableTimeSlots();
+        List<String> availableSlots = getAvailableTimeSlots(requested);
         context.setConversationState("booking_appointment");
 
         return String.format(
@@ -677,7 +711,16 @@ public class DatabaseChatService {
     private String handleConfirmation(UserContext context, Map<String, String> entities, ChatSession session) {
         String conversationState = context.getConversationState();
 
-        if ("booking_appointment".equals(conversationState)) {
+        if ("confirm_customer".equals(conversationState)) {
+            // User confirmed they are the customer their name was like
+            Customer customer = takeCandidate(context);
+            if (customer != null) {
+                bindCustomer(context, session, customer);
+                context.setConversationState("customer_confirmed");
+                return String.format("Welcome back, %s! I see you have a %s. How can I help you today?",
+                        customer.getFirstName(), getCustomerVehicleInfo(customer));
+            }
+        } else if ("booking_appointment".equals(conversationState)) {
             // Create the appointment
             if (session.getCustomer() != null && context.getVehicle() != null && context.getCurrentService() != null) {
                 try {
@@ -829,11 +872,13 @@ public class DatabaseChatService {
         return "Got it! Let me confirm - are you saying that's your current location? If so, I can dispatch roadside assistance right away.";
     }
 
-    private String handleTimePreference(UserContext context, String userMessage, ChatSession session) {
+    private String handleTimePreference(UserContext context, String userMessage, ChatSession session,
+                                        TimeExpressionParser.Expression requested) {
         String customerName = context.getCustomerName() != null ? context.getCustomerName() : 
                              (session.getCustomer() != null ? session.getCustomer().getFirstName() : "");
         
-        String timePreference = extractTimeFromMessage(userMessage);
+        String timePreference = reserveTime(context, requested, userMessage);
+        if (timePreference == null) return fullyBooked(context, customerName, requested);
         context.setConversationState("time_selected");
         
         if (context.getCurrentService() != null) {
@@ -850,11 +895,13 @@ public class DatabaseChatService {
         }
     }
 
-    private String handleSchedulingRequest(UserContext context, String userMessage, ChatSession session) {
+    private String handleSchedulingRequest(UserContext context, String userMessage, ChatSession session,
+                                           TimeExpressionParser.Expression requested) {
         String customerName = context.getCustomerName() != null ? context.getCustomerName() : 
                              (session.getCustomer() != null ? session.getCustomer().getFirstName() : "");
         
-        String timePreference = extractTimeFromMessage(userMessage);
+        String timePreference = reserveTime(context, requested, userMessage);
+        if (timePreference == null) return fullyBooked(context, customerName, requested);
         context.setConversationState("scheduling_initiated");
         
         if (context.getCurrentService() != null && context.getVehicle() != null) {
@@ -882,25 +929,22 @@ public class DatabaseChatService {
         }
     }
 
-    private String extractTimeFromMessage(String message) {
-        String lowerMessage = message.toLowerCase();
-        
-        // Extract common time expressions
-        if (lowerMessage.contains("tomorrow morning")) return "tomorrow morning";
-        if (lowerMessage.contains("tomorrow afternoon")) return "tomorrow afternoon";
-        if (lowerMessage.contains("tomorrow evening")) return "tomorrow evening";
-        if (lowerMessage.contains("next week")) return "next week";
-        if (lowerMessage.contains("monday")) return "Monday";
-        if (lowerMessage.contains("tuesday")) return "Tuesday";
-        if (lowerMessage.contains("wednesday")) return "Wednesday";
-        if (lowerMessage.contains("thursday")) return "Thursday";
-        if (lowerMessage.contains("friday")) return "Friday";
-        if (lowerMessage.contains("saturday")) return "Saturday";
-        if (lowerMessage.contains("sunday")) return "Sunday";
-        if (lowerMessage.contains("tomorrow")) return "tomorrow";
-        if (lowerMessage.contains("today")) return "today";
-        
-        return message.trim(); // Return original if no specific pattern found
+    // The first open slot in the time the customer asked for, kept for the booking, or null if that
+    // time has none; what they said when it is not a time expression
+    private String reserveTime(UserContext context, TimeExpressionParser.Expression requested, String userMessage) {
+        if (requested == null) return userMessage.trim();
+        List<LocalDateTime> slots = findAvailableSlots(requested.resolve(dealership.now()), 1);
+        if (slots.isEmpty()) return null;
+        context.getSessionData().put(APPOINTMENT_TIME, slots.get(0).toString());
+        return APPOINTMENT.format(slots.get(0));
+    }
+
+    private String fullyBooked(UserContext context, String customerName, TimeExpressionParser.Expression requested) {
+        context.setConversationState("booking_appointment");
+        return String.format("Sorry%s, we have no openings for %s. The next available times are %s. Would one of those work?",
+                customerName == null || customerName.isEmpty() ? "" : ", " + customerName,
+                requested.resolve(dealership.now()).describe(),
+                String.join(", ", getAvailableTimeSlots(null)));
     }
 
     private List<QuickReply> getTimeConfirmationQuickReplies() {
@@ -950,6 +994,61 @@ public class DatabaseChatService {
                 lowerMessage.contains("emergency delivery");
     }
 
+    /**
+     * The customer a name identifies, or, when it identifies none, the customers it is like, best first.
+     */
+    private record CustomerLookup(Customer customer, List<Customer> candidates) {
+    }
+
+    // Only the same full name, ignoring case, or one the name index takes as the same identifies a
+    // customer; the rest are ranked by similarity, tolerating typos, once the index is built and found
+    // by a LIKE scan until then
+    private CustomerLookup findCustomersByName(String name) {
+        List<TrigramIndex.Match> matches = customerNameIndex.search(name);
+        List<Customer> candidates = new ArrayList<>();
+        Customer identified = null;
+        if (matches == null) {
+            candidates.addAll(customerRepository.searchByName(name));
+        } else {
+            Map<Long, Customer> byId = new HashMap<>();
+            customerRepository.findAllById(matches.stream().map(TrigramIndex.Match::id).toList())
+                    .forEach(customer -> byId.put(customer.getId(), customer));
+            for (TrigramIndex.Match match : matches) {
+                Customer customer = byId.get(match.id());
+                if (customer == null) continue; // deleted since the index was built
+                if (identified == null && customerNameIndex.identifies(match)) identified = customer;
+                candidates.add(customer);
+            }
+        }
+        String fullName = String.join(" ", name.trim().split("\\s+"));
+        for (Customer customer : candidates) {
+            if (identified == null && customer.getFullName().equalsIgnoreCase(fullName)) identified = customer;
+        }
+        return identified != null ? new CustomerLookup(identified, List.of()) : new CustomerLookup(null, candidates);
+    }
+
+    private void bindCustomer(UserContext context, ChatSession session, Customer customer) {
+        session.setCustomer(customer);
+        context.setCustomerId(customer.getId());
+        context.setCustomerName(customer.getFullName());
+    }
+
+    // A name like an existing customer's may still be someone else's: ask before showing them anything
+    // of that customer's
+    private String askIfCandidate(UserContext context, String name, Customer candidate) {
+        context.setConversationState("confirm_customer");
+        context.getSessionData().put(CUSTOMER_CANDIDATE, String.valueOf(candidate.getId()));
+        return String.format("Nice to meet you, %s! Did you mean %s? Let me know if you've been with us before.",
+                name, candidate.getFullName());
+    }
+
+    // The customer the user was asked about, if they still exist
+    private Customer takeCandidate(UserContext context) {
+        Object candidate = context.getSessionData().remove(CUSTOMER_CANDIDATE);
+        if (candidate == null) return null;
+        return customerRepository.findById(Long.valueOf(candidate.toString())).orElse(null);
+    }
+
     private String getCustomerVehicleInfo(Customer customer) {
         List<Vehicle> vehicleDTOS = vehicleRepository.findByCustomerId(customer.getId());
         if (!vehicleDTOS.isEmpty()) {
@@ -968,9 +1067,57 @@ public class DatabaseChatService {
                 lastService.getService().getName(), lastService.getServiceDate());
     }
 
-    private List<String> getAvailableTimeSlots() {
-        // Simplified - in real implementation, check actual availability
-        return Arrays.asList("Tomorrow 9:00 AM", "Tomorrow 2:00 PM", "Friday 10:00 AM", "Friday 3:00 PM");
+    // Open slots in the time the customer asked for, or over the coming week when they did not ask for
+    // one or it has none
+    private List<String> getAvailableTimeSlots(TimeExpressionParser.Expression requested) {
+        LocalDateTime now = dealership.now();
+        List<LocalDateTime> slots = requested == null ? List.of() : findAvailableSlots(requested.resolve(now), 4);
+        if (slots.isEmpty()) {
+            slots = findAvailableSlots(new TimeExpressionParser.Window(now, now.plusDays(7), 0, 24 * 60, false), 4);
+        }
+        return slots.stream().map(this::formatSlot).toList();
+    }
+
+    /**
+     * Up to {@code limit} appointment times in the window, earliest first, that have not started and
+     * have a service bay free: on the hour within opening hours, or the exact time asked for.
+     */
+    private List<LocalDateTime> findAvailableSlots(TimeExpressionParser.Window window, int limit) {
+        LocalDateTime now = dealership.now();
+        // appointments take an hour, so one started up to an hour before the window still holds a bay
+        List<LocalDateTime> taken = appointmentRepository.findByDateRange(window.start().minusHours(1), window.end())
+                .stream()
+                .filter(appointment -> TAKING_A_BAY.contains(appointment.getStatus()))
+                .map(Appointment::getAppointmentDate)
+                .toList();
+        List<LocalDateTime> slots = new ArrayList<>();
+        for (LocalDate day = window.start().toLocalDate(); day.atStartOfDay().isBefore(window.end())
+                && slots.size() < limit; day = day.plusDays(1)) {
+            if (dealership.getClosedDays().contains(day.getDayOfWeek())) continue;
+            for (int hour = dealership.getOpeningHour(); hour < dealership.getClosingHour() && slots.size() < limit; hour++) {
+                LocalDateTime slot = window.exact() ? day.atStartOfDay().plusMinutes(window.fromMinute()) : day.atTime(hour, 0);
+                boolean open = slot.getHour() >= dealership.getOpeningHour()
+                        && slot.plusHours(1).compareTo(day.atTime(dealership.getClosingHour(), 0)) <= 0;
+                if (open && !slot.isBefore(now) && (window.exact() || window.contains(slot))
+                        && bookedAround(taken, slot) < dealership.getServiceBays()) {
+                    slots.add(slot);
+                }
+                if (window.exact()) break;
+            }
+        }
+        return slots;
+    }
+
+    private static long bookedAround(List<LocalDateTime> taken, LocalDateTime slot) {
+        return taken.stream().filter(t -> t.isAfter(slot.minusHours(1)) && t.isBefore(slot.plusHours(1))).count();
+    }
+
+    // "Today 2:00 PM", "Tomorrow 9:00 AM", "Friday 10:00 AM" or "Mon, Nov 2 9:00 AM"
+    private String formatSlot(LocalDateTime slot) {
+        long days = slot.toLocalDate().toEpochDay() - dealership.now().toLocalDate().toEpochDay();
+        String day = days == 0 ? "Today" : days == 1 ? "Tomorrow"
+                : days < 7 ? SLOT_DAY.format(slot) : SLOT_DATE.format(slot);
+        return day + " " + SLOT_TIME.format(slot);
     }
 
     private void createAppointment(Customer customer, UserContext context) {
@@ -981,8 +1128,10 @@ public class DatabaseChatService {
         Optional<com.dsl.entity.Service> serviceOpt = serviceRepository
                 .findByNameIgnoreCase(context.getCurrentService());
         if (serviceOpt.isPresent()) {
-            Appointment appointment = new Appointment(customer, vehicleDTO, serviceOpt.get(),
-                    LocalDateTime.now().plusDays(1));
+            // the slot the customer chose, or the same time tomorrow
+            Object chosen = context.getSessionData().get(APPOINTMENT_TIME);
+            LocalDateTime time = chosen != null ? LocalDateTime.parse(chosen.toString()) : dealership.now().plusDays(1);
+            Appointment appointment = new Appointment(customer, vehicleDTO, serviceOpt.get(), time);
             appointmentRepository.save(appointment);
         }
     }
@@ -1342,6 +1491,13 @@ public class DatabaseChatService {
                     customerName != null ? customerName : "",
                     context.getCurrentService() != null ? context.getCurrentService() : "service");
 
+        } else if ("confirm_customer".equals(conversationState)) {
+            // User is not the customer their name was like
+            takeCandidate(context);
+            context.setConversationState("new_customer");
+            return String.format("Thanks for letting me know, %s! What vehicle do you need service for?",
+                    customerName != null ? customerName : "");
+
         } else if ("tire_service_ready".equals(conversationState) || "oil_service_ready".equals(conversationState)) {
             // User said no to immediate dispatch
             context.setConversationState("dispatch_declined");
@@ -1442,6 +1598,50 @@ public class DatabaseChatService {
     }
 
     // Public methods for chat history
+    /**
+     * Saves a customer's feedback. The message it is about is taken from the chat history when
+     * messageId names one of the session's messages, from the request otherwise; only the former is
+     * learned from, the latter is kept for review.
+     *
+     * @throws IllegalArgumentException if the corrected intent is not one of {@link #INTENTS}
+     */
+    public MessageFeedback saveFeedback(FeedbackRequest request) {
+        String correctedIntent = blankToNull(request.getCorrectedIntent());
+        if (correctedIntent != null && !INTENTS.contains(correctedIntent)) {
+            throw new IllegalArgumentException("Unknown intent: " + correctedIntent);
+        }
+        MessageFeedback feedback = new MessageFeedback();
+        feedback.setSessionId(request.getSessionId());
+        feedback.setMessage(request.getMessage());
+        feedback.setPredictedIntent(request.getIntent());
+        ChatMessage rated = findSessionMessage(request.getSessionId(), request.getMessageId());
+        if (rated != null) {
+            feedback.setMessageId(rated.getId());
+            feedback.setMessage(rated.getMessage());
+            feedback.setPredictedIntent(rated.getIntent());
+        }
+        feedback.setCorrectedIntent(correctedIntent);
+        feedback.setFeedback(request.getFeedback());
+        feedback.setComment(request.getComment());
+        feedback.setRating(request.getRating() > 0 ? request.getRating() : null);
+        return messageFeedbackRepository.save(feedback);
+    }
+
+    private ChatMessage findSessionMessage(String sessionId, String messageId) {
+        if (sessionId == null || messageId == null) return null;
+        try {
+            return chatMessageRepository.findById(Long.parseLong(messageId.trim()))
+                    .filter(m -> sessionId.equals(m.getChatSession().getSessionId()))
+                    .orElse(null);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     public List<ChatMessage> getChatHistory(String sessionId) {
         return chatMessageRepository.findBySessionIdOrderByTimestamp(sessionId);
     }
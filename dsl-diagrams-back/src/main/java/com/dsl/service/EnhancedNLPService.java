@@ -1,59 +1,203 @@
 package com.dsl.service;
 
+import com.dsl.config.NLPConfiguration;
 import com.dsl.controller.*;
+import com.dsl.nlp.AnnotationPool;
+import com.dsl.nlp.IntentClassifier;
+import com.dsl.nlp.LatencyRecorder;
+import com.dsl.nlp.ResultCache;
+import com.dsl.nlp.StageMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 @Service
 public class EnhancedNLPService {
 
+    // Messages per batch step: analyzed together, then passed on in order
+    private static final int BATCH_CHUNK = 256;
+
     private final NLPService basicNLPService;
     private final StanfordNLPService stanfordNLPService;
+    private final NLPConfiguration.HybridMode hybridMode;
+    private final NLPConfiguration.IntentEngine intentEngine;
+    private final IntentModel intentModel;
+    private final double classifierMinConfidence;
+    // End-to-end time per message
+    private final LatencyRecorder turns = new LatencyRecorder(1024);
+    // Time per stage, by final intent and processing method
+    private final StageMetrics stageMetrics = new StageMetrics();
 
-    @Value("${nlp.confidence-threshold:0.6}")
     private double confidenceThreshold;
 
     @Autowired
-    public EnhancedNLPService(NLPService basicNLPService, StanfordNLPService stanfordNLPService) {
+    public EnhancedNLPService(NLPService basicNLPService, StanfordNLPService stanfordNLPService,
+                              NLPConfiguration configuration, IntentModel intentModel) {
         this.basicNLPService = basicNLPService;
         this.stanfordNLPService = stanfordNLPService;
+        this.hybridMode = configuration.getHybridMode();
+        this.confidenceThreshold = configuration.getConfidenceThreshold();
+        this.classifierMinConfidence = configuration.getClassifier().getMinConfidence();
+        this.intentModel = intentModel;
+        // without a model to load, Stanford's intents
+        this.intentEngine = intentModel.classifier() != null ? configuration.getIntentEngine() : NLPConfiguration.IntentEngine.STANFORD;
     }
 
     public NLPResult processMessage(String message, UserContext context) {
+        long start = System.nanoTime();
+        StageMetrics.Timings timings = new StageMetrics.Timings();
+        NLPResult result = null;
+        try {
+            result = hybridMode == NLPConfiguration.HybridMode.CONCURRENT && isStanfordNLPAvailable()
+                    ? processConcurrently(message, context, timings)
+                    : processSequentially(message, context, timings);
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            turns.record(elapsed);
+            timings.add(StageMetrics.TURN, elapsed);
+            stageMetrics.record(timings, result != null ? result.getIntent() : null,
+                    result != null ? result.getProcessingMethod() : "error");
+        }
+    }
+
+    private NLPResult processSequentially(String message, UserContext context, StageMetrics.Timings timings) {
         // Always try basic NLP first (fast and domain-specific)
-        NLPResult basicResult = basicNLPService.processMessage(message, context);
+        NLPResult basicResult = basicNLPService.processMessage(message, context, timings);
+
+        // The rules alone while Stanford is loading
+        if (!isStanfordNLPAvailable()) {
+            basicResult.setProcessingMethod("rule-based");
+            return basicResult;
+        }
 
         // Always use Stanford NLP for enhancement (hybrid approach)
         try {
-            NLPResult enhancedResult = enhanceWithStanfordNLP(message, basicResult, context);
+            NLPResult enhancedResult = enhanceWithStanfordNLP(message, basicResult, context, timings);
             enhancedResult.setProcessingMethod("hybrid");
 
             return enhancedResult;
         } catch (Exception e) {
-            System.err.println("Stanford NLP enhancement failed, falling back to basic result: " + e.getMessage());
-            // Fallback to basic result if Stanford NLP fails
-            basicResult.setProcessingMethod("rule-based-fallback");
+            return fallback(basicResult, e);
+        }
+    }
+
+    /**
+     * Answers from the rules alone when they decide the result (see rulesDecide), without waiting
+     * for Stanford. Otherwise Stanford can still change the intent, entities, sentiment and handoff,
+     * so it runs on the annotation pool with the profile the rules' result calls for, and is awaited
+     * within the Stanford timeout. The rules take well under a millisecond, so they run first.
+     */
+    private NLPResult processConcurrently(String message, UserContext context, StageMetrics.Timings timings) {
+        NLPResult basicResult = basicNLPService.processMessage(message, context, timings);
+        if (rulesDecide(basicResult)) {
+            basicResult.setProcessingMethod("rule-based");
             return basicResult;
         }
+
+        try {
+            Future<StanfordNLPResult> stanford = stanfordNLPService.analyzeAsync(message, stanfordProfile(basicResult),
+                    timings);
+            NLPResult enhancedResult = mergeResults(message, basicResult, stanfordNLPService.await(stanford), context,
+                    timings);
+            enhancedResult.setProcessingMethod("hybrid");
+            return enhancedResult;
+        } catch (Exception e) {
+            return fallback(basicResult, e);
+        }
+    }
+
+    /**
+     * Analyzes {@code messages} as independent first turns and passes the results to {@code results}
+     * in order, a chunk at a time. The rules run in parallel; the messages that need Stanford go
+     * through its multi-threaded batch annotate, grouped by profile, following the hybrid mode.
+     */
+    public void processBatch(List<String> messages, Consumer<NLPResult> results) {
+        for (int from = 0; from < messages.size(); from += BATCH_CHUNK) {
+            List<String> chunk = messages.subList(from, Math.min(from + BATCH_CHUNK, messages.size()));
+            NLPResult[] basicResults = new NLPResult[chunk.size()];
+            StageMetrics.Timings[] timings = new StageMetrics.Timings[chunk.size()];
+            IntStream.range(0, chunk.size()).parallel().forEach(i -> {
+                timings[i] = new StageMetrics.Timings();
+                basicResults[i] = basicNLPService.processMessage(chunk.get(i), new UserContext(), timings[i]);
+            });
+
+            StanfordNLPResult[] stanfordResults = new StanfordNLPResult[chunk.size()];
+            Exception failure = null;
+            if (isStanfordNLPAvailable()) {
+                Map<StanfordNLPService.Profile, List<Integer>> byProfile = new EnumMap<>(StanfordNLPService.Profile.class);
+                for (int i = 0; i < chunk.size(); i++) {
+                    boolean skip = hybridMode == NLPConfiguration.HybridMode.CONCURRENT && rulesDecide(basicResults[i]);
+                    if (!skip) byProfile.computeIfAbsent(stanfordProfile(basicResults[i]), p -> new ArrayList<>()).add(i);
+                }
+                try {
+                    for (Map.Entry<StanfordNLPService.Profile, List<Integer>> group : byProfile.entrySet()) {
+                        List<Integer> positions = group.getValue();
+                        List<StanfordNLPResult> analyzed = stanfordNLPService.analyzeAll(
+                                positions.stream().map(chunk::get).toList(), group.getKey());
+                        for (int k = 0; k < positions.size(); k++) stanfordResults[positions.get(k)] = analyzed.get(k);
+                    }
+                } catch (Exception e) {
+                    failure = e;
+                }
+            }
+
+            for (int i = 0; i < chunk.size(); i++) {
+                NLPResult basicResult = basicResults[i];
+                NLPResult result;
+                if (stanfordResults[i] != null) {
+                    result = mergeResults(chunk.get(i), basicResult, stanfordResults[i], new UserContext(), timings[i]);
+                    result.setProcessingMethod("hybrid");
+                } else {
+                    result = basicResult;
+                    result.setProcessingMethod(failure != null ? "rule-based-fallback" : "rule-based");
+                }
+                // Stanford's batch annotate is not timed per message
+                stageMetrics.record(timings[i], result.getIntent(), result.getProcessingMethod());
+                results.accept(result);
+            }
+        }
     }
 
-    private NLPResult enhanceWithStanfordNLP(String message, NLPResult basicResult, UserContext context) {
-        // Get Stanford NLP analysis
-        StanfordNLPResult stanfordResult = stanfordNLPService.analyze(message);
+    private NLPResult fallback(NLPResult basicResult, Exception e) {
+        System.err.println("Stanford NLP enhancement failed, falling back to basic result: " + e.getMessage());
+        // Fallback to basic result if Stanford NLP fails, times out or is overloaded
+        basicResult.setProcessingMethod("rule-based-fallback");
+        return basicResult;
+    }
+
+    private NLPResult enhanceWithStanfordNLP(String message, NLPResult basicResult, UserContext context,
+                                             StageMetrics.Timings timings) {
+        // Get Stanford NLP analysis, skipping the parse and sentiment models when nothing depends on them
+        StanfordNLPResult stanfordResult = stanfordNLPService.analyze(message, stanfordProfile(basicResult), timings);
+        return mergeResults(message, basicResult, stanfordResult, context, timings);
+    }
+
+    private NLPResult mergeResults(String message, NLPResult basicResult, StanfordNLPResult stanfordResult,
+                                   UserContext context, StageMetrics.Timings timings) {
+        long start = System.nanoTime();
+        // The rules' result stands whole where they decide, so both hybrid modes give the same answer
+        if (rulesDecide(basicResult)) {
+            timings.since(StageMetrics.MERGE, start);
+            return basicResult;
+        }
 
         // Merge results intelligently
         NLPResult enhancedResult = new NLPResult();
 
         // Use the better intent classification
-        String finalIntent = chooseBestIntent(basicResult, stanfordResult, context);
+        String finalIntent = chooseBestIntent(message, basicResult, stanfordResult, context);
         enhancedResult.setIntent(finalIntent);
 
         // Merge entities (Stanford NLP often finds more)
         Map<String, String> mergedEntities = mergeEntities(basicResult.getEntities(), stanfordResult.getEntities());
         enhancedResult.setEntities(mergedEntities);
+        enhancedResult.setTimeExpression(basicResult.getTimeExpression());
 
         // Use Stanford's sentiment if available, otherwise use basic
         String sentiment = stanfordResult.getSentiment() != null ?
@@ -70,20 +214,52 @@ public class EnhancedNLPService {
         enhancedResult.setIntentConfidences(mergedIntentConfidences);
 
         // Enhanced human handoff detection
-        boolean requiresHandoff = shouldHandoffToHuman(enhancedResult, stanfordResult, context);
+        boolean requiresHandoff = shouldHandoffToHuman(basicResult, enhancedResult, stanfordResult, context);
         enhancedResult.setRequiresHumanHandoff(requiresHandoff);
 
+        start = timings.since(StageMetrics.MERGE, start);
+
         // Generate suggested response
         String suggestedResponse = generateEnhancedResponse(enhancedResult, context);
         enhancedResult.setSuggestedResponse(suggestedResponse);
+        timings.since(StageMetrics.RESPONSE_GENERATION, start);
 
         return enhancedResult;
     }
 
-    private String chooseBestIntent(NLPResult basicResult, StanfordNLPResult stanfordResult, UserContext context) {
-        // If basic NLP has high confidence for automotive-specific intents, prefer it
-        if (basicResult.getConfidence() > 0.7 && isAutomotiveIntent(basicResult.getIntent())) {
-            return basicResult.getIntent();
+    /**
+     * Whether the rules' result is the answer, whatever Stanford finds: they clear the confidence
+     * threshold for an automotive intent. The merge then keeps their intent, entities, sentiment and
+     * handoff, and the concurrent mode and the batch skip Stanford altogether.
+     */
+    private boolean rulesDecide(NLPResult basicResult) {
+        return basicResult.getConfidence() >= confidenceThreshold && isAutomotiveIntent(basicResult.getIntent());
+    }
+
+    private StanfordNLPService.Profile stanfordProfile(NLPResult basicResult) {
+        return needsStanfordSentiment(basicResult) ? StanfordNLPService.Profile.FULL : StanfordNLPService.Profile.FAST;
+    }
+
+    /**
+     * Whether the answer waits on Stanford's sentiment. It decides the handoff (a strong score) and
+     * the empathetic reply only for a message the rules could not read: below the confidence
+     * threshold and not already handed off. Where the rules decide the answer, hand off anyway or
+     * read the message confidently, their sentiment stands and Stanford adds its intent and entities.
+     */
+    private boolean needsStanfordSentiment(NLPResult basicResult) {
+        // below the threshold the rules never decide (see rulesDecide)
+        return !basicResult.isRequiresHumanHandoff() && basicResult.getConfidence() < confidenceThreshold;
+    }
+
+    private String chooseBestIntent(String message, NLPResult basicResult, StanfordNLPResult stanfordResult,
+                                    UserContext context) {
+        // Automotive intents the rules are confident about never get here (see rulesDecide)
+
+        // The trained classifier knows our intents, so it replaces Stanford's generic ones
+        if (intentEngine == NLPConfiguration.IntentEngine.CLASSIFIER) {
+            // the model current now; the learner may replace it meanwhile
+            IntentClassifier.Prediction prediction = intentModel.classifier().predict(message);
+            return prediction.confidence() >= classifierMinConfidence ? prediction.intent() : basicResult.getIntent();
         }
 
         // If Stanford found a clear intent with high confidence, use it
@@ -170,11 +346,12 @@ public class EnhancedNLPService {
         return merged;
     }
 
-    private boolean shouldHandoffToHuman(NLPResult enhancedResult, StanfordNLPResult stanfordResult, UserContext context) {
+    private boolean shouldHandoffToHuman(NLPResult basicResult, NLPResult enhancedResult,
+                                         StanfordNLPResult stanfordResult, UserContext context) {
         // Enhanced handoff logic using both systems
 
         // If basic system already flagged for handoff
-        if (enhancedResult.isRequiresHumanHandoff()) {
+        if (basicResult.isRequiresHumanHandoff()) {
             return true;
         }
 
@@ -212,14 +389,80 @@ public class EnhancedNLPService {
         return stanfordNLPService != null && stanfordNLPService.isInitialized();
     }
 
+    public StanfordNLPService.LoadStatus getStanfordLoadStatus() {
+        return stanfordNLPService.loadStatus();
+    }
+
+    /**
+     * The stage latency histograms, in the Prometheus text format.
+     */
+    public void writeStageMetrics(Appendable out) throws IOException {
+        stageMetrics.writePrometheus(out);
+    }
+
     public Map<String, Object> getSystemStatus() {
         Map<String, Object> status = new HashMap<>();
         status.put("basicNLPAvailable", true);
         status.put("stanfordNLPAvailable", stanfordNLPService != null);
         status.put("stanfordNLPInitialized", stanfordNLPService != null && stanfordNLPService.isInitialized());
         status.put("stanfordNLPStatus", stanfordNLPService != null ? stanfordNLPService.getStatus() : "Not available");
+        if (stanfordNLPService != null) status.put("stanfordLoad", stanfordNLPService.loadStatus());
         status.put("confidenceThreshold", confidenceThreshold);
         status.put("processingMode", "hybrid");
+        status.put("hybridMode", hybridMode.name().toLowerCase());
+        status.put("intentEngine", intentEngine.name().toLowerCase());
+        if (intentEngine == NLPConfiguration.IntentEngine.CLASSIFIER) {
+            status.put("intentModelVersion", intentModel.version());
+            status.put("intentModelUpdates", intentModel.updates());
+        }
+        LatencyRecorder.Percentiles latency = turns.percentiles();
+        status.put("turnP50Ms", latency.p50Millis());
+        status.put("turnP99Ms", latency.p99Millis());
+        status.put("ruleBasedCache", cacheStatus(basicNLPService.cacheStats()));
+        if (stanfordNLPService != null) {
+            status.put("stanfordCache", cacheStatus(stanfordNLPService.cacheStats()));
+            status.put("stanfordProfiles", profileStatus(stanfordNLPService));
+            status.put("stanfordPool", poolStatus(stanfordNLPService.poolStats()));
+        }
+        return status;
+    }
+
+    private static Map<String, Object> poolStatus(AnnotationPool.Stats stats) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("threads", stats.threads());
+        status.put("active", stats.active());
+        status.put("queueDepth", stats.queueDepth());
+        status.put("queueCapacity", stats.queueCapacity());
+        status.put("completed", stats.completed());
+        status.put("rejected", stats.rejected());
+        status.put("timedOut", stats.timedOut());
+        status.put("waitP50Ms", stats.queueWait().p50Millis());
+        status.put("waitP99Ms", stats.queueWait().p99Millis());
+        return status;
+    }
+
+    private static Map<String, Object> profileStatus(StanfordNLPService stanford) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        stanford.latencies().forEach((profile, latency) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("annotators", stanford.annotators(profile));
+            entry.put("analyses", latency.count());
+            entry.put("p50Ms", latency.p50Millis());
+            entry.put("p99Ms", latency.p99Millis());
+            entry.put("maxMs", latency.maxMillis());
+            status.put(profile.name().toLowerCase(), entry);
+        });
+        return status;
+    }
+
+    private static Map<String, Object> cacheStatus(ResultCache.Stats stats) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("hitRate", stats.hitRate());
+        status.put("hits", stats.hits());
+        status.put("misses", stats.misses());
+        status.put("evictions", stats.evictions());
+        status.put("size", stats.size());
+        status.put("maximumSize", stats.maximumSize());
         return status;
     }
 }
\ No newline at end of file
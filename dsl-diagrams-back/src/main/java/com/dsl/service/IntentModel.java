@@ -0,0 +1,102 @@
+package com.dsl.service;
+
+import com.dsl.config.NLPConfiguration;
+import com.dsl.nlp.IntentClassifier;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The intent classifier EnhancedNLPService predicts with, when the classifier engine is selected:
+ * loaded from nlp.classifier.model at startup and replaced by IntentModelLearner as it learns from
+ * feedback. A replacement is a single volatile write, so request threads never wait for training;
+ * a prediction that already started finishes on the model it started with.
+ */
+@Component
+public class IntentModel {
+
+    /**
+     * One round of learning: the version in use after it, how many corrections were learned, the
+     * accuracy of the trained model on the holdout set and its change from the model before, and
+     * whether it was published (it is not when it got worse by more than the allowed drop).
+     */
+    public record Update(int version, LocalDateTime at, int corrections, double holdoutAccuracy,
+                         double accuracyDelta, boolean published) { }
+
+    private record Current(IntentClassifier classifier, int version) { }
+
+    // learning rounds kept for the status
+    private static final int HISTORY = 20;
+
+    private final Path file;
+    private volatile Current current;
+    private final Deque<Update> updates = new ArrayDeque<>();
+
+    public IntentModel(NLPConfiguration configuration) {
+        this.file = Path.of(configuration.getClassifier().getModel());
+        IntentClassifier classifier = configuration.getIntentEngine() == NLPConfiguration.IntentEngine.CLASSIFIER
+                ? load(file)
+                : null;
+        this.current = new Current(classifier, 0);
+    }
+
+    private static IntentClassifier load(Path file) {
+        try {
+            IntentClassifier classifier = IntentClassifier.load(file);
+            System.out.println("Intent classifier loaded from " + file + ": " + classifier.intents());
+            return classifier;
+        } catch (IOException e) {
+            System.err.println("Could not load the intent classifier from " + file
+                    + ", using Stanford's intents (train one with the train-intents profile): " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The current classifier, or null when none is loaded.
+     */
+    public IntentClassifier classifier() {
+        return current.classifier();
+    }
+
+    public int version() {
+        return current.version();
+    }
+
+    /**
+     * Numbers the model loaded at startup; its file does not record which version it is.
+     */
+    public void resumeAt(int version) {
+        Current loaded = current;
+        current = new Current(loaded.classifier(), version);
+    }
+
+    /**
+     * Saves the classifier over the model file, then makes it the current one.
+     */
+    public void publish(IntentClassifier classifier, int version) throws IOException {
+        Path written = file.resolveSibling(file.getFileName() + ".tmp");
+        classifier.save(written);
+        Files.move(written, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        current = new Current(classifier, version);
+    }
+
+    public synchronized void record(Update update) {
+        if (updates.size() == HISTORY) updates.removeFirst();
+        updates.addLast(update);
+    }
+
+    /**
+     * The latest learning rounds, oldest first.
+     */
+    public synchronized List<Update> updates() {
+        return List.copyOf(updates);
+    }
+}
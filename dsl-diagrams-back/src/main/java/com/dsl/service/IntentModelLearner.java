@@ -0,0 +1,164 @@
+package com.dsl.service;
+
+import com.dsl.config.NLPConfiguration;
+import com.dsl.entity.MessageFeedback;
+import com.dsl.nlp.IntentClassifier;
+import com.dsl.repository.ChatMessageRepository;
+import com.dsl.repository.LabeledMessage;
+import com.dsl.repository.MessageFeedbackRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Learns the intents customers correct in their feedback, off the request path: every learn interval
+ * it takes the corrections not learned yet, a micro-batch at a time, trains a copy of the current
+ * intent classifier further on them, and publishes the copy through {@link IntentModel} unless it
+ * does worse on the holdout set by more than the allowed drop.
+ *
+ * The holdout set is the share of labeled chat messages and corrections that IntentTrainingJob holds
+ * out, chosen by the hash of the message; corrections that fall into it are added to it instead of
+ * being learned. Every correction is marked learned either way, with the model version that learned
+ * it, so a restart picks up where the last round stopped. Without a classifier loaded (the Stanford
+ * engine) corrections just accumulate for the next train-intents run.
+ *
+ * Only corrections of messages from the chat history are learned, and only to intents the chat
+ * answers ({@link DatabaseChatService#INTENTS}); a correction saved before that was checked is marked
+ * learned without being learned, since a made-up intent costs the holdout set too little accuracy for
+ * the allowed drop to stop it.
+ */
+@Component
+public class IntentModelLearner {
+
+    // labeled messages kept for evaluation; each round evaluates two models on all of them
+    private static final int MAX_HOLDOUT = 5000;
+
+    private final IntentModel model;
+    private final MessageFeedbackRepository feedback;
+    private final ChatMessageRepository chatMessages;
+    private final NLPConfiguration.Classifier settings;
+    private final ScheduledExecutorService learner = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "intent-model-learner");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // only touched by the learner thread
+    private List<String> holdoutMessages, holdoutIntents;
+
+    public IntentModelLearner(IntentModel model, MessageFeedbackRepository feedback,
+                              ChatMessageRepository chatMessages, NLPConfiguration configuration) {
+        this.model = model;
+        this.feedback = feedback;
+        this.chatMessages = chatMessages;
+        this.settings = configuration.getClassifier();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void learnInBackground() {
+        if (model.classifier() == null) return;
+        learner.execute(() -> {
+            Integer latest = feedback.findLatestModelVersion();
+            if (latest != null) model.resumeAt(latest);
+        });
+        learner.scheduleWithFixedDelay(this::learnQuietly, settings.getLearnInterval().toMillis(),
+                settings.getLearnInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void learnQuietly() {
+        try {
+            while (learnBatch()) {
+                // a full batch: there may be more waiting
+            }
+        } catch (RuntimeException | IOException e) {
+            // the corrections stay unlearned and are tried again at the next interval
+            System.err.println("Failed to update the intent classifier: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Learns one micro-batch of corrections on the calling thread; returns whether the batch was full.
+     */
+    public boolean learnBatch() throws IOException {
+        List<MessageFeedback> batch = feedback.findUnlearnedCorrections(PageRequest.of(0, settings.getLearnBatchSize()));
+        if (batch.isEmpty()) return false;
+        // a first load already has the held-out corrections of this batch
+        boolean firstRound = holdoutMessages == null;
+        if (firstRound) loadHoldout();
+
+        List<Long> learnedIds = new ArrayList<>(), heldOutIds = new ArrayList<>(), ignoredIds = new ArrayList<>();
+        List<String> messages = new ArrayList<>(), intents = new ArrayList<>();
+        for (MessageFeedback correction : batch) {
+            if (!isLearnable(correction)) {
+                ignoredIds.add(correction.getId());
+            } else if (IntentTrainingJob.isHeldOut(correction.getMessage(), settings.getHoldout())) {
+                heldOutIds.add(correction.getId());
+                if (!firstRound) addToHoldout(correction.getMessage(), correction.getCorrectedIntent());
+            } else {
+                learnedIds.add(correction.getId());
+                messages.add(correction.getMessage());
+                intents.add(correction.getCorrectedIntent());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Integer learnedInto = null;
+        if (!messages.isEmpty()) {
+            IntentClassifier current = model.classifier();
+            int version = model.version() + 1;
+            IntentClassifier updated = current.update(messages, intents, settings.getLearnEpochs(),
+                    settings.getLearnRate(), version);
+            double before = current.evaluate(holdoutMessages, holdoutIntents).accuracy();
+            double after = updated.evaluate(holdoutMessages, holdoutIntents).accuracy();
+            boolean publish = after - before >= -settings.getMaxAccuracyDrop();
+            if (publish) {
+                model.publish(updated, version);
+                learnedInto = version;
+            }
+            model.record(new IntentModel.Update(model.version(), now, messages.size(), after, after - before, publish));
+            System.out.printf("Intent classifier %s: %d corrections, holdout accuracy %.3f (%+.3f)%n",
+                    publish ? "version " + version + " published" : "update rejected", messages.size(), after, after - before);
+        }
+        if (!learnedIds.isEmpty()) feedback.markLearned(learnedIds, learnedInto, now);
+        if (!heldOutIds.isEmpty()) feedback.markLearned(heldOutIds, null, now);
+        if (!ignoredIds.isEmpty()) feedback.markLearned(ignoredIds, null, now);
+        return batch.size() == settings.getLearnBatchSize();
+    }
+
+    private static boolean isLearnable(MessageFeedback correction) {
+        return correction.getMessageId() != null && DatabaseChatService.INTENTS.contains(correction.getCorrectedIntent());
+    }
+
+    private void loadHoldout() {
+        holdoutMessages = new ArrayList<>();
+        holdoutIntents = new ArrayList<>();
+        List<LabeledMessage> labeled = new ArrayList<>(chatMessages.findLabeledUserMessages());
+        feedback.findCorrections().stream().filter(c -> DatabaseChatService.INTENTS.contains(c.intent()))
+                .forEach(labeled::add);
+        for (LabeledMessage message : labeled) {
+            if (IntentTrainingJob.isHeldOut(message.message(), settings.getHoldout())) {
+                addToHoldout(message.message(), message.intent());
+            }
+        }
+    }
+
+    private void addToHoldout(String message, String intent) {
+        if (holdoutMessages.size() >= MAX_HOLDOUT) return;
+        holdoutMessages.add(message);
+        holdoutIntents.add(intent);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        learner.shutdownNow();
+    }
+}
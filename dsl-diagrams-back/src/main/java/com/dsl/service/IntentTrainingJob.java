@@ -0,0 +1,91 @@
+package com.dsl.service;
+
+import com.dsl.config.NLPConfiguration;
+import com.dsl.nlp.IntentClassifier;
+import com.dsl.repository.ChatMessageRepository;
+import com.dsl.repository.LabeledMessage;
+import com.dsl.repository.MessageFeedbackRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch job training the intent classifier on the labeled customer messages in chat_messages and
+ * the intents customers corrected in their feedback, evaluating it on a held-out share of them and
+ * saving it where EnhancedNLPService loads it from (nlp.classifier.model). Runs instead of serving
+ * when the train-intents profile is active:
+ *
+ * mvn spring-boot:run -Dspring-boot.run.profiles=train-intents
+ *
+ * A message is held out by the hash of its text, so repeats of it land on the same side and the
+ * split is the same from run to run as long as the table only grows.
+ */
+@Component
+@Profile("train-intents")
+public class IntentTrainingJob implements ApplicationRunner {
+
+    private final ChatMessageRepository chatMessages;
+    private final MessageFeedbackRepository feedback;
+    private final NLPConfiguration.Classifier settings;
+    private final ConfigurableApplicationContext context;
+
+    public IntentTrainingJob(ChatMessageRepository chatMessages, MessageFeedbackRepository feedback,
+                             NLPConfiguration configuration, ConfigurableApplicationContext context) {
+        this.chatMessages = chatMessages;
+        this.feedback = feedback;
+        this.settings = configuration.getClassifier();
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long started = System.nanoTime();
+        List<String> trainMessages = new ArrayList<>(), trainIntents = new ArrayList<>();
+        List<String> testMessages = new ArrayList<>(), testIntents = new ArrayList<>();
+        List<LabeledMessage> labeledMessages = new ArrayList<>(chatMessages.findLabeledUserMessages());
+        // corrections saved before the intents were checked may name intents the chat does not answer
+        feedback.findCorrections().stream().filter(c -> DatabaseChatService.INTENTS.contains(c.intent()))
+                .forEach(labeledMessages::add);
+        for (LabeledMessage labeled : labeledMessages) {
+            boolean heldOut = isHeldOut(labeled.message(), settings.getHoldout());
+            (heldOut ? testMessages : trainMessages).add(labeled.message());
+            (heldOut ? testIntents : trainIntents).add(labeled.intent());
+        }
+        if (trainMessages.isEmpty()) {
+            System.err.println("No labeled customer messages to train the intent classifier on");
+            System.exit(SpringApplication.exit(context, () -> 1));
+        }
+
+        IntentClassifier classifier = IntentClassifier.train(trainMessages, trainIntents, settings.getEpochs(), 42);
+        System.out.println("Trained the intent classifier on " + trainMessages.size() + " messages, "
+                + classifier.intents().size() + " intents, in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms");
+        report("Training", classifier.evaluate(trainMessages, trainIntents));
+        report("Held out", classifier.evaluate(testMessages, testIntents));
+
+        Path model = Path.of(settings.getModel());
+        classifier.save(model);
+        System.out.println("Saved the intent classifier to " + model.toAbsolutePath());
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    /**
+     * Whether a message belongs to the holdout set, which is about {@code share} of all messages.
+     */
+    static boolean isHeldOut(String message, double share) {
+        return Math.floorMod(message.hashCode(), 1000) < share * 1000;
+    }
+
+    private static void report(String name, IntentClassifier.Evaluation evaluation) {
+        System.out.printf("%s: %d messages, accuracy %.3f%n", name, evaluation.messages(), evaluation.accuracy());
+        evaluation.recallByIntent().forEach((intent, recall) -> System.out.printf("  %-20s recall %.3f%n", intent, recall));
+    }
+}
@@ -0,0 +1,120 @@
+package com.dsl.config;
+
+import com.dsl.controller.AdvancedChatController;
+import com.dsl.controller.NLPResult;
+import com.dsl.models.GotoAction;
+import com.dsl.models.StateNode;
+import com.dsl.models.TrackNode;
+import com.dsl.service.DatabaseChatService;
+import com.dsl.service.EnhancedNLPService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class BinaryEncodingConfigTest {
+
+    private final ObjectMapper json = new ObjectMapper();
+    private List<HttpMessageConverter<?>> converters;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        converters = new ArrayList<>(List.of(
+                new MappingJackson2HttpMessageConverter(), new MappingJackson2CborHttpMessageConverter()));
+        new BinaryEncodingConfig(new DefaultListableBeanFactory().getBeanProvider(Jackson2ObjectMapperBuilder.class))
+                .extendMessageConverters(converters);
+
+        EnhancedNLPService nlp = mock(EnhancedNLPService.class);
+        when(nlp.processMessage(any(), any())).thenReturn(new NLPResult("BOOK_APPOINTMENT",
+                Map.of("date", "tomorrow"), 0.92, "positive", Map.of("BOOK_APPOINTMENT", 0.92),
+                false, "When would you like to come in?", "rule-based", null, null));
+        when(nlp.getSystemStatus()).thenReturn(new HashMap<>(Map.of("processingMode", "hybrid")));
+        mvc = MockMvcBuilders.standaloneSetup(new AdvancedChatController(nlp, mock(DatabaseChatService.class)))
+                .setMessageConverters(converters.toArray(HttpMessageConverter[]::new))
+                .build();
+    }
+
+    @Test
+    void replacesSpringConvertersInPlace() {
+        assertInstanceOf(MappingJackson2HttpMessageConverter.class, converters.get(0));
+        assertEquals(MediaType.APPLICATION_CBOR,
+                ((PrebuiltWriterConverter) converters.get(1)).getSupportedMediaTypes().get(0));
+        assertEquals(BinaryEncodingConfig.APPLICATION_SMILE,
+                ((PrebuiltWriterConverter) converters.get(2)).getSupportedMediaTypes().get(0));
+    }
+
+    @Test
+    void negotiatesEncodingFromAccept() throws Exception {
+        String body = "{\"message\":\"book me in tomorrow\"}";
+        byte[] asJson = mvc.perform(post("/api/v2/chat/analyze").contentType(MediaType.APPLICATION_JSON)
+                        .content(body).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.intent").value("BOOK_APPOINTMENT"))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] asCbor = mvc.perform(post("/api/v2/chat/analyze").contentType(MediaType.APPLICATION_JSON)
+                        .content(body).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] asSmile = mvc.perform(post("/api/v2/chat/analyze").contentType(MediaType.APPLICATION_JSON)
+                        .content(body).accept(BinaryEncodingConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode expected = json.readTree(asJson);
+        assertEquals(expected, new CBORMapper().readTree(asCbor));
+        assertEquals(expected, new SmileMapper().readTree(asSmile));
+        assertTrue(asCbor.length < asJson.length);
+    }
+
+    @Test
+    void statusStaysFlat() throws Exception {
+        mvc.perform(get("/api/v2/chat/status").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processingMode").value("hybrid"))
+                .andExpect(jsonPath("$.version").value("2.0"))
+                .andExpect(jsonPath("$.nlp").doesNotExist());
+    }
+
+    @Test
+    void reusesWritersPerDeclaredType() throws Exception {
+        PrebuiltWriterConverter cbor = (PrebuiltWriterConverter) converters.get(1);
+        Type tracksType = new ParameterizedTypeReference<List<TrackNode>>() { }.getType();
+        List<TrackNode> tracks = List.of(new TrackNode("WELCOME",
+                List.of(new StateNode("S1", "START", List.of(new GotoAction("FOLLOW_UP:S1"))))));
+
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        cbor.write(tracks, tracksType, MediaType.APPLICATION_CBOR, out);
+
+        assertSame(cbor.writer(tracksType), cbor.writer(tracksType));
+        assertEquals(json.valueToTree(tracks), new CBORMapper().readTree(out.getBodyAsBytes()));
+    }
+}
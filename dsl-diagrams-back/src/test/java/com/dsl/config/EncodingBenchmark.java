@@ -0,0 +1,116 @@
+package com.dsl.config;
+
+import com.dsl.controller.ChatDebugInfo;
+import com.dsl.controller.ChatReply;
+import com.dsl.controller.NLPResult;
+import com.dsl.controller.QuickReply;
+import com.dsl.controller.UserContext;
+import com.dsl.models.TrackNode;
+import com.dsl.parser.AivaScripts;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload size and serialization time of the parse and chat responses as JSON, CBOR and Smile.
+ * {@code tracks} is Autonation_Toyota.aiva linked with Autonation_common.aiva (track skeleton, see
+ * {@link AivaScripts#skeleton}), {@code chat} a /api/v2/chat/message reply with debug info.
+ * Sizes are printed during setup.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.config.EncodingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+
+    @Param({"tracks", "chat"})
+    public String payload;
+
+    private Object value;
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private ObjectWriter json;
+    private ObjectWriter cbor;
+    private ObjectWriter smile;
+
+    @Setup
+    public void setUp() throws Exception {
+        jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+
+        if (payload.equals("tracks")) {
+            List<TrackNode> tracks = new ArrayList<>(AivaScripts.skeleton(AivaScripts.bundled("Autonation_common.aiva")));
+            tracks.addAll(AivaScripts.skeleton(AivaScripts.bundled("Autonation_Toyota.aiva")));
+            value = tracks;
+            TypeReference<List<TrackNode>> type = new TypeReference<>() { };
+            json = jsonMapper.writerFor(type);
+            cbor = cborMapper.writerFor(type);
+            smile = smileMapper.writerFor(type);
+        } else {
+            value = chatReply();
+            json = jsonMapper.writerFor(ChatReply.class);
+            cbor = cborMapper.writerFor(ChatReply.class);
+            smile = smileMapper.writerFor(ChatReply.class);
+        }
+        System.out.printf("%n%s: json %d B, cbor %d B, smile %d B%n", payload,
+                json.writeValueAsBytes(value).length, cbor.writeValueAsBytes(value).length,
+                smile.writeValueAsBytes(value).length);
+    }
+
+    private static ChatReply chatReply() {
+        NLPResult nlp = new NLPResult("BOOK_APPOINTMENT", Map.of("date", "tomorrow", "time", "10:00", "vehicle", "Camry"),
+                0.92, "positive", Map.of("BOOK_APPOINTMENT", 0.92, "VEHICLE_INQUIRY", 0.31, "GREETING", 0.05),
+                false, "Great, I have 10:00 tomorrow for your Camry. Shall I book it?", "rule-based", "Jane Doe", null);
+        UserContext context = new UserContext();
+        context.setLastInteraction(LocalDateTime.of(2025, 1, 15, 9, 30));
+        context.setMessageCount(3);
+        return new ChatReply(nlp.getSuggestedResponse(), "7f3c2a9e-1b4d-4e8f-9a6c-2d5e8f1b3c7a", nlp.getIntent(),
+                nlp.getConfidence(), nlp.getSentiment(), nlp.getEntities(),
+                List.of(new QuickReply("Yes, book it"), new QuickReply("Another time"), new QuickReply("Talk to an agent")),
+                false, context, LocalDateTime.of(2025, 1, 15, 9, 30, 3), ChatDebugInfo.of(nlp, "book my camry in tomorrow at 10"));
+    }
+
+    @Benchmark
+    public byte[] json() throws Exception {
+        return json.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] cbor() throws Exception {
+        return cbor.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] smile() throws Exception {
+        return smile.writeValueAsBytes(value);
+    }
+
+    // what Spring's CBOR converter does: a writer derived from the mapper per call
+    @Benchmark
+    public byte[] cborPerCall() throws Exception {
+        return cborMapper.writer().writeValueAsBytes(value);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EncodingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
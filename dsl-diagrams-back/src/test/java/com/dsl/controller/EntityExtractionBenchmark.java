@@ -0,0 +1,62 @@
+package com.dsl.controller;
+
+import com.dsl.nlp.MessageCorpus;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity extraction of the message corpus, per message: the former regex-per-entity-type extraction
+ * against the single-scan extractor. Run with -prof gc for the allocation per message.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.controller.EntityExtractionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityExtractionBenchmark {
+
+    private NLPService service;
+    private RegexEntityExtractor regex;
+    private List<String> messages;
+
+    @Setup
+    public void setUp() {
+        service = new NLPService();
+        regex = new RegexEntityExtractor();
+        messages = MessageCorpus.messages();
+    }
+
+    private int next;
+
+    // one message per call, cycling through the corpus
+    private String message() {
+        String message = messages.get(next);
+        next = (next + 1) % messages.size();
+        return message;
+    }
+
+    @Benchmark
+    public Map<String, String> regex() {
+        return regex.extract(message());
+    }
+
+    @Benchmark
+    public Map<String, String> singleScan() {
+        return service.extractEntities(message());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EntityExtractionBenchmark.class.getSimpleName())
+                .addProfiler("gc").build()).run();
+    }
+}
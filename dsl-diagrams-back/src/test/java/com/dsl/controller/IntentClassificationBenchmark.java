@@ -0,0 +1,73 @@
+package com.dsl.controller;
+
+import com.dsl.nlp.IntentClassifier;
+import com.dsl.nlp.MessageCorpus;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Intent keyword scoring of the message corpus, per message: the former one-regex-per-keyword
+ * classifier against the keyword automaton, and the hashed n-gram classifier trained on the labeled
+ * messages. Run with -prof gc for the allocation per message.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.controller.IntentClassificationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntentClassificationBenchmark {
+
+    private NLPService service;
+    private RegexIntentClassifier regex;
+    private IntentClassifier linear;
+    private List<String> messages;
+
+    @Setup
+    public void setUp() {
+        service = new NLPService();
+        regex = new RegexIntentClassifier(service.intentKeywords);
+        List<String[]> labeled = MessageCorpus.labeledMessages();
+        linear = IntentClassifier.train(labeled.stream().map(l -> l[1]).toList(),
+                labeled.stream().map(l -> l[0]).toList(), 20, 42);
+        messages = MessageCorpus.messages().stream().map(m -> m.toLowerCase().trim()).toList();
+    }
+
+    private int next;
+
+    // one message per call, cycling through the corpus
+    private String message() {
+        String message = messages.get(next);
+        next = (next + 1) % messages.size();
+        return message;
+    }
+
+    @Benchmark
+    public Map<String, Double> regex() {
+        return regex.classify(message());
+    }
+
+    @Benchmark
+    public Map<String, Double> automaton() {
+        return service.classifyIntentWithConfidence(message(), null);
+    }
+
+    @Benchmark
+    public IntentClassifier.Prediction linearClassifier() {
+        return linear.predict(message());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(IntentClassificationBenchmark.class.getSimpleName())
+                .addProfiler("gc").build()).run();
+    }
+}
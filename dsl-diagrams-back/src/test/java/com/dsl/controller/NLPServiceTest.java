@@ -0,0 +1,147 @@
+package com.dsl.controller;
+
+import com.dsl.config.NLPConfiguration;
+import com.dsl.nlp.EntityExtractor;
+import com.dsl.nlp.MessageCorpus;
+import com.dsl.nlp.TimeExpressionParser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NLPServiceTest {
+
+    private final NLPService service = new NLPService();
+
+    @Test
+    void keywordAutomatonScoresLikeTheRegexClassifier() {
+        RegexIntentClassifier reference = new RegexIntentClassifier(service.intentKeywords);
+        for (String message : MessageCorpus.messages()) {
+            String clean = message.toLowerCase().trim();
+            // time expressions are scored from the time parser, not keywords
+            if (TimeExpressionParser.parse(clean) != null) continue;
+            assertSameScores(reference.classify(clean), service.classifyIntentWithConfidence(clean, null), message);
+        }
+    }
+
+    @Test
+    void timeExpressionsScoreTheTimeIntent() {
+        for (String[] line : MessageCorpus.timeExpressions()) {
+            Map<String, Double> scores = service.classifyIntentWithConfidence(line[0].toLowerCase().trim(), null);
+            assertEquals(!line[1].equals("-"), scores.containsKey("time_expression"), line[0]);
+        }
+        assertEquals("time_expression", service.processMessage("tomorrow morning", null).getIntent());
+    }
+
+    @Test
+    void spellingCorrectorLeavesCleanMessagesAsTheRegexesDid() {
+        RegexPreprocessor reference = new RegexPreprocessor(service.commonMisspellings);
+        for (String message : MessageCorpus.messages()) {
+            assertEquals(reference.preprocess(message), service.preprocessMessage(message), message);
+        }
+    }
+
+    @Test
+    void spellingCorrectorFixesMoreOfTheNoisyCorpus() {
+        RegexPreprocessor reference = new RegexPreprocessor(service.commonMisspellings);
+        List<String[]> noisy = MessageCorpus.noisyMessages();
+        long before = noisy.stream().filter(m -> reference.preprocess(m[0]).equals(m[1])).count();
+        long after = noisy.stream().filter(m -> service.preprocessMessage(m[0]).equals(m[1])).count();
+        assertTrue(after >= 0.9 * noisy.size(), after + "/" + noisy.size());
+        assertTrue(after > before, after + " vs " + before);
+    }
+
+    @Test
+    void entityExtractorFindsWhatTheRegexesFound() {
+        RegexEntityExtractor reference = new RegexEntityExtractor();
+        List<String> messages = new ArrayList<>(MessageCorpus.messages());
+        MessageCorpus.noisyMessages().forEach(m -> messages.add(m[0]));
+        for (String message : messages) {
+            assertEquals(withoutMakeAndModel(reference.extract(message)), withoutMakeAndModel(service.extractEntities(message)), message);
+        }
+    }
+
+    @Test
+    void entityExtractorMatchesTheRegexesOnRandomFragments() {
+        // pieces that exercise the patterns' boundaries, optional parts and backtracking
+        String[] fragments = {
+                " ", "  ", "\t", ",", ".", "-", "(", ")", "+", "$", "@", "|", "'", "_", ":",
+                "1", "12", "555", "123", "4567", "2018", "1949", "45,000", "1,2345", "10:30", "9", "07",
+                "am", "PM", "miles", "mi", "k", "km", "mile", "dollars", "bucks", "buck",
+                "my name is", "I'm", "i am", "this is", "call me", "Sarah", "Jo", "O", "Johnson", "José",
+                "my car is", "i drive a", "I have a", "got a", "drive a", "car is", "honda", "Civic", "civic",
+                "toyota", "rav4", "f-150", "chevy",
+                "at", "near", "on", "by", "the", "Main", "Street", "St", "Station", "stop", "Ave", "parking",
+                "oil change", "oil", "change", "brake inspection", "inspection", "flat tire", "flat",
+                "clicking", "clickin", "tomorrow", "next week", "monday", "noon",
+                "john.doe", "example", "com", "co", "x.y", "won't start", "leaking"};
+        RegexEntityExtractor reference = new RegexEntityExtractor();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder message = new StringBuilder();
+            int parts = 1 + random.nextInt(12);
+            for (int p = 0; p < parts; p++) message.append(fragments[random.nextInt(fragments.length)]);
+            String text = message.toString();
+            assertEquals(withoutMakeAndModel(reference.extract(text)), withoutMakeAndModel(service.extractEntities(text)), text);
+        }
+    }
+
+    @Test
+    void cachedAnalysesMatchFreshOnes() {
+        NLPConfiguration uncached = new NLPConfiguration();
+        uncached.setCacheEnabled(false);
+        NLPService fresh = new NLPService(uncached);
+        for (String state : new String[]{null, "awaiting_name", "awaiting_vehicle", "name_provided", "greeting"}) {
+            UserContext context = new UserContext();
+            context.setConversationState(state);
+            for (String message : MessageCorpus.messages()) {
+                for (int repeat = 0; repeat < 2; repeat++) {
+                    NLPResult expected = fresh.processMessage(message, context);
+                    NLPResult actual = service.processMessage(message, context);
+                    assertEquals(expected.getIntent(), actual.getIntent(), message);
+                    assertEquals(expected.getIntentConfidences(), actual.getIntentConfidences(), message);
+                    assertEquals(expected.getEntities(), actual.getEntities(), message);
+                    assertEquals(expected.getSentiment(), actual.getSentiment(), message);
+                    assertEquals(expected.getConfidence(), actual.getConfidence(), message);
+                    assertEquals(expected.isRequiresHumanHandoff(), actual.isRequiresHumanHandoff(), message);
+                }
+            }
+        }
+        assertTrue(service.cacheStats().hitRate() > 0.5);
+
+        // results are the caller's to change
+        service.processMessage("i need an oil change tomorrow", null).getEntities().clear();
+        assertEquals("oil change", service.processMessage("i need an oil change tomorrow", null)
+                .getEntities().get("service_type"));
+    }
+
+    @Test
+    void timeExpressionIsTheParsedOne() {
+        NLPResult result = service.processMessage("can you book me for next tuesday at 2", null);
+        assertEquals("next tuesday at 2", result.getEntities().get(EntityExtractor.TIME_EXPRESSION));
+        assertEquals(60, result.getTimeExpression().toMinute() - result.getTimeExpression().fromMinute());
+    }
+
+    // makes and models come from the vehicle gazetteer now, not the text after "i drive a", and time
+    // expressions from the time parser
+    private static Map<String, String> withoutMakeAndModel(Map<String, String> entities) {
+        Map<String, String> rest = new HashMap<>(entities);
+        rest.remove(EntityExtractor.VEHICLE_MAKE);
+        rest.remove(EntityExtractor.VEHICLE_MODEL);
+        rest.remove(EntityExtractor.TIME_EXPRESSION);
+        return rest;
+    }
+
+    private static void assertSameScores(Map<String, Double> expected, Map<String, Double> actual, String message) {
+        assertEquals(expected.keySet(), actual.keySet(), message);
+        // sums run in a different order
+        expected.forEach((intent, score) -> assertEquals(score, actual.get(intent), 1e-9, message + " / " + intent));
+    }
+}
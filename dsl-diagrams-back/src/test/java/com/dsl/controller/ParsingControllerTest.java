@@ -0,0 +1,58 @@
+package com.dsl.controller;
+
+import com.dsl.layout.GraphLayoutService;
+import com.dsl.parser.AivaModuleLoader;
+import com.dsl.parser.AivaScriptParser;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ParsingControllerTest {
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        AivaModuleLoader loader = new AivaModuleLoader(new AivaScriptParser(Integer.MAX_VALUE, ForkJoinPool.commonPool()),
+                new DefaultResourceLoader(), "classpath:");
+        mvc = MockMvcBuilders.standaloneSetup(new ParsingController(loader, new GraphLayoutService(16))).build();
+    }
+
+    @Test
+    void servesModulesByTheirPath() throws Exception {
+        mvc.perform(get("/api/modules/AutoNation/Autonation_Toyota.aiva").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                // the common tracks of Generic_Autonation.tpl come before Toyota's own
+                .andExpect(jsonPath("$.length()").value(greaterThan(1)));
+        mvc.perform(get("/api/modules/AutoNation/Missing.aiva").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updatesModulesByTheirPath() throws Exception {
+        String common = "START_TRACK COMMON\n\tS1. START\n\t\tMARK_LEAD_PHASE CONTACTED\n\tEND\nEND_TRACK\n";
+        mvc.perform(put("/api/modules/common/common.tpl").contentType(MediaType.TEXT_PLAIN).content(common)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("COMMON"));
+        mvc.perform(put("/api/modules/brands/brand.aiva").contentType(MediaType.TEXT_PLAIN)
+                        .content("INCLUDE common/common.tpl\n" + common.replace("COMMON", "BRAND"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/modules/brands/brand.aiva").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("COMMON"))
+                .andExpect(jsonPath("$[1].name").value("BRAND"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.dsl.controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The entity extraction NLPService did before it used {@link com.dsl.nlp.EntityExtractor}: one regex
+ * scan per entity type, then a {@code contains} per model of the extracted make. Kept as the reference
+ * for equivalence tests and the benchmark. The email pattern has no group, which made
+ * {@code group(1)} throw; the reference uses the whole match there, as it does for ungrouped
+ * alternatives.
+ */
+final class RegexEntityExtractor {
+
+    // NLPService's models by make before VehicleGazetteer
+    static final Map<String, List<String>> MODELS_BY_MAKE = Map.of(
+            "honda", List.of("civic", "accord", "crv", "pilot", "fit"),
+            "toyota", List.of("camry", "corolla", "prius", "rav4", "highlander"),
+            "ford", List.of("f150", "f-150", "mustang", "focus", "escape", "explorer"),
+            "chevrolet", List.of("silverado", "malibu", "equinox", "tahoe"),
+            "chevy", List.of("silverado", "malibu", "equinox", "tahoe"));
+
+    private final Map<String, Pattern> entityPatterns = new HashMap<>();
+
+    RegexEntityExtractor() {
+
+        // Enhanced person names pattern
+        entityPatterns.put("person_name", Pattern.compile(
+                "(?:my name is|i'm|i am|call me|this is|name's)\\s+([A-Z][a-z]+(?:\\s+[A-Z][a-z]+)?)",
+                Pattern.CASE_INSENSITIVE));
+
+        // Vehicle year with broader range
+        entityPatterns.put("vehicle_year", Pattern.compile("\\b(19[5-9]\\d|20[0-4]\\d)\\b"));
+
+        // Expanded car makes
+        entityPatterns.put("vehicle_make", Pattern.compile(
+                "(?:my car is|i drive a|i have a|my vehicle is|car is|drive a|own a|got a)\\s+([A-Z][a-zA-Z0-9- ]+)",
+                Pattern.CASE_INSENSITIVE));
+
+        // Enhanced service types
+        entityPatterns.put("service_type", Pattern.compile(
+                "\\b(oil change|tire rotation|brake inspection|brake check|brake repair|maintenance|tune up|alignment|transmission|engine|battery|alternator|starter|radiator|coolant|air filter|cabin filter|spark plugs|timing belt|serpentine belt|exhaust|muffler|catalytic converter|suspension|shocks|struts|cv joint|differential|power steering|air conditioning|ac repair|heating|diagnostic|inspection|smog check|emissions test|tire repair|tire replacement|oil service|fluid check)\\b",
+                Pattern.CASE_INSENSITIVE));
+
+        // Tire-specific issues
+        entityPatterns.put("tire_issue", Pattern.compile(
+                "\\b(flat|puncture|punctured|nail|screw|debris|air leak|pressure|spare|replacement|repair|fix)\\b",
+                Pattern.CASE_INSENSITIVE));
+
+        // Oil-specific issues
+        entityPatterns.put("oil_issue", Pattern.compile(
+                "\\b(oil light|low oil|out of oil|empty|refill|top up|delivery|change|engine oil|motor oil|synthetic|conventional)\\b",
+                Pattern.CASE_INSENSITIVE));
+
+        // Automotive problems
+        entityPatterns.put("car_problem", Pattern.compile(
+                "\\b(won't start|can't move|stuck|broke down|overheating|smoking|leaking|grinding|squealing|rattling|knocking|stalling|dead battery|flat tire|oil light)\\b",
+                Pattern.CASE_INSENSITIVE));
+
+        // Enhanced time expressions
+        entityPatterns.put("time_expression", Pattern.compile(
+                "\\b(tomorrow|today|yesterday|next week|this week|next month|morning|afternoon|evening|noon|midnight|\\d{1,2}:\\d{2}\\s*(?:am|pm)?|\\d{1,2}\\s*(?:am|pm)|monday|tuesday|wednesday|thursday|friday|saturday|sunday|weekday|weekend)\\b",
+                Pattern.CASE_INSENSITIVE));
+
+        // Phone numbers
+        entityPatterns.put("phone_number", Pattern.compile(
+                "\\b(?:\\+?1[-.]?)?\\(?([0-9]{3})\\)?[-.]?([0-9]{3})[-.]?([0-9]{4})\\b"));
+
+        // Location patterns
+        entityPatterns.put("location", Pattern.compile(
+                "(?:at|near|on|by)\\s+(?:the\\s+)?([A-Z][a-zA-Z\\s]+(?:Street|St|Avenue|Ave|Road|Rd|Boulevard|Blvd|Drive|Dr|Lane|Ln|Way|Plaza|Mall|Station|Center|Park))",
+                Pattern.CASE_INSENSITIVE));
+
+        // Emergency symptoms
+        entityPatterns.put("car_symptom", Pattern.compile(
+                "\\b(clicking?|cranking?|grinding|squealing|smoking|overheating|leaking|rattling|knocking|stalling)\\b",
+                Pattern.CASE_INSENSITIVE));
+
+        // Email addresses
+        entityPatterns.put("email", Pattern.compile(
+                "\\b[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Z|a-z]{2,}\\b"));
+
+        // Mileage
+        entityPatterns.put("mileage", Pattern.compile(
+                "\\b(\\d{1,3}(?:,\\d{3})*|\\d+)\\s*(?:miles?|mi|k|km)\\b",
+                Pattern.CASE_INSENSITIVE));
+
+        // Price/Cost
+        entityPatterns.put("price", Pattern.compile(
+                "\\$\\s*(\\d+(?:\\.\\d{2})?)|\\b(\\d+)\\s*(?:dollars?|bucks?)\\b",
+                Pattern.CASE_INSENSITIVE));
+    }
+
+    Map<String, String> extract(String message) {
+        Map<String, String> entities = new HashMap<>();
+        for (Map.Entry<String, Pattern> entry : entityPatterns.entrySet()) {
+            Matcher matcher = entry.getValue().matcher(message);
+            if (matcher.find()) {
+                String value = matcher.groupCount() > 0 ? matcher.group(1) : null;
+                entities.put(entry.getKey(), value != null ? value.trim() : matcher.group().trim());
+            }
+        }
+
+        String make = entities.get("vehicle_make");
+        if (make != null) {
+            List<String> models = MODELS_BY_MAKE.get(make.toLowerCase());
+            if (models != null) {
+                for (String model : models) {
+                    if (message.toLowerCase().contains(model)) {
+                        entities.put("vehicle_model", model);
+                        break;
+                    }
+                }
+            }
+        }
+        return entities;
+    }
+}
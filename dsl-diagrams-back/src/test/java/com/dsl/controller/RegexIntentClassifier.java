@@ -0,0 +1,61 @@
+package com.dsl.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The keyword scoring NLPService did before it used {@link com.dsl.nlp.KeywordAutomaton}: one
+ * {@code \bkeyword\b} regex per keyword and message. Kept as the reference for equivalence tests and
+ * the benchmark; context boosting is left out since it did not change.
+ */
+final class RegexIntentClassifier {
+
+    private final Map<String, Map<String, Double>> intentKeywords;
+
+    RegexIntentClassifier(Map<String, Map<String, Double>> intentKeywords) {
+        this.intentKeywords = intentKeywords;
+    }
+
+    Map<String, Double> classify(String message) {
+        Map<String, Double> intentScores = new HashMap<>();
+        for (Map.Entry<String, Map<String, Double>> entry : intentKeywords.entrySet()) {
+            double score = 0.0;
+            int matchCount = 0;
+            for (Map.Entry<String, Double> keywordEntry : entry.getValue().entrySet()) {
+                if (Pattern.compile("\\b" + Pattern.quote(keywordEntry.getKey()) + "\\b").matcher(message).find()) {
+                    score += keywordEntry.getValue();
+                    matchCount++;
+                }
+            }
+            if (score > 0) {
+                double normalizedScore = score / Math.max(1, message.split("\\s+").length / 5.0);
+                normalizedScore *= Math.min(1.0, matchCount / 3.0 + 0.5);
+                intentScores.put(entry.getKey(), Math.min(1.0, normalizedScore));
+            }
+        }
+        if (intentScores.isEmpty()
+                || intentScores.values().stream().mapToDouble(Double::doubleValue).max().orElse(0) < 0.3) {
+            intentScores.putAll(partialMatches(message));
+        }
+        return intentScores;
+    }
+
+    private Map<String, Double> partialMatches(String message) {
+        Map<String, Double> partialMatches = new HashMap<>();
+        for (Map.Entry<String, Map<String, Double>> entry : intentKeywords.entrySet()) {
+            double partialScore = 0.0;
+            for (String keyword : entry.getValue().keySet()) {
+                for (String part : keyword.split("\\s+")) {
+                    if (part.length() > 3 && Pattern.compile("\\b" + Pattern.quote(part) + "\\b").matcher(message).find()) {
+                        partialScore += 0.3;
+                    }
+                }
+            }
+            if (partialScore > 0) {
+                partialMatches.put(entry.getKey(), Math.min(0.6, partialScore));
+            }
+        }
+        return partialMatches;
+    }
+}
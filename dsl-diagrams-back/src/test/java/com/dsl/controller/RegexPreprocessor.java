@@ -0,0 +1,33 @@
+package com.dsl.controller;
+
+import java.util.Map;
+
+/**
+ * The message preprocessing NLPService did before it used {@link com.dsl.nlp.SpellingCorrector}: one
+ * {@code replaceAll} per known misspelling and abbreviation, each compiling its regex per message.
+ * Kept as the baseline for the accuracy test and the benchmark.
+ */
+final class RegexPreprocessor {
+
+    private final Map<String, String> commonMisspellings;
+
+    RegexPreprocessor(Map<String, String> commonMisspellings) {
+        this.commonMisspellings = commonMisspellings;
+    }
+
+    String preprocess(String message) {
+        if (message == null || message.trim().isEmpty()) {
+            return "";
+        }
+        String processed = message.trim();
+        for (Map.Entry<String, String> correction : commonMisspellings.entrySet()) {
+            processed = processed.replaceAll("\\b" + correction.getKey() + "\\b", correction.getValue());
+        }
+        processed = processed.replaceAll("\\s+", " ");
+        processed = processed.replaceAll("\\bu\\b", "you");
+        processed = processed.replaceAll("\\bur\\b", "your");
+        processed = processed.replaceAll("\\br\\b", "are");
+        processed = processed.replaceAll("\\btmrw\\b", "tomorrow");
+        return processed;
+    }
+}
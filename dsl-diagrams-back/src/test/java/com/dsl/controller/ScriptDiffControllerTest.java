@@ -0,0 +1,57 @@
+package com.dsl.controller;
+
+import com.dsl.parser.AivaModuleLoader;
+import com.dsl.parser.AivaScriptParser;
+import com.dsl.parser.AivaWorkspace;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ScriptDiffControllerTest {
+
+    private static final String MODULE = "AutoNation/Autonation_Toyota.aiva";
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        AivaScriptParser parser = new AivaScriptParser(Integer.MAX_VALUE, ForkJoinPool.commonPool());
+        AivaModuleLoader loader = new AivaModuleLoader(parser, new DefaultResourceLoader(), "classpath:");
+        AivaWorkspace workspace = new AivaWorkspace(loader);
+        loader.link(MODULE);
+        mvc = MockMvcBuilders.standaloneSetup(new ScriptDiffController(parser, workspace)).build();
+    }
+
+    @Test
+    void diffsAnEditAgainstTheSavedModule() throws Exception {
+        String saved = new ClassPathResource(MODULE).getContentAsString(StandardCharsets.UTF_8);
+        String edited = saved + "\nSTART_TRACK PREVIEW\n\tS1. START\n\t\tMARK_LEAD_PHASE CONTACTED\n\tEND\nEND_TRACK\n";
+
+        mvc.perform(post("/api/diff/modules/" + MODULE).contentType(MediaType.TEXT_PLAIN).content(edited)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.addedTracks[0]").value("PREVIEW"))
+                .andExpect(jsonPath("$.addedTracks.length()").value(1))
+                .andExpect(jsonPath("$.removedTracks.length()").value(0))
+                .andExpect(jsonPath("$.changedTracks.length()").value(0));
+    }
+
+    @Test
+    void answersNotFoundForModulesNotCompiled() throws Exception {
+        mvc.perform(post("/api/diff/modules/AutoNation/Autonation_Missing.aiva").contentType(MediaType.TEXT_PLAIN)
+                        .content("START_TRACK X\n\tS1. START\n\t\tGOTO X:S1\n\tEND\nEND_TRACK\n"))
+                .andExpect(status().isNotFound());
+    }
+}
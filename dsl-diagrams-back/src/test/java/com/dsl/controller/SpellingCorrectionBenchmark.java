@@ -0,0 +1,62 @@
+package com.dsl.controller;
+
+import com.dsl.nlp.MessageCorpus;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message preprocessing of the noisy SMS corpus, per message: the former replaceAll-per-misspelling
+ * preprocessing against the symmetric-delete spelling corrector. Run with -prof gc for the
+ * allocation per message; accuracy on the same corpus is asserted in {@link NLPServiceTest}.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.controller.SpellingCorrectionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpellingCorrectionBenchmark {
+
+    private NLPService service;
+    private RegexPreprocessor regex;
+    private List<String> messages;
+
+    @Setup
+    public void setUp() {
+        service = new NLPService();
+        regex = new RegexPreprocessor(service.commonMisspellings);
+        messages = MessageCorpus.noisyMessages().stream().map(m -> m[0]).toList();
+    }
+
+    private int next;
+
+    // one message per call, cycling through the corpus
+    private String message() {
+        String message = messages.get(next);
+        next = (next + 1) % messages.size();
+        return message;
+    }
+
+    @Benchmark
+    public String regex() {
+        return regex.preprocess(message());
+    }
+
+    @Benchmark
+    public String symmetricDelete() {
+        return service.preprocessMessage(message());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SpellingCorrectionBenchmark.class.getSimpleName())
+                .addProfiler("gc").build()).run();
+    }
+}
@@ -0,0 +1,62 @@
+package com.dsl.controller;
+
+import com.dsl.config.NLPConfiguration;
+import com.dsl.nlp.MessageCorpus;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stanford analysis of the message corpus, per message, with each annotator profile. The result
+ * cache is off so every call runs the pipeline. Sample mode reports the p50 and p99 per profile.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.controller.StanfordProfileBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class StanfordProfileBenchmark {
+
+    private StanfordNLPService service;
+    private List<String> messages;
+
+    @Setup
+    public void setUp() {
+        NLPConfiguration configuration = new NLPConfiguration();
+        configuration.setCacheEnabled(false);
+        service = new StanfordNLPService(configuration);
+        service.initialize();
+        messages = MessageCorpus.messages();
+    }
+
+    private int next;
+
+    // one message per call, cycling through the corpus
+    private String message() {
+        String message = messages.get(next);
+        next = (next + 1) % messages.size();
+        return message;
+    }
+
+    @Benchmark
+    public StanfordNLPResult fast() {
+        return service.analyze(message(), StanfordNLPService.Profile.FAST);
+    }
+
+    @Benchmark
+    public StanfordNLPResult full() {
+        return service.analyze(message(), StanfordNLPService.Profile.FULL);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StanfordProfileBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.dsl.controller;
+
+import com.dsl.parser.AivaModuleLoader;
+import com.dsl.parser.AivaScriptParser;
+import com.dsl.parser.AivaWorkspace;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class TrackControllerTest {
+
+    private static final String SCRIPT = """
+            START_TRACK WELCOME
+            \tS1. START
+            \t\tCALL_FUNCTION_SWITCH customerUtils findCustomerType -> @customerType
+            \tEND
+            \tR1. VIP > GOTO FOLLOW_UP:S1
+            \tS2. START
+            \t\tGOTO WELCOME:S1
+            \tEND
+            END_TRACK
+            START_TRACK FOLLOW_UP
+            \tS1. START
+            \t\tMARK_LEAD_PHASE CONTACTED
+            \tEND
+            END_TRACK
+            """;
+
+    private AivaModuleLoader loader;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        loader = new AivaModuleLoader(new AivaScriptParser(Integer.MAX_VALUE, ForkJoinPool.commonPool()),
+                new DefaultResourceLoader(), "classpath:");
+        AivaWorkspace workspace = new AivaWorkspace(loader);
+        loader.update("brand", SCRIPT);
+        mvc = MockMvcBuilders.standaloneSetup(new TrackController(workspace)).build();
+    }
+
+    private static MockHttpServletRequestBuilder json(String uri) {
+        return get(uri).accept(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void summarizesTracksWithOutgoingEdges() throws Exception {
+        mvc.perform(json("/api/tracks"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$[0].name").value("WELCOME"))
+                .andExpect(jsonPath("$[0].states").value(2))
+                .andExpect(jsonPath("$[0].edges[0]").value("FOLLOW_UP"))
+                .andExpect(jsonPath("$[0].edges.length()").value(1))
+                .andExpect(jsonPath("$[0].module").value("brand"));
+    }
+
+    @Test
+    void servesTracksAndStatesWithRevalidation() throws Exception {
+        String etag = mvc.perform(json("/api/tracks/FOLLOW_UP"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.states[0].actions[0].phase").value("CONTACTED"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(json("/api/tracks/FOLLOW_UP").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        loader.update("brand", SCRIPT.replace("CONTACTED", "RESPONDED"));
+        String changed = mvc.perform(json("/api/tracks/FOLLOW_UP").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, changed);
+
+        mvc.perform(json("/api/tracks/WELCOME/states/S2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actions[0].target").value("WELCOME:S1"));
+    }
+
+    @Test
+    void unknownTracksAndStatesAreNotFound() throws Exception {
+        mvc.perform(json("/api/tracks/NOPE")).andExpect(status().isNotFound());
+        mvc.perform(json("/api/tracks/WELCOME/states/S9")).andExpect(status().isNotFound());
+    }
+}
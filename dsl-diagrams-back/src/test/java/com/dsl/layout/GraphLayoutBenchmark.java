@@ -0,0 +1,53 @@
+package com.dsl.layout;
+
+import com.dsl.models.TrackNode;
+import com.dsl.parser.AivaScripts;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layout of Autonation_Toyota.aiva linked with Autonation_common.aiva (the track skeleton, see
+ * {@link AivaScripts#skeleton}), uncached and served from the caches.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.layout.GraphLayoutBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphLayoutBenchmark {
+
+    private List<TrackNode> tracks;
+    private GraphLayoutService cached;
+
+    @Setup
+    public void setUp() {
+        tracks = new ArrayList<>(AivaScripts.skeleton(AivaScripts.bundled("Autonation_common.aiva")));
+        tracks.addAll(AivaScripts.skeleton(AivaScripts.bundled("Autonation_Toyota.aiva")));
+        cached = new GraphLayoutService(256);
+        cached.layout(tracks);
+    }
+
+    @Benchmark
+    public GraphLayout uncached() {
+        return new GraphLayoutService(256).layout(tracks);
+    }
+
+    @Benchmark
+    public GraphLayout cached() {
+        return cached.layout(tracks);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GraphLayoutBenchmark.class.getSimpleName()).build()).run();
+    }
+}
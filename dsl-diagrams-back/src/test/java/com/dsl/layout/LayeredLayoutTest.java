@@ -0,0 +1,70 @@
+package com.dsl.layout;
+
+import com.dsl.models.TrackNode;
+import com.dsl.parser.AivaScripts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayeredLayoutTest {
+
+    private final LayeredLayout layout = new LayeredLayout(100, 80);
+
+    @Test
+    void placesTargetsBelowSources() {
+        List<int[]> edges = List.of(new int[]{0, 1}, new int[]{1, 2}, new int[]{0, 2}, new int[]{3, 2});
+        Point[] points = layout.layout(4, edges);
+
+        for (int[] e : edges) assertTrue(points[e[0]].y() < points[e[1]].y());
+        assertEquals(0, points[0].y());
+        assertEquals(160, points[2].y());
+    }
+
+    @Test
+    void untanglesCrossedEdges() {
+        // 0 -> 3 and 1 -> 2 cross in input order
+        Point[] points = layout.layout(4, List.of(new int[]{0, 3}, new int[]{1, 2}));
+
+        assertEquals(points[0].x() < points[1].x(), points[3].x() < points[2].x());
+    }
+
+    @Test
+    void keepsSpacingWithinLayer() {
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 1; i <= 70; i++) edges.add(new int[]{0, i});
+        Point[] points = layout.layout(71, edges);
+
+        List<Integer> xs = new ArrayList<>();
+        for (int i = 1; i <= 70; i++) xs.add(points[i].x());
+        xs.sort(null);
+        for (int i = 1; i < xs.size(); i++) assertTrue(xs.get(i) - xs.get(i - 1) >= 99);
+    }
+
+    @Test
+    void breaksCycles() {
+        Point[] points = layout.layout(3, List.of(new int[]{0, 1}, new int[]{1, 2}, new int[]{2, 0}, new int[]{1, 1}));
+
+        assertEquals(3, points.length);
+        assertNotEquals(points[0].y(), points[2].y());
+    }
+
+    @Test
+    void laysOutRealScriptAndCachesPerTrack() {
+        List<TrackNode> tracks = AivaScripts.skeleton(AivaScripts.bundled("Autonation_Toyota.aiva"));
+        GraphLayoutService service = new GraphLayoutService(16);
+
+        GraphLayout first = service.layout(tracks);
+        GraphLayout second = service.layout(tracks);
+
+        assertEquals(tracks.size(), first.tracks().size());
+        assertSame(first.tracks(), second.tracks());
+        for (Map.Entry<String, Map<String, Point>> e : first.states().entrySet()) {
+            assertSame(e.getValue(), second.states().get(e.getKey()));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.dsl.nlp;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnnotationPoolTest {
+
+    private final AnnotationPool pool = new AnnotationPool("test", 1, 1);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutDown() {
+        pool.shutdown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void returnsResultsAndRecordsQueueWait() throws Exception {
+        assertEquals("done", pool.call(() -> "done", Duration.ofSeconds(5)));
+
+        AnnotationPool.Stats stats = pool.stats();
+        assertEquals(1, stats.threads());
+        assertEquals(1, stats.queueWait().count());
+        assertEquals(0, stats.rejected());
+    }
+
+    @Test
+    void rejectsAtOnceWhenTheQueueIsFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        callers.submit(() -> pool.call(() -> {
+            running.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        }, Duration.ofSeconds(10)));
+        running.await(5, TimeUnit.SECONDS);
+        callers.submit(() -> pool.call(() -> "queued", Duration.ofSeconds(10)));
+        while (pool.stats().queueDepth() < 1) Thread.onSpinWait();
+
+        long start = System.nanoTime();
+        assertThrows(RejectedExecutionException.class, () -> pool.call(() -> "third", Duration.ofSeconds(10)));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, pool.stats().rejected());
+        release.countDown();
+    }
+
+    @Test
+    void cancelsCallsPastTheirDeadline() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        assertThrows(TimeoutException.class, () -> pool.call(() -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        }, Duration.ofMillis(50)));
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, pool.stats().timedOut());
+        // the worker is free again
+        assertEquals("next", pool.call(() -> "next", Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void cancellingAQueuedCallFreesItsSlot() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Boolean> running = pool.submit(() -> release.await(10, TimeUnit.SECONDS));
+        Future<String> queued = pool.submit(() -> "unwanted");
+        assertThrows(RejectedExecutionException.class, () -> pool.submit(() -> "third"));
+
+        pool.cancel(queued);
+        assertEquals(0, pool.stats().queueDepth());
+        Future<String> next = pool.submit(() -> "next");
+        release.countDown();
+        assertTrue(pool.await(running, Duration.ofSeconds(5)));
+        assertEquals("next", pool.await(next, Duration.ofSeconds(5)));
+        assertTrue(queued.isCancelled());
+    }
+}
@@ -0,0 +1,123 @@
+package com.dsl.nlp;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customer name lookup over generated customers, per query: the scan CustomerRepository.searchByName's
+ * three LIKE '%name%' predicates make the database do, here in memory (so a lower bound on its cost),
+ * against the trigram index, for full names, first names alone and misspelled names (which the scan
+ * does not find).
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.nlp.CustomerNameSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class CustomerNameSearchBenchmark {
+
+    private static final String[] FIRST = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael",
+            "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+            "Sarah", "Christopher", "Karen", "Charles", "Lisa", "Daniel", "Nancy", "Matthew", "Betty", "Anthony",
+            "Sandra", "Mark", "Margaret", "Donald", "Ashley", "Steven", "Kimberly", "Andrew", "Emily", "Paul",
+            "Donna", "Joshua", "Michelle", "Kenneth", "Carol", "Kevin", "Amanda", "Brian", "Melissa", "George",
+            "Deborah", "Timothy", "Stephanie", "Mike", "Maria", "Jose", "Wei", "Aisha", "Olga", "Raj", "Yuki"};
+    private static final String[] LAST = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas",
+            "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez",
+            "Clark", "Ramirez", "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright", "Scott",
+            "Torres", "Nguyen", "Hill", "Flores", "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera",
+            "Campbell", "Mitchell", "Carter", "Roberts", "Kowalski", "Okafor", "Tanaka", "Ivanova", "Patel"};
+
+    @Param({"1000000"})
+    public int customers;
+
+    // full names, first names alone, or full names with two letters swapped
+    @Param({"full", "first", "typo"})
+    public String queryKind;
+
+    private String[] firstNames, lastNames;
+    private TrigramIndex index;
+    private List<String> queries;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        firstNames = new String[customers];
+        lastNames = new String[customers];
+        TrigramIndex.Builder builder = TrigramIndex.builder();
+        for (int i = 0; i < customers; i++) {
+            // a suffix keeps most full names distinct, as in a real customer table
+            firstNames[i] = FIRST[random.nextInt(FIRST.length)];
+            lastNames[i] = LAST[random.nextInt(LAST.length)] + (random.nextInt(4) == 0 ? "" : "-" + suffix(random));
+            builder.add(i + 1, firstNames[i] + " " + lastNames[i]);
+        }
+        index = builder.build();
+        queries = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            int c = random.nextInt(customers);
+            String fullName = firstNames[c] + " " + lastNames[c];
+            queries.add(switch (queryKind) {
+                case "first" -> firstNames[c];
+                case "typo" -> misspell(fullName, random);
+                default -> fullName;
+            });
+        }
+    }
+
+    private static String suffix(Random random) {
+        char[] chars = new char[5];
+        for (int i = 0; i < chars.length; i++) chars[i] = (char) ('a' + random.nextInt(26));
+        chars[0] = Character.toUpperCase(chars[0]);
+        return new String(chars);
+    }
+
+    // swaps two neighbouring letters
+    private static String misspell(String name, Random random) {
+        char[] chars = name.toCharArray();
+        int i = 1 + random.nextInt(chars.length - 3);
+        char c = chars[i];
+        chars[i] = chars[i + 1];
+        chars[i + 1] = c;
+        return new String(chars);
+    }
+
+    private int next;
+
+    // one query per call, cycling through them
+    private String query() {
+        String query = queries.get(next);
+        next = (next + 1) % queries.size();
+        return query;
+    }
+
+    @Benchmark
+    public List<Integer> likeScan() {
+        String name = query().toLowerCase();
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < customers; i++) {
+            String first = firstNames[i].toLowerCase(), last = lastNames[i].toLowerCase();
+            if (first.contains(name) || last.contains(name) || (first + " " + last).contains(name)) matches.add(i);
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Match> trigramIndex() {
+        return index.search(query(), 10, 0.3);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CustomerNameSearchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
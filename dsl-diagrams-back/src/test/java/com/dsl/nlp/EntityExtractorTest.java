@@ -0,0 +1,46 @@
+package com.dsl.nlp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EntityExtractorTest {
+
+    private final EntityExtractor extractor = new EntityExtractor(gazetteers(),
+            VehicleGazetteer.parse(List.of("Honda: Civic, Accord", "Toyota: Camry")));
+
+    private static Map<String, List<String>> gazetteers() {
+        Map<String, List<String>> gazetteers = new LinkedHashMap<>();
+        gazetteers.put("service_type", List.of("oil change", "brake inspection", "inspection"));
+        gazetteers.put("time_expression", List.of("tomorrow", "morning"));
+        return gazetteers;
+    }
+
+    @Test
+    void takesTheLeftmostThenEarliestListedPhrase() {
+        assertEquals(Map.of("service_type", "Brake Inspection", "time_expression", "tomorrow"),
+                extractor.extract("Brake Inspection and oil change tomorrow morning"));
+        assertEquals(Map.of(), extractor.extract("oil changes are brake inspections"));
+    }
+
+    @Test
+    void scansStructuredEntities() {
+        assertEquals(Map.of("phone_number", "555", "email", "john.doe@example.com"),
+                extractor.extract("call +1-555-123-4567 or john.doe@example.com"));
+        assertEquals(Map.of("vehicle_year", "2018", "mileage", "45,000", "price", "99.95"),
+                extractor.extract("2018 with 45,000 miles for $ 99.95"));
+        assertEquals(Map.of("price", "80 dollars", "time_expression", "10:30 am"),
+                extractor.extract("80 dollars at 10:30 am"));
+    }
+
+    @Test
+    void readsValuesAfterCuePhrases() {
+        assertEquals(Map.of("person_name", "Sarah Johnson", "vehicle_make", "Honda", "vehicle_model", "Civic"),
+                extractor.extract("My name is Sarah Johnson, i drive a honda, a Civic"));
+        assertEquals(Map.of("location", "Main Street"), extractor.extract("stuck near the Main Street"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.dsl.nlp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntentClassifierTest {
+
+    // every fifth labeled message is held out
+    private final List<String> trainMessages = new ArrayList<>(), trainIntents = new ArrayList<>();
+    private final List<String> testMessages = new ArrayList<>(), testIntents = new ArrayList<>();
+    private final IntentClassifier classifier;
+
+    IntentClassifierTest() {
+        List<String[]> labeled = MessageCorpus.labeledMessages();
+        for (int i = 0; i < labeled.size(); i++) {
+            (i % 5 == 4 ? testMessages : trainMessages).add(labeled.get(i)[1]);
+            (i % 5 == 4 ? testIntents : trainIntents).add(labeled.get(i)[0]);
+        }
+        classifier = IntentClassifier.train(trainMessages, trainIntents, 20, 42);
+    }
+
+    @Test
+    void learnsTheLabeledMessages() {
+        assertEquals(1.0, classifier.evaluate(trainMessages, trainIntents).accuracy(), 0.05);
+        IntentClassifier.Evaluation heldOut = classifier.evaluate(testMessages, testIntents);
+        assertEquals(testMessages.size(), heldOut.messages());
+        assertTrue(heldOut.accuracy() >= 0.6, "held-out accuracy " + heldOut.accuracy());
+        assertEquals(classifier.intents(), List.copyOf(heldOut.recallByIntent().keySet()));
+    }
+
+    @Test
+    void generalizesToMisspellings() {
+        assertEquals("booking_request", classifier.predict("can i schedule a brak inspection").intent());
+        assertEquals("negation", classifier.predict("cancel it").intent());
+        assertEquals("greeting", classifier.predict("helo").intent());
+    }
+
+    @Test
+    void predictsAProbability() {
+        for (String message : List.of("my oil light is on", "", "!!!", "x".repeat(500))) {
+            IntentClassifier.Prediction prediction = classifier.predict(message);
+            assertTrue(classifier.intents().contains(prediction.intent()));
+            assertTrue(prediction.confidence() > 0 && prediction.confidence() <= 1, message);
+        }
+        assertTrue(classifier.predict("my oil light is on").confidence() > 1.0 / classifier.intents().size());
+    }
+
+    @Test
+    void savesAndLoads(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("models/intents.bin.gz");
+        classifier.save(file);
+        IntentClassifier loaded = IntentClassifier.load(file);
+        assertEquals(classifier.intents(), loaded.intents());
+        for (String message : testMessages) assertEquals(classifier.predict(message), loaded.predict(message));
+    }
+
+    @Test
+    void updatesACopyWithNewIntents() {
+        List<String> orders = List.of("do you sell brake pads", "i want to order a side mirror",
+                "can i buy a new wiper blade", "order me a cabin air filter");
+        IntentClassifier updated = classifier.update(orders, List.of("parts_order", "parts_order", "parts_order",
+                "parts_order"), 5, 0.1, 1);
+        assertTrue(updated.intents().contains("parts_order"));
+        assertFalse(classifier.intents().contains("parts_order"));
+        assertEquals("parts_order", updated.predict("can i order a side mirror").intent());
+        // what it knew before is kept
+        assertTrue(updated.evaluate(trainMessages, trainIntents).accuracy() >= 0.95);
+    }
+
+    @Test
+    void rejectsMismatchedLabels() {
+        assertThrows(IllegalArgumentException.class,
+                () -> IntentClassifier.train(List.of("hi"), List.of("greeting", "negation"), 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> IntentClassifier.train(List.of(), List.of(), 1, 1));
+    }
+}
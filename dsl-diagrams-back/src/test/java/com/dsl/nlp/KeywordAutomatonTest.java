@@ -0,0 +1,57 @@
+package com.dsl.nlp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeywordAutomatonTest {
+
+    private static List<String> found(KeywordAutomaton automaton, List<String> keywords, String text) {
+        List<String> found = new ArrayList<>();
+        automaton.scan(text, (k, start, end) -> found.add(keywords.get(k) + "@" + start));
+        return found;
+    }
+
+    @Test
+    void reportsOverlappingWholeWordMatches() {
+        List<String> keywords = List.of("oil", "oil change", "change", "hang");
+        KeywordAutomaton automaton = new KeywordAutomaton(keywords);
+
+        assertEquals(List.of("oil@5", "oil change@5", "change@9"), found(automaton, keywords, "need oil change"));
+        assertEquals(List.of(), found(automaton, keywords, "boiler exchange"));
+    }
+
+    @Test
+    void respectsWordBoundariesAroundPunctuation() {
+        List<String> keywords = List.of("i'm", "won't start", "am");
+        KeywordAutomaton automaton = new KeywordAutomaton(keywords);
+
+        assertEquals(List.of("i'm@0", "won't start@9"), found(automaton, keywords, "i'm sad, won't start!"));
+        assertEquals(List.of("am@5"), found(automaton, keywords, "9:30 am"));
+        assertEquals(List.of(), found(automaton, keywords, "camp_am"));
+    }
+
+    @Test
+    void agreesWithRegexOnRandomText() {
+        List<String> keywords = List.of("ab", "abc", "bca", "c a", "a", "cab", "b_c");
+        KeywordAutomaton automaton = new KeywordAutomaton(keywords);
+        Random random = new Random(7);
+        String alphabet = "abc _.'";
+        for (int n = 0; n < 2000; n++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(20); i > 0; i--) text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+
+            boolean[] hit = new boolean[keywords.size()];
+            automaton.scan(text, (k, start, end) -> hit[k] = true);
+            for (int k = 0; k < keywords.size(); k++) {
+                boolean expected = Pattern.compile("\\b" + Pattern.quote(keywords.get(k)) + "\\b").matcher(text).find();
+                assertEquals(expected, hit[k], keywords.get(k) + " in '" + text + "'");
+            }
+        }
+    }
+}
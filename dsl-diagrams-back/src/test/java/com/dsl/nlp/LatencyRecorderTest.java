@@ -0,0 +1,37 @@
+package com.dsl.nlp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyRecorderTest {
+
+    @Test
+    void reportsNearestRankPercentilesInMillis() {
+        LatencyRecorder recorder = new LatencyRecorder(1000);
+        for (int ms = 100; ms >= 1; ms--) recorder.record(ms * 1_000_000L);
+
+        LatencyRecorder.Percentiles percentiles = recorder.percentiles();
+        assertEquals(100, percentiles.count());
+        assertEquals(50.0, percentiles.p50Millis());
+        assertEquals(99.0, percentiles.p99Millis());
+        assertEquals(100.0, percentiles.maxMillis());
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentSamples() {
+        LatencyRecorder recorder = new LatencyRecorder(10);
+        for (int i = 0; i < 1000; i++) recorder.record(1_000_000_000L);
+        for (int i = 0; i < 10; i++) recorder.record(2_000_000L);
+
+        LatencyRecorder.Percentiles percentiles = recorder.percentiles();
+        assertEquals(1010, percentiles.count());
+        assertEquals(10, percentiles.window());
+        assertEquals(2.0, percentiles.p99Millis());
+    }
+
+    @Test
+    void isZeroBeforeTheFirstSample() {
+        assertEquals(new LatencyRecorder.Percentiles(0, 0, 0.0, 0.0, 0.0), new LatencyRecorder(10).percentiles());
+    }
+}
@@ -0,0 +1,53 @@
+package com.dsl.nlp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Customer messages for NLP tests and benchmarks, from src/test/resources/nlp.
+ */
+public final class MessageCorpus {
+
+    private MessageCorpus() {
+    }
+
+    public static List<String> messages() {
+        return lines("messages.txt");
+    }
+
+    /**
+     * Noisy SMS-style messages paired with their intended reading, as {noisy, expected}.
+     */
+    public static List<String[]> noisyMessages() {
+        return lines("noisy-messages.txt").stream().map(line -> line.split("\t", 2)).toList();
+    }
+
+    /**
+     * Customer messages with the intent they should get, as {intent, message}.
+     */
+    public static List<String[]> labeledMessages() {
+        return lines("labeled-messages.txt").stream().map(line -> line.split("\t", 2)).toList();
+    }
+
+    /**
+     * Messages with the time expression they contain and the window it resolves to, as {message,
+     * expression, start, end}, or {message, "-"} when they contain none.
+     */
+    public static List<String[]> timeExpressions() {
+        return lines("time-expressions.txt").stream().map(line -> line.split("\t")).toList();
+    }
+
+    static List<String> lines(String name) {
+        try (InputStream in = MessageCorpus.class.getResourceAsStream("/nlp/" + name)) {
+            if (in == null) throw new IllegalArgumentException("no corpus " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()
+                    .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
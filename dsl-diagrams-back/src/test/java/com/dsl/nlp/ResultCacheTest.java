@@ -0,0 +1,87 @@
+package com.dsl.nlp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultCacheTest {
+
+    @Test
+    void staysWithinItsSizeAndCountsHits() {
+        ResultCache<Integer, String> cache = new ResultCache<>(100, null);
+        for (int i = 0; i < 1000; i++) cache.get(i, String::valueOf);
+        assertEquals(100, cache.size());
+        assertEquals("999", cache.get(999, k -> "recomputed"));
+
+        ResultCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1000, stats.misses());
+        assertEquals(900, stats.evictions());
+    }
+
+    @Test
+    void keepsFrequentKeysThroughAScanThatFlushesLru() {
+        ResultCache<Integer, Integer> cache = new ResultCache<>(100, null);
+        Map<Integer, Integer> lru = lru(100);
+        Random random = new Random(7);
+        long lruHits = 0, requests = 0;
+        int oneOff = 1_000_000;
+        for (int round = 0; round < 200; round++) {
+            // quick replies: 50 keys asked over and over, then a burst of messages seen once
+            for (int i = 0; i < 200; i++) {
+                int key = random.nextInt(50);
+                cache.get(key, Function.identity());
+                lruHits += lru.containsKey(key) ? 1 : 0;
+                lru.put(key, key);
+                requests++;
+            }
+            for (int i = 0; i < 150; i++) {
+                int key = oneOff++;
+                cache.get(key, Function.identity());
+                lru.put(key, key);
+                requests++;
+            }
+        }
+        double lruHitRate = (double) lruHits / requests;
+        double hitRate = cache.stats().hitRate();
+        // at best the 40,000 quick replies hit: 0.571
+        assertTrue(hitRate > 0.56 && hitRate > lruHitRate + 0.1, hitRate + " vs LRU " + lruHitRate);
+    }
+
+    @Test
+    void expiresEntriesAfterTheirTimeToLive() {
+        AtomicLong now = new AtomicLong();
+        ResultCache<String, String> cache = new ResultCache<>(10, Duration.ofMinutes(5), now::get);
+        cache.get("hi", k -> "first");
+        now.addAndGet(Duration.ofMinutes(4).toNanos());
+        assertEquals("first", cache.get("hi", k -> "second"));
+        now.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertEquals("second", cache.get("hi", k -> "second"));
+    }
+
+    @Test
+    void sizeZeroOnlyCountsMisses() {
+        ResultCache<String, String> cache = new ResultCache<>(0, null);
+        cache.get("hi", k -> "value");
+        assertNull(cache.getIfPresent("hi"));
+        assertEquals(new ResultCache.Stats(0, 2, 0, 0, 0), cache.stats());
+    }
+
+    private static <K, V> Map<K, V> lru(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.dsl.nlp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpellingCorrectorTest {
+
+    private final SpellingCorrector corrector = new SpellingCorrector(
+            new SpellingIndex(Map.of("squeak", 10, "brake", 10, "battery", 10, "schedule", 10, "maintenance", 10,
+                    "sarah", 10), 2, 7),
+            Map.of("tmrw", "tomorrow", "u", "you", "oilchange", "oil change"));
+
+    @Test
+    void normalizesWhitespaceAndReplacesShorthands() {
+        assertEquals("can you do an oil change tomorrow?", corrector.correct("  can u\tdo an   oilchange tmrw? "));
+        assertEquals("", corrector.correct("   "));
+    }
+
+    @Test
+    void correctsUnknownWordsAndTheirInflections() {
+        assertEquals("please schedule maintenance", corrector.correct("please shedule maintenence"));
+        assertEquals("it is squeaking", corrector.correct("it is squeeking"));
+        assertEquals("Schedule it", corrector.correct("Schedule it"));
+        assertEquals("schedule it", corrector.correct("Shedule it"));
+    }
+
+    @Test
+    void leavesKnownInflectionsNamesAndShortWordsAlone() {
+        assertEquals("my brakes and batteries", corrector.correct("my brakes and batteries"));
+        assertEquals("this is Sarha", corrector.correct("this is Sarha"));
+        assertEquals("brak it", corrector.correct("brak it"));
+        assertEquals("call 555-1234 or bob@example.com", corrector.correct("call 555-1234 or bob@example.com"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.dsl.nlp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SpellingIndexTest {
+
+    private final SpellingIndex index = new SpellingIndex(
+            Map.of("maintenance", 10, "schedule", 10, "reschedule", 1, "inspection", 10, "brake", 10, "break", 1),
+            2, 7);
+
+    @Test
+    void correctsWithinTheRequestedDistance() {
+        assertEquals("maintenance", index.correct("maintenence", 2));
+        assertEquals("inspection", index.correct("inspectoin", 1)); // transposition counts once
+        assertEquals("schedule", index.correct("shedule", 1));
+        assertEquals("maintenance", index.correct("maintenance", 0));
+        assertNull(index.correct("maintnence", 1));
+        assertNull(index.correct("appointment", 2));
+    }
+
+    @Test
+    void frequencyOnlyBreaksTiesAtEqualDistance() {
+        assertEquals("brake", index.correct("brike", 1));
+        // "schedule" is more frequent but three edits away
+        assertEquals("reschedule", index.correct("reschedual", 2));
+    }
+
+    @Test
+    void distanceIsOptimalStringAlignment() {
+        assertEquals(1, SpellingIndex.distance("cancle", "cancel", 5));
+        assertEquals(2, SpellingIndex.distance("reschedual", "reschedule", 5));
+        assertEquals(3, SpellingIndex.distance("abc", "xyz", 3));
+        assertEquals(2, SpellingIndex.distance("abcdef", "abcdefgh", 2));
+    }
+}
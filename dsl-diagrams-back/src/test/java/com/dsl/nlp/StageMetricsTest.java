@@ -0,0 +1,62 @@
+package com.dsl.nlp;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StageMetricsTest {
+
+    private static List<String> lines(StageMetrics metrics) throws IOException {
+        StringBuilder out = new StringBuilder();
+        metrics.writePrometheus(out);
+        return out.toString().lines().toList();
+    }
+
+    @Test
+    void writesCumulativeHistogramsPerStageIntentAndMethod() throws IOException {
+        StageMetrics metrics = new StageMetrics();
+        StageMetrics.Timings first = new StageMetrics.Timings();
+        first.add(StageMetrics.PREPROCESSING, 20_000); // 20us
+        first.add(StageMetrics.TURN, 3_000_000);
+        metrics.record(first, "greeting", "rule-based");
+        StageMetrics.Timings second = new StageMetrics.Timings();
+        second.add(StageMetrics.PREPROCESSING, 2_000_000_000L); // 2s
+        metrics.record(second, "greeting", "rule-based");
+
+        List<String> lines = lines(metrics);
+        assertEquals("# TYPE nlp_stage_seconds histogram", lines.get(1));
+        String labels = "stage=\"preprocessing\",intent=\"greeting\",method=\"rule-based\"";
+        assertTrue(lines.contains("nlp_stage_seconds_bucket{" + labels + ",le=\"0.00001\"} 0"));
+        assertTrue(lines.contains("nlp_stage_seconds_bucket{" + labels + ",le=\"0.000025\"} 1"));
+        assertTrue(lines.contains("nlp_stage_seconds_bucket{" + labels + ",le=\"1\"} 1"));
+        assertTrue(lines.contains("nlp_stage_seconds_bucket{" + labels + ",le=\"2.5\"} 2"));
+        assertTrue(lines.contains("nlp_stage_seconds_bucket{" + labels + ",le=\"+Inf\"} 2"));
+        assertTrue(lines.contains("nlp_stage_seconds_sum{" + labels + "} 2.00002"));
+        assertTrue(lines.contains("nlp_stage_seconds_count{" + labels + "} 2"));
+        assertTrue(lines.contains("nlp_stage_seconds_count{stage=\"turn\",intent=\"greeting\",method=\"rule-based\"} 1"));
+    }
+
+    @Test
+    void sumsAStageAddedTwiceIntoOneObservation() throws IOException {
+        StageMetrics metrics = new StageMetrics();
+        StageMetrics.Timings timings = new StageMetrics.Timings();
+        timings.add(StageMetrics.RESPONSE_GENERATION, 1_000);
+        timings.add(StageMetrics.RESPONSE_GENERATION, 2_000);
+        metrics.record(timings, null, "say \"hi\"");
+
+        String labels = "stage=\"response_generation\",intent=\"unknown\",method=\"say \\\"hi\\\"\"";
+        assertTrue(lines(metrics).contains("nlp_stage_seconds_count{" + labels + "} 1"));
+        assertTrue(lines(metrics).contains("nlp_stage_seconds_sum{" + labels + "} 0.000003"));
+    }
+
+    @Test
+    void ignoresTimingsOfCallersThatDoNotRecord() throws IOException {
+        StageMetrics metrics = new StageMetrics();
+        StageMetrics.Timings.NONE.add(StageMetrics.MERGE, 1_000);
+        metrics.record(StageMetrics.Timings.NONE, "greeting", "hybrid");
+        assertEquals(2, lines(metrics).size());
+    }
+}
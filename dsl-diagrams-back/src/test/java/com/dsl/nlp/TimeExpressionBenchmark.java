@@ -0,0 +1,94 @@
+package com.dsl.nlp;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Messages per millisecond through time handling, over the message corpus and the time expression
+ * corpus: the former chat service's contains() checks and the former entity regex, which only named
+ * the time, against the finite-state parser alone and parsing plus resolving to a window. Run with
+ * -prof gc for the allocation per message.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.nlp.TimeExpressionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeExpressionBenchmark {
+
+    private static final Pattern TIME = Pattern.compile(
+            "\\b(tomorrow|today|yesterday|next week|this week|next month|morning|afternoon|evening|noon|midnight|\\d{1,2}:\\d{2}\\s*(?:am|pm)?|\\d{1,2}\\s*(?:am|pm)|monday|tuesday|wednesday|thursday|friday|saturday|sunday|weekday|weekend)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 10, 15);
+
+    private List<String> messages;
+
+    @Setup
+    public void setUp() {
+        messages = new ArrayList<>(MessageCorpus.messages());
+        MessageCorpus.timeExpressions().forEach(line -> messages.add(line[0]));
+    }
+
+    private int next;
+
+    // one message per call, cycling through the corpus
+    private String message() {
+        String message = messages.get(next);
+        next = (next + 1) % messages.size();
+        return message;
+    }
+
+    @Benchmark
+    public String containsChecks() {
+        String message = message();
+        String lowerMessage = message.toLowerCase();
+        if (lowerMessage.contains("tomorrow morning")) return "tomorrow morning";
+        if (lowerMessage.contains("tomorrow afternoon")) return "tomorrow afternoon";
+        if (lowerMessage.contains("tomorrow evening")) return "tomorrow evening";
+        if (lowerMessage.contains("next week")) return "next week";
+        if (lowerMessage.contains("monday")) return "Monday";
+        if (lowerMessage.contains("tuesday")) return "Tuesday";
+        if (lowerMessage.contains("wednesday")) return "Wednesday";
+        if (lowerMessage.contains("thursday")) return "Thursday";
+        if (lowerMessage.contains("friday")) return "Friday";
+        if (lowerMessage.contains("saturday")) return "Saturday";
+        if (lowerMessage.contains("sunday")) return "Sunday";
+        if (lowerMessage.contains("tomorrow")) return "tomorrow";
+        if (lowerMessage.contains("today")) return "today";
+        return message.trim();
+    }
+
+    @Benchmark
+    public String regex() {
+        Matcher matcher = TIME.matcher(message());
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    @Benchmark
+    public TimeExpressionParser.Expression parse() {
+        return TimeExpressionParser.parse(message());
+    }
+
+    @Benchmark
+    public TimeExpressionParser.Window parseAndResolve() {
+        TimeExpressionParser.Expression expression = TimeExpressionParser.parse(message());
+        return expression == null ? null : expression.resolve(NOW);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TimeExpressionBenchmark.class.getSimpleName())
+                .addProfiler("gc").build()).run();
+    }
+}
@@ -0,0 +1,61 @@
+package com.dsl.nlp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeExpressionParserTest {
+
+    // when the corpus' windows were worked out: a Monday morning
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 10, 15);
+
+    @Test
+    void resolvesTheCorpus() {
+        for (String[] line : MessageCorpus.timeExpressions()) {
+            TimeExpressionParser.Expression expression = TimeExpressionParser.parse(line[0]);
+            if (line[1].equals("-")) {
+                assertNull(expression, line[0]);
+                continue;
+            }
+            assertNotNull(expression, line[0]);
+            assertEquals(line[1], expression.text(), line[0]);
+            TimeExpressionParser.Window window = expression.resolve(NOW);
+            assertEquals(LocalDateTime.parse(line[2]), window.start(), line[0]);
+            assertEquals(LocalDateTime.parse(line[3]), window.end(), line[0]);
+        }
+    }
+
+    @Test
+    void rollsAPassedTimeOverToTomorrow() {
+        TimeExpressionParser.Expression morning = TimeExpressionParser.parse("in the morning");
+        assertEquals(LocalDateTime.of(2026, 10, 19, 10, 15), morning.resolve(NOW).start());
+        assertEquals(LocalDateTime.of(2026, 10, 20, 8, 0), morning.resolve(NOW.withHour(13)).start());
+    }
+
+    @Test
+    void keepsToThePartOfDayOnEveryDay() {
+        TimeExpressionParser.Window mornings = TimeExpressionParser.parse("next week in the morning").resolve(NOW);
+        assertTrue(mornings.contains(LocalDateTime.of(2026, 10, 28, 9, 0)));
+        assertFalse(mornings.contains(LocalDateTime.of(2026, 10, 28, 14, 0)));
+        assertFalse(mornings.contains(LocalDateTime.of(2026, 11, 2, 9, 0)));
+    }
+
+    @Test
+    void describesWindows() {
+        assertEquals("Tuesday, October 20 at 2:00 PM",
+                TimeExpressionParser.parse("next tuesday at 2").resolve(NOW).describe());
+        assertEquals("Tuesday, October 20, 8:00 AM to 12:00 PM",
+                TimeExpressionParser.parse("tomorrow morning").resolve(NOW).describe());
+        assertEquals("Wednesday, October 21", TimeExpressionParser.parse("wednesday").resolve(NOW).describe());
+        assertEquals("Monday, October 26 to Sunday, November 1",
+                TimeExpressionParser.parse("next week").resolve(NOW).describe());
+    }
+
+    @Test
+    void countsTheTermsOfAnExpression() {
+        assertEquals(1, TimeExpressionParser.parse("tomorrow").terms());
+        assertEquals(3, TimeExpressionParser.parse("friday at 10:30 am").terms());
+    }
+}
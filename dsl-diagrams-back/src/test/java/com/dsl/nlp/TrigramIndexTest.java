@@ -0,0 +1,60 @@
+package com.dsl.nlp;
+
+import com.dsl.nlp.TrigramIndex.Match;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    private final TrigramIndex index = TrigramIndex.builder()
+            .add(1, "Sarah Johnson")
+            .add(2, "Mike Thompson")
+            .add(3, "Michael Johnson")
+            .add(4, "Sara Jones")
+            .add(5, "Mike")
+            .add(6, "  ")
+            .build();
+
+    private List<Long> ids(String query) {
+        return index.search(query, 10, 0.3).stream().map(Match::id).toList();
+    }
+
+    @Test
+    void ranksByTrigramSimilarity() {
+        List<Match> matches = index.search("Sarah Johnson", 10, 0.0);
+        assertEquals(1L, matches.get(0).id());
+        assertEquals(1.0, matches.get(0).similarity(), 1e-9);
+        for (int i = 1; i < matches.size(); i++) {
+            assertTrue(matches.get(i - 1).similarity() >= matches.get(i).similarity());
+        }
+        assertEquals(List.of(5L, 2L), ids("mike"));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertEquals(1L, ids("Sarah Jonson").get(0));
+        assertEquals(2L, ids("Mike Thomson").get(0));
+        assertEquals(3L, ids("micheal johnson").get(0));
+        assertEquals(List.of(), ids("Bob Smith"));
+    }
+
+    @Test
+    void matchesPgTrgmSimilarity() {
+        // SELECT similarity('word', 'two words') = 0.36363637 in Postgres
+        TrigramIndex words = TrigramIndex.builder().add(7, "two words").build();
+        assertEquals(4.0 / 11, words.search("word", 1, 0.0).get(0).similarity(), 1e-9);
+        assertEquals(List.of(), words.search("word", 1, 0.4));
+        assertEquals(List.of(), words.search("!?", 1, 0.0));
+    }
+
+    @Test
+    void keepsTheBestWithinTheLimitThenOrdersById() {
+        TrigramIndex twins = TrigramIndex.builder().add(9, "Ann Lee").add(8, "Ann Lee").add(7, "Anne Lee").build();
+        assertEquals(List.of(new Match(8, 1.0), new Match(9, 1.0)), twins.search("ann lee", 2, 0.3));
+    }
+}
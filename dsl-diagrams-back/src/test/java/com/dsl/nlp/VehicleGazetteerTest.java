@@ -0,0 +1,66 @@
+package com.dsl.nlp;
+
+import com.dsl.nlp.VehicleGazetteer.Vehicle;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VehicleGazetteerTest {
+
+    private final VehicleGazetteer vehicles = VehicleGazetteer.standard();
+
+    @Test
+    void findsYearMakeAndModelInTheCorpus() {
+        assertEquals(new Vehicle("2018", "Honda", "Civic"), vehicles.find("I'm Mike, I drive a 2018 Honda Civic"));
+        assertEquals(new Vehicle("2015", "Toyota", "Camry"), vehicles.find("my car is a Toyota Camry 2015"));
+        assertEquals(new Vehicle("2020", "Ford", "F-150"), vehicles.find("I have a 2020 Ford F-150 with 45,000 miles"));
+        assertEquals(new Vehicle("2012", "Chevrolet", "Silverado"),
+                vehicles.find("my 2012 chevy silverado needs new struts and shocks"));
+        assertEquals(new Vehicle(null, "Honda", "Accord"),
+                vehicles.find("my wife drives a honda accord and I own a toyota rav4"));
+    }
+
+    @Test
+    void matchesSpellingVariantsAndTheLongestName() {
+        for (String spelling : List.of("F-150", "f150", "F 150", "f - 150")) {
+            assertEquals(new Vehicle(null, "Ford", "F-150"), vehicles.find("my ford " + spelling), spelling);
+        }
+        assertEquals(new Vehicle(null, "Toyota", "RAV4"), vehicles.find("toyota rav 4"));
+        assertEquals(new Vehicle(null, "Honda", "CR-V"), vehicles.find("honda crv"));
+        assertEquals(new Vehicle("2019", "Jeep", "Grand Cherokee"), vehicles.find("jeep grand cherokee, 2019"));
+        assertEquals(new Vehicle(null, "Volkswagen", "Jetta"), vehicles.find("a vw jetta"));
+    }
+
+    @Test
+    void takesModelsOnlyWhenTheyReadAsNames() {
+        assertEquals(new Vehicle(null, "Honda", null), vehicles.find("my honda needs a fit of new tires"));
+        assertEquals(new Vehicle(null, "Honda", "Civic"), vehicles.find("my Civic is leaking"));
+        assertEquals(new Vehicle(null, "Honda", "Civic"), vehicles.find("the Civic, a honda"));
+        assertEquals(new Vehicle(null, "Toyota", null), vehicles.find("toyota, not the Mustang"));
+        assertSame(Vehicle.NONE, vehicles.find("the pilot will focus on the escape"));
+    }
+
+    @Test
+    void readsYearsAsWholeWords() {
+        assertEquals("1950", vehicles.find("a 1950 classic").year());
+        assertEquals("2049", vehicles.find("2049").year());
+        assertTrue(vehicles.find("1949 2050 20180 2018x x2018 45,000").isEmpty());
+        assertEquals("2016", vehicles.find("Hondas from 2016").year());
+    }
+
+    @Test
+    void parsesMakesAliasesAndModels() {
+        VehicleGazetteer small = VehicleGazetteer.parse(List.of("# comment", "", "Chevrolet=Chevy: Malibu, Bolt EV=Bolt"));
+        assertEquals(new Vehicle(null, "Chevrolet", "Bolt EV"), small.find("chevy bolt"));
+        assertEquals(List.of("bolt", "chevrolet", "chevy", "ev", "malibu"), List.copyOf(small.words()));
+        assertEquals("f 150", VehicleGazetteer.normalize("F-150"));
+        assertEquals("rav 4", VehicleGazetteer.normalize("RAV4"));
+        assertThrows(IllegalArgumentException.class, () -> VehicleGazetteer.parse(List.of(": Civic")));
+        assertThrows(IllegalArgumentException.class, () -> VehicleGazetteer.parse(List.of("Honda: --")));
+    }
+}
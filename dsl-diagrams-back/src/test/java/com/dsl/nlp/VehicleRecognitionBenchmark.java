@@ -0,0 +1,131 @@
+package com.dsl.nlp;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Vehicle year/make/model recognition of the message corpus, per message: the rule-based layer's
+ * former regexes and models-by-make loop, the Stanford layer's former per-token heuristic (on
+ * whitespace tokens, capitalized ones standing in for NNP tags), and the gazetteer trie. Run with
+ * -prof gc for the allocation per message.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.nlp.VehicleRecognitionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VehicleRecognitionBenchmark {
+
+    private static final Pattern YEAR = Pattern.compile("\\b(19[5-9]\\d|20[0-4]\\d)\\b");
+    private static final Pattern MAKE = Pattern.compile(
+            "(?:my car is|i drive a|i have a|my vehicle is|car is|drive a|own a|got a)\\s+([A-Z][a-zA-Z0-9- ]+)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Map<String, List<String>> MODELS_BY_MAKE = Map.of(
+            "honda", List.of("civic", "accord", "crv", "pilot", "fit"),
+            "toyota", List.of("camry", "corolla", "prius", "rav4", "highlander"),
+            "ford", List.of("f150", "f-150", "mustang", "focus", "escape", "explorer"),
+            "chevrolet", List.of("silverado", "malibu", "equinox", "tahoe"),
+            "chevy", List.of("silverado", "malibu", "equinox", "tahoe"));
+
+    private VehicleGazetteer vehicles;
+    private List<String> messages;
+
+    @Setup
+    public void setUp() {
+        vehicles = VehicleGazetteer.standard();
+        messages = MessageCorpus.messages();
+    }
+
+    private int next;
+
+    // one message per call, cycling through the corpus
+    private String message() {
+        String message = messages.get(next);
+        next = (next + 1) % messages.size();
+        return message;
+    }
+
+    @Benchmark
+    public Map<String, String> regex() {
+        String message = message();
+        Map<String, String> entities = new HashMap<>();
+        Matcher year = YEAR.matcher(message);
+        if (year.find()) entities.put("vehicle_year", year.group(1));
+        Matcher make = MAKE.matcher(message);
+        if (make.find()) entities.put("vehicle_make", make.group(1).trim());
+        String vehicleMake = entities.get("vehicle_make");
+        List<String> models = vehicleMake == null ? null : MODELS_BY_MAKE.get(vehicleMake.toLowerCase());
+        if (models != null) {
+            for (String model : models) {
+                if (message.toLowerCase().contains(model)) {
+                    entities.put("vehicle_model", model);
+                    break;
+                }
+            }
+        }
+        return entities;
+    }
+
+    @Benchmark
+    public Map<String, String> tokenHeuristic() {
+        String[] tokens = message().split("\\s+");
+        Map<String, String> entities = new HashMap<>();
+        for (int i = 0; i < tokens.length; i++) {
+            String word = tokens[i];
+            if (word.isEmpty()) continue;
+            if (word.matches("^(19|20)\\d{2}$")) {
+                entities.putIfAbsent("vehicle_year", word);
+                if (i + 1 < tokens.length && isProperNoun(tokens[i + 1])) {
+                    entities.putIfAbsent("vehicle_make", tokens[i + 1]);
+                    if (i + 2 < tokens.length && isProperNoun(tokens[i + 2])) {
+                        entities.putIfAbsent("vehicle_model", tokens[i + 2]);
+                    }
+                }
+            } else if (isProperNoun(word)) {
+                List<String> commonMakes = Arrays.asList("Honda", "Toyota", "Ford", "Chevrolet", "Nissan", "BMW",
+                        "Mercedes", "Audi", "Volkswagen", "Hyundai", "Kia", "Subaru", "Mazda", "Jeep", "Tesla");
+                if (commonMakes.contains(word)) {
+                    entities.putIfAbsent("vehicle_make", word);
+                    if (i + 1 < tokens.length && isProperNoun(tokens[i + 1])) {
+                        entities.putIfAbsent("vehicle_model", tokens[i + 1]);
+                    }
+                }
+            }
+        }
+        return entities;
+    }
+
+    private static boolean isProperNoun(String token) {
+        return Character.isUpperCase(token.charAt(0));
+    }
+
+    @Benchmark
+    public Map<String, String> gazetteer() {
+        Map<String, String> entities = new HashMap<>();
+        vehicles.find(message()).addTo(entities);
+        return entities;
+    }
+
+    @Benchmark
+    public VehicleGazetteer.Vehicle gazetteerOnly() {
+        return vehicles.find(message());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(VehicleRecognitionBenchmark.class.getSimpleName())
+                .addProfiler("gc").build()).run();
+    }
+}
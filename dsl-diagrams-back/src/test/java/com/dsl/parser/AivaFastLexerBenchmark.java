@@ -0,0 +1,62 @@
+package com.dsl.parser;
+
+import com.dsl.grammar.AivaLexer;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lexer throughput, generated ANTLR lexer vs {@link AivaFastLexer}, over a synthetic script and the
+ * largest bundled one. Both variants start from the script text, so conversion costs are included.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.parser.AivaFastLexerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AivaFastLexerBenchmark {
+
+    @Param({"synthetic", "Autonation_common.aiva"})
+    public String script;
+
+    private String source;
+
+    @Setup
+    public void setUp() {
+        source = script.equals("synthetic") ? AivaScripts.synthetic(20000) : AivaScripts.bundled(script);
+    }
+
+    @Benchmark
+    public int antlr() {
+        AivaLexer lexer = new AivaLexer(CharStreams.fromString(source));
+        lexer.removeErrorListeners();
+        return drain(lexer);
+    }
+
+    @Benchmark
+    public int fast() {
+        AivaFastLexer lexer = new AivaFastLexer(source);
+        lexer.removeErrorListeners();
+        return drain(lexer);
+    }
+
+    private static int drain(TokenSource lexer) {
+        int count = 0;
+        while (lexer.nextToken().getType() != Token.EOF) count++;
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AivaFastLexerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
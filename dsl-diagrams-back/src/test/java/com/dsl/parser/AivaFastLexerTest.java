@@ -0,0 +1,120 @@
+package com.dsl.parser;
+
+import com.dsl.grammar.AivaLexer;
+
+import org.antlr.v4.runtime.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Differential test: {@link AivaFastLexer} must produce exactly the token stream and lexer errors of
+ * the generated {@link AivaLexer}.
+ */
+class AivaFastLexerTest {
+
+    private static final String[] FUZZ_FRAGMENTS = {
+            "START_TRACK", "END_TRACK", "END", "GOTO", "CALL_FUNCTION_SWITCH", "SENDMESSAGE", "MARK_LEAD_PHASE",
+            "UNSCHEDULE", "SWITCH_DIRECTION", "SEND_TEMPLATE", "INCLUDE", "START", "ENDX", "GOT", "S1", "R1", "S2-R",
+            "->", "-", ">", ":", ".", "-->", "->>", " ", "\t", "\n", "\r\n", "\\", "@", "$", "_", "0", "42",
+            "//", "/", "#", ";", "common/common.tpl", "é", "😀", "\"", "{", "}", "a", "Z",
+    };
+
+    static List<String> bundledScripts() {
+        return AivaScripts.BUNDLED;
+    }
+
+    @ParameterizedTest
+    @MethodSource("bundledScripts")
+    void matchesAntlrOnBundledScripts(String name) {
+        assertSameTokens(AivaScripts.bundled(name));
+    }
+
+    @Test
+    void matchesAntlrOnSyntheticScript() {
+        assertSameTokens(AivaScripts.synthetic(500));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", " ", "-", "- ", "-x", "-\n", "->", "a-b->c", "1START_TRACK", "a\\b", "END_TRACKS",
+            "ENDTRACK", "E", "GOTO:S1.", "😀x", "x😀-", "\t\r\n-", "INCLUDE", "INCLUDE ", "INCLUDE \n", "INCLUDEx a",
+            "INCLUDE common/common.tpl", "INCLUDE\t\t😀.x-y\nGOTO", "INCLUDE - x"})
+    void matchesAntlrOnEdgeCases(String input) {
+        assertSameTokens(input);
+    }
+
+    @Test
+    void matchesAntlrOnFuzzedInput() {
+        Random random = new Random(20240617);
+        for (int round = 0; round < 2000; round++) {
+            StringBuilder sb = new StringBuilder();
+            int pieces = random.nextInt(60);
+            for (int i = 0; i < pieces; i++) {
+                if (random.nextInt(8) == 0) {
+                    sb.append((char) (32 + random.nextInt(95)));
+                } else {
+                    sb.append(FUZZ_FRAGMENTS[random.nextInt(FUZZ_FRAGMENTS.length)]);
+                }
+            }
+            assertSameTokens(sb.toString());
+        }
+    }
+
+    @Test
+    void matchesAntlrInsideWindow() {
+        String script = AivaScripts.synthetic(50);
+        int[] data = AivaScriptParser.codePoints(script);
+        for (AivaScriptParser.Piece piece : AivaScriptParser.split(data, data.length / 4)) {
+            AivaLexer antlr = new AivaLexer(new CharStreamWindow(data, piece.start(), piece.end(), IntStream.UNKNOWN_SOURCE_NAME));
+            antlr.setLine(piece.line());
+            antlr.setCharPositionInLine(piece.column());
+            AivaFastLexer fast = new AivaFastLexer(data, piece.start(), piece.end(), IntStream.UNKNOWN_SOURCE_NAME);
+            fast.setLine(piece.line());
+            fast.setCharPositionInLine(piece.column());
+            assertEquals(tokens(antlr), tokens(fast));
+        }
+    }
+
+    private static void assertSameTokens(String input) {
+        List<String> antlrErrors = new ArrayList<>();
+        AivaLexer antlr = new AivaLexer(CharStreams.fromString(input));
+        antlr.removeErrorListeners();
+        antlr.addErrorListener(collect(antlrErrors));
+
+        List<String> fastErrors = new ArrayList<>();
+        AivaFastLexer fast = new AivaFastLexer(input);
+        fast.removeErrorListeners();
+        fast.addErrorListener(collect(fastErrors));
+
+        assertEquals(tokens(antlr), tokens(fast), () -> "token stream differs for: " + input);
+        assertEquals(antlrErrors, fastErrors, () -> "lexer errors differ for: " + input);
+    }
+
+    private static List<String> tokens(TokenSource source) {
+        List<String> tokens = new ArrayList<>();
+        Token token;
+        do {
+            token = source.nextToken();
+            tokens.add(token.getType() + "/" + token.getChannel() + " " + token.getStartIndex() + ".." + token.getStopIndex()
+                    + " " + token.getLine() + ":" + token.getCharPositionInLine() + " '" + token.getText() + "'");
+        } while (token.getType() != Token.EOF);
+        return tokens;
+    }
+
+    private static ANTLRErrorListener collect(List<String> errors) {
+        return new BaseErrorListener() {
+            @Override
+            public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+                                    int charPositionInLine, String msg, RecognitionException e) {
+                errors.add(line + ":" + charPositionInLine + " " + msg);
+            }
+        };
+    }
+}
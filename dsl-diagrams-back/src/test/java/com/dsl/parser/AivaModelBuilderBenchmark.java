@@ -0,0 +1,60 @@
+package com.dsl.parser;
+
+import com.dsl.grammar.AivaLexer;
+import com.dsl.grammar.AivaParser;
+import com.dsl.models.TrackNode;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Model building over a pre-parsed synthetic script, and the full lex/parse/build path for reference.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.parser.AivaModelBuilderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AivaModelBuilderBenchmark {
+
+    @Param({"50000"})
+    public int states;
+
+    private String script;
+    private AivaParser.ScriptContext tree;
+
+    @Setup
+    public void setUp() {
+        script = AivaScripts.synthetic(states);
+        tree = parse(script);
+    }
+
+    @Benchmark
+    public List<TrackNode> buildModel() {
+        return AivaModelBuilder.build(tree);
+    }
+
+    @Benchmark
+    public List<TrackNode> parseAndBuild() {
+        return AivaModelBuilder.build(parse(script));
+    }
+
+    private static AivaParser.ScriptContext parse(String script) {
+        AivaParser parser = new AivaParser(new CommonTokenStream(new AivaLexer(CharStreams.fromString(script))));
+        return parser.script();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AivaModelBuilderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,177 @@
+package com.dsl.parser;
+
+import com.dsl.grammar.AivaLexer;
+import com.dsl.grammar.AivaParser;
+import com.dsl.models.*;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.tree.TerminalNodeImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression test for the track model: the {@link TrackNode}/{@link StateNode}/{@link Action} trees
+ * {@link AivaModelBuilder} builds for every action keyword, the legacy statements and the reactive
+ * branches of switches.
+ */
+class AivaModelBuilderTest {
+
+    private final AivaScriptParser parser = new AivaScriptParser(Integer.MAX_VALUE, ForkJoinPool.commonPool());
+
+    @Test
+    void mapsEveryActionKeyword() {
+        String script = """
+                INCLUDE common/common.tpl
+                START_TRACK MAIN
+                \tS1. START
+                \t\tCALL_FUNCTION_SWITCH customerUtils findCustomerType -> @customerType
+                \t\tSENDMESSAGE SMS AGENT CUST $WELCOME
+                \tEND
+                \tR1. VIP > GOTO VIP_TRACK:S1
+                \tS2. START
+                \t\tCALL_FUNCTION_SWITCH leadUtils findLeadType -> @leadType NEW : R3 USED : R4
+                \t\tSEND_TEMPLATE $FOLLOWUP
+                \t\tMARK_LEAD_PHASE CONTACTED
+                \t\tCALL_FUNCTION_SWITCH dayUtils isSunday -> @isSunday
+                \tEND
+                \tS2-R. START
+                \t\tUNSCHEDULE CUST
+                \t\tSWITCH_DIRECTION OUTBOUND
+                \t\tGOTO MAIN:S1
+                \tEND
+                \tS3. DONE > GOTO MAIN:S1
+                \tR2. REGULAR > GOTO MAIN:S2
+                END_TRACK
+
+                START_TRACK VIP_TRACK
+                \tS1. START
+                \t\tCALL_FUNCTION_SWITCH vipUtils findOffer -> @offer
+                \tEND
+                END_TRACK
+                """;
+        AivaScript parsed = parser.parseSequentialScript(script);
+
+        Map<String, String> mainBranches = Map.of("R1", "VIP_TRACK:S1", "R2", "MAIN:S2");
+        List<TrackNode> expected = List.of(
+                new TrackNode("MAIN", List.of(
+                        new StateNode("S1", "START", List.of(
+                                new SwitchAction("customerUtils findCustomerType -> @customerType", mainBranches),
+                                new SendMessageAction("SMS", "AGENT", "CUST", "$WELCOME"))),
+                        new StateNode("S2", "START", List.of(
+                                new SwitchAction("leadUtils findLeadType -> @leadType", Map.of("NEW", "R3", "USED", "R4")),
+                                new SendTemplateAction("$FOLLOWUP"),
+                                new MarkLeadPhaseAction("CONTACTED"),
+                                new SwitchAction("dayUtils isSunday -> @isSunday", mainBranches))),
+                        new StateNode("S2-R", "START", List.of(
+                                new UnscheduleAction("CUST"),
+                                new SwitchDirectionAction("OUTBOUND"),
+                                new GotoAction("MAIN:S1"))),
+                        new StateNode("S3", "REACTIVE", List.of()))),
+                new TrackNode("VIP_TRACK", List.of(
+                        new StateNode("S1", "START", List.of(
+                                new SwitchAction("vipUtils findOffer -> @offer", Map.of()))))));
+
+        assertEquals(List.of(), parsed.errors());
+        assertEquals(List.of("common/common.tpl"), parsed.includes());
+        assertEquals(expected, parsed.tracks());
+        // branches keep the order they are declared in
+        SwitchAction customerType = (SwitchAction) parsed.tracks().get(0).states().get(0).actions().get(0);
+        assertEquals(List.of("R1", "R2"), List.copyOf(customerType.branches().keySet()));
+        SwitchAction leadType = (SwitchAction) parsed.tracks().get(0).states().get(1).actions().get(0);
+        assertEquals(List.of("NEW", "USED"), List.copyOf(leadType.branches().keySet()));
+    }
+
+    @Test
+    void mapsLegacyStatements() {
+        // The grammar only starts an action at a keyword, so these trees are built by hand: actions that
+        // start with an IDENTIFIER, and branch lines inside a state.
+        AivaParser.TrackContext tree = track("MAIN",
+                state("S1. START",
+                        action("DELETE_INSIGHT CL"),
+                        action("SETMARK FOLLOW_UP FALSE"),
+                        action("CALL_FUNCTION_SWITCH customerUtils findCustomerType -> @customerType"),
+                        action("R1. VIP > GOTO VIP_TRACK:S1"),
+                        action("R_default. GOTO MAIN:S2"),
+                        action("CALL_FUNCTION_SWITCH dayUtils isSunday -> @isSunday"),
+                        action("SCHEDULE_FOLLOWUP RELDAY"),
+                        action("IS_SUNDAY -> @isSunday"),
+                        action("SENDMESSAGE_INTERNAL SMS AGENT CUST $NOTE"),
+                        action("SET_REMINDER TOMORROW")),
+                reactive("R2. REGULAR > GOTO MAIN:S2"),
+                new AivaParser.StateContext(null, -1));
+
+        List<TrackNode> expected = List.of(new TrackNode("MAIN", List.of(
+                new StateNode("S1", "START", List.of(
+                        new DeleteInsightAction("CL"),
+                        new SetMarkAction("FOLLOW_UP", "FALSE"),
+                        // branch lines in the state come first, then the track's branches known so far
+                        new SwitchAction("customerUtils findCustomerType -> @customerType",
+                                Map.of("VIP", "VIP_TRACK:S1", "R_default", "MAIN:S2")),
+                        // the next empty switch sees every branch of the track
+                        new SwitchAction("dayUtils isSunday -> @isSunday", Map.of("R2", "MAIN:S2")),
+                        new ScheduleFollowupAction("SCHEDULE_FOLLOWUPRELDAY"),
+                        new IsSundayAction("IS_SUNDAY->@isSunday"),
+                        new SendMessageAction("SMS", "AGENT_INTERNAL", "CUST", "$NOTE"),
+                        new UnknownAction("SET_REMINDERTOMORROW"))),
+                new StateNode("UNKNOWN", "UNKNOWN", List.of()))));
+
+        assertEquals(expected, AivaModelBuilder.build(tree));
+    }
+
+    // A track of the given states, as the parser would build it.
+    private static AivaParser.TrackContext track(String name, ParserRuleContext... states) {
+        AivaParser.TrackContext track = new AivaParser.TrackContext(null, -1);
+        words(track, "START_TRACK " + name);
+        for (ParserRuleContext state : states) child(track, state);
+        words(track, "END_TRACK");
+        return track;
+    }
+
+    // S1. START <actions> END
+    private static AivaParser.StateContext state(String header, AivaParser.ActionContext... actions) {
+        AivaParser.Action_block_stateContext block = new AivaParser.Action_block_stateContext(null, -1);
+        words(block, header);
+        for (AivaParser.ActionContext action : actions) child(block, action);
+        words(block, "END");
+        AivaParser.StateContext state = new AivaParser.StateContext(null, -1);
+        child(state, block);
+        return state;
+    }
+
+    // R1. LABEL > GOTO TRACK:STATE
+    private static AivaParser.StateContext reactive(String line) {
+        AivaParser.Reactive_goto_stateContext reactive = new AivaParser.Reactive_goto_stateContext(null, -1);
+        words(reactive, line);
+        AivaParser.StateContext state = new AivaParser.StateContext(null, -1);
+        child(state, reactive);
+        return state;
+    }
+
+    private static AivaParser.ActionContext action(String line) {
+        AivaParser.ActionContext action = new AivaParser.ActionContext(null, -1);
+        words(action, line);
+        return action;
+    }
+
+    private static void child(ParserRuleContext parent, ParserRuleContext child) {
+        child.setParent(parent);
+        parent.addChild(child);
+    }
+
+    // Appends the tokens of text as terminal children of node.
+    private static void words(ParserRuleContext node, String text) {
+        AivaLexer lexer = new AivaLexer(CharStreams.fromString(text));
+        for (Token token = lexer.nextToken(); token.getType() != Token.EOF; token = lexer.nextToken()) {
+            TerminalNodeImpl terminal = new TerminalNodeImpl(token);
+            terminal.setParent(node);
+            node.addChild(terminal);
+            if (node.start == null) node.start = token;
+            node.stop = token;
+        }
+    }
+}
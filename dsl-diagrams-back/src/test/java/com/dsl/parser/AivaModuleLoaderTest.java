@@ -0,0 +1,126 @@
+package com.dsl.parser;
+
+import com.dsl.models.TrackNode;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AivaModuleLoaderTest {
+
+    private AivaModuleLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        loader = new AivaModuleLoader(new AivaScriptParser(Integer.MAX_VALUE, ForkJoinPool.commonPool()),
+                new DefaultResourceLoader(), "classpath:");
+    }
+
+    @Test
+    void linksIncludesBeforeOwnTracks() {
+        loader.update("common/common.tpl", track("COMMON"));
+        loader.update("brand.aiva", "INCLUDE common/common.tpl\n" + track("BRAND"));
+
+        assertEquals(List.of("COMMON", "BRAND"), names(loader.link("brand.aiva")));
+    }
+
+    @Test
+    void sharesCompiledModuleAcrossBrands() {
+        loader.update("common/common.tpl", track("COMMON"));
+        loader.update("ford.aiva", "INCLUDE common/common.tpl\n" + track("FORD"));
+        loader.update("honda.aiva", "INCLUDE common/common.tpl\n" + track("HONDA"));
+        List<TrackNode> ford = loader.link("ford.aiva");
+        List<TrackNode> honda = loader.link("honda.aiva");
+
+        assertSame(ford.get(0), honda.get(0));
+        assertEquals(3, loader.compiledCount());
+    }
+
+    @Test
+    void diamondIncludesLinkEachModuleOnce() {
+        loader.update("base", track("BASE"));
+        loader.update("a", "INCLUDE base\n" + track("A"));
+        loader.update("b", "INCLUDE base\n" + track("B"));
+        loader.update("brand", "INCLUDE a\nINCLUDE b\n" + track("BRAND"));
+
+        assertEquals(List.of("BASE", "A", "B", "BRAND"), names(loader.link("brand")));
+    }
+
+    @Test
+    void relinksOnlyDependentsOfChangedModule() {
+        loader.update("common", track("COMMON"));
+        loader.update("other", track("OTHER"));
+        loader.update("brand", "INCLUDE common\n" + track("BRAND"));
+        List<TrackNode> brand = loader.link("brand");
+        List<TrackNode> other = loader.link("other");
+
+        assertFalse(loader.update("common", track("COMMON")));
+        assertSame(brand, loader.link("brand"));
+
+        assertTrue(loader.update("common", track("COMMON_V2")));
+        assertEquals(List.of("COMMON_V2", "BRAND"), names(loader.link("brand")));
+        assertSame(other, loader.link("other"));
+    }
+
+    @Test
+    void rejectsIncludeCycles() {
+        loader.update("a", "INCLUDE b\n" + track("A"));
+        loader.update("b", "INCLUDE a\n" + track("B"));
+
+        assertThrows(IllegalStateException.class, () -> loader.link("a"));
+    }
+
+    @Test
+    void editorScriptsSkipUnknownModules() {
+        loader.update("common", track("COMMON"));
+
+        assertEquals(List.of("COMMON", "BRAND"),
+                names(loader.linkScript("INCLUDE common\nINCLUDE missing/module.tpl\n" + track("BRAND"))));
+        assertThrows(IllegalArgumentException.class, () -> loader.link("missing/module.tpl"));
+    }
+
+    @Test
+    void skipsUnknownModulesAtAnyDepth() {
+        loader.update("a", "INCLUDE missing/module.tpl\n" + track("A"));
+        loader.update("brand", "INCLUDE a\n" + track("BRAND"));
+
+        assertEquals(List.of("A", "BRAND"), names(loader.link("brand")));
+        assertEquals(List.of("A", "EDITOR"), names(loader.linkScript("INCLUDE a\n" + track("EDITOR"))));
+
+        loader.update("missing/module.tpl", track("FOUND"));
+        assertEquals(List.of("FOUND", "A", "BRAND"), names(loader.link("brand")));
+    }
+
+    @Test
+    void linksBundledBrandScripts() {
+        String common = AivaScripts.MODULE_DIRECTORY + "Autonation_common.aiva";
+        List<TrackNode> commonTracks = loader.link(common);
+        List<TrackNode> toyota = loader.link(AivaScripts.MODULE_DIRECTORY + "Autonation_Toyota.aiva");
+        List<TrackNode> honda = loader.link(AivaScripts.MODULE_DIRECTORY + "Autonation_Honda.aiva");
+
+        assertFalse(commonTracks.isEmpty());
+        // the shared AutoNation modules resolve; the others are not shipped and are skipped
+        assertTrue(loader.moduleNames().contains(AivaScripts.MODULE_DIRECTORY + "Generic_Autonation.tpl"));
+        assertFalse(loader.moduleNames().contains("common/common.tpl"));
+        List<TrackNode> toyotaOwn = loader.compile(AivaScripts.MODULE_DIRECTORY + "Autonation_Toyota.aiva").tracks();
+        assertEquals(toyotaOwn, toyota.subList(toyota.size() - toyotaOwn.size(), toyota.size()));
+        for (TrackNode track : commonTracks) {
+            assertTrue(toyota.stream().anyMatch(t -> t == track), track.name());
+            assertTrue(honda.stream().anyMatch(t -> t == track), track.name());
+        }
+        assertEquals(loader.linkScript(AivaScripts.bundled("Autonation_Toyota.aiva")), toyota);
+    }
+
+    private static String track(String name) {
+        return "START_TRACK " + name + "\n\tS1. START\n\t\tMARK_LEAD_PHASE CONTACTED\n\tEND\nEND_TRACK\n";
+    }
+
+    private static List<String> names(List<TrackNode> tracks) {
+        return tracks.stream().map(TrackNode::name).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.dsl.parser;
+
+import com.dsl.parser.AivaScriptIndex.Field;
+import com.dsl.parser.AivaScriptIndex.StateRef;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AivaScriptIndexTest {
+
+    private static final String COMMON = """
+            START_TRACK COMMON
+            \tS1. START
+            \t\tCALL_FUNCTION_SWITCH customerUtils findCustomerType -> @customerType
+            \tEND
+            \tR1. VIP > GOTO BRAND:S1
+            \tS2. START
+            \t\tSENDMESSAGE SMS AGENT CUST $WELCOME
+            \t\tMARK_LEAD_PHASE CONTACTED
+            \tEND
+            END_TRACK
+            """;
+
+    private static final String BRAND = """
+            START_TRACK BRAND
+            \tS1. START
+            \t\tSENDMESSAGE SMS AGENT CUST $WELCOME
+            \tEND
+            \tS1-R. START
+            \t\tUNSCHEDULE CUST
+            \t\tMARK_LEAD_PHASE RESPONDED
+            \t\tGOTO COMMON:S2
+            \tEND
+            END_TRACK
+            """;
+
+    private AivaModuleLoader loader;
+    private AivaScriptIndex index;
+
+    @BeforeEach
+    void setUp() {
+        loader = new AivaModuleLoader(new AivaScriptParser(Integer.MAX_VALUE, ForkJoinPool.commonPool()),
+                new DefaultResourceLoader(), "classpath:");
+        index = new AivaScriptIndex(loader);
+        loader.update("common", COMMON);
+        loader.update("brand", BRAND);
+    }
+
+    @Test
+    void findsStatesByTemplate() {
+        assertEquals(List.of(new StateRef("brand", "BRAND", "S1"), new StateRef("common", "COMMON", "S2")),
+                index.query(Map.of(Field.TEMPLATE, "$WELCOME")));
+    }
+
+    @Test
+    void groupsResultsByModuleName() {
+        for (String module : List.of("zeta", "alpha", "middle/module.aiva", "beta")) {
+            loader.update(module, BRAND.replace("BRAND", module.toUpperCase().replaceAll("\\W", "_")));
+        }
+
+        assertEquals(List.of("alpha", "beta", "brand", "common", "middle/module.aiva", "zeta"),
+                index.query(Map.of(Field.TEMPLATE, "$WELCOME")).stream().map(StateRef::module).toList());
+    }
+
+    @Test
+    void findsSourcesOfGotoAndBranchTargets() {
+        assertEquals(List.of(new StateRef("common", "COMMON", "S1")), index.query(Map.of(Field.TARGET, "BRAND:S1")));
+        assertEquals(List.of(new StateRef("common", "COMMON", "S1")), index.query(Map.of(Field.TARGET, "BRAND")));
+        assertEquals(List.of(new StateRef("brand", "BRAND", "S1-R")), index.query(Map.of(Field.TARGET, "COMMON")));
+    }
+
+    @Test
+    void intersectsCriteria() {
+        assertEquals(List.of(new StateRef("brand", "BRAND", "S1-R")),
+                index.query(Map.of(Field.ACTION, "UNSCHEDULE", Field.MARK, "RESPONDED")));
+        assertEquals(List.of(), index.query(Map.of(Field.ACTION, "UNSCHEDULE", Field.MARK, "CONTACTED")));
+    }
+
+    @Test
+    void followsRecompiledModules() {
+        loader.update("brand", BRAND.replace("$WELCOME", "$WELCOME_BACK"));
+
+        assertEquals(List.of(new StateRef("common", "COMMON", "S2")), index.query(Map.of(Field.TEMPLATE, "$WELCOME")));
+        assertEquals(List.of(new StateRef("brand", "BRAND", "S1")), index.query(Map.of(Field.TEMPLATE, "$WELCOME_BACK")));
+    }
+}
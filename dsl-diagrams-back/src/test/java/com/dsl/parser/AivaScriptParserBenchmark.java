@@ -0,0 +1,66 @@
+package com.dsl.parser;
+
+import com.dsl.models.TrackNode;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Track-parallel parsing of a synthetic script as the pool grows from 1 worker to the core count,
+ * against parsing the tracks one after another on the calling thread.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.parser.AivaScriptParserBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AivaScriptParserBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"20000"})
+    public int states;
+
+    private String script;
+    private AivaScriptParser parser;
+
+    @Setup
+    public void setUp() {
+        script = AivaScripts.synthetic(states);
+        parser = new AivaScriptParser(0, new ForkJoinPool(parallelism));
+    }
+
+    @TearDown
+    public void tearDown() {
+        parser.shutdown();
+    }
+
+    @Benchmark
+    public List<TrackNode> parallel() {
+        return parser.parseParallel(script);
+    }
+
+    @Benchmark
+    public List<TrackNode> sequential() {
+        return parser.parseSequential(script);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        new Runner(new OptionsBuilder()
+                .include(AivaScriptParserBenchmark.class.getSimpleName())
+                .param("parallelism", IntStream.rangeClosed(1, cores).mapToObj(String::valueOf).toArray(String[]::new))
+                .build()).run();
+    }
+}
@@ -0,0 +1,120 @@
+package com.dsl.parser;
+
+import com.dsl.grammar.AivaLexer;
+
+import org.antlr.v4.runtime.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Differential test: the track-parallel parse must give the tracks, includes and syntax errors of
+ * the sequential one, with positions that refer to the original file.
+ */
+class AivaScriptParserTest {
+
+    // threshold 0: parseScript always takes the parallel path
+    private final AivaScriptParser parser = new AivaScriptParser(0, new ForkJoinPool(4));
+
+    @AfterEach
+    void tearDown() {
+        parser.shutdown();
+    }
+
+    static List<String> bundledScripts() {
+        return AivaScripts.BUNDLED;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50, 2000})
+    void parallelMatchesSequentialOnSyntheticScripts(int states) {
+        String script = AivaScripts.synthetic(states);
+        AivaScript sequential = parser.parseSequentialScript(script);
+
+        assertEquals(sequential, parser.parseScript(script));
+        assertEquals(states / 5, sequential.tracks().size());
+        assertEquals(List.of(), sequential.errors());
+    }
+
+    @ParameterizedTest
+    @MethodSource("bundledScripts")
+    void parallelMatchesSequentialOnBundledScripts(String name) {
+        String script = AivaScripts.bundled(name);
+        AivaScript sequential = parser.parseSequentialScript(script);
+
+        assertEquals(sequential, parser.parseParallelScript(script));
+        // the scripts use statements the grammar does not accept yet
+        assertFalse(sequential.errors().isEmpty());
+    }
+
+    @Test
+    void recoversWithinEachTrack() {
+        List<UnaryOperator<String>> mutations = List.of(
+                script -> script.replaceFirst("\tEND\n", "\n"),                       // missing END
+                script -> script.replaceFirst("END_TRACK\n", ""),                     // missing END_TRACK
+                script -> script.replace("MARK_LEAD_PHASE CONTACTED", "SETMARK FOLLOW_UP FALSE"),
+                script -> script.replace("END_TRACK\n\nSTART_TRACK TRACK_7", "END_TRACK\nstray words\nSTART_TRACK TRACK_7"),
+                script -> script.replace("> GOTO TRACK_3:S2", "> GOTO TRACK_3 S2"),  // missing ':'
+                script -> script.substring(0, script.length() - 40));                 // cut mid-track
+        String script = AivaScripts.synthetic(50);
+        for (UnaryOperator<String> mutation : mutations) {
+            String broken = mutation.apply(script);
+            AivaScript sequential = parser.parseSequentialScript(broken);
+
+            assertEquals(sequential, parser.parseParallelScript(broken));
+            assertFalse(sequential.errors().isEmpty(), broken);
+            // an error costs at most its own track
+            assertTrue(sequential.tracks().size() >= 9, broken);
+        }
+    }
+
+    @Test
+    void reportsErrorsAtTheirPositionInTheFile() {
+        String[] lines = AivaScripts.synthetic(50).split("\n", -1);
+        int line = 120;
+        assertTrue(lines[line - 1].startsWith("\t"));
+        lines[line - 1] = "\t#" + lines[line - 1].substring(1);
+        String broken = String.join("\n", lines);
+
+        List<AivaScript.SyntaxError> expected = List.of(
+                new AivaScript.SyntaxError(line, 1, "token recognition error at: '#'"));
+        assertEquals(expected, parser.parseSequentialScript(broken).errors());
+        assertEquals(expected, parser.parseParallelScript(broken).errors());
+    }
+
+    @Test
+    void tracksKeepTheirTokenPositions() {
+        String script = AivaScripts.synthetic(50) + AivaScripts.bundled("Autonation_Ford.aiva");
+        int[] data = AivaScriptParser.codePoints(script);
+        List<String> whole = tokens(new AivaLexer(CharStreams.fromString(script)));
+
+        for (boolean fast : new boolean[]{false, true}) {
+            AivaScriptParser pieces = new AivaScriptParser(0, ForkJoinPool.commonPool(), fast);
+            List<String> joined = new ArrayList<>();
+            for (AivaScriptParser.Piece piece : AivaScriptParser.split(data, 0)) {
+                joined.addAll(tokens(pieces.lexer(data, piece, new BaseErrorListener())));
+            }
+            assertEquals(whole, joined, fast ? "fast lexer" : "antlr lexer");
+        }
+    }
+
+    // type, offsets, line:column and text of every token but EOF
+    private static List<String> tokens(TokenSource source) {
+        if (source instanceof Lexer lexer) lexer.removeErrorListener(ConsoleErrorListener.INSTANCE);
+        List<String> tokens = new ArrayList<>();
+        for (Token token = source.nextToken(); token.getType() != Token.EOF; token = source.nextToken()) {
+            tokens.add(token.getType() + " " + token.getStartIndex() + ".." + token.getStopIndex() + " "
+                    + token.getLine() + ":" + token.getCharPositionInLine() + " '" + token.getText() + "'");
+        }
+        return tokens;
+    }
+}
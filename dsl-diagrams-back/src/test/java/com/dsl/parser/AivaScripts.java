@@ -0,0 +1,129 @@
+package com.dsl.parser;
+
+import com.dsl.models.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Script fixtures shared by the parser benchmarks.
+ */
+public final class AivaScripts {
+
+    private static final int STATES_PER_TRACK = 5;
+
+    public static final String MODULE_DIRECTORY = "AutoNation/";
+
+    private static final Pattern STATE_LINE = Pattern.compile("^([SR][\\w-]*)\\.\\s*(.*)$");
+    private static final Pattern BRANCH_GOTO = Pattern.compile("^(.*?)\\s*>\\s*GOTO\\s+(\\S+)");
+
+    public static final List<String> BUNDLED = List.of(
+            "Autonation_common.aiva", "Autonation_Chevrolet.aiva", "Autonation_Ford.aiva",
+            "Autonation_Honda.aiva", "Autonation_Lexus.aiva", "Autonation_Toyota.aiva",
+            "Generic_Autonation.tpl");
+
+    private AivaScripts() {
+    }
+
+    /**
+     * Generates a script that the grammar accepts without recovery, with roughly {@code states} states
+     * spread over tracks of five: a switch, two reactive branches, a send state and its response state.
+     */
+    public static String synthetic(int states) {
+        int trackCount = Math.max(1, states / STATES_PER_TRACK);
+        StringBuilder sb = new StringBuilder(trackCount * 420);
+        for (int t = 0; t < trackCount; t++) {
+            String next = "TRACK_" + ((t + 1) % trackCount);
+            sb.append("START_TRACK TRACK_").append(t).append('\n')
+              .append("\tS1. START\n")
+              .append("\t\tCALL_FUNCTION_SWITCH customerUtils findCustomerType -> @customerType\n")
+              .append("\tEND\n")
+              .append("\tR1. CUSTOMER_A_").append(t).append(" > GOTO ").append(next).append(":S1\n")
+              .append("\tR2. CUSTOMER_B_").append(t).append(" > GOTO ").append(next).append(":S2\n")
+              .append("\tS2. START\n")
+              .append("\t\tSENDMESSAGE SMS AGENT CUST $TEMPLATE_").append(t).append('\n')
+              .append("\t\tMARK_LEAD_PHASE CONTACTED\n")
+              .append("\tEND\n")
+              .append("\tS2-R. START\n")
+              .append("\t\tUNSCHEDULE CUST\n")
+              .append("\t\tSWITCH_DIRECTION OUTBOUND\n")
+              .append("\t\tMARK_LEAD_PHASE RESPONDED\n")
+              .append("\t\tGOTO ").append(next).append(":S1\n")
+              .append("\tEND\n")
+              .append("END_TRACK\n\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reads one of the scripts shipped in src/main/resources/AutoNation, where their includes expect them.
+     */
+    public static String bundled(String name) {
+        try (InputStream in = AivaScripts.class.getClassLoader().getResourceAsStream(MODULE_DIRECTORY + name)) {
+            if (in == null) throw new IllegalArgumentException("no such script: " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Track/state/jump skeleton of a real script, read line by line. The bundled scripts use statements
+     * the grammar does not accept yet, so this is how benchmarks get their actual graph shape: states,
+     * GOTOs, switches with their R-line branches; every other statement becomes an {@link UnknownAction}.
+     */
+    public static List<TrackNode> skeleton(String source) {
+        List<TrackNode> tracks = new ArrayList<>();
+        String track = null;
+        List<StateNode> states = new ArrayList<>();
+        String stateId = null;
+        List<Action> actions = new ArrayList<>();
+        Map<String, String> branches = null;
+
+        for (String raw : source.split("\\R")) {
+            int comment = raw.indexOf("//");
+            String line = (comment >= 0 ? raw.substring(0, comment) : raw).strip();
+            if (line.isEmpty()) continue;
+
+            if (line.startsWith("START_TRACK ")) {
+                track = line.substring("START_TRACK ".length()).strip();
+                states = new ArrayList<>();
+                branches = null;
+            } else if (line.equals("END_TRACK")) {
+                if (stateId != null) states.add(new StateNode(stateId, "START", List.copyOf(actions)));
+                if (track != null) tracks.add(new TrackNode(track, List.copyOf(states)));
+                track = null;
+                stateId = null;
+            } else if (line.equals("END")) {
+                if (stateId != null) states.add(new StateNode(stateId, "START", List.copyOf(actions)));
+                stateId = null;
+            } else if (track != null) {
+                Matcher state = STATE_LINE.matcher(line);
+                if (state.matches() && state.group(1).startsWith("R") && !state.group(1).contains("-R")) {
+                    Matcher branch = BRANCH_GOTO.matcher(state.group(2));
+                    if (branches != null && branch.find()) branches.put(branch.group(1).strip(), branch.group(2));
+                } else if (state.matches()) {
+                    if (stateId != null) states.add(new StateNode(stateId, "START", List.copyOf(actions)));
+                    stateId = state.group(1);
+                    actions = new ArrayList<>();
+                } else if (stateId != null && line.startsWith("GOTO ")) {
+                    actions.add(new GotoAction(line.substring("GOTO ".length()).strip()));
+                } else if (stateId != null && line.startsWith("CALL_FUNCTION_SWITCH ")) {
+                    branches = new LinkedHashMap<>();
+                    actions.add(new SwitchAction(line.substring("CALL_FUNCTION_SWITCH ".length()), branches));
+                } else if (stateId != null) {
+                    actions.add(new UnknownAction(line));
+                }
+            }
+        }
+        return tracks;
+    }
+}
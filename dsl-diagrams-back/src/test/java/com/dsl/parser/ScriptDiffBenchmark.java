@@ -0,0 +1,56 @@
+package com.dsl.parser;
+
+import com.dsl.models.TrackNode;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashing a compiled script, and diffing two versions that differ in one action.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.parser.ScriptDiffBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScriptDiffBenchmark {
+
+    @Param({"1000", "10000"})
+    public int states;
+
+    private List<TrackNode> after;
+    private MerkleScript beforeHashes;
+    private MerkleScript afterHashes;
+
+    @Setup
+    public void setUp() {
+        AivaScriptParser parser = new AivaScriptParser(Integer.MAX_VALUE, ForkJoinPool.commonPool());
+        String source = AivaScripts.synthetic(states);
+        beforeHashes = MerkleScript.of(parser.parse(source));
+        after = parser.parse(source.replaceFirst("SWITCH_DIRECTION OUTBOUND", "SWITCH_DIRECTION INBOUND"));
+        afterHashes = MerkleScript.of(after);
+    }
+
+    @Benchmark
+    public MerkleScript hash() {
+        return MerkleScript.of(after);
+    }
+
+    @Benchmark
+    public ScriptDiff diff() {
+        return ScriptDiff.between(beforeHashes, afterHashes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ScriptDiffBenchmark.class.getSimpleName()).build()).run();
+    }
+}
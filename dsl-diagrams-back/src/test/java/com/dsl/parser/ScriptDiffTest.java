@@ -0,0 +1,100 @@
+package com.dsl.parser;
+
+import com.dsl.models.GotoAction;
+import com.dsl.models.MarkLeadPhaseAction;
+import com.dsl.parser.ScriptDiff.ActionChange;
+import com.dsl.parser.ScriptDiff.Edge;
+import com.dsl.parser.ScriptDiff.StateDiff;
+import com.dsl.parser.ScriptDiff.TrackDiff;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptDiffTest {
+
+    private static final String SCRIPT = """
+            START_TRACK WELCOME
+            \tS1. START
+            \t\tCALL_FUNCTION_SWITCH customerUtils findCustomerType -> @customerType
+            \tEND
+            \tR1. VIP > GOTO FOLLOW_UP:S1
+            \tS2. START
+            \t\tMARK_LEAD_PHASE CONTACTED
+            \t\tGOTO WELCOME:S1
+            \tEND
+            END_TRACK
+            START_TRACK FOLLOW_UP
+            \tS1. START
+            \t\tMARK_LEAD_PHASE CONTACTED
+            \tEND
+            END_TRACK
+            """;
+
+    private final AivaScriptParser parser = new AivaScriptParser(Integer.MAX_VALUE, ForkJoinPool.commonPool());
+
+    private ScriptDiff diff(String before, String after) {
+        return ScriptDiff.between(MerkleScript.of(parser.parse(before)), MerkleScript.of(parser.parse(after)));
+    }
+
+    @Test
+    void equalScriptsHaveEqualHashesAndNoDiff() {
+        assertEquals(MerkleScript.of(parser.parse(SCRIPT)).hash(), MerkleScript.of(parser.parse(SCRIPT)).hash());
+        assertTrue(diff(SCRIPT, SCRIPT).isEmpty());
+    }
+
+    @Test
+    void movingTrackBlocksIsNotAChange() {
+        int split = SCRIPT.indexOf("START_TRACK FOLLOW_UP");
+        String reordered = SCRIPT.substring(split) + SCRIPT.substring(0, split);
+
+        assertTrue(diff(SCRIPT, reordered).isEmpty());
+    }
+
+    @Test
+    void reportsChangedActionsAndEdges() {
+        ScriptDiff diff = diff(SCRIPT, SCRIPT.replace("\t\tGOTO WELCOME:S1", "\t\tGOTO FOLLOW_UP:S1"));
+
+        assertEquals(List.of(), diff.addedTracks());
+        assertEquals(List.of(), diff.removedTracks());
+        TrackDiff welcome = diff.changedTracks().get(0);
+        assertEquals(1, diff.changedTracks().size());
+        assertEquals("WELCOME", welcome.name());
+        assertEquals(List.of(new StateDiff("S2", List.of(), List.of(),
+                List.of(new ActionChange(1, new GotoAction("WELCOME:S1"), new GotoAction("FOLLOW_UP:S1"))))),
+                welcome.changedStates());
+        assertEquals(List.of(new Edge("WELCOME:S2", "FOLLOW_UP:S1")), diff.addedEdges());
+        assertEquals(List.of(new Edge("WELCOME:S2", "WELCOME:S1")), diff.removedEdges());
+    }
+
+    @Test
+    void reportsAddedAndRemovedActions() {
+        String after = SCRIPT.replace("\t\tMARK_LEAD_PHASE CONTACTED\n\t\tGOTO", "\t\tGOTO");
+        StateDiff removed = diff(SCRIPT, after).changedTracks().get(0).changedStates().get(0);
+        assertEquals(List.of(new ActionChange(0, new MarkLeadPhaseAction("CONTACTED"), null)), removed.removedActions());
+        assertEquals(List.of(), removed.changedActions());
+
+        StateDiff added = diff(after, SCRIPT).changedTracks().get(0).changedStates().get(0);
+        assertEquals(List.of(new ActionChange(0, null, new MarkLeadPhaseAction("CONTACTED"))), added.addedActions());
+        assertTrue(diff(after, SCRIPT).addedEdges().isEmpty());
+    }
+
+    @Test
+    void reportsAddedAndRemovedTracksAndStatesWithTheirEdges() {
+        String after = SCRIPT.replace("""
+                START_TRACK FOLLOW_UP
+                \tS1. START
+                \t\tMARK_LEAD_PHASE CONTACTED
+                \tEND
+                END_TRACK
+                """, "").replace("\tS2. START", "\tS3. START\n\t\tGOTO WELCOME:S2\n\tEND\n\tS2. START");
+        ScriptDiff diff = diff(SCRIPT, after);
+
+        assertEquals(List.of("FOLLOW_UP"), diff.removedTracks());
+        assertEquals(List.of(new TrackDiff("WELCOME", List.of("S3"), List.of(), List.of())), diff.changedTracks());
+        assertEquals(List.of(new Edge("WELCOME:S3", "WELCOME:S2")), diff.addedEdges());
+    }
+}
@@ -0,0 +1,63 @@
+package com.dsl.runtime;
+
+import com.dsl.parser.AivaModuleLoader;
+import com.dsl.parser.AivaScriptParser;
+import com.dsl.parser.AivaScripts;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording one state entry plus one jump, from 4 threads hitting the same state; run with -prof gc
+ * to see that recording does not allocate.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.runtime.TransitionCountersBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TransitionCountersBenchmark {
+
+    private TransitionCounters counters;
+    private ModuleCounters module;
+    private int state;
+    private int edge;
+
+    @Setup
+    public void setUp() {
+        AivaModuleLoader loader = new AivaModuleLoader(
+                new AivaScriptParser(Integer.MAX_VALUE, ForkJoinPool.commonPool()), new DefaultResourceLoader(), "classpath:");
+        counters = new TransitionCounters(loader, Duration.ofMinutes(5), 12);
+        loader.update("synthetic", AivaScripts.synthetic(1000));
+        module = counters.module("synthetic");
+        state = module.state("TRACK_7", "S1");
+        edge = module.edge(state, "TRACK_8:S1");
+    }
+
+    @TearDown
+    public void tearDown() {
+        counters.shutdown();
+    }
+
+    @Benchmark
+    public void enterAndTransition() {
+        module.enter(state);
+        module.transition(edge);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TransitionCountersBenchmark.class.getSimpleName())
+                .addProfiler("gc").build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.dsl.runtime;
+
+import com.dsl.parser.AivaModuleLoader;
+import com.dsl.parser.AivaScriptParser;
+import com.dsl.runtime.HeatMap.EdgeHeat;
+import com.dsl.runtime.HeatMap.StateHeat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransitionCountersTest {
+
+    private static final String SCRIPT = """
+            START_TRACK WELCOME
+            \tS1. START
+            \t\tCALL_FUNCTION_SWITCH customerUtils findCustomerType -> @customerType
+            \tEND
+            \tR1. VIP > GOTO FOLLOW_UP:S1
+            \tR2. NEW > GOTO FOLLOW_UP:S2
+            END_TRACK
+            START_TRACK FOLLOW_UP
+            \tS1. START
+            \t\tMARK_LEAD_PHASE CONTACTED
+            \tEND
+            \tS2. START
+            \t\tGOTO WELCOME:S1
+            \tEND
+            END_TRACK
+            """;
+
+    private AivaModuleLoader loader;
+    private TransitionCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        loader = new AivaModuleLoader(new AivaScriptParser(Integer.MAX_VALUE, ForkJoinPool.commonPool()),
+                new DefaultResourceLoader(), "classpath:");
+        counters = new TransitionCounters(loader, Duration.ofHours(1), 3);
+        loader.update("brand", SCRIPT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        counters.shutdown();
+    }
+
+    private HeatMap heat(int windows) {
+        return counters.heat("brand", windows).get(0);
+    }
+
+    @Test
+    void countsEntriesAndSwitchBranches() {
+        ModuleCounters brand = counters.module("brand");
+        int welcome = brand.state("WELCOME", "S1");
+        int vip = brand.edge(welcome, "FOLLOW_UP:S1");
+        brand.enter(welcome);
+        brand.transition(vip);
+        brand.enter(welcome);
+        brand.transition(vip);
+
+        HeatMap heat = heat(1);
+        assertEquals(List.of(new StateHeat("WELCOME", "S1", 2), new StateHeat("FOLLOW_UP", "S1", 2)), heat.states());
+        assertEquals(List.of(new EdgeHeat("WELCOME:S1", "FOLLOW_UP:S1", "R1", 2)), heat.edges());
+    }
+
+    @Test
+    void unknownStatesAndEdgesAreIgnored() {
+        ModuleCounters brand = counters.module("brand");
+        assertEquals(-1, brand.state("WELCOME", "S9"));
+        assertEquals(-1, brand.edge(brand.state("WELCOME", "S1"), "NOPE:S1"));
+        brand.enter(-1);
+        brand.transition(-1);
+
+        assertTrue(heat(3).states().isEmpty());
+    }
+
+    @Test
+    void windowsRollOver() {
+        ModuleCounters brand = counters.module("brand");
+        int welcome = brand.state("WELCOME", "S1");
+        brand.enter(welcome);
+        counters.rotate();
+        brand.enter(welcome);
+
+        assertEquals(1, heat(1).states().get(0).entries());
+        assertEquals(2, heat(3).states().get(0).entries());
+
+        counters.rotate();
+        counters.rotate();
+        assertEquals(1, heat(3).states().get(0).entries());
+    }
+
+    @Test
+    void recompilingKeepsCountsOfSurvivingStates() {
+        ModuleCounters brand = counters.module("brand");
+        int s2 = brand.state("FOLLOW_UP", "S2");
+        brand.enter(s2);
+        brand.transition(brand.edge(s2, "WELCOME:S1"));
+
+        loader.update("brand", SCRIPT.replace("\t\tMARK_LEAD_PHASE CONTACTED\n", ""));
+
+        assertNotSame(brand, counters.module("brand"));
+        assertEquals(List.of(new StateHeat("WELCOME", "S1", 1), new StateHeat("FOLLOW_UP", "S2", 1)), heat(3).states());
+        assertEquals(1, heat(3).edges().size());
+    }
+}
@@ -0,0 +1,67 @@
+package com.dsl.service;
+
+import com.dsl.config.NLPConfiguration;
+import com.dsl.controller.NLPResult;
+import com.dsl.controller.NLPService;
+import com.dsl.controller.StanfordNLPService;
+import com.dsl.controller.UserContext;
+import com.dsl.nlp.MessageCorpus;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hybrid analysis of the whole message corpus, in messages per second: one processMessage call per
+ * message against processBatch. Caches are off so every message runs both analyzers.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.service.BatchAnalysisBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class BatchAnalysisBenchmark {
+
+    // MessageCorpus.messages().size(), for per-message throughput
+    private static final int MESSAGES = 59;
+
+    private EnhancedNLPService service;
+    private List<String> messages;
+
+    @Setup
+    public void setUp() {
+        NLPConfiguration configuration = new NLPConfiguration();
+        configuration.setCacheEnabled(false);
+        configuration.setHybridMode(NLPConfiguration.HybridMode.CONCURRENT);
+        StanfordNLPService stanford = new StanfordNLPService(configuration);
+        stanford.initialize();
+        service = new EnhancedNLPService(new NLPService(configuration), stanford, configuration,
+                new IntentModel(configuration));
+        messages = MessageCorpus.messages();
+        if (messages.size() != MESSAGES) throw new IllegalStateException("corpus has " + messages.size() + " messages");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void perMessage(Blackhole blackhole) {
+        for (String message : messages) blackhole.consume(service.processMessage(message, new UserContext()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void batch(Blackhole blackhole) {
+        service.processBatch(messages, blackhole::consume);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BatchAnalysisBenchmark.class.getSimpleName()).build()).run();
+    }
+}
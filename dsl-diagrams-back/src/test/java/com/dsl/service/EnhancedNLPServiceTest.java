@@ -0,0 +1,181 @@
+package com.dsl.service;
+
+import com.dsl.config.NLPConfiguration;
+import com.dsl.controller.NLPResult;
+import com.dsl.controller.NLPService;
+import com.dsl.controller.StanfordNLPResult;
+import com.dsl.controller.StanfordNLPService;
+import com.dsl.controller.UserContext;
+import com.dsl.nlp.MessageCorpus;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EnhancedNLPServiceTest {
+
+    @Test
+    void batchAnswersInOrderLikeSingleMessages() {
+        NLPConfiguration configuration = new NLPConfiguration();
+        NLPService rules = new NLPService(configuration);
+        // never initialized, so both paths fall back to the rules
+        EnhancedNLPService service = new EnhancedNLPService(rules, new StanfordNLPService(configuration), configuration,
+                new IntentModel(configuration));
+
+        // more than one batch chunk
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < 5; i++) messages.addAll(MessageCorpus.messages());
+        List<NLPResult> batch = new ArrayList<>();
+        service.processBatch(messages, batch::add);
+
+        assertEquals(messages.size(), batch.size());
+        for (int i = 0; i < messages.size(); i++) {
+            NLPResult single = rules.processMessage(messages.get(i), new UserContext());
+            assertEquals(single.getIntent(), batch.get(i).getIntent(), messages.get(i));
+            assertEquals(single.getEntities(), batch.get(i).getEntities(), messages.get(i));
+            assertEquals(single.getConfidence(), batch.get(i).getConfidence(), messages.get(i));
+            assertEquals("rule-based", batch.get(i).getProcessingMethod());
+        }
+    }
+
+    @Test
+    void answersFromTheRulesWhileStanfordIsLoading() {
+        NLPConfiguration configuration = new NLPConfiguration();
+        // never loaded
+        StanfordNLPService stanford = new StanfordNLPService(configuration);
+        for (NLPConfiguration.HybridMode mode : NLPConfiguration.HybridMode.values()) {
+            configuration.setHybridMode(mode);
+            EnhancedNLPService service = new EnhancedNLPService(new NLPService(configuration), stanford, configuration,
+                    new IntentModel(configuration));
+            NLPResult result = service.processMessage("I need an oil change tomorrow", new UserContext());
+            assertEquals("rule-based", result.getProcessingMethod(), mode.name());
+        }
+        StanfordNLPService.LoadStatus status = stanford.loadStatus();
+        assertEquals(StanfordNLPService.LoadState.PENDING, status.state());
+        assertEquals(0.0, status.progress());
+    }
+
+    @Test
+    void timesEachStageOfATurn() throws IOException {
+        NLPConfiguration configuration = new NLPConfiguration();
+        EnhancedNLPService service = new EnhancedNLPService(new NLPService(configuration),
+                new StanfordNLPService(configuration), configuration, new IntentModel(configuration));
+        NLPResult result = service.processMessage("I need an oil change tomorrow", new UserContext());
+
+        StringBuilder metrics = new StringBuilder();
+        service.writeStageMetrics(metrics);
+        for (String stage : List.of("preprocessing", "intent_scoring", "entity_extraction", "sentiment",
+                "response_generation", "turn")) {
+            String series = "nlp_stage_seconds_count{stage=\"" + stage + "\",intent=\"" + result.getIntent()
+                    + "\",method=\"rule-based\"} 1";
+            assertTrue(metrics.toString().contains(series), series);
+        }
+    }
+
+    @Test
+    void concurrentModeAnswersLikeSequentialMode() {
+        List<String> messages = MessageCorpus.messages();
+        List<NLPResult> sequential = answers(NLPConfiguration.HybridMode.SEQUENTIAL, messages);
+        List<NLPResult> concurrent = answers(NLPConfiguration.HybridMode.CONCURRENT, messages);
+
+        NLPConfiguration configuration = new NLPConfiguration();
+        configuration.setHybridMode(NLPConfiguration.HybridMode.CONCURRENT);
+        List<NLPResult> batch = new ArrayList<>();
+        new EnhancedNLPService(new NLPService(configuration), stanford(), configuration, new IntentModel(configuration))
+                .processBatch(messages, batch::add);
+
+        for (int i = 0; i < messages.size(); i++) {
+            assertEquals(answer(sequential.get(i)), answer(concurrent.get(i)), messages.get(i));
+            assertEquals(answer(sequential.get(i)), answer(batch.get(i)), messages.get(i));
+            assertEquals(concurrent.get(i).getProcessingMethod(), batch.get(i).getProcessingMethod(), messages.get(i));
+        }
+        // both paths of the concurrent mode are covered
+        assertTrue(concurrent.stream().anyMatch(result -> "rule-based".equals(result.getProcessingMethod())));
+        assertTrue(concurrent.stream().anyMatch(result -> "hybrid".equals(result.getProcessingMethod())));
+    }
+
+    @Test
+    void takesTheFastProfileUnlessTheRulesCouldNotReadTheMessage() {
+        NLPConfiguration configuration = new NLPConfiguration();
+        configuration.setHybridMode(NLPConfiguration.HybridMode.CONCURRENT);
+        StanfordNLPService stanford = stanford();
+        EnhancedNLPService service = new EnhancedNLPService(new NLPService(configuration), stanford, configuration,
+                new IntentModel(configuration));
+        Map<String, Integer> profiles = new TreeMap<>();
+        for (String message : MessageCorpus.messages()) {
+            clearInvocations(stanford);
+            service.processMessage(message, new UserContext());
+            ArgumentCaptor<StanfordNLPService.Profile> profile = ArgumentCaptor.forClass(StanfordNLPService.Profile.class);
+            verify(stanford, atMost(1)).analyzeAsync(eq(message), profile.capture(), any());
+            String taken = profile.getAllValues().isEmpty() ? "rules" : profile.getValue().name();
+            profiles.merge(taken, 1, Integer::sum);
+        }
+        // the full profile for the unknown messages below the threshold that the rules do not hand off
+        assertEquals(Map.of("rules", 44, "FAST", 13, "FULL", 2), profiles);
+    }
+
+    private static List<NLPResult> answers(NLPConfiguration.HybridMode mode, List<String> messages) {
+        NLPConfiguration configuration = new NLPConfiguration();
+        configuration.setHybridMode(mode);
+        EnhancedNLPService service = new EnhancedNLPService(new NLPService(configuration), stanford(), configuration,
+                new IntentModel(configuration));
+        return messages.stream().map(message -> service.processMessage(message, new UserContext())).toList();
+    }
+
+    // What the user is told, less the path taken and the response, which some intents draw at random
+    private static NLPResult answer(NLPResult result) {
+        return new NLPResult(result.getIntent(), result.getEntities(), result.getConfidence(),
+                result.getSentiment(), result.getIntentConfidences(), result.isRequiresHumanHandoff(), null, null,
+                result.getCustomerName(), result.getTimeExpression());
+    }
+
+    /**
+     * A loaded Stanford that disagrees with the rules on the intent, entities, sentiment and
+     * complexity, differently from message to message.
+     */
+    @SuppressWarnings("unchecked")
+    private static StanfordNLPService stanford() {
+        StanfordNLPService stanford = mock(StanfordNLPService.class);
+        when(stanford.isInitialized()).thenReturn(true);
+        when(stanford.analyze(anyString(), any(), any()))
+                .thenAnswer(call -> analysis(call.getArgument(0), call.getArgument(1)));
+        when(stanford.analyzeAsync(anyString(), any(), any()))
+                .thenAnswer(call -> CompletableFuture.completedFuture(analysis(call.getArgument(0), call.getArgument(1))));
+        when(stanford.await(any())).thenAnswer(call -> ((Future<StanfordNLPResult>) call.getArgument(0)).get());
+        when(stanford.analyzeAll(anyList(), any())).thenAnswer(call -> ((List<String>) call.getArgument(0)).stream()
+                .map(message -> analysis(message, call.getArgument(1))).toList());
+        return stanford;
+    }
+
+    private static StanfordNLPResult analysis(String message, StanfordNLPService.Profile profile) {
+        int kind = Math.floorMod(message.hashCode(), 4);
+        StanfordNLPResult result = new StanfordNLPResult();
+        result.setEntities(new HashMap<>(Map.of("organization", "Main Street Motors")));
+        result.setIntent(List.of("QUESTION", "REQUEST", "COMPLAINT", "GREETING").get(kind));
+        result.setIntentConfidence(0.7);
+        result.setIntentConfidences(Map.of(result.getIntent(), 0.7));
+        if (profile == StanfordNLPService.Profile.FULL) {
+            result.setSentiment(kind % 2 == 0 ? "positive" : "negative");
+            result.setSentimentScore(kind == 3 ? -0.9 : 0.3);
+        }
+        result.setComplexityScore(kind * 0.25);
+        result.setOverallConfidence(0.7);
+        return result;
+    }
+}
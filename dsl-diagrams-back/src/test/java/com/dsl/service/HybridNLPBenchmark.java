@@ -0,0 +1,69 @@
+package com.dsl.service;
+
+import com.dsl.config.NLPConfiguration;
+import com.dsl.controller.NLPResult;
+import com.dsl.controller.NLPService;
+import com.dsl.controller.StanfordNLPService;
+import com.dsl.controller.UserContext;
+import com.dsl.nlp.MessageCorpus;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hybrid analysis of the message corpus, per turn: rules then Stanford for every message against
+ * the concurrent mode that drops Stanford when the rules are confident. Caches are off so every turn
+ * runs both analyzers. Sample mode reports the p50 and p99 per mode.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dsl.service.HybridNLPBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class HybridNLPBenchmark {
+
+    @Param({"SEQUENTIAL", "CONCURRENT"})
+    private NLPConfiguration.HybridMode mode;
+
+    private EnhancedNLPService service;
+    private List<String> messages;
+    private final UserContext context = new UserContext();
+
+    @Setup
+    public void setUp() {
+        NLPConfiguration configuration = new NLPConfiguration();
+        configuration.setCacheEnabled(false);
+        configuration.setHybridMode(mode);
+        StanfordNLPService stanford = new StanfordNLPService(configuration);
+        stanford.initialize();
+        service = new EnhancedNLPService(new NLPService(configuration), stanford, configuration,
+                new IntentModel(configuration));
+        messages = MessageCorpus.messages();
+    }
+
+    private int next;
+
+    // one message per call, cycling through the corpus
+    private String message() {
+        String message = messages.get(next);
+        next = (next + 1) % messages.size();
+        return message;
+    }
+
+    @Benchmark
+    public NLPResult turn() {
+        return service.processMessage(message(), context);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HybridNLPBenchmark.class.getSimpleName()).build()).run();
+    }
+}
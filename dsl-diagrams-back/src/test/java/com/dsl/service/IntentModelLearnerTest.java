@@ -0,0 +1,129 @@
+package com.dsl.service;
+
+import com.dsl.config.NLPConfiguration;
+import com.dsl.entity.MessageFeedback;
+import com.dsl.nlp.IntentClassifier;
+import com.dsl.nlp.MessageCorpus;
+import com.dsl.repository.ChatMessageRepository;
+import com.dsl.repository.LabeledMessage;
+import com.dsl.repository.MessageFeedbackRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IntentModelLearnerTest {
+
+    // answered as booking requests before the corrections
+    private static final List<String> PARTS_ORDERS = List.of("do you sell brake pads", "i want to order a side mirror",
+            "can i buy a new wiper blade", "order me a cabin air filter", "do you have spare parts in stock",
+            "i need to purchase a headlight bulb", "can you order an oem bumper", "buy replacement floor mats");
+
+    @TempDir
+    Path directory;
+
+    private final NLPConfiguration configuration = new NLPConfiguration();
+    private final MessageFeedbackRepository feedback = mock(MessageFeedbackRepository.class);
+    private final ChatMessageRepository chatMessages = mock(ChatMessageRepository.class);
+    private IntentModel model;
+    private IntentModelLearner learner;
+    private List<MessageFeedback> corrections;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        List<String[]> labeled = MessageCorpus.labeledMessages();
+        IntentClassifier.train(labeled.stream().map(l -> l[1]).toList(), labeled.stream().map(l -> l[0]).toList(), 20, 42)
+                .save(directory.resolve("intents.bin.gz"));
+        configuration.setIntentEngine(NLPConfiguration.IntentEngine.CLASSIFIER);
+        configuration.getClassifier().setModel(directory.resolve("intents.bin.gz").toString());
+        model = new IntentModel(configuration);
+        learner = new IntentModelLearner(model, feedback, chatMessages, configuration);
+
+        corrections = new ArrayList<>();
+        for (String message : PARTS_ORDERS) {
+            MessageFeedback correction = new MessageFeedback();
+            correction.setId((long) corrections.size() + 1);
+            correction.setMessageId(100L + corrections.size());
+            correction.setMessage(message);
+            correction.setCorrectedIntent("service_inquiry");
+            corrections.add(correction);
+        }
+        when(feedback.findUnlearnedCorrections(any())).thenReturn(corrections, List.of());
+        when(feedback.findCorrections()).thenReturn(List.of());
+        when(chatMessages.findLabeledUserMessages())
+                .thenReturn(labeled.stream().map(l -> new LabeledMessage(l[0], l[1])).toList());
+    }
+
+    private List<Long> learnedIds() {
+        return corrections.stream()
+                .filter(c -> !IntentTrainingJob.isHeldOut(c.getMessage(), configuration.getClassifier().getHoldout()))
+                .map(MessageFeedback::getId).toList();
+    }
+
+    @Test
+    void publishesAModelThatLearnedTheCorrections() throws IOException {
+        IntentClassifier before = model.classifier();
+        assertFalse(learner.learnBatch());
+
+        assertEquals(1, model.version());
+        assertNotSame(before, model.classifier());
+        assertEquals("booking_request", before.predict("can i order a side mirror").intent());
+        assertEquals("service_inquiry", model.classifier().predict("can i order a side mirror").intent());
+        // saved where the next start loads it from
+        assertEquals(model.classifier().intents(), new IntentModel(configuration).classifier().intents());
+
+        IntentModel.Update update = model.updates().get(0);
+        assertTrue(update.published());
+        assertEquals(1, update.version());
+        assertEquals(learnedIds().size(), update.corrections());
+        verify(feedback).markLearned(eq(learnedIds()), eq(1), any());
+    }
+
+    @Test
+    void keepsTheModelWhenTheHoldoutAccuracyDrops() throws IOException {
+        // any update is too much of a drop
+        configuration.getClassifier().setMaxAccuracyDrop(-1);
+        learner = new IntentModelLearner(model, feedback, chatMessages, configuration);
+        IntentClassifier before = model.classifier();
+        learner.learnBatch();
+
+        assertSame(before, model.classifier());
+        assertEquals(0, model.version());
+        assertFalse(model.updates().get(0).published());
+        // consumed all the same, without a version
+        verify(feedback).markLearned(eq(learnedIds()), isNull(), any());
+    }
+
+    @Test
+    void ignoresUnknownIntentsAndMessagesNotFromTheChatHistory() throws IOException {
+        for (MessageFeedback correction : corrections) {
+            if (correction.getId() % 2 == 0) correction.setCorrectedIntent("parts_order");
+            else correction.setMessageId(null);
+        }
+        IntentClassifier before = model.classifier();
+        learner.learnBatch();
+
+        assertSame(before, model.classifier());
+        assertEquals(0, model.version());
+        assertEquals(List.of(), model.updates());
+        // consumed without a version, held out or not
+        verify(feedback).markLearned(eq(corrections.stream().map(MessageFeedback::getId).toList()), isNull(), any());
+    }
+
+    @Test
+    void leavesCorrectionsForTrainingWithoutAModel() {
+        IntentModel none = new IntentModel(new NLPConfiguration());
+        assertNull(none.classifier());
+        new IntentModelLearner(none, feedback, chatMessages, configuration).learnInBackground();
+        verifyNoInteractions(feedback);
+    }
+}
@@ -1,6 +1,6 @@
 // AivaGraph.tsx
 import React, { useState } from "react";
-import { parseScript } from "./http/api";
+import { fetchHeatMap, parseScriptWithLayout } from "./http/api";
 import {
   ReactFlow,
   MiniMap,
@@ -103,7 +103,26 @@ const safeStateKey = (track: RawTrack, state: RawState) => {
   return { trackName, stateName, stateType };
 };
 
-const transformAstToFlow = (tracks: RawTrack[]) => {
+type Point = { x: number; y: number };
+
+// Server-side layout: track positions in the track graph, state positions per track
+type Layout = {
+  tracks?: Record<string, Point>;
+  states?: Record<string, Record<string, Point>>;
+};
+
+// Server-side position of a state: its track's position plus its own within the track
+const statePosition = (
+  layout: Layout | undefined,
+  trackName: string,
+  stateName: string
+): Point | undefined => {
+  const track = layout?.tracks?.[trackName];
+  const state = layout?.states?.[trackName]?.[stateName];
+  return track && state ? { x: track.x + state.x, y: track.y + state.y } : undefined;
+};
+
+const transformAstToFlow = (tracks: RawTrack[], layout?: Layout) => {
   const nodes: Node[] = [];
   const edges: Edge[] = [];
   const nodeMap = new Map<string, Node>();
@@ -154,7 +173,10 @@ const transformAstToFlow = (tracks: RawTrack[]) => {
           </div>
         ),
       },
-      position: { x: ti * trackSpacingX + 100, y: baseY },
+      position: layout?.tracks?.[trackName] ?? {
+        x: ti * trackSpacingX + 100,
+        y: baseY,
+      },
       type: "default",
       style: {
         width: 250,
@@ -196,8 +218,8 @@ const transformAstToFlow = (tracks: RawTrack[]) => {
               </div>
             ),
           },
-          position: {
-            x: ti * trackSpacingX + 380,
+          position: statePosition(layout, trackName, stateName) ?? {
+            x: ti * trackSpacingX + 100 + 280,
             y: baseY + 20,
           },
           type: "default",
@@ -335,7 +357,8 @@ const transformAstToFlow = (tracks: RawTrack[]) => {
   const finalNodes = Array.from(nodeMap.values());
   const switchNode = finalNodes.find((n) => n.id === "decision-switch");
 
-  if (switchNode && switchTargets.length > 0) {
+  // the fan only applies when the server did not lay out the tracks
+  if (switchNode && switchTargets.length > 0 && !layout?.tracks) {
     const switchX = switchNode.position.x ?? 0;
     const switchY = switchNode.position.y ?? 0;
     const radius = 250;
@@ -368,6 +391,63 @@ const transformAstToFlow = (tracks: RawTrack[]) => {
   return { nodes: finalNodes, edges };
 };
 
+// Runtime counts from /api/heatmap: entries per state, jumps per edge
+type HeatMap = {
+  module: string;
+  states: { track: string; state: string; entries: number }[];
+  edges: { from: string; to: string; label: string; count: number }[];
+};
+
+// Tints track nodes by how often their states were entered and thickens edges by the jumps into
+// their target track, relative to the hottest node / edge
+const applyHeat = (nodes: Node[], edges: Edge[], heat: HeatMap[]) => {
+  const entries = new Map<string, number>();
+  const jumps = new Map<string, number>();
+  heat.forEach((module) => {
+    module.states.forEach((s) => {
+      entries.set(s.track, (entries.get(s.track) ?? 0) + s.entries);
+      entries.set(`${s.track}:${s.state}`, (entries.get(`${s.track}:${s.state}`) ?? 0) + s.entries);
+    });
+    module.edges.forEach((e) => {
+      const key = `${e.from.split(":")[0]}>${e.to.split(":")[0]}`;
+      jumps.set(key, (jumps.get(key) ?? 0) + e.count);
+    });
+  });
+  const maxEntries = Math.max(1, ...entries.values());
+  const maxJumps = Math.max(1, ...jumps.values());
+
+  const heatedNodes = nodes.map((n) => {
+    const count = entries.get(n.id);
+    if (!count) return n;
+    const t = count / maxEntries;
+    return {
+      ...n,
+      style: {
+        ...n.style,
+        boxShadow: `0 0 ${8 + 24 * t}px rgba(239, 68, 68, ${0.3 + 0.7 * t})`,
+      },
+    } as Node;
+  });
+
+  // the switch node stands for the parent (first) track
+  const trackOf = (id: string) =>
+    id === "decision-switch"
+      ? nodes.find((n) => n.type === "default")?.id ?? id
+      : id.split(":")[0];
+  const heatedEdges = edges.map((e) => {
+    const count = jumps.get(`${trackOf(e.source)}>${trackOf(e.target)}`);
+    if (!count) return e;
+    const t = count / maxJumps;
+    return {
+      ...e,
+      label: `${e.label ?? ""} (${count})`.trim(),
+      style: { ...e.style, stroke: "#ef4444", strokeWidth: 2 + 6 * t },
+    } as Edge;
+  });
+
+  return { nodes: heatedNodes, edges: heatedEdges };
+};
+
 function AivaGraph() {
   const [script, setScript] = useState(
     `START_TRACK WelcomeTrack
@@ -411,13 +491,17 @@ END_TRACK`
   const [nodes, setNodes, onNodesChange] = useNodesState<Node>([]);
   const [edges, setEdges, onEdgesChange] = useEdgesState<Edge>([]);
   const [error, setError] = useState("");
+  const [heatModule, setHeatModule] = useState("");
 
   const generateGraph = async () => {
     try {
       setError("");
-      const ast = await parseScript(script); // expects TrackNode[]
+      const { tracks: ast, layout } = await parseScriptWithLayout(script);
       console.log("Backend AST:", JSON.stringify(ast, null, 2));
-      const { nodes: newNodes, edges: newEdges } = transformAstToFlow(ast);
+      const { nodes: newNodes, edges: newEdges } = transformAstToFlow(
+        ast,
+        layout
+      );
       console.log(
         "Generated nodes:",
         newNodes.map((n) => ({ id: n.id, type: n.type }))
@@ -439,6 +523,19 @@ END_TRACK`
     }
   };
 
+  const showHeatMap = async () => {
+    try {
+      setError("");
+      const heat: HeatMap[] = await fetchHeatMap(heatModule || undefined);
+      const heated = applyHeat(nodes, edges, heat);
+      setNodes(heated.nodes);
+      setEdges(heated.edges);
+    } catch (err) {
+      console.error(err);
+      setError("Failed to load the heat map.");
+    }
+  };
+
   return (
     <div
       style={{
@@ -461,6 +558,16 @@ END_TRACK`
         <button onClick={generateGraph} style={{ marginTop: 10 }}>
           Generate Graph
         </button>
+        <div style={{ marginTop: 10 }}>
+          <input
+            placeholder="module (all if empty)"
+            value={heatModule}
+            onChange={(e) => setHeatModule(e.target.value)}
+          />
+          <button onClick={showHeatMap} style={{ marginLeft: 6 }}>
+            Heat Map
+          </button>
+        </div>
         {error && <p style={{ color: "tomato" }}>{error}</p>}
       </div>
 
@@ -12,5 +12,39 @@ export async function parseScript(script: string) {
   return res.data;
 }
 
+// Same as parseScript, plus server-side node positions for the diagram
+export async function parseScriptWithLayout(script: string) {
+  const res = await api.post("/api/parse", script, {
+    headers: { "Content-Type": "text/plain" },
+    params: { layout: true },
+  });
+  return res.data;
+}
+
+// Semantic diff: added, removed and changed tracks, states, actions and jumps
+export async function diffScripts(before: string, after: string) {
+  const res = await api.post("/api/diff", { before, after });
+  return res.data;
+}
+
+// Module names are paths (common/common.tpl): encode each segment and keep the '/' between them,
+// since the server rejects an encoded '/'
+function modulePath(name: string) {
+  return name.split("/").map(encodeURIComponent).join("/");
+}
+
+// Diff of an edited module against its saved version, before saving it
+export async function diffModule(name: string, script: string) {
+  const res = await api.post(`/api/diff/modules/${modulePath(name)}`, script, {
+    headers: { "Content-Type": "text/plain" },
+  });
+  return res.data;
+}
+
+// Windowed state entry and jump counts, per module
+export async function fetchHeatMap(module?: string, windows?: number) {
+  const res = await api.get("/api/heatmap", { params: { module, windows } });
+  return res.data;
+}
 
 export default api;
\ No newline at end of file